@@ -30,11 +30,20 @@ function jsonOpts(method, body) {
   };
 }
 
+// ?fields= / ?include= for the plant endpoints, e.g. { fields: "plantId,name", include: "care,location" }
+function projection({ fields, include } = {}) {
+  const params = new URLSearchParams();
+  if (fields) params.set("fields", fields);
+  if (include) params.set("include", include);
+  const qs = params.toString();
+  return qs ? `?${qs}` : "";
+}
+
 // Plants
-export const getAllPlants = () => request("/api/plants");
-export const getPlant = (id) => {
+export const getAllPlants = (opts) => request("/api/plants" + projection(opts));
+export const getPlant = (id, opts) => {
   if (!id && id !== 0) throw new Error("getPlant called with empty id");
-  return request(`/api/plants/${id}`);
+  return request(`/api/plants/${id}` + projection(opts));
 };
 export const createPlant = (plant) => request("/api/plants", jsonOpts("POST", plant));
 export const updatePlant = (id, plant) => {
@@ -4,15 +4,12 @@ import {
   getPlant,
   updatePlant,
   deletePlant,
-  getCare,
   createCare,
   updateCare,
   deleteCare,
-  getInformation,
   createInformation,
   updateInformation,
   deleteInformation,
-  getLocation,
   createLocation,
   updateLocation,
   deleteLocation,
@@ -69,10 +66,14 @@ export default function PlantDetail({
     let cancelled = false;
     async function loadAll() {
       setLoadingPlant(true);
+      // the plant with its care, information and location in one request
+      let p = null;
       try {
-        const p = await getPlant(id);
+        p = await getPlant(id, { include: "care,information,location" });
         if (cancelled) return;
-        setPlant(p);
+        // the included parts go to their own sections below
+        const { care: _care, information: _info, location: _loc, ...plantOnly } = p || {};
+        setPlant(p ? plantOnly : p);
         setPlantForm({
           name: p?.name || "",
           type: p?.type || "",
@@ -95,16 +96,10 @@ export default function PlantDetail({
       setLoc((l) => ({ ...l, loading: true }));
 
       try {
-        const [careRes, infoRes, locRes] = await Promise.allSettled([
-          getCare(id),
-          getInformation(id),
-          getLocation(id),
-        ]);
         if (cancelled) return;
-        const settle = (r) => (r.status === "fulfilled" ? r.value : null);
-        const careVal = settle(careRes);
-        const infoVal = settle(infoRes);
-        const locVal = settle(locRes);
+        const careVal = p?.care ?? null;
+        const infoVal = p?.information ?? null;
+        const locVal = p?.location ?? null;
 
         setCare({
           loading: false,
@@ -193,6 +188,8 @@ export default function PlantDetail({
         height: plantForm.height,
         notes: plantForm.notes,
         locationName: (plantForm.location || "").trim(),
+        // optimistic locking: the server answers 409 if someone saved in between
+        version: plant?.version,
       };
 
       console.log("updatePlant payload:", payload);
@@ -379,7 +376,7 @@ export default function PlantDetail({
     setCare((c) => ({ ...c, saving: true }));
     try {
       let saved;
-      if (care.data) saved = await updateCare(id, care.draft);
+      if (care.data) saved = await updateCare(id, { ...care.draft, version: care.data.version });
       else saved = await createCare(id, care.draft);
       setCare({
         loading: false,
@@ -447,7 +444,7 @@ export default function PlantDetail({
     setInfo((i) => ({ ...i, saving: true }));
     try {
       let saved;
-      if (info.data) saved = await updateInformation(id, info.draft);
+      if (info.data) saved = await updateInformation(id, { ...info.draft, version: info.data.version });
       else saved = await createInformation(id, info.draft);
       setInfo({
         loading: false,
@@ -515,7 +512,7 @@ export default function PlantDetail({
     setLoc((l) => ({ ...l, saving: true }));
     try {
       let saved;
-      if (loc.data) saved = await updateLocation(id, loc.draft);
+      if (loc.data) saved = await updateLocation(id, { ...loc.draft, version: loc.data.version });
       else saved = await createLocation(id, loc.draft);
       setLoc({
         loading: false,
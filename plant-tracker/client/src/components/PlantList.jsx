@@ -1,5 +1,5 @@
 import React, { useEffect, useState, useCallback } from "react";
-import { getAllPlants, getLocation } from "../ApiClient";
+import { getAllPlants } from "../ApiClient";
 import PlantDetail from "./PlantDetail";
 import AddPlantModal from "./AddPlantModal";
 
@@ -25,7 +25,11 @@ export default function PlantList() {
     setLoading(true);
     setErr(null);
     try {
-      const list = await getAllPlants();
+      // only what the cards show; locationName comes from the same query, so a
+      // blank one means the plant has no location (no per-plant lookups needed)
+      const list = await getAllPlants({
+        fields: "plantId,name,type,height,locationName",
+      });
       const arr = Array.isArray(list) ? list.filter(Boolean) : [];
 
       // Normalize plant objects so we always have .location available
@@ -36,35 +40,7 @@ export default function PlantList() {
           p.location ?? p.locationName ?? p.location_name ?? "";
         return { ...p, id, plantId: id, location: locationFromPlant };
       });
-
-      // fetch missing location subresources if needed
-      const toFetch = normalized.filter(
-        (p) => (p.id || p.id === 0) && (!p.location || p.location === ""),
-      );
-
-      if (toFetch.length > 0) {
-        const promises = toFetch.map((t) =>
-          getLocation(t.id)
-            .then((res) => ({ id: t.id, res }))
-            .catch(() => ({ id: t.id, res: null })),
-        );
-        const settled = await Promise.all(promises);
-        const idToLocation = {};
-        settled.forEach((s) => {
-          if (s && s.res && s.res.locationName)
-            idToLocation[s.id] = s.res.locationName;
-        });
-
-        const merged = normalized.map((p) => {
-          if ((!p.location || p.location === "") && idToLocation[p.id]) {
-            return { ...p, location: idToLocation[p.id] };
-          }
-          return p;
-        });
-        setPlants(merged);
-      } else {
-        setPlants(normalized);
-      }
+      setPlants(normalized);
     } catch (e) {
       console.error("refresh plants failed", e);
       setErr(String(e));
@@ -5,19 +5,34 @@
 
 psql -U postgres -c "CREATE DATABASE plantdb;"
 
+-- One row per room; plants reference it (see db_migration_02_location_dimension.sql)
+CREATE TABLE IF NOT EXISTS Location (
+  Location_ID   SERIAL PRIMARY KEY,
+  location_name VARCHAR(100) NOT NULL UNIQUE,
+  LightLevel    VARCHAR(50),
+  version       INT NOT NULL DEFAULT 0,
+  change_seq    BIGINT NOT NULL DEFAULT 0  -- set by track_change(), see below
+);
+
 CREATE TABLE IF NOT EXISTS Plant (
   Plant_ID      SERIAL PRIMARY KEY,
   Name          VARCHAR(100) NOT NULL,
   Type          VARCHAR(100) NOT NULL,
   Height        DECIMAL(6,2),
   DateAcquired  DATE,
-  location_name VARCHAR(100)
+  Location_ID   INT REFERENCES Location(Location_ID) ON DELETE SET NULL,
+  version       INT NOT NULL DEFAULT 0,  -- optimistic locking, bumped on every update
+  change_seq    BIGINT NOT NULL DEFAULT 0
 );
 
+CREATE INDEX IF NOT EXISTS idx_plant_location ON Plant(Location_ID);
+
 CREATE TABLE IF NOT EXISTS Care (
   Plant_ID       INT NOT NULL,
   LastSoilChange DATE,
   LastWatering   DATE,
+  version        INT NOT NULL DEFAULT 0,
+  change_seq     BIGINT NOT NULL DEFAULT 0,
   PRIMARY KEY (Plant_ID),
   CONSTRAINT fk_care_plant
     FOREIGN KEY (Plant_ID)
@@ -32,6 +47,8 @@ CREATE TABLE IF NOT EXISTS Information (
   SoilType            VARCHAR(100),
   PotSize             VARCHAR(50),
   WaterGlobeRequired  BOOLEAN DEFAULT FALSE,
+  version             INT NOT NULL DEFAULT 0,
+  change_seq          BIGINT NOT NULL DEFAULT 0,
   PRIMARY KEY (Plant_ID),
   CONSTRAINT fk_information_plant
     FOREIGN KEY (Plant_ID)
@@ -40,17 +57,178 @@ CREATE TABLE IF NOT EXISTS Information (
     ON UPDATE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS Location (
-  Plant_ID      INT NOT NULL,
-  location_name VARCHAR(100) NOT NULL,
-  LightLevel    VARCHAR(50),
-  PRIMARY KEY (Plant_ID, location_name),
-  CONSTRAINT fk_location_plant
+-- Photo metadata; the files are on the service's disk (see db_migration_04_plant_photos.sql)
+CREATE TABLE IF NOT EXISTS Plant_Photo (
+  Photo_ID    SERIAL PRIMARY KEY,
+  Plant_ID    INT NOT NULL,
+  Sha256      CHAR(64) NOT NULL,
+  ContentType VARCHAR(50) NOT NULL,
+  SizeBytes   BIGINT NOT NULL,
+  Width       INT,
+  Height      INT,
+  UploadedAt  TIMESTAMPTZ NOT NULL DEFAULT now(),
+  CONSTRAINT fk_photo_plant
     FOREIGN KEY (Plant_ID)
     REFERENCES Plant(Plant_ID)
     ON DELETE CASCADE
     ON UPDATE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS idx_photo_plant ON Plant_Photo(Plant_ID);
+CREATE INDEX IF NOT EXISTS idx_photo_sha ON Plant_Photo(Sha256);
+
+-- Measurements over time, partitioned by year (see db_migration_05_measurements.sql)
+CREATE TABLE IF NOT EXISTS Measurement (
+  Plant_ID   INT NOT NULL,
+  Kind       SMALLINT NOT NULL,
+  MeasuredAt TIMESTAMPTZ NOT NULL,
+  Value      REAL NOT NULL,
+  CONSTRAINT fk_measurement_plant
+    FOREIGN KEY (Plant_ID)
+    REFERENCES Plant(Plant_ID)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+) PARTITION BY RANGE (MeasuredAt);
+
+DO $$
+BEGIN
+  FOR y IN 2000..2040 LOOP
+    EXECUTE format('CREATE TABLE IF NOT EXISTS Measurement_%s PARTITION OF Measurement FOR VALUES FROM (%L) TO (%L)',
+                   y, make_date(y, 1, 1), make_date(y + 1, 1, 1));
+  END LOOP;
+END $$;
+CREATE TABLE IF NOT EXISTS Measurement_Other PARTITION OF Measurement DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_measurement_plant ON Measurement(Plant_ID, Kind, MeasuredAt) INCLUDE (Value);
+
+-- hourly min / max / sum / count, maintained by measurement_rollup (below)
+CREATE TABLE IF NOT EXISTS Measurement_Hourly (
+  Plant_ID INT NOT NULL,
+  Kind     SMALLINT NOT NULL,
+  Hour     TIMESTAMPTZ NOT NULL,  -- start of the (UTC) hour
+  MinValue REAL NOT NULL,
+  MaxValue REAL NOT NULL,
+  SumValue DOUBLE PRECISION NOT NULL,
+  Count    INT NOT NULL,
+  PRIMARY KEY (Plant_ID, Kind, Hour),
+  CONSTRAINT fk_measurement_hourly_plant
+    FOREIGN KEY (Plant_ID)
+    REFERENCES Plant(Plant_ID)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+);
+
+-- background jobs (GET /api/jobs/{id}, see db_migration_06_jobs.sql)
+CREATE TABLE IF NOT EXISTS Job (
+  Job_ID          BIGSERIAL PRIMARY KEY,
+  Type            VARCHAR(40) NOT NULL,     -- delete-plants, import-plants, ...
+  State           VARCHAR(12) NOT NULL,     -- queued, running, succeeded, failed, cancelled
+  Params          JSONB,
+  Total           BIGINT NOT NULL DEFAULT 0,
+  Done            BIGINT NOT NULL DEFAULT 0,
+  Message         TEXT,
+  Result          JSONB,
+  CancelRequested BOOLEAN NOT NULL DEFAULT FALSE,
+  CreatedAt       TIMESTAMPTZ NOT NULL DEFAULT now(),
+  StartedAt       TIMESTAMPTZ,
+  FinishedAt      TIMESTAMPTZ,
+  UpdatedAt       TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_job_created ON Job(CreatedAt);
+CREATE INDEX IF NOT EXISTS idx_job_unfinished ON Job(UpdatedAt) WHERE State IN ('queued', 'running');
+
+-- Change tracking for GET /api/changes (see db_migration_03_change_tracking.sql):
+-- change_seq = id of the transaction that last wrote the row; deletes leave tombstones,
+-- purged after a retention period (see db_migration_07_tombstone_retention.sql).
+CREATE TABLE IF NOT EXISTS Change_Tombstone (
+  table_name VARCHAR(20) NOT NULL,
+  row_id     INT NOT NULL,
+  change_seq BIGINT NOT NULL,
+  deleted_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  PRIMARY KEY (table_name, row_id)
+);
+
+CREATE TABLE IF NOT EXISTS Change_Purge (
+  id         INT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+  purged_seq BIGINT NOT NULL
+);
+INSERT INTO Change_Purge (id, purged_seq) VALUES (1, 0) ON CONFLICT DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_tombstone_change ON Change_Tombstone(change_seq);
+CREATE INDEX IF NOT EXISTS idx_tombstone_deleted ON Change_Tombstone(deleted_at);
+CREATE INDEX IF NOT EXISTS idx_location_change ON Location(change_seq);
+CREATE INDEX IF NOT EXISTS idx_plant_change ON Plant(change_seq);
+CREATE INDEX IF NOT EXISTS idx_care_change ON Care(change_seq);
+CREATE INDEX IF NOT EXISTS idx_information_change ON Information(change_seq);
+
+CREATE OR REPLACE FUNCTION track_change() RETURNS trigger AS $$
+BEGIN
+  NEW.change_seq := pg_current_xact_id()::text::bigint;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION track_delete() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO Change_Tombstone (table_name, row_id, change_seq)
+  VALUES (TG_TABLE_NAME, (to_jsonb(OLD) ->> TG_ARGV[0])::int, pg_current_xact_id()::text::bigint)
+  ON CONFLICT (table_name, row_id) DO UPDATE SET change_seq = EXCLUDED.change_seq, deleted_at = now();
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER location_track_change BEFORE INSERT OR UPDATE ON Location
+  FOR EACH ROW EXECUTE FUNCTION track_change();
+CREATE OR REPLACE TRIGGER plant_track_change BEFORE INSERT OR UPDATE ON Plant
+  FOR EACH ROW EXECUTE FUNCTION track_change();
+CREATE OR REPLACE TRIGGER care_track_change BEFORE INSERT OR UPDATE ON Care
+  FOR EACH ROW EXECUTE FUNCTION track_change();
+CREATE OR REPLACE TRIGGER information_track_change BEFORE INSERT OR UPDATE ON Information
+  FOR EACH ROW EXECUTE FUNCTION track_change();
+
+-- once per INSERT statement: fold the new rows into their hours (in key order, so
+-- concurrent batches lock shared hours in the same order)
+CREATE OR REPLACE FUNCTION rollup_measurements() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO Measurement_Hourly AS h (Plant_ID, Kind, Hour, MinValue, MaxValue, SumValue, Count)
+  SELECT Plant_ID, Kind, to_timestamp(floor(date_part('epoch', MeasuredAt) / 3600) * 3600) AS hr,
+         min(Value), max(Value), sum(Value), count(*)
+  FROM new_rows
+  GROUP BY Plant_ID, Kind, hr
+  ORDER BY Plant_ID, Kind, hr
+  ON CONFLICT (Plant_ID, Kind, Hour) DO UPDATE
+    SET MinValue = least(h.MinValue, EXCLUDED.MinValue),
+        MaxValue = greatest(h.MaxValue, EXCLUDED.MaxValue),
+        SumValue = h.SumValue + EXCLUDED.SumValue,
+        Count = h.Count + EXCLUDED.Count;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER measurement_rollup AFTER INSERT ON Measurement
+  REFERENCING NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION rollup_measurements();
+
+-- every new or changed Plant.Height is also appended to Measurement (kind 1 = height)
+CREATE OR REPLACE FUNCTION record_height() RETURNS trigger AS $$
+BEGIN
+  IF NEW.Height IS NOT NULL AND (TG_OP = 'INSERT' OR NEW.Height IS DISTINCT FROM OLD.Height) THEN
+    INSERT INTO Measurement (Plant_ID, Kind, MeasuredAt, Value) VALUES (NEW.Plant_ID, 1, now(), NEW.Height);
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER plant_record_height AFTER INSERT OR UPDATE OF Height ON Plant
+  FOR EACH ROW EXECUTE FUNCTION record_height();
+
+CREATE OR REPLACE TRIGGER plant_track_delete AFTER DELETE ON Plant
+  FOR EACH ROW EXECUTE FUNCTION track_delete('plant_id');
+CREATE OR REPLACE TRIGGER care_track_delete AFTER DELETE ON Care
+  FOR EACH ROW EXECUTE FUNCTION track_delete('plant_id');
+CREATE OR REPLACE TRIGGER information_track_delete AFTER DELETE ON Information
+  FOR EACH ROW EXECUTE FUNCTION track_delete('plant_id');
+
 --ensure the sequence is set to MAX(plant_id) (should be automatic, but safe)
 SELECT setval(pg_get_serial_sequence('plant','plant_id'), (SELECT COALESCE(MAX(plant_id),0) FROM plant));
\ No newline at end of file
@@ -2,10 +2,25 @@
 \c plantdb
 
 -- 1) Wipe existing data and reset sequences (will remove rows from Plant and all FK children)
-TRUNCATE TABLE plant RESTART IDENTITY CASCADE;
+TRUNCATE TABLE plant, location, change_tombstone RESTART IDENTITY CASCADE;
 
--- 2) Re-insert plants WITHOUT explicit Plant_IDs (Postgres will assign ids 1..50)
-INSERT INTO plant (name, type, height, dateacquired, location_name) VALUES
+-- 2) Insert one Location row per room (plants reference them by Location_ID)
+INSERT INTO location (location_name, lightlevel) VALUES
+('Living Room', 'Bright'),
+('Kitchen', 'Medium'),
+('Bathroom', 'Low'),
+('Bedroom', 'Low'),
+('Window Sill', 'Bright'),
+('Office', 'Medium'),
+('Hallway', 'Low'),
+('Desk', 'Low'),
+('Dining Room', 'Medium');
+
+-- 3) Re-insert plants WITHOUT explicit Plant_IDs (Postgres will assign ids 1..50)
+INSERT INTO plant (name, type, height, dateacquired, location_id)
+SELECT v.name, v.type, v.height, v.dateacquired::date,
+       (SELECT l.location_id FROM location l WHERE l.location_name = v.location_name)
+FROM (VALUES
 ('Oliver', 'Snake Plant', 45.0, '2023-01-10', 'Living Room'),
 ('Luna', 'Pothos', 30.5, '2023-01-15', 'Kitchen'),
 ('Charlie', 'Spider Plant', 28.0, '2023-02-01', 'Bathroom'),
@@ -55,9 +70,10 @@ INSERT INTO plant (name, type, height, dateacquired, location_name) VALUES
 ('Finn2', 'Peperomia', 26.0, '2023-10-01', 'Desk'),
 ('Ginger', 'Calathea', 52.0, '2023-10-05', 'Bedroom'),
 ('Poppy', 'Succulent', 15.0, '2023-10-10', 'Desk'),
-('Maple', 'Monstera', 108.0, '2023-10-15', 'Living Room');
+('Maple', 'Monstera', 108.0, '2023-10-15', 'Living Room')
+) AS v(name, type, height, dateacquired, location_name);
 
--- 3) Insert Care rows referencing plant IDs 1..50 (these IDs will match because we reset the sequence)
+-- 4) Insert Care rows referencing plant IDs 1..50 (these IDs will match because we reset the sequence)
 INSERT INTO care (plant_id, lastsoilchange, lastwatering) VALUES
 (1, '2023-09-01','2026-01-21'),
 (2, '2023-09-02','2026-01-21'),
@@ -110,7 +126,7 @@ INSERT INTO care (plant_id, lastsoilchange, lastwatering) VALUES
 (49, '2023-10-19','2026-01-21'),
 (50, '2023-10-20','2026-01-21');
 
--- 4) Insert Information rows
+-- 5) Insert Information rows
 INSERT INTO information (plant_id, fromanotherplant, soiltype, potsize, watergloberequired) VALUES
 (1, FALSE, 'All-purpose potting soil', '8 inch', FALSE),
 (2, FALSE, 'All-purpose potting soil', '6 inch', FALSE),
@@ -162,56 +178,3 @@ INSERT INTO information (plant_id, fromanotherplant, soiltype, potsize, waterglo
 (48, FALSE,'Moisture-retentive mix', '8 inch', TRUE),
 (49, TRUE, 'Succulent mix', '3 inch', FALSE),
 (50, FALSE,'Aroid mix', '12 inch', TRUE);
-
--- 5) Insert Location rows
-INSERT INTO location (plant_id, location_name, lightlevel) VALUES
-(1, 'Living Room', 'Bright'),
-(2, 'Kitchen', 'Medium'),
-(3, 'Bathroom', 'Low'),
-(4, 'Bedroom', 'Low'),
-(5, 'Window Sill', 'Bright'),
-(6, 'Living Room', 'Bright'),
-(7, 'Office', 'Medium'),
-(8, 'Hallway', 'Low'),
-(9, 'Living Room', 'Bright'),
-(10, 'Kitchen', 'Medium'),
-(11, 'Window Sill', 'Bright'),
-(12, 'Bathroom', 'Low'),
-(13, 'Desk', 'Low'),
-(14, 'Bedroom', 'Low'),
-(15, 'Living Room', 'Bright'),
-(16, 'Dining Room', 'Medium'),
-(17, 'Office', 'Medium'),
-(18, 'Hallway', 'Low'),
-(19, 'Living Room', 'Bright'),
-(20, 'Kitchen', 'Medium'),
-(21, 'Living Room', 'Bright'),
-(22, 'Bedroom', 'Low'),
-(23, 'Hallway', 'Low'),
-(24, 'Window Sill', 'Bright'),
-(25, 'Office', 'Medium'),
-(26, 'Bedroom', 'Low'),
-(27, 'Living Room', 'Bright'),
-(28, 'Dining Room', 'Medium'),
-(29, 'Office', 'Medium'),
-(30, 'Desk', 'Low'),
-(31, 'Living Room', 'Bright'),
-(32, 'Bathroom', 'Low'),
-(33, 'Bathroom', 'Low'),
-(34, 'Bedroom', 'Low'),
-(35, 'Kitchen', 'Medium'),
-(36, 'Desk', 'Low'),
-(37, 'Living Room', 'Bright'),
-(38, 'Hallway', 'Low'),
-(39, 'Office', 'Medium'),
-(40, 'Bedroom', 'Low'),
-(41, 'Window Sill', 'Bright'),
-(42, 'Desk', 'Low'),
-(43, 'Living Room', 'Bright'),
-(44, 'Dining Room', 'Medium'),
-(45, 'Kitchen', 'Medium'),
-(46, 'Office', 'Medium'),
-(47, 'Desk', 'Low'),
-(48, 'Bedroom', 'Low'),
-(49, 'Desk', 'Low'),
-(50, 'Living Room', 'Bright');
@@ -0,0 +1,10 @@
+-- Migration 01: row versions for optimistic locking (PostgreSQL)
+--
+-- Every update increments version; PUTs that send the version they read only
+-- succeed if the row still has it (otherwise the API returns 409 Conflict).
+-- Safe to run more than once. Fresh databases get these columns from db_creation.sql.
+
+ALTER TABLE Plant       ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
+ALTER TABLE Care        ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
+ALTER TABLE Information ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
+ALTER TABLE Location    ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,49 @@
+-- Migration 02: Location becomes a dimension table (PostgreSQL)
+--
+-- Before: the location name was stored on every Plant row (location_name) and again
+-- in a per-plant Location row, and both copies had to be kept in sync.
+-- After:  one Location row per room (Location_ID, unique location_name, LightLevel)
+--         and Plant.Location_ID referencing it. Renaming a room updates one row.
+--
+-- Rooms are collected from both old copies. If plants in the same room had
+-- different light levels, the highest (alphabetically) is kept.
+-- Run once, after migration 01. Fresh databases get this layout from db_creation.sql.
+
+BEGIN;
+
+ALTER TABLE Location RENAME TO Location_Old;
+ALTER INDEX location_pkey RENAME TO location_old_pkey;
+
+CREATE TABLE Location (
+  Location_ID   SERIAL PRIMARY KEY,
+  location_name VARCHAR(100) NOT NULL UNIQUE,
+  LightLevel    VARCHAR(50),
+  version       INT NOT NULL DEFAULT 0
+);
+
+INSERT INTO Location (location_name, LightLevel)
+SELECT name, MAX(light)
+FROM (
+  SELECT TRIM(location_name) AS name, NULL::VARCHAR AS light FROM Plant
+  UNION ALL
+  SELECT TRIM(location_name), LightLevel FROM Location_Old
+) rooms
+WHERE name <> ''
+GROUP BY name;
+
+ALTER TABLE Plant ADD COLUMN Location_ID INT
+  REFERENCES Location(Location_ID) ON DELETE SET NULL;
+
+-- the plant's own column wins; fall back to its old Location row
+UPDATE Plant p SET Location_ID = l.Location_ID
+FROM Location l
+WHERE l.location_name = COALESCE(
+  NULLIF(TRIM(p.location_name), ''),
+  (SELECT MIN(NULLIF(TRIM(o.location_name), '')) FROM Location_Old o WHERE o.Plant_ID = p.Plant_ID));
+
+CREATE INDEX idx_plant_location ON Plant(Location_ID);
+
+ALTER TABLE Plant DROP COLUMN location_name;
+DROP TABLE Location_Old;
+
+COMMIT;
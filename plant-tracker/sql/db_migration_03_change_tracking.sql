@@ -0,0 +1,69 @@
+-- Migration 03: change tracking for GET /api/changes (PostgreSQL 13+)
+--
+-- Every Plant, Care, Information and Location row gets change_seq: the 64-bit id of
+-- the transaction that last inserted or updated it (set by trigger, so every writer
+-- is covered). Deleted Plant / Care / Information rows leave a tombstone in
+-- Change_Tombstone. A client's cursor is the oldest transaction still running when
+-- it last read, so rows committed late by a long transaction are never skipped;
+-- rows can be sent twice, never missed.
+--
+-- A Location row is a room; renaming one changes every plant in it, which the
+-- change feed picks up through Plant.Location_ID. Clearing a plant's room is an
+-- update of the plant, so rooms need no tombstones.
+-- Run once, after migration 02. Fresh databases get this from db_creation.sql.
+
+BEGIN;
+
+CREATE OR REPLACE FUNCTION track_change() RETURNS trigger AS $$
+BEGIN
+  NEW.change_seq := pg_current_xact_id()::text::bigint;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- TG_ARGV[0] = the row's key column
+CREATE OR REPLACE FUNCTION track_delete() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO Change_Tombstone (table_name, row_id, change_seq)
+  VALUES (TG_TABLE_NAME, (to_jsonb(OLD) ->> TG_ARGV[0])::int, pg_current_xact_id()::text::bigint)
+  ON CONFLICT (table_name, row_id) DO UPDATE SET change_seq = EXCLUDED.change_seq;
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TABLE Change_Tombstone (
+  table_name VARCHAR(20) NOT NULL,  -- plant, care, information
+  row_id     INT NOT NULL,          -- Plant_ID
+  change_seq BIGINT NOT NULL,
+  PRIMARY KEY (table_name, row_id)
+);
+CREATE INDEX idx_tombstone_change ON Change_Tombstone(change_seq);
+
+-- existing rows count as changed by this migration
+ALTER TABLE Location ADD COLUMN change_seq BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+ALTER TABLE Plant ADD COLUMN change_seq BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+ALTER TABLE Care ADD COLUMN change_seq BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+ALTER TABLE Information ADD COLUMN change_seq BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+
+CREATE INDEX idx_location_change ON Location(change_seq);
+CREATE INDEX idx_plant_change ON Plant(change_seq);
+CREATE INDEX idx_care_change ON Care(change_seq);
+CREATE INDEX idx_information_change ON Information(change_seq);
+
+CREATE TRIGGER location_track_change BEFORE INSERT OR UPDATE ON Location
+  FOR EACH ROW EXECUTE FUNCTION track_change();
+CREATE TRIGGER plant_track_change BEFORE INSERT OR UPDATE ON Plant
+  FOR EACH ROW EXECUTE FUNCTION track_change();
+CREATE TRIGGER care_track_change BEFORE INSERT OR UPDATE ON Care
+  FOR EACH ROW EXECUTE FUNCTION track_change();
+CREATE TRIGGER information_track_change BEFORE INSERT OR UPDATE ON Information
+  FOR EACH ROW EXECUTE FUNCTION track_change();
+
+CREATE TRIGGER plant_track_delete AFTER DELETE ON Plant
+  FOR EACH ROW EXECUTE FUNCTION track_delete('plant_id');
+CREATE TRIGGER care_track_delete AFTER DELETE ON Care
+  FOR EACH ROW EXECUTE FUNCTION track_delete('plant_id');
+CREATE TRIGGER information_track_delete AFTER DELETE ON Information
+  FOR EACH ROW EXECUTE FUNCTION track_delete('plant_id');
+
+COMMIT;
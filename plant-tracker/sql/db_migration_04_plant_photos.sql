@@ -0,0 +1,29 @@
+-- Migration 04: plant photos (PostgreSQL)
+--
+-- Only metadata is stored here. The image files are on the service's local disk
+-- (planttracker.photos.dir), named after the SHA-256 of their content, so photos
+-- with the same bytes share one file.
+-- Run once, after migration 03. Fresh databases get this from db_creation.sql.
+
+BEGIN;
+
+CREATE TABLE Plant_Photo (
+  Photo_ID    SERIAL PRIMARY KEY,
+  Plant_ID    INT NOT NULL,
+  Sha256      CHAR(64) NOT NULL,      -- file name in the photo store
+  ContentType VARCHAR(50) NOT NULL,   -- image/jpeg, image/png, image/gif
+  SizeBytes   BIGINT NOT NULL,
+  Width       INT,
+  Height      INT,
+  UploadedAt  TIMESTAMPTZ NOT NULL DEFAULT now(),
+  CONSTRAINT fk_photo_plant
+    FOREIGN KEY (Plant_ID)
+    REFERENCES Plant(Plant_ID)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+);
+
+CREATE INDEX idx_photo_plant ON Plant_Photo(Plant_ID);
+CREATE INDEX idx_photo_sha ON Plant_Photo(Sha256);
+
+COMMIT;
@@ -0,0 +1,99 @@
+-- Migration 05: plant measurements over time (PostgreSQL 13+)
+--
+-- Plant.Height only holds the current value; every change is now also appended to
+-- Measurement (by trigger, so every writer is covered), along with other readings
+-- (soil moisture, temperature, ... see MeasurementKind).
+--
+-- Measurement is range-partitioned by year: a chart over some months only reads
+-- those years' partitions, and old years can be detached or dropped whole. Rows
+-- are narrow (INT, SMALLINT, TIMESTAMPTZ, REAL) and the index carries Value, so
+-- downsampling queries are index-only scans. Years 2000-2040 get partitions here;
+-- anything outside lands in Measurement_Other.
+--
+-- Measurement_Hourly keeps min / max / sum / count per plant, kind and hour,
+-- folded in by a statement-level trigger (one upsert per INSERT, not per row).
+-- Charts with buckets of whole hours read it instead of the raw rows: three years
+-- are ~26k rows per plant and kind, whatever the reading rate.
+-- Run once, after migration 04. Fresh databases get this from db_creation.sql.
+
+BEGIN;
+
+CREATE TABLE Measurement (
+  Plant_ID   INT NOT NULL,
+  Kind       SMALLINT NOT NULL,     -- MeasurementKind code: 1 = height, 2 = soil moisture, ...
+  MeasuredAt TIMESTAMPTZ NOT NULL,
+  Value      REAL NOT NULL,
+  CONSTRAINT fk_measurement_plant
+    FOREIGN KEY (Plant_ID)
+    REFERENCES Plant(Plant_ID)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+) PARTITION BY RANGE (MeasuredAt);
+
+DO $$
+BEGIN
+  FOR y IN 2000..2040 LOOP
+    EXECUTE format('CREATE TABLE Measurement_%s PARTITION OF Measurement FOR VALUES FROM (%L) TO (%L)',
+                   y, make_date(y, 1, 1), make_date(y + 1, 1, 1));
+  END LOOP;
+END $$;
+CREATE TABLE Measurement_Other PARTITION OF Measurement DEFAULT;
+
+CREATE INDEX idx_measurement_plant ON Measurement(Plant_ID, Kind, MeasuredAt) INCLUDE (Value);
+
+CREATE TABLE Measurement_Hourly (
+  Plant_ID INT NOT NULL,
+  Kind     SMALLINT NOT NULL,
+  Hour     TIMESTAMPTZ NOT NULL,  -- start of the (UTC) hour
+  MinValue REAL NOT NULL,
+  MaxValue REAL NOT NULL,
+  SumValue DOUBLE PRECISION NOT NULL,
+  Count    INT NOT NULL,
+  PRIMARY KEY (Plant_ID, Kind, Hour),
+  CONSTRAINT fk_measurement_hourly_plant
+    FOREIGN KEY (Plant_ID)
+    REFERENCES Plant(Plant_ID)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+);
+
+-- once per INSERT statement: fold the new rows into their hours (in key order, so
+-- concurrent batches lock shared hours in the same order)
+CREATE OR REPLACE FUNCTION rollup_measurements() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO Measurement_Hourly AS h (Plant_ID, Kind, Hour, MinValue, MaxValue, SumValue, Count)
+  SELECT Plant_ID, Kind, to_timestamp(floor(date_part('epoch', MeasuredAt) / 3600) * 3600) AS hr,
+         min(Value), max(Value), sum(Value), count(*)
+  FROM new_rows
+  GROUP BY Plant_ID, Kind, hr
+  ORDER BY Plant_ID, Kind, hr
+  ON CONFLICT (Plant_ID, Kind, Hour) DO UPDATE
+    SET MinValue = least(h.MinValue, EXCLUDED.MinValue),
+        MaxValue = greatest(h.MaxValue, EXCLUDED.MaxValue),
+        SumValue = h.SumValue + EXCLUDED.SumValue,
+        Count = h.Count + EXCLUDED.Count;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER measurement_rollup AFTER INSERT ON Measurement
+  REFERENCING NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION rollup_measurements();
+
+CREATE OR REPLACE FUNCTION record_height() RETURNS trigger AS $$
+BEGIN
+  IF NEW.Height IS NOT NULL AND (TG_OP = 'INSERT' OR NEW.Height IS DISTINCT FROM OLD.Height) THEN
+    INSERT INTO Measurement (Plant_ID, Kind, MeasuredAt, Value) VALUES (NEW.Plant_ID, 1, now(), NEW.Height);
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER plant_record_height AFTER INSERT OR UPDATE OF Height ON Plant
+  FOR EACH ROW EXECUTE FUNCTION record_height();
+
+-- history starts with today's heights
+INSERT INTO Measurement (Plant_ID, Kind, MeasuredAt, Value)
+SELECT Plant_ID, 1, now(), Height FROM Plant WHERE Height IS NOT NULL;
+
+COMMIT;
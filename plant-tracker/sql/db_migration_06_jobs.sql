@@ -0,0 +1,32 @@
+-- Migration 06: background jobs (PostgreSQL)
+--
+-- Long-running bulk operations (deletes, imports, exports, statistics rebuilds)
+-- run on the service's job workers instead of the request thread; this table
+-- holds their state and progress for GET /api/jobs/{id}. A worker updates
+-- UpdatedAt at least every 30 seconds while the job is queued or running; jobs
+-- whose UpdatedAt is older than that (the service was stopped) are marked failed.
+-- Run once, after migration 05. Fresh databases get this from db_creation.sql.
+
+BEGIN;
+
+CREATE TABLE Job (
+  Job_ID          BIGSERIAL PRIMARY KEY,
+  Type            VARCHAR(40) NOT NULL,     -- delete-plants, import-plants, ...
+  State           VARCHAR(12) NOT NULL,     -- queued, running, succeeded, failed, cancelled
+  Params          JSONB,
+  Total           BIGINT NOT NULL DEFAULT 0,
+  Done            BIGINT NOT NULL DEFAULT 0,
+  Message         TEXT,
+  Result          JSONB,
+  CancelRequested BOOLEAN NOT NULL DEFAULT FALSE,
+  CreatedAt       TIMESTAMPTZ NOT NULL DEFAULT now(),
+  StartedAt       TIMESTAMPTZ,
+  FinishedAt      TIMESTAMPTZ,
+  UpdatedAt       TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_job_created ON Job(CreatedAt);
+-- queued / running jobs, for the stale-job check
+CREATE INDEX idx_job_unfinished ON Job(UpdatedAt) WHERE State IN ('queued', 'running');
+
+COMMIT;
@@ -0,0 +1,31 @@
+-- Migration 07: change-feed tombstone retention (PostgreSQL 13+)
+--
+-- Change_Tombstone rows were kept forever. They now record when the row was
+-- deleted, and the service's housekeeping deletes those older than
+-- planttracker.changes.tombstone-retention-days. Change_Purge keeps the newest
+-- change_seq purged so far: a client whose cursor is not newer than that may have
+-- missed a delete and gets a full change set instead.
+-- Run once, after migration 06. Fresh databases get this from db_creation.sql.
+
+BEGIN;
+
+ALTER TABLE Change_Tombstone ADD COLUMN deleted_at TIMESTAMPTZ NOT NULL DEFAULT now();
+CREATE INDEX idx_tombstone_deleted ON Change_Tombstone(deleted_at);
+
+CREATE TABLE Change_Purge (
+  id         INT PRIMARY KEY DEFAULT 1 CHECK (id = 1),  -- a single row
+  purged_seq BIGINT NOT NULL
+);
+INSERT INTO Change_Purge (id, purged_seq) VALUES (1, 0);
+
+-- a row deleted again (same key) restarts its retention
+CREATE OR REPLACE FUNCTION track_delete() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO Change_Tombstone (table_name, row_id, change_seq)
+  VALUES (TG_TABLE_NAME, (to_jsonb(OLD) ->> TG_ARGV[0])::int, pg_current_xact_id()::text::bigint)
+  ON CONFLICT (table_name, row_id) DO UPDATE SET change_seq = EXCLUDED.change_seq, deleted_at = now();
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;
@@ -0,0 +1,113 @@
+package com.planttracker;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancellation of one unit of work (an HTTP request, a gRPC call). While it is
+ * the thread's current one (see use()), statements executed through DbUtil
+ * connections register with it. cancel() stops the statements that are running
+ * (Statement.cancel, i.e. a cancel request to PostgreSQL), and later statements
+ * and getConnection calls of the unit fail right away. Either way the caller gets
+ * a QueryCancelledException.
+ *
+ * cancel() may be called from any thread. The cancel requests are sent from a
+ * background thread, so a caller on an I/O thread is never blocked by them.
+ */
+public final class DbCancellation implements AutoCloseable {
+
+    private static final ThreadLocal<DbCancellation> CURRENT = new ThreadLocal<>();
+    private static final ScheduledThreadPoolExecutor CANCELLER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "db-cancel");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        CANCELLER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+    private volatile String reason; // set once cancelled
+    private ScheduledFuture<?> deadline;
+
+    /** Make c this thread's current unit of work (null = none); returns the previous one. */
+    public static DbCancellation use(DbCancellation c) {
+        DbCancellation previous = CURRENT.get();
+        if (c == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(c);
+        }
+        return previous;
+    }
+
+    static DbCancellation current() {
+        return CURRENT.get();
+    }
+
+    /** Cancel after millis unless closed before (0 or less = never). */
+    public synchronized DbCancellation cancelAfter(long millis) {
+        if (millis > 0) {
+            deadline = CANCELLER.schedule(() -> cancel("ran longer than " + millis + " ms"), millis, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    public void cancel(String why) {
+        if (reason != null) {
+            return;
+        }
+        reason = why;
+        CANCELLER.execute(() -> {
+            for (Statement st : running) {
+                try {
+                    st.cancel();
+                } catch (SQLException ignored) {
+                    // finished (or its connection failed) meanwhile
+                }
+            }
+        });
+    }
+
+    public boolean isCancelled() {
+        return reason != null;
+    }
+
+    /** The unit's work is done; stops the deadline timer. */
+    @Override
+    public synchronized void close() {
+        if (deadline != null) {
+            deadline.cancel(false);
+        }
+    }
+
+    /** QueryCancelledException when the thread's current unit was cancelled. */
+    static void check() throws QueryCancelledException {
+        DbCancellation c = CURRENT.get();
+        if (c != null && c.reason != null) {
+            throw c.cancelled(null);
+        }
+    }
+
+    QueryCancelledException cancelled(Throwable cause) {
+        return new QueryCancelledException("Cancelled: " + reason, cause);
+    }
+
+    void register(Statement st) throws QueryCancelledException {
+        running.add(st);
+        if (reason != null) {
+            running.remove(st);
+            throw cancelled(null);
+        }
+    }
+
+    void unregister(Statement st) {
+        running.remove(st);
+    }
+}
@@ -0,0 +1,135 @@
+package com.planttracker;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker around DbUtil.getConnection, so a database that is down or
+ * timing out makes callers fail at once instead of each one waiting for its own
+ * connect or statement timeout.
+ *
+ *   CLOSED     normal. failureThreshold failures in a row (connection errors,
+ *              statement timeouts) open it.
+ *   OPEN       getConnection throws DbCircuitOpenException (503) for openSeconds.
+ *   HALF_OPEN  then one caller per openSeconds gets through as a probe. Its first
+ *              statement succeeding closes the circuit. A failure opens it again.
+ *
+ * Other SQL errors (constraint violations, syntax, cancellations) mean the
+ * database answered, so they count as successes.
+ *
+ * Every connection and statement passes through here, so the closed, healthy
+ * case takes no lock: state and consecutiveFailures are volatile, and the lock is
+ * only taken to change them.
+ *
+ * Active once install()ed (the service does it at startup, see DbLimitConfig).
+ */
+public final class DbCircuitBreaker implements AutoCloseable {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static volatile DbCircuitBreaker installed;
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    // written under the lock, read without it on the fast paths
+    private volatile State state = State.CLOSED;
+    private volatile int consecutiveFailures;
+    private long openUntil;
+    private long nextProbe;
+    private long opened;
+    private long rejected;
+    private String lastFailure;
+
+    public DbCircuitBreaker(int failureThreshold, long openSeconds) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.SECONDS.toNanos(Math.max(1, openSeconds));
+    }
+
+    public static void install(DbCircuitBreaker breaker) {
+        installed = breaker;
+    }
+
+    static DbCircuitBreaker installed() {
+        return installed;
+    }
+
+    @Override
+    public void close() {
+        if (installed == this) {
+            installed = null;
+        }
+    }
+
+    /** Whether a failure with this exception says the database is unwell. */
+    static boolean isDatabaseFailure(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("08") || state.equals("57014") || state.equals("57P01")
+                || state.equals("57P03") || state.equals("53300"));
+    }
+
+    /** Throws DbCircuitOpenException unless a connection may be opened now. */
+    void allow() throws DbCircuitOpenException {
+        if (state == State.CLOSED) {
+            return;
+        }
+        allowSlow();
+    }
+
+    private synchronized void allowSlow() throws DbCircuitOpenException {
+        long now = System.nanoTime();
+        if (state == State.OPEN && now - openUntil >= 0) {
+            state = State.HALF_OPEN;
+            nextProbe = now;
+        }
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (state == State.HALF_OPEN && now - nextProbe >= 0) {
+            nextProbe = now + openNanos; // the next probe if this one never reports back
+            return;
+        }
+        rejected++;
+        long waitNanos = Math.max(openUntil, nextProbe) - now;
+        throw new DbCircuitOpenException(lastFailure,
+                (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+    }
+
+    void onSuccess() {
+        if (state == State.CLOSED && consecutiveFailures == 0) {
+            return; // nothing to change
+        }
+        onSuccessSlow();
+    }
+
+    private synchronized void onSuccessSlow() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+        }
+    }
+
+    synchronized void onFailure(SQLException e) {
+        lastFailure = e.getSQLState() + ": " + e.getMessage();
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openUntil = System.nanoTime() + openNanos;
+            opened++;
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("state", state.name());
+        m.put("consecutiveFailures", consecutiveFailures);
+        m.put("failureThreshold", failureThreshold);
+        m.put("openSeconds", TimeUnit.NANOSECONDS.toSeconds(openNanos));
+        m.put("opened", opened);
+        m.put("rejected", rejected);
+        m.put("lastFailure", lastFailure);
+        return m;
+    }
+}
@@ -0,0 +1,13 @@
+package com.planttracker;
+
+/**
+ * getConnection refused because the DbCircuitBreaker is open: the database failed
+ * repeatedly just before. Answered like an overload (503 with Retry-After).
+ */
+public class DbCircuitOpenException extends DbOverloadedException {
+
+    public DbCircuitOpenException(String lastFailure, int retryAfterSeconds) {
+        super("Database unavailable (circuit open)" + (lastFailure == null ? "" : ", last failure " + lastFailure),
+                retryAfterSeconds);
+    }
+}
@@ -0,0 +1,287 @@
+package com.planttracker;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Adaptive concurrency limit on database connections, one bulkhead per kind of
+ * work (reads, writes, bulk jobs), so a slow database makes callers fail fast
+ * instead of piling threads up in DbUtil.getConnection.
+ *
+ * Each bulkhead allows up to limit connections at once. The limit moves with the
+ * time a connection is held (open to close, i.e. the DAO call or transaction):
+ *   - held longer than the bulkhead's latency target, or the connection failed:
+ *     limit * 0.9, at most once per latency target, down to 1. A target of 0 only
+ *     reacts to failures (bulk jobs hold connections for long by design)
+ *   - otherwise, while at least half the limit is in use: limit + 1 / limit,
+ *     i.e. about +1 per limit calls, up to the bulkhead's max (AIMD)
+ * A call that finds no free permit waits up to the bulkhead's max wait (0 = none)
+ * and then gets a DbOverloadedException (the API answers 503 with Retry-After).
+ *
+ * The kind comes from the thread: the HTTP filter sets READ or WRITE per request,
+ * background workers run as BULK (see as()). Threads without a kind (startup,
+ * console apps) are not limited. Connections opened while the thread already
+ * holds one share its permit, so nested DAO calls can't deadlock on it.
+ *
+ * Active once install()ed (the service does it at startup, see DbLimitConfig).
+ */
+public final class DbLimiter implements AutoCloseable {
+
+    public enum Kind { READ, WRITE, BULK }
+
+    /** Settings of one bulkhead; latencyTargetMillis 0 = don't lower the limit for slow calls. */
+    public static final class Settings {
+        final int max;
+        final long maxWaitNanos;
+        final long targetNanos;
+
+        public Settings(int max, long maxWaitMillis, long latencyTargetMillis) {
+            this.max = Math.max(1, max);
+            this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+            this.targetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, latencyTargetMillis));
+        }
+    }
+
+    private static final double BACKOFF = 0.9;
+    // spacing of decreases after failures when a bulkhead has no latency target
+    private static final long FAILURE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static volatile DbLimiter installed;
+    private static final ThreadLocal<Kind> KIND = new ThreadLocal<>();
+    // the permit this thread holds, shared by all connections it has open
+    private static final ThreadLocal<Permit> HELD = new ThreadLocal<>();
+
+    private final Map<Kind, Bulkhead> bulkheads = new EnumMap<>(Kind.class);
+    private final int retryAfterSeconds;
+
+    public DbLimiter(Map<Kind, Settings> settings, int retryAfterSeconds) {
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+        for (Kind k : Kind.values()) {
+            bulkheads.put(k, new Bulkhead(k, settings.getOrDefault(k, new Settings(8, 0, 250))));
+        }
+    }
+
+    public static void install(DbLimiter limiter) {
+        installed = limiter;
+    }
+
+    static DbLimiter installed() {
+        return installed;
+    }
+
+    @Override
+    public void close() {
+        if (installed == this) {
+            installed = null;
+        }
+    }
+
+    /** Set this thread's kind of work (null = not limited); returns the previous one. */
+    public static Kind use(Kind kind) {
+        Kind previous = KIND.get();
+        if (kind == null) {
+            KIND.remove();
+        } else {
+            KIND.set(kind);
+        }
+        return previous;
+    }
+
+    /** This thread's kind of work, null when not set. */
+    public static Kind currentKind() {
+        return KIND.get();
+    }
+
+    /** r running as kind, e.g. for the threads of a background executor. */
+    public static Runnable as(Kind kind, Runnable r) {
+        return () -> {
+            Kind previous = use(kind);
+            try {
+                r.run();
+            } finally {
+                use(previous);
+            }
+        };
+    }
+
+    /** Per bulkhead: limit, in use, max and counters. */
+    public Map<String, Object> getStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("retryAfterSeconds", retryAfterSeconds);
+        for (Bulkhead b : bulkheads.values()) {
+            m.put(b.kind.name().toLowerCase(), b.stats());
+        }
+        return m;
+    }
+
+    /**
+     * c counted against this thread's bulkhead, opened by open; c as is when the
+     * thread has no kind. DbOverloadedException when no permit came free in time.
+     */
+    Connection limit(Opener open) throws SQLException {
+        Kind kind = KIND.get();
+        if (kind == null) {
+            return open.open();
+        }
+        Permit p = HELD.get();
+        if (p == null || !p.join()) {
+            p = bulkheads.get(kind).acquire();
+            p.join();
+            HELD.set(p);
+        }
+        Connection c;
+        try {
+            c = open.open();
+        } catch (SQLException | RuntimeException e) {
+            p.release(true);
+            throw e;
+        }
+        return wrap(c, p);
+    }
+
+    @FunctionalInterface
+    interface Opener {
+        Connection open() throws SQLException;
+    }
+
+    // close() of the returned connection gives the permit back (once)
+    private static Connection wrap(Connection c, Permit p) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        try {
+                            return invoke(c, method, args);
+                        } finally {
+                            if (closed.compareAndSet(false, true)) {
+                                p.release(false);
+                            }
+                        }
+                    }
+                    return invoke(c, method, args);
+                });
+    }
+
+    private static Object invoke(Connection c, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(c, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class Permit {
+        final Bulkhead bulkhead;
+        final Thread owner = Thread.currentThread();
+        final long start = System.nanoTime();
+        int users; // connections open on it
+        boolean failed;
+        boolean released;
+
+        Permit(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        // false once given back (its last connection was closed on another thread)
+        synchronized boolean join() {
+            if (released) {
+                return false;
+            }
+            users++;
+            return true;
+        }
+
+        synchronized void release(boolean failure) {
+            failed |= failure;
+            if (--users > 0) {
+                return;
+            }
+            released = true;
+            if (Thread.currentThread() == owner) {
+                HELD.remove();
+            }
+            bulkhead.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private final class Bulkhead {
+        final Kind kind;
+        final Settings settings;
+        final long decreaseWindow;
+        double limit;
+        int inUse;
+        long lastDecrease;
+        long acquired;
+        long rejected;
+        long slow;
+        long heldNanos;
+
+        Bulkhead(Kind kind, Settings settings) {
+            this.kind = kind;
+            this.settings = settings;
+            this.limit = settings.max;
+            this.decreaseWindow = settings.targetNanos > 0 ? settings.targetNanos : FAILURE_WINDOW_NANOS;
+            this.lastDecrease = System.nanoTime() - decreaseWindow;
+        }
+
+        synchronized Permit acquire() throws DbOverloadedException {
+            long deadline = System.nanoTime() + settings.maxWaitNanos;
+            while (inUse >= (int) limit) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    rejected++;
+                    throw new DbOverloadedException(kind, (int) limit, retryAfterSeconds);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejected++;
+                    throw new DbOverloadedException(kind, (int) limit, retryAfterSeconds);
+                }
+            }
+            inUse++;
+            acquired++;
+            return new Permit(this);
+        }
+
+        synchronized void release(long nanos, boolean failed) {
+            inUse--;
+            heldNanos += nanos;
+            long now = System.nanoTime();
+            if (failed || (settings.targetNanos > 0 && nanos > settings.targetNanos)) {
+                slow++;
+                // one slow period lowers the limit once, not once per call that sat in it
+                if (now - lastDecrease >= decreaseWindow) {
+                    limit = Math.max(1, limit * BACKOFF);
+                    lastDecrease = now;
+                }
+            } else if (inUse + 1 >= limit / 2) {
+                limit = Math.min(settings.max, limit + 1 / limit);
+            }
+            notifyAll();
+        }
+
+        synchronized Map<String, Object> stats() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("limit", (int) limit);
+            m.put("max", settings.max);
+            m.put("inUse", inUse);
+            m.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(settings.maxWaitNanos));
+            m.put("latencyTargetMs", TimeUnit.NANOSECONDS.toMillis(settings.targetNanos));
+            m.put("acquired", acquired);
+            m.put("rejected", rejected);
+            m.put("slow", slow);
+            m.put("avgHeldMs", acquired - inUse == 0 ? 0.0 : Math.round(heldNanos / 1e4 / (acquired - inUse)) / 100.0);
+            return m;
+        }
+    }
+}
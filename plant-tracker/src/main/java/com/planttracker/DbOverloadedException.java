@@ -0,0 +1,36 @@
+package com.planttracker;
+
+import java.sql.SQLException;
+
+/**
+ * No database permit was free for the calling bulkhead (see DbLimiter): the
+ * call was refused before it could queue up behind a slow database. Clients
+ * should retry after getRetryAfterSeconds. SQL state 08004 (connection
+ * rejected), so callers treating 08 states as "try later" already do the right thing.
+ */
+public class DbOverloadedException extends SQLException {
+
+    private final DbLimiter.Kind kind;
+    private final int retryAfterSeconds;
+
+    public DbOverloadedException(DbLimiter.Kind kind, int limit, int retryAfterSeconds) {
+        super("Database busy: " + kind.name().toLowerCase() + " limit of " + limit + " reached", "08004");
+        this.kind = kind;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    protected DbOverloadedException(String message, int retryAfterSeconds) {
+        super(message, "08004");
+        this.kind = null;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /** The full bulkhead; null when refused for another reason (see DbCircuitOpenException). */
+    public DbLimiter.Kind getKind() {
+        return kind;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,63 @@
+package com.planttracker;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Time limits for database work, so a hung or overloaded database can't hold a
+ * thread forever:
+ *   - statement timeout by kind of work (DbLimiter.Kind of the thread; threads
+ *     without one use the default), set on every statement DbUtil hands out unless
+ *     the DAO set its own. PostgreSQL cancels the statement when it expires.
+ *   - connect timeout and socket timeout of the JDBC driver: the socket timeout
+ *     ends reads from a connection that stopped answering altogether, when not even
+ *     a cancel gets through. Settings in PLANTDB_URL take precedence.
+ * 0 = no limit.
+ *
+ * Active once install()ed (the service does it at startup, see DbLimitConfig).
+ */
+public final class DbTimeouts {
+
+    private static volatile DbTimeouts installed;
+
+    private final Map<DbLimiter.Kind, Integer> statementSeconds = new EnumMap<>(DbLimiter.Kind.class);
+    private final int defaultSeconds;
+    private final int connectSeconds;
+    private final int socketSeconds;
+
+    public DbTimeouts(int readSeconds, int writeSeconds, int bulkSeconds, int defaultSeconds,
+                      int connectSeconds, int socketSeconds) {
+        statementSeconds.put(DbLimiter.Kind.READ, Math.max(0, readSeconds));
+        statementSeconds.put(DbLimiter.Kind.WRITE, Math.max(0, writeSeconds));
+        statementSeconds.put(DbLimiter.Kind.BULK, Math.max(0, bulkSeconds));
+        this.defaultSeconds = Math.max(0, defaultSeconds);
+        this.connectSeconds = Math.max(0, connectSeconds);
+        this.socketSeconds = Math.max(0, socketSeconds);
+    }
+
+    public static void install(DbTimeouts timeouts) {
+        installed = timeouts;
+    }
+
+    static DbTimeouts installed() {
+        return installed;
+    }
+
+    /** Statement timeout for work of this thread. */
+    int statementSeconds() {
+        DbLimiter.Kind kind = DbLimiter.currentKind();
+        return kind == null ? defaultSeconds : statementSeconds.get(kind);
+    }
+
+    /** Driver properties for DriverManager.getConnection. */
+    Properties connectionProperties(String user, String password) {
+        Properties p = new Properties();
+        p.setProperty("user", user);
+        p.setProperty("password", password);
+        p.setProperty("connectTimeout", String.valueOf(connectSeconds));
+        p.setProperty("loginTimeout", String.valueOf(connectSeconds));
+        p.setProperty("socketTimeout", String.valueOf(socketSeconds));
+        return p;
+    }
+}
@@ -1,21 +1,148 @@
 package com.planttracker;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DbUtil {
 
+    // Connection of the transaction running on this thread (see inTransaction)
+    private static final ThreadLocal<Connection> TRANSACTION = new ThreadLocal<>();
+
+    /** Unit of work for inTransaction. */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws SQLException;
+    }
+
     // No-arg getConnection uses DbConfig so callers (DAOs) don't need DB details
     public static Connection getConnection() throws SQLException {
+        Connection tx = TRANSACTION.get();
+        if (tx != null) {
+            return nonClosing(tx);
+        }
+        DbCancellation.check();
+        DbCircuitBreaker breaker = DbCircuitBreaker.installed();
+        if (breaker != null) {
+            breaker.allow();
+        }
+        DbLimiter limiter = DbLimiter.installed();
+        if (limiter != null) {
+            // a permit of the thread's bulkhead first; the connection's close() gives it back
+            return limiter.limit(DbUtil::openConnection);
+        }
+        return openConnection();
+    }
+
+    private static Connection openConnection() throws SQLException {
+        DbTimeouts timeouts = DbTimeouts.installed();
+        DbCircuitBreaker breaker = DbCircuitBreaker.installed();
+        Connection c = timedConnection(timeouts);
+        if (timeouts == null && breaker == null && DbCancellation.current() == null) {
+            return c;
+        }
+        // statement timeout, cancellation and circuit breaker (see GuardedConnection)
+        return GuardedConnection.wrap(c, timeouts != null ? timeouts.statementSeconds() : 0, breaker);
+    }
+
+    private static Connection timedConnection(DbTimeouts timeouts) throws SQLException {
+        SqlStats stats = SqlStats.current();
+        SlowQueryLog slow = SlowQueryLog.installed();
+        if (stats == null && slow == null) {
+            return connect(timeouts);
+        }
+        // timed for the current request (SqlStats) and / or the slow-query log
+        long start = System.nanoTime();
+        Connection c = connect(timeouts);
+        if (stats != null) {
+            stats.connectionOpened(System.nanoTime() - start);
+        }
+        return TimedConnection.wrap(c, stats, slow);
+    }
+
+    private static Connection connect(DbTimeouts timeouts) throws SQLException {
         String url = DbConfig.getJdbcUrl();
         String user = DbConfig.getUser();
         String pass = DbConfig.getPassword();
-        return DriverManager.getConnection(url, user, pass);
+        try {
+            return timeouts == null ? DriverManager.getConnection(url, user, pass)
+                    : DriverManager.getConnection(url, timeouts.connectionProperties(user, pass));
+        } catch (SQLException e) {
+            DbCircuitBreaker breaker = DbCircuitBreaker.installed();
+            if (breaker != null && DbCircuitBreaker.isDatabaseFailure(e)) {
+                breaker.onFailure(e);
+            }
+            throw e;
+        }
     }
 
     // Keep legacy signature for backward compatibility if any code still uses it
     public static Connection getConnection(String url, String user, String pass) throws SQLException {
         return DriverManager.getConnection(url, user, pass);
     }
-}
\ No newline at end of file
+
+    /**
+     * Run work as one transaction. DAO calls made by work on this thread get the
+     * same connection from getConnection() (their close() is a no-op), so they all
+     * commit together when work returns, or roll back if it throws. A nested call
+     * joins the outer transaction.
+     */
+    public static <T> T inTransaction(Work<T> work) throws SQLException {
+        return inTransaction(null, work);
+    }
+
+    /**
+     * inTransaction with the given isolation level (Connection.TRANSACTION_*), e.g.
+     * REPEATABLE_READ for several reads that must see one snapshot. A nested call
+     * joins the outer transaction at its level.
+     */
+    public static <T> T inTransaction(int isolation, Work<T> work) throws SQLException {
+        return inTransaction(Integer.valueOf(isolation), work);
+    }
+
+    // isolation null = the server default (no extra round trip)
+    private static <T> T inTransaction(Integer isolation, Work<T> work) throws SQLException {
+        if (TRANSACTION.get() != null) {
+            return work.run();
+        }
+        try (Connection c = getConnection()) {
+            c.setAutoCommit(false);
+            if (isolation != null) {
+                c.setTransactionIsolation(isolation);
+            }
+            TRANSACTION.set(c);
+            try {
+                T result = work.run();
+                c.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    c.rollback();
+                } catch (SQLException re) {
+                    e.addSuppressed(re);
+                }
+                throw e;
+            } finally {
+                TRANSACTION.remove();
+            }
+        }
+    }
+
+    // the transaction's connection with close() disabled; inTransaction closes it
+    private static Connection nonClosing(Connection c) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(c, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,78 @@
+package com.planttracker;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Connection wrapper that puts the statement timeout (DbTimeouts) on new
+ * statements, lets the thread's DbCancellation stop them, and reports each
+ * execute's outcome to the DbCircuitBreaker. DbUtil only uses it while one of
+ * them is active.
+ */
+final class GuardedConnection {
+
+    private GuardedConnection() { }
+
+    /** c with the guards; timeoutSeconds 0 = none, breaker may be null. */
+    static Connection wrap(Connection c, int timeoutSeconds, DbCircuitBreaker breaker) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = TimedConnection.invoke(c, method, args);
+                    if (!(result instanceof Statement)) {
+                        return result;
+                    }
+                    Statement st = (Statement) result;
+                    if (timeoutSeconds > 0) {
+                        st.setQueryTimeout(timeoutSeconds); // a DAO setting its own afterwards wins
+                    }
+                    Class<?> type = st instanceof CallableStatement ? CallableStatement.class
+                            : st instanceof PreparedStatement ? PreparedStatement.class
+                            : Statement.class;
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { type },
+                            (p, m, a) -> m.getName().startsWith("execute")
+                                    ? execute(st, m, a, breaker)
+                                    : TimedConnection.invoke(st, m, a));
+                });
+    }
+
+    private static Object execute(Statement st, Method method, Object[] args, DbCircuitBreaker breaker)
+            throws Throwable {
+        DbCancellation cancellation = DbCancellation.current();
+        if (cancellation != null) {
+            cancellation.register(st);
+        }
+        try {
+            Object result = TimedConnection.invoke(st, method, args);
+            if (breaker != null) {
+                breaker.onSuccess();
+            }
+            return result;
+        } catch (SQLException e) {
+            boolean cancelled = "57014".equals(e.getSQLState());
+            if (cancelled && cancellation != null && cancellation.isCancelled()) {
+                throw cancellation.cancelled(e); // asked for: says nothing about the database
+            }
+            if (breaker != null) {
+                if (DbCircuitBreaker.isDatabaseFailure(e)) {
+                    breaker.onFailure(e);
+                } else {
+                    breaker.onSuccess();
+                }
+            }
+            if (cancelled) {
+                throw new QueryCancelledException("Statement timeout (" + st.getQueryTimeout() + " s) exceeded", e);
+            }
+            throw e;
+        } finally {
+            if (cancellation != null) {
+                cancellation.unregister(st);
+            }
+        }
+    }
+}
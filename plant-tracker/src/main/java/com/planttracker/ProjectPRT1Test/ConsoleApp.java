@@ -4,6 +4,7 @@ import com.planttracker.dao.CareDao;
 import com.planttracker.dao.InformationDao;
 import com.planttracker.dao.LocationDao;
 import com.planttracker.dao.PlantDao;
+import com.planttracker.data.DataProvider;
 import com.planttracker.model.Care;
 import com.planttracker.model.Information;
 import com.planttracker.model.Location;
@@ -26,12 +27,13 @@ public class ConsoleApp {
     private final LocationDao locationDao;
     private final Scanner scanner = new Scanner(System.in);
 
-    // Use no-arg DAOs (they read DbConfig/Env via DbUtil.getConnection())
+    // DAOs read DbConfig/Env via DbUtil.getConnection(); PLANTTRACKER_STORE=memory runs without a database
     public ConsoleApp() {
-        this.plantDao = new PlantDao();
-        this.careDao = new CareDao();
-        this.informationDao = new InformationDao();
-        this.locationDao = new LocationDao();
+        DataProvider data = DataProvider.forStore(System.getenv("PLANTTRACKER_STORE"));
+        this.plantDao = data.getPlantDao();
+        this.careDao = data.getCareDao();
+        this.informationDao = data.getInformationDao();
+        this.locationDao = data.getLocationDao();
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package com.planttracker;
+
+import java.sql.SQLException;
+
+/**
+ * A statement was stopped before it finished: it ran past its statement timeout
+ * (see DbTimeouts), or the unit of work it belonged to was cancelled (see
+ * DbCancellation). SQL state 57014 (query_canceled), as PostgreSQL reports it.
+ */
+public class QueryCancelledException extends SQLException {
+
+    public QueryCancelledException(String message, Throwable cause) {
+        super(message, "57014", cause);
+    }
+}
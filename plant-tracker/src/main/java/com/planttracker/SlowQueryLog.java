@@ -0,0 +1,276 @@
+package com.planttracker;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Statements (from any DAO) that took at least the threshold, with their SQL,
+ * parameters, time and the DAO method that ran them, kept in a ring buffer of the
+ * last N. For each one a plan is captured afterwards on a separate connection and
+ * background thread, so the slow request doesn't wait for it: EXPLAIN (ANALYZE,
+ * BUFFERS) for reads, which runs the query again, and a plain EXPLAIN (estimates
+ * only) for anything that writes (INSERT/UPDATE/DELETE, also inside WITH, and
+ * SELECT ... FOR UPDATE), so a write is never executed twice. The EXPLAIN runs in
+ * a transaction that is always rolled back.
+ *
+ * Active once install()ed (the service does it at startup, see SlowQueryConfig);
+ * DbUtil.getConnection() then times every statement (see TimedConnection).
+ */
+public final class SlowQueryLog implements AutoCloseable {
+
+    private static volatile SlowQueryLog installed;
+    private static final Pattern DML = Pattern.compile("\\b(INSERT|UPDATE|DELETE|MERGE|SHARE)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    /** A setXxx(index, value, ...) call on a PreparedStatement, replayed for EXPLAIN. */
+    static final class Binding {
+        final Method method;
+        final Object[] args;
+
+        Binding(Method method, Object[] args) {
+            this.method = method;
+            this.args = args.clone();
+        }
+
+        String display() {
+            Object v = args[1];
+            if (method.getName().equals("setNull") || v == null) {
+                return "NULL";
+            }
+            String s = String.valueOf(v);
+            return s.length() > 200 ? s.substring(0, 200) + "..." : s;
+        }
+    }
+
+    /** One recorded statement. */
+    public static final class Entry {
+        private final long id;
+        private final Instant at;
+        private final double millis;
+        private final String sql;
+        private final List<String> params;
+        private final boolean batch;
+        private final String source;
+        private volatile String plan;  // null until the EXPLAIN finished
+        private volatile String planError;
+
+        Entry(long id, double millis, String sql, List<String> params, boolean batch, String source) {
+            this.id = id;
+            this.at = Instant.now();
+            this.millis = millis;
+            this.sql = sql;
+            this.params = params;
+            this.batch = batch;
+            this.source = source;
+        }
+
+        public long getId() { return id; }
+        public Instant getAt() { return at; }
+        public double getMillis() { return millis; }
+        public String getSql() { return sql; }
+        public List<String> getParams() { return params; }
+        public boolean isBatch() { return batch; } // executeBatch: params are the last row's
+        public String getSource() { return source; }
+        public String getPlan() { return plan; }
+        public String getPlanError() { return planError; }
+    }
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final int explainTimeoutMillis;
+    private final Entry[] ring;
+    private long next;  // guarded by this; ring slot = next % ring.length
+    private final AtomicLong explainsSkipped = new AtomicLong();
+    private final ThreadPoolExecutor explainer;
+
+    /**
+     * @param thresholdMillis statements taking at least this long are recorded
+     * @param capacity        how many of the latest are kept
+     * @param explain         capture EXPLAIN (ANALYZE, BUFFERS) plans
+     * @param explainTimeoutMillis statement_timeout / lock_timeout for the EXPLAIN
+     */
+    public SlowQueryLog(long thresholdMillis, int capacity, boolean explain, int explainTimeoutMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explain = explain;
+        this.explainTimeoutMillis = explainTimeoutMillis;
+        this.ring = new Entry[capacity];
+        // one thread, small queue: under a flood of slow statements plans are skipped
+        // rather than piling up work (and connections) on a database that is already slow
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), r -> {
+            Thread t = new Thread(r, "slow-query-explain");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Record slow statements from now on (null = stop). */
+    public static void install(SlowQueryLog log) {
+        installed = log;
+    }
+
+    static SlowQueryLog installed() {
+        return installed;
+    }
+
+    long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    void record(String sql, Map<Integer, Binding> bindings, long nanos, boolean batch) {
+        List<String> params = new ArrayList<>();
+        if (bindings != null) {
+            for (Binding b : bindings.values()) {
+                params.add(b.display());
+            }
+        }
+        Entry e;
+        synchronized (this) {
+            e = new Entry(next + 1, nanos / 1e6, sql, Collections.unmodifiableList(params), batch, source());
+            ring[(int) (next % ring.length)] = e;
+            next++;
+        }
+        if (!explain) {
+            return;
+        }
+        if (!explainable(sql)) {
+            e.planError = "not explainable";
+            return;
+        }
+        List<Binding> replay = bindings != null ? new ArrayList<>(bindings.values()) : List.of();
+        try {
+            explainer.execute(() -> explain(e, replay));
+        } catch (RejectedExecutionException busy) {
+            explainsSkipped.incrementAndGet();
+            e.planError = "skipped (EXPLAIN queue full)";
+        }
+    }
+
+    /** The recorded statements, newest first. */
+    public synchronized List<Entry> entries() {
+        List<Entry> out = new ArrayList<>();
+        for (long i = next - 1; i >= 0 && i >= next - ring.length; i--) {
+            out.add(ring[(int) (i % ring.length)]);
+        }
+        return out;
+    }
+
+    /** How many statements were recorded since start (the ring keeps the latest). */
+    public synchronized long recorded() {
+        return next;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(ring, null);
+        next = 0;
+    }
+
+    /** False when the service runs with the log turned off (threshold-ms below 0). */
+    public boolean isInstalled() {
+        return installed == this;
+    }
+
+    public double getThresholdMillis() {
+        return thresholdNanos / 1e6;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public long getExplainsSkipped() {
+        return explainsSkipped.get();
+    }
+
+    @Override
+    public void close() {
+        if (installed == this) {
+            installed = null;
+        }
+        explainer.shutdownNow();
+    }
+
+    private void explain(Entry e, List<Binding> bindings) {
+        // a plain connection: not timed, so the EXPLAIN itself is never logged as slow
+        try (Connection c = DbUtil.getConnection(DbConfig.getJdbcUrl(), DbConfig.getUser(), DbConfig.getPassword())) {
+            c.setAutoCommit(false);
+            try {
+                try (Statement st = c.createStatement()) {
+                    // the statement may wait on row locks the original transaction still holds
+                    st.execute("SET LOCAL statement_timeout = " + explainTimeoutMillis);
+                    st.execute("SET LOCAL lock_timeout = " + explainTimeoutMillis);
+                }
+                String explain = writes(e.sql) ? "EXPLAIN " : "EXPLAIN (ANALYZE, BUFFERS) ";
+                try (PreparedStatement ps = c.prepareStatement(explain + e.sql)) {
+                    for (Binding b : bindings) {
+                        b.method.invoke(ps, b.args);
+                    }
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            plan.append(rs.getString(1)).append('\n');
+                        }
+                    }
+                    e.plan = plan.toString();
+                }
+            } finally {
+                c.rollback();
+            }
+        } catch (SQLException ex) {
+            e.planError = ex.getMessage();
+        } catch (ReflectiveOperationException ex) {
+            e.planError = "could not bind parameters: " + ex;
+        }
+    }
+
+    private static boolean explainable(String sql) {
+        String s = sql.stripLeading();
+        int end = 0;
+        while (end < s.length() && Character.isLetter(s.charAt(end))) {
+            end++;
+        }
+        switch (s.substring(0, end).toUpperCase(Locale.ROOT)) {
+            case "SELECT": case "WITH": case "INSERT": case "UPDATE": case "DELETE": case "VALUES":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // whether running the statement could write or lock rows: a DML keyword anywhere
+    // (data-modifying CTEs, FOR UPDATE / FOR SHARE). A false positive only costs the actual timings
+    private static boolean writes(String sql) {
+        return DML.matcher(sql).find();
+    }
+
+    // the DAO method that ran the statement, e.g. "JdbcPlantDao.getAllPlants"
+    private static String source() {
+        Optional<String> dao = StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("com.planttracker.dao.Jdbc")
+                        || f.getClassName().startsWith("com.planttracker.edge."))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1)
+                        + "." + f.getMethodName()));
+        return dao.orElse(null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.planttracker;
+
+/**
+ * SQL accounting for one unit of work on one thread (an HTTP request, see
+ * SqlTimingFilter): connections opened and time spent opening them, statements
+ * executed and time spent executing them (plus commits / rollbacks).
+ *
+ * Between begin() and end(), DbUtil.getConnection() hands out connections whose
+ * statements report here (see TimedConnection). Outside that (console apps,
+ * background threads) nothing is counted. Time spent reading a ResultSet after
+ * execute is not counted; the driver has normally received the whole result by then.
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private int connections;
+    private long connectNanos;
+    private int statements;
+    private long statementNanos;
+
+    /** Start counting for this thread. */
+    public static SqlStats begin() {
+        SqlStats s = new SqlStats();
+        CURRENT.set(s);
+        return s;
+    }
+
+    /** Stop counting for this thread. */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public int getConnections() { return connections; }
+    public double getConnectMillis() { return connectNanos / 1e6; }
+    public int getStatements() { return statements; }
+    public double getStatementMillis() { return statementNanos / 1e6; }
+
+    void connectionOpened(long nanos) {
+        connections++;
+        connectNanos += nanos;
+    }
+
+    void statementExecuted(long nanos) {
+        statements++;
+        statementNanos += nanos;
+    }
+
+    // commit / rollback: DB time, but not a statement
+    void transactionEnded(long nanos) {
+        statementNanos += nanos;
+    }
+}
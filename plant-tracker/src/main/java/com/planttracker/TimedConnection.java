@@ -0,0 +1,105 @@
+package com.planttracker;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Connection wrapper that times statement executes (and commit / rollback) for
+ * SqlStats and SlowQueryLog. DbUtil only uses it while one of them is active.
+ */
+final class TimedConnection {
+
+    private TimedConnection() { }
+
+    /** c with its statements reported to stats and / or slow (either may be null). */
+    static Connection wrap(Connection c, SqlStats stats, SlowQueryLog slow) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("commit") || name.equals("rollback")) {
+                        long start = System.nanoTime();
+                        try {
+                            return invoke(c, method, args);
+                        } finally {
+                            if (stats != null) {
+                                stats.transactionEnded(System.nanoTime() - start);
+                            }
+                        }
+                    }
+                    Object result = invoke(c, method, args);
+                    if (!(result instanceof Statement)) {
+                        return result;
+                    }
+                    // prepareStatement / prepareCall get the SQL up front, createStatement at execute
+                    String sql = name.startsWith("prepare") ? (String) args[0] : null;
+                    Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                            : result instanceof PreparedStatement ? PreparedStatement.class
+                            : Statement.class;
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { type },
+                            new Timed((Statement) result, sql, stats, slow));
+                });
+    }
+
+    private static final class Timed implements java.lang.reflect.InvocationHandler {
+        private final Statement st;
+        private final String sql;
+        private final SqlStats stats;
+        private final SlowQueryLog slow;
+        // parameter index -> the setXxx call that bound it (only kept for the slow-query log)
+        private final Map<Integer, SlowQueryLog.Binding> params;
+
+        Timed(Statement st, String sql, SqlStats stats, SlowQueryLog slow) {
+            this.st = st;
+            this.sql = sql;
+            this.stats = stats;
+            this.slow = slow;
+            this.params = slow != null && sql != null ? new TreeMap<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (params != null) {
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        params.put((Integer) args[0], new SlowQueryLog.Binding(method, args));
+                    } else if (name.equals("clearParameters")) {
+                        params.clear();
+                    }
+                }
+                return TimedConnection.invoke(st, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return TimedConnection.invoke(st, method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (stats != null) {
+                    stats.statementExecuted(nanos);
+                }
+                if (slow != null && nanos >= slow.getThresholdNanos()) {
+                    String text = sql != null ? sql : args != null && args.length > 0 ? (String) args[0] : null;
+                    if (text != null) {
+                        slow.record(text, params, nanos, name.equals("executeBatch"));
+                    }
+                }
+            }
+        }
+    }
+
+    static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
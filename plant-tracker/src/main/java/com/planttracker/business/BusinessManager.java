@@ -1,10 +1,18 @@
 package com.planttracker.business;
 
 import com.planttracker.dao.*;
+import com.planttracker.data.DataProvider;
 import com.planttracker.model.*;
 
 import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BusinessManager {
 
@@ -12,12 +20,39 @@ public class BusinessManager {
     private final CareDao careDao;
     private final InformationDao informationDao;
     private final LocationDao locationDao;
+    private final DataProvider data;
+
+    // Concurrent identical reads share one DAO call (see SingleFlight); only reads
+    // started at the same data version join, and each caller gets its own copy
+    private final SingleFlight<Integer, Plant> plantReads = new SingleFlight<>(this::getDataVersion, Plant::copy);
+    private final SingleFlight<Boolean, List<Plant>> plantListReads =
+            new SingleFlight<>(this::getDataVersion, BusinessManager::copyPlants);
+    private final SingleFlight<Integer, Care> careReads = new SingleFlight<>(this::getDataVersion, Care::copy);
+    private final SingleFlight<Integer, Information> informationReads =
+            new SingleFlight<>(this::getDataVersion, Information::copy);
+    private final SingleFlight<Integer, Location> locationReads =
+            new SingleFlight<>(this::getDataVersion, Location::copy);
+
+    // Inventory aggregates for GET /api/stats, updated on every write below
+    static final int WATER_OVERDUE_AFTER_DAYS = 7;
+    private final PlantStatistics stats = new PlantStatistics(WATER_OVERDUE_AFTER_DAYS);
+    private final Object statsFirstLoad = new Object();
+
+    // Bumped after every write below, and by rebuildStatistics (which picks up writes
+    // made elsewhere); response caches compare it to tell whether a copy is current
+    private final AtomicLong dataVersion = new AtomicLong();
 
     public BusinessManager() {
-        this.plantDao = new PlantDao();
-        this.careDao = new CareDao();
-        this.informationDao = new InformationDao();
-        this.locationDao = new LocationDao();
+        this(new DataProvider());
+    }
+
+    // DAOs from the given provider, e.g. DataProvider.inMemory() to run without a database
+    public BusinessManager(DataProvider data) {
+        this.data = data;
+        this.plantDao = data.getPlantDao();
+        this.careDao = data.getCareDao();
+        this.informationDao = data.getInformationDao();
+        this.locationDao = data.getLocationDao();
     }
 
     // ======================================
@@ -33,42 +68,111 @@ public class BusinessManager {
         if (pid == null || pid == 0) {
             int newId = plantDao.insert(plant);
             plant.setPlantId(newId);
+            changed();
+            stats.onPlantSaved(plant);
             return plant;
         } else {
-            plantDao.update(plant);
+            if (plantDao.update(plant) > 0) {
+                changed();
+                stats.onPlantSaved(plant);
+            }
             return plant;
         }
     }
 
+    /**
+     * Save a plant together with its location. The plant row only references its
+     * room (Location_ID), so there is no second copy of the name to keep in sync.
+     * Updates run as a single statement (PlantDao.updateWithLocation): compare-and-set
+     * on plant.getVersion() (StaleVersionException on conflict), a blank
+     * location_name keeps the stored room, and the plant comes back fully populated.
+     * Returns null when updating a plant that doesn't exist.
+     */
     public Plant savePlantAndLocation(Plant plant) throws SQLException {
-        // Save plant (existing logic handles insert vs update)
-        Plant savedPlant = savePlant(plant);
-
-        // Propagate location_name -> locations table
-        String locName = savedPlant.getLocationName(); // assumes Plant has getLocationName()
-        if (locName != null) {
-            Location loc = locationDao.findByPlantId(savedPlant.getPlantId());
-            if (loc == null) {
-                loc = new Location();
-                loc.setPlantId(savedPlant.getPlantId());
+        if (plant.getPlantId() != 0) {
+            if (!plantDao.updateWithLocation(plant)) {
+                return null;
             }
-            loc.setLocationName(locName);
-            // If you had other mapping (e.g., light level in plant), set here.
-            saveLocation(loc); // This upserts by plantId
+            changed();
+            stats.onPlantSaved(plant);
+            return plant;
         }
-        return savedPlant;
+        return savePlant(plant);
     }
 
     public Plant getPlant(int id) throws SQLException {
-        return plantDao.findById(id);
+        return plantReads.execute(id, () -> plantDao.findById(id));
     }
 
     public List<Plant> getAllPlants() throws SQLException {
-        return plantDao.findAll();
+        return plantListReads.execute(Boolean.TRUE, plantDao::findAll);
+    }
+
+    // ?fields= / ?include= (see PlantProjection): one query with just those columns and
+    // joins; not single-flighted since the shape differs per request
+
+    public List<Map<String, Object>> getPlants(PlantProjection projection) throws SQLException {
+        return plantDao.findProjected(projection, null);
+    }
+
+    /** null when there is no such plant. */
+    public Map<String, Object> getPlant(int id, PlantProjection projection) throws SQLException {
+        List<Map<String, Object>> rows = plantDao.findProjected(projection, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Whole tables, for exports (see PlantJobs); not single-flighted
+    public List<Care> getAllCare() throws SQLException {
+        return careDao.findAll();
+    }
+
+    public List<Information> getAllInformation() throws SQLException {
+        return informationDao.findAll();
+    }
+
+    public List<Location> getAllLocations() throws SQLException {
+        return locationDao.findAll();
+    }
+
+    // Batched reads for the GraphQL resolvers (see PlantGraphController): one query
+    // for all the ids, keyed by plant id; ids without a row are missing from the map
+
+    public Map<Integer, Plant> getPlantsById(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Plant> out = new HashMap<>();
+        for (Plant p : plantDao.findByIds(ids)) {
+            out.put(p.getPlantId(), p);
+        }
+        return out;
+    }
+
+    public Map<Integer, Care> getCareByPlantId(Collection<Integer> plantIds) throws SQLException {
+        Map<Integer, Care> out = new HashMap<>();
+        for (Care c : careDao.findByPlantIds(plantIds)) {
+            out.put(c.getPlantId(), c);
+        }
+        return out;
+    }
+
+    public Map<Integer, Information> getInformationByPlantId(Collection<Integer> plantIds) throws SQLException {
+        Map<Integer, Information> out = new HashMap<>();
+        for (Information i : informationDao.findByPlantIds(plantIds)) {
+            out.put(i.getPlantId(), i);
+        }
+        return out;
+    }
+
+    public Map<Integer, Location> getLocationsByPlantId(Collection<Integer> plantIds) throws SQLException {
+        Map<Integer, Location> out = new HashMap<>();
+        for (Location l : locationDao.findByPlantIds(plantIds)) {
+            out.put(l.getPlantId(), l);
+        }
+        return out;
     }
 
     public void deletePlant(int id) throws SQLException {
         plantDao.delete(id);
+        changed();
+        stats.onPlantDeleted(id);
     }
 
     // ======================================
@@ -79,23 +183,24 @@ public class BusinessManager {
      * Save or update care record. Returns the saved Care object.
      */
     public Care saveCare(Care care) throws SQLException {
-        Care existing = careDao.findByPlantId(care.getPlantId());
-        if (existing == null) {
+        // Update first (compare-and-set when care.getVersion() is set) and only insert
+        // when there is no row yet, instead of reading before every write.
+        if (careDao.updateByPlantId(care) == 0) {
             careDao.insert(care);
-            // optionally re-query to return full persisted object
-            return careDao.findByPlantId(care.getPlantId());
-        } else {
-            careDao.updateByPlantId(care);
-            return careDao.findByPlantId(care.getPlantId());
         }
+        changed();
+        stats.onCareSaved(care);
+        return care;
     }
 
     public Care getCare(int plantId) throws SQLException {
-        return careDao.findByPlantId(plantId);
+        return careReads.execute(plantId, () -> careDao.findByPlantId(plantId));
     }
 
     public void deleteCare(int plantId) throws SQLException {
         careDao.deleteByPlantId(plantId);
+        changed();
+        stats.onCareDeleted(plantId);
     }
 
     // ======================================
@@ -106,22 +211,21 @@ public class BusinessManager {
      * Save or update information record. Returns the saved Information object.
      */
     public Information saveInformation(Information info) throws SQLException {
-        Information existing = informationDao.findByPlantId(info.getPlantId());
-        if (existing == null) {
+        // update first, insert if missing (see saveCare)
+        if (informationDao.updateByPlantId(info) == 0) {
             informationDao.insert(info);
-            return informationDao.findByPlantId(info.getPlantId());
-        } else {
-            informationDao.updateByPlantId(info);
-            return informationDao.findByPlantId(info.getPlantId());
         }
+        changed();
+        return info;
     }
 
     public Information getInformation(int plantId) throws SQLException {
-        return informationDao.findByPlantId(plantId);
+        return informationReads.execute(plantId, () -> informationDao.findByPlantId(plantId));
     }
 
     public void deleteInformation(int plantId) throws SQLException {
         informationDao.deleteByPlantId(plantId);
+        changed();
     }
 
     // ======================================
@@ -129,33 +233,209 @@ public class BusinessManager {
     // ======================================
 
     /**
-     * Save or update location record. Returns the saved Location object.
+     * Put a plant in a location (created if new) and optionally set that room's
+     * light level; see LocationDao.updateByPlantId. Returns the saved Location, or
+     * null if there is no such plant.
      */
     public Location saveLocation(Location location) throws SQLException {
-        // upsert location row
-        Location existing = locationDao.findByPlantId(location.getPlantId());
-        if (existing == null) {
-            locationDao.insert(location);
-            Location saved = locationDao.findByPlantId(location.getPlantId());
-            // sync plant table location_name
-            String locName = saved != null ? saved.getLocationName() : location.getLocationName();
-            plantDao.updateLocationName(location.getPlantId(), locName);
-            return saved;
-        } else {
-            locationDao.updateByPlantId(location);
-            Location saved = locationDao.findByPlantId(location.getPlantId());
-            // sync plant table location_name
-            String locName = saved != null ? saved.getLocationName() : location.getLocationName();
-            plantDao.updateLocationName(location.getPlantId(), locName);
-            return saved;
+        // one statement: the plant row points at the room, nothing else to sync
+        if (locationDao.updateByPlantId(location) == 0) {
+            return null;
         }
+        changed();
+        stats.onLocationChanged(location.getPlantId(), location.getLocationName());
+        return location;
     }
 
     public Location getLocation(int plantId) throws SQLException {
-        return locationDao.findByPlantId(plantId);
+        return locationReads.execute(plantId, () -> locationDao.findByPlantId(plantId));
     }
 
     public void deleteLocation(int plantId) throws SQLException {
         locationDao.deleteByPlantId(plantId);
+        changed();
+        stats.onLocationChanged(plantId, null);
+    }
+
+    /**
+     * Rename a location. If another location already has the new name, its plants
+     * are merged into that one and the old location is removed. One transaction,
+     * one statement per table; returns the affected counts.
+     */
+    public BulkLocationResult renameLocation(String fromName, String toName) throws SQLException {
+        String from = fromName.trim();
+        String to = toName.trim();
+        BulkLocationResult result = data.inTransaction(() -> {
+            BulkLocationResult r = new BulkLocationResult("rename", to);
+            if (!from.equals(to)) {
+                r.setMovedPlantIds(plantDao.moveBetweenLocations(from, to));
+                locationDao.renameOrMerge(from, to, r);
+                if (r.getLocationsDeleted() > 0) {
+                    r.setOperation("merge");
+                }
+            }
+            return r;
+        });
+        changed();
+        stats.onLocationRenamed(from, to);
+        return result;
+    }
+
+    /**
+     * Move every plant matching filter to location toName (created if new). One
+     * transaction, one statement per table; returns the affected counts.
+     */
+    public BulkLocationResult movePlants(PlantFilter filter, String toName) throws SQLException {
+        String to = toName.trim();
+        BulkLocationResult result = data.inTransaction(() -> {
+            BulkLocationResult r = new BulkLocationResult("move", to);
+            int locationId = locationDao.findOrCreate(to, r);
+            r.setMovedPlantIds(plantDao.moveToLocation(filter, locationId));
+            return r;
+        });
+        changed();
+        for (int plantId : result.getMovedPlantIds()) {
+            stats.onLocationChanged(plantId, to);
+        }
+        return result;
+    }
+
+    // ======================================
+    // ============ CHANGES =================
+    // ======================================
+
+    /**
+     * Plant, care, information and location rows changed since cursor (0 = all),
+     * with deletions and the cursor for the next call; see ChangeSet.
+     */
+    public ChangeSet getChanges(long cursor) throws SQLException {
+        return data.getChangeDao().changesSince(cursor);
+    }
+
+    // ======================================
+    // ============ MEASUREMENTS ============
+    // ======================================
+
+    /**
+     * Record readings of a plant in one statement (measuredAt null = now). Height
+     * changes made through savePlant are recorded by the store itself. Returns the
+     * number stored, or -1 if there is no such plant.
+     */
+    public int recordMeasurements(int plantId, List<Measurement> readings) throws SQLException {
+        Instant now = Instant.now();
+        for (Measurement m : readings) {
+            m.setPlantId(plantId);
+            if (m.getMeasuredAt() == null) {
+                m.setMeasuredAt(now);
+            }
+        }
+        try {
+            return data.getMeasurementDao().insert(readings);
+        } catch (SQLException e) {
+            if ("23503".equals(e.getSQLState())) {
+                return -1; // no such plant
+            }
+            throw e;
+        }
+    }
+
+    /** A plant's readings of one kind over [from, to), min / max / avg per bucket of bucketSeconds. */
+    public MeasurementHistory getMeasurementHistory(int plantId, MeasurementKind kind, Instant from, Instant to,
+                                                    long bucketSeconds) throws SQLException {
+        return new MeasurementHistory(plantId, kind.apiName(), from, to, bucketSeconds,
+                data.getMeasurementDao().downsample(plantId, kind, from, to, bucketSeconds));
+    }
+
+    /** Raw readings over [from, to), oldest first, at most limit. */
+    public List<Measurement> getMeasurements(int plantId, MeasurementKind kind, Instant from, Instant to,
+                                             int limit) throws SQLException {
+        return data.getMeasurementDao().findRange(plantId, kind, from, to, limit);
+    }
+
+    // ======================================
+    // ============ STATISTICS ==============
+    // ======================================
+
+    /**
+     * Inventory aggregates. The first call loads them with one full scan of plants and
+     * care; after that they are kept current by the writes above and reads are cheap.
+     */
+    public InventoryStats getStatistics() throws SQLException {
+        if (!stats.isLoaded()) {
+            // one first load; callers arriving meanwhile wait for it (writers don't)
+            synchronized (statsFirstLoad) {
+                if (!stats.isLoaded()) {
+                    return rebuildStatistics();
+                }
+            }
+        }
+        return stats.get();
+    }
+
+    /**
+     * Recompute the aggregates from the database (picks up writes made elsewhere).
+     * The scan runs outside the stats lock; writes reported meanwhile are replayed
+     * over it (see PlantStatistics.beginRebuild).
+     */
+    public InventoryStats rebuildStatistics() throws SQLException {
+        int token = stats.beginRebuild();
+        List<Plant> plants;
+        List<Care> care;
+        try {
+            plants = plantDao.findAll();
+            care = careDao.findAll();
+        } catch (SQLException | RuntimeException e) {
+            stats.cancelRebuild(token);
+            throw e;
+        }
+        stats.rebuild(token, plants, care);
+        changed();
+        return stats.get();
+    }
+
+    /**
+     * Changes whenever data is written through this manager (or rebuildStatistics
+     * ran); anything derived from reads made at an older version may be stale.
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    private void changed() {
+        dataVersion.incrementAndGet();
+    }
+
+    private static List<Plant> copyPlants(List<Plant> plants) {
+        List<Plant> out = new ArrayList<>(plants.size());
+        for (Plant p : plants) {
+            out.add(p.copy());
+        }
+        return out;
+    }
+
+    // ======================================
+    // ============ METRICS =================
+    // ======================================
+
+    /**
+     * Single-flight counters per read: executed = DAO calls actually made,
+     * collapsed = callers that shared an in-flight call instead.
+     */
+    public Map<String, Map<String, Long>> getSingleFlightStats() {
+        Map<String, Map<String, Long>> out = new LinkedHashMap<>();
+        out.put("plant", singleFlightStats(plantReads));
+        out.put("plantList", singleFlightStats(plantListReads));
+        out.put("care", singleFlightStats(careReads));
+        out.put("information", singleFlightStats(informationReads));
+        out.put("location", singleFlightStats(locationReads));
+        return out;
+    }
+
+    private static Map<String, Long> singleFlightStats(SingleFlight<?, ?> sf) {
+        Map<String, Long> m = new LinkedHashMap<>();
+        m.put("executed", sf.getExecuted());
+        m.put("collapsed", sf.getCollapsed());
+        m.put("inFlight", (long) sf.getInFlight());
+        return m;
     }
-}
\ No newline at end of file
+}
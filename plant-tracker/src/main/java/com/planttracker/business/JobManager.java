@@ -0,0 +1,341 @@
+package com.planttracker.business;
+
+import com.planttracker.DbLimiter;
+import com.planttracker.dao.JobDao;
+import com.planttracker.model.Job;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs long operations (bulk deletes, imports, exports, ...) on a small worker
+ * pool instead of request threads, keeping their state in the JobDao so any
+ * instance can answer GET /api/jobs/{id}.
+ *
+ * The pool has a fixed number of workers and a bounded queue: submit() throws
+ * RejectedExecutionException when the queue is full rather than piling up work.
+ * A task reports progress through its Progress, which saves it at most once a
+ * second and, at the same time, picks up cancellation requested through another
+ * instance; the next step() after a cancel ends the task. Every 30 seconds the
+ * jobs held here get a heartbeat; queued / running jobs without one for two
+ * minutes belonged to a stopped instance and are marked failed. Finished jobs
+ * and their output files are deleted after the retention period. Other cleanup
+ * can run on the same schedule (addHousekeeping).
+ */
+public class JobManager implements AutoCloseable {
+
+    /** The work of a job; returns the job's result (may be null). */
+    public interface Task {
+        Map<String, Object> run(Progress progress) throws Exception;
+    }
+
+    /** Periodic cleanup run with the job housekeeping, e.g. retention purges. */
+    public interface Housekeeping {
+        void run() throws SQLException;
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(JobManager.class);
+    private static final long PROGRESS_SAVE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Duration HEARTBEAT = Duration.ofSeconds(30);
+    private static final Duration STALE_AFTER = Duration.ofMinutes(2);
+
+    private final JobDao dao;
+    private final Path filesDir;
+    private final Duration retention;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService housekeeping;
+    // jobs queued or running on this instance
+    private final Map<Long, Running> active = new ConcurrentHashMap<>();
+    private final List<Housekeeping> extraHousekeeping = new CopyOnWriteArrayList<>();
+
+    public JobManager(JobDao dao, Path filesDir, int workerThreads, int queueCapacity, Duration retention)
+            throws IOException {
+        this.dao = dao;
+        this.filesDir = Files.createDirectories(filesDir);
+        this.retention = retention;
+        AtomicInteger n = new AtomicInteger();
+        int threads = Math.max(1, workerThreads);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread t = new Thread(DbLimiter.as(DbLimiter.Kind.BULK, r), "job-worker-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.housekeeping = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(DbLimiter.as(DbLimiter.Kind.BULK, r), "job-housekeeping");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeping.scheduleWithFixedDelay(this::housekeeping, 0, HEARTBEAT.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Save a queued job and hand it to the workers. RejectedExecutionException when
+     * the queue is full (nothing is saved then).
+     */
+    public Job submit(String type, Map<String, Object> params, Task task) throws SQLException {
+        if (workers.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Job queue is full");
+        }
+        Job job = new Job(type, params);
+        dao.insert(job);
+        Running r = new Running(job);
+        active.put(job.getJobId(), r);
+        try {
+            workers.execute(() -> run(r, task));
+        } catch (RejectedExecutionException e) {
+            active.remove(job.getJobId());
+            synchronized (r) {
+                r.finish(Job.FAILED, "Job queue is full", null);
+            }
+            throw e;
+        }
+        return r.snapshot();
+    }
+
+    /** The job with its latest progress, or null. */
+    public Job get(long jobId) throws SQLException {
+        Running r = active.get(jobId);
+        return r != null ? r.snapshot() : dao.findById(jobId);
+    }
+
+    /** Newest first. */
+    public List<Job> recent(int limit) throws SQLException {
+        List<Job> jobs = new ArrayList<>();
+        for (Job j : dao.findRecent(limit)) {
+            Running r = active.get(j.getJobId());
+            jobs.add(r != null ? r.snapshot() : j);
+        }
+        return jobs;
+    }
+
+    /**
+     * Ask a job to stop: a queued job here is cancelled right away, a running one at
+     * its next step, one on another instance at that instance's next progress save.
+     * Returns the job (null if unknown); a finished job is returned unchanged.
+     */
+    public Job cancel(long jobId) throws SQLException {
+        Running r = active.get(jobId);
+        if (r == null) {
+            dao.requestCancel(jobId);
+            return dao.findById(jobId);
+        }
+        r.progress.cancelled = true;
+        dao.requestCancel(jobId);
+        synchronized (r) {
+            if (Job.QUEUED.equals(r.job.getState())) {
+                active.remove(jobId);
+                r.finish(Job.CANCELLED, "Cancelled before it started", null);
+            }
+        }
+        return r.snapshot();
+    }
+
+    /** Where a job writes its output file (exports); it is deleted along with the job. */
+    public Path outputFile(long jobId) {
+        return filesDir.resolve("job-" + jobId + ".json");
+    }
+
+    public Map<String, Object> getPoolStats() {
+        return Map.of("workers", workers.getMaximumPoolSize(), "running", workers.getActiveCount(),
+                "queued", workers.getQueue().size(), "queueCapacity",
+                workers.getQueue().size() + workers.getQueue().remainingCapacity());
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        housekeeping.shutdownNow();
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        for (Running r : active.values()) {
+            synchronized (r) {
+                try {
+                    r.finish(Job.FAILED, "Service stopped", null);
+                } catch (SQLException e) {
+                    // the next instance marks it failed when its heartbeat is missing
+                }
+            }
+        }
+        active.clear();
+    }
+
+    private void run(Running r, Task task) {
+        long id = r.job.getJobId();
+        try {
+            synchronized (r) {
+                if (r.job.isFinished()) {
+                    return; // cancelled while queued
+                }
+                Instant started = Instant.now();
+                if (!dao.markRunning(id, started)) {
+                    r.finish(Job.CANCELLED, "Cancelled before it started", null);
+                    return;
+                }
+                r.job.setState(Job.RUNNING);
+                r.job.setStartedAt(started);
+            }
+            Map<String, Object> result;
+            try {
+                result = task.run(r.progress);
+            } catch (CancellationException e) {
+                synchronized (r) {
+                    r.finish(Job.CANCELLED, "Cancelled after " + r.progress.done + " of " + r.progress.total, null);
+                }
+                return;
+            } catch (Exception e) {
+                log.warn("Job {} ({}) failed", id, r.job.getType(), e);
+                synchronized (r) {
+                    r.finish(Job.FAILED, e.getMessage() != null ? e.getMessage() : e.toString(), null);
+                }
+                return;
+            }
+            synchronized (r) {
+                r.finish(Job.SUCCEEDED, null, result);
+            }
+        } catch (SQLException e) {
+            log.warn("Job {}: could not save its state", id, e);
+        } finally {
+            active.remove(id);
+        }
+    }
+
+    /** Run task every 30 seconds with the job housekeeping (on its thread, as BULK work). */
+    public void addHousekeeping(Housekeeping task) {
+        extraHousekeeping.add(task);
+    }
+
+    private void housekeeping() {
+        try {
+            dao.heartbeat(new ArrayList<>(active.keySet()));
+            int stale = dao.failStale(Instant.now().minus(STALE_AFTER), "Interrupted: the service running it stopped");
+            if (stale > 0) {
+                log.info("Marked {} interrupted jobs as failed", stale);
+            }
+            for (long id : dao.deleteFinishedBefore(Instant.now().minus(retention))) {
+                Files.deleteIfExists(outputFile(id));
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            log.debug("Job housekeeping failed: {}", e.toString());
+        }
+        for (Housekeeping task : extraHousekeeping) {
+            try {
+                task.run();
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Housekeeping failed: {}", e.toString());
+            }
+        }
+    }
+
+    /** Progress of a running job; also where it learns that it was cancelled. */
+    public final class Progress {
+        private final long jobId;
+        private volatile long total;
+        private volatile long done;
+        private volatile boolean cancelled;
+        private long savedAt = System.nanoTime();
+
+        private Progress(long jobId) {
+            this.jobId = jobId;
+        }
+
+        public long getJobId() {
+            return jobId;
+        }
+
+        /** Units of work in the job (plants to delete, rows to export, ...). */
+        public void setTotal(long total) {
+            this.total = total;
+            save();
+        }
+
+        /** One unit done; throws CancellationException once the job is cancelled. */
+        public void step() {
+            advance(1);
+        }
+
+        public void advance(long n) {
+            done += n; // only the worker thread writes
+            save();
+            if (cancelled) {
+                throw new CancellationException();
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /** The job's output file (see JobManager.outputFile). */
+        public Path outputFile() {
+            return JobManager.this.outputFile(jobId);
+        }
+
+        private void save() {
+            long now = System.nanoTime();
+            if (now - savedAt < PROGRESS_SAVE_NANOS) {
+                return;
+            }
+            savedAt = now;
+            try {
+                if (dao.updateProgress(jobId, done, total)) {
+                    cancelled = true;
+                }
+            } catch (SQLException e) {
+                // progress is informational; the final state is saved by finish()
+                log.debug("Job {}: progress not saved: {}", jobId, e.toString());
+            }
+        }
+    }
+
+    private final class Running {
+        final Job job;
+        final Progress progress;
+
+        Running(Job job) {
+            this.job = job;
+            this.progress = new Progress(job.getJobId());
+        }
+
+        synchronized Job snapshot() {
+            Job j = job.copy();
+            j.setTotal(progress.total);
+            j.setDone(progress.done);
+            j.setCancelRequested(progress.cancelled);
+            return j;
+        }
+
+        // callers hold the lock; only the first call counts
+        void finish(String state, String message, Map<String, Object> result) throws SQLException {
+            if (job.isFinished()) {
+                return;
+            }
+            job.setState(state);
+            job.setMessage(message);
+            job.setResult(result);
+            job.setTotal(progress.total);
+            job.setDone(progress.done);
+            job.setCancelRequested(progress.cancelled);
+            job.setFinishedAt(Instant.now());
+            dao.finish(job);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.planttracker.business;
+
+import com.planttracker.dao.PhotoDao;
+import com.planttracker.model.Photo;
+import com.planttracker.photo.PhotoStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plant photos: metadata through the PhotoDao, image files in the PhotoStore.
+ *
+ * Files are shared by every photo with the same content, so a file is only deleted
+ * when the last photo using it is. Storing the file plus inserting the row, and
+ * deleting the row plus the file, are serialized per hash (striped), so a delete
+ * never removes a file that an upload has just found already stored.
+ */
+public class PhotoManager {
+
+    private static final int STRIPES = 64;
+
+    private final PhotoDao photoDao;
+    private final PhotoStore store;
+    private final Object[] locks = new Object[STRIPES];
+
+    public PhotoManager(PhotoDao photoDao, PhotoStore store) {
+        this.photoDao = photoDao;
+        this.store = store;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public List<Photo> getPhotos(int plantId) throws SQLException {
+        return photoDao.findByPlantId(plantId);
+    }
+
+    /** The plant's photo, or null if the plant has no photo with this id. */
+    public Photo getPhoto(int plantId, int photoId) throws SQLException {
+        Photo p = photoDao.findById(photoId);
+        return p != null && p.getPlantId() == plantId ? p : null;
+    }
+
+    /**
+     * Store an uploaded image and attach it to the plant. Returns null if there is no
+     * such plant. Throws UnsupportedImageException for anything but JPEG, PNG and GIF.
+     */
+    public Photo addPhoto(int plantId, InputStream image) throws SQLException, IOException {
+        // the upload is written and hashed before taking the lock
+        PhotoStore.Staged staged = store.stage(image);
+        Photo photo = new Photo();
+        photo.setPlantId(plantId);
+        photo.setSha256(staged.sha256);
+        photo.setContentType(staged.contentType);
+        photo.setSizeBytes(staged.size);
+        photo.setWidth(staged.width);
+        photo.setHeight(staged.height);
+        synchronized (lock(staged.sha256)) {
+            try {
+                store.commit(staged);
+                photoDao.insert(photo);
+                return photo;
+            } catch (SQLException e) {
+                releaseLocked(staged.sha256);
+                if ("23503".equals(e.getSQLState())) {
+                    return null; // no such plant
+                }
+                throw e;
+            } finally {
+                store.discard(staged);
+            }
+        }
+    }
+
+    /** Returns false if the plant has no photo with this id. */
+    public boolean deletePhoto(int plantId, int photoId) throws SQLException, IOException {
+        String sha = photoDao.delete(plantId, photoId);
+        if (sha == null) {
+            return false;
+        }
+        release(sha);
+        return true;
+    }
+
+    /** The content hashes of the plant's photos, for deletePhotos once the plant is gone. */
+    public List<String> getPhotoFiles(int plantId) throws SQLException {
+        List<String> shas = new ArrayList<>();
+        for (Photo p : photoDao.findByPlantId(plantId)) {
+            shas.add(p.getSha256());
+        }
+        return shas;
+    }
+
+    /**
+     * Clean up after deleting a plant: its remaining photo rows (the database
+     * cascades them, the in-memory store doesn't) and the files no other photo uses.
+     * files = getPhotoFiles from before the plant was deleted. The plant goes first
+     * so a failed delete doesn't leave it without its images.
+     */
+    public void deletePhotos(int plantId, List<String> files) throws SQLException, IOException {
+        Set<String> shas = new LinkedHashSet<>(files);
+        shas.addAll(photoDao.deleteByPlantId(plantId));
+        for (String sha : shas) {
+            release(sha);
+        }
+    }
+
+    /** The image file of a photo (null if it has gone missing on disk). */
+    public Path getFile(Photo photo) {
+        return store.exists(photo.getSha256()) ? store.file(photo.getSha256()) : null;
+    }
+
+    /** A JPEG thumbnail that fits size x size, cached on disk after the first call. */
+    public Path getThumbnail(Photo photo, int size) throws IOException {
+        return store.thumbnail(photo.getSha256(), size);
+    }
+
+    // delete the file once no photo uses it any more
+    private void release(String sha) throws SQLException, IOException {
+        synchronized (lock(sha)) {
+            releaseLocked(sha);
+        }
+    }
+
+    private void releaseLocked(String sha) throws SQLException, IOException {
+        if (!photoDao.isReferenced(sha)) {
+            store.delete(sha);
+        }
+    }
+
+    private Object lock(String sha) {
+        return locks[Math.floorMod(sha.hashCode(), STRIPES)];
+    }
+}
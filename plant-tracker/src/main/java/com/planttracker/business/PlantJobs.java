@@ -0,0 +1,145 @@
+package com.planttracker.business;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planttracker.model.Care;
+import com.planttracker.model.Information;
+import com.planttracker.model.Job;
+import com.planttracker.model.Location;
+import com.planttracker.model.Plant;
+import com.planttracker.model.PlantFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk operations of BusinessManager / PhotoManager submitted as background jobs
+ * (see JobManager). Each returns the queued job right away. A cancelled job stops
+ * after the plant it is working on; what was done until then stays done.
+ */
+public class PlantJobs {
+
+    public static final String DELETE_PLANTS = "delete-plants";
+    public static final String IMPORT_PLANTS = "import-plants";
+    public static final String EXPORT_PLANTS = "export-plants";
+    public static final String REBUILD_STATISTICS = "rebuild-statistics";
+
+    private final BusinessManager mgr;
+    private final PhotoManager photos;
+    private final JobManager jobs;
+    private final ObjectMapper json;
+
+    public PlantJobs(BusinessManager mgr, PhotoManager photos, JobManager jobs, ObjectMapper json) {
+        this.mgr = mgr;
+        this.photos = photos;
+        this.jobs = jobs;
+        this.json = json;
+    }
+
+    /** Delete every plant matching filter, with its photos, care, information and readings. */
+    public Job deletePlants(PlantFilter filter) throws SQLException {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("locationName", filter.getLocationName());
+        params.put("type", filter.getType());
+        params.put("plantIds", filter.getPlantIds());
+        return jobs.submit(DELETE_PLANTS, params, progress -> {
+            List<Integer> ids = new ArrayList<>();
+            for (Plant p : mgr.getAllPlants()) {
+                if (filter.matches(p)) {
+                    ids.add(p.getPlantId());
+                }
+            }
+            progress.setTotal(ids.size());
+            int deleted = 0;
+            for (int id : ids) {
+                List<String> files = photos.getPhotoFiles(id);
+                mgr.deletePlant(id);
+                photos.deletePhotos(id, files);
+                deleted++;
+                progress.step();
+            }
+            return Map.of("deleted", deleted);
+        });
+    }
+
+    /** Create the plants (ids in the input are ignored), one at a time. */
+    public Job importPlants(List<Plant> plants) throws SQLException {
+        return jobs.submit(IMPORT_PLANTS, Map.of("plants", plants.size()), progress -> {
+            progress.setTotal(plants.size());
+            List<Integer> created = new ArrayList<>();
+            for (Plant p : plants) {
+                p.setPlantId(0);
+                created.add(mgr.savePlantAndLocation(p).getPlantId());
+                progress.step();
+            }
+            return Map.of("created", created.size(), "plantIds", created);
+        });
+    }
+
+    /**
+     * Write plants, care, information and locations as one JSON document to the
+     * job's output file (GET /api/jobs/{id}/output).
+     */
+    public Job exportPlants() throws SQLException {
+        return jobs.submit(EXPORT_PLANTS, Map.of(), progress -> {
+            List<Plant> plants = mgr.getAllPlants();
+            List<Care> care = mgr.getAllCare();
+            List<Information> information = mgr.getAllInformation();
+            List<Location> locations = mgr.getAllLocations();
+            progress.setTotal(plants.size() + care.size() + information.size() + locations.size());
+
+            Path file = progress.outputFile();
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp);
+                 JsonGenerator g = json.getFactory().createGenerator(out)) {
+                g.writeStartObject();
+                g.writeStringField("exportedAt", Instant.now().toString());
+                writeArray(g, "plants", plants, progress);
+                writeArray(g, "care", care, progress);
+                writeArray(g, "information", information, progress);
+                writeArray(g, "locations", locations, progress);
+                g.writeEndObject();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("plants", plants.size());
+            result.put("bytes", Files.size(file));
+            result.put("download", "/api/jobs/" + progress.getJobId() + "/output");
+            return result;
+        });
+    }
+
+    /** BusinessManager.rebuildStatistics(); the result is the new statistics. */
+    @SuppressWarnings("unchecked")
+    public Job rebuildStatistics() throws SQLException {
+        return jobs.submit(REBUILD_STATISTICS, Map.of(), progress -> {
+            progress.setTotal(1);
+            Map<String, Object> stats = json.convertValue(mgr.rebuildStatistics(), Map.class);
+            progress.step();
+            return stats;
+        });
+    }
+
+    private void writeArray(JsonGenerator g, String name, List<?> rows, JobManager.Progress progress)
+            throws IOException {
+        g.writeArrayFieldStart(name);
+        for (Object row : rows) {
+            json.writeValue(g, row);
+            progress.step();
+        }
+        g.writeEndArray();
+    }
+}
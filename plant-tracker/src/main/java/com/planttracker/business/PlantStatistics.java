@@ -0,0 +1,304 @@
+package com.planttracker.business;
+
+import com.planttracker.model.Care;
+import com.planttracker.model.InventoryStats;
+import com.planttracker.model.Plant;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory inventory aggregates (counts by type / location, height buckets,
+ * acquisitions per month, plants overdue for water).
+ *
+ * Maintained incrementally: BusinessManager reports every plant / care / location
+ * write and delete, and each plant's previous contribution is replaced by the new
+ * one, so no write ever rescans the table. rebuild() recomputes everything from a
+ * full load (first use, or on demand). The load runs without the lock: writes
+ * reported between beginRebuild() and rebuild() are kept and replayed over the
+ * loaded rows, so none is lost and writers never wait for a table scan.
+ *
+ * Reads return an immutable snapshot that is only recomputed after a change (or
+ * when the date rolls over), so repeated reads cost nothing.
+ *
+ * Only writes that go through this service instance are seen; rebuild() picks up
+ * anything else.
+ */
+public class PlantStatistics {
+
+    private static final double[] HEIGHT_BOUNDS = { 25, 50, 100, 150 };
+    private static final String[] HEIGHT_LABELS = { "<25", "25-50", "50-100", "100-150", "150+" };
+    private static final String UNKNOWN = "(unknown)";
+
+    /** What a single plant contributes to the aggregates. */
+    private static final class Contribution {
+        final String type;
+        final String location;
+        final String heightBucket;
+        final String acquiredMonth;
+
+        Contribution(Plant p) {
+            this.type = label(p.getType());
+            this.location = label(p.getLocationName());
+            this.heightBucket = heightBucket(p.getHeight());
+            this.acquiredMonth = p.getDateAcquired() == null ? UNKNOWN : YearMonth.from(p.getDateAcquired()).toString();
+        }
+
+        Contribution withLocation(String locationName) {
+            return new Contribution(type, label(locationName), heightBucket, acquiredMonth);
+        }
+
+        private Contribution(String type, String location, String heightBucket, String acquiredMonth) {
+            this.type = type;
+            this.location = location;
+            this.heightBucket = heightBucket;
+            this.acquiredMonth = acquiredMonth;
+        }
+    }
+
+    private final int overdueAfterDays;
+
+    // all state below is guarded by "this"
+    private boolean loaded;
+    // updates reported while loads are running, replayed by rebuild()
+    private final List<Runnable> replay = new ArrayList<>();
+    private int loading;
+    private final Map<Integer, Contribution> plants = new HashMap<>();
+    private final Map<Integer, LocalDate> lastWatering = new HashMap<>();
+    private final Map<String, Long> byType = new TreeMap<>();
+    private final Map<String, Long> byLocation = new TreeMap<>();
+    private final Map<String, Long> byHeight = new HashMap<>();
+    private final Map<String, Long> byMonth = new TreeMap<>();
+    // lastWatering date -> number of (existing) plants watered that day
+    private final NavigableMap<LocalDate, Long> wateringDays = new TreeMap<>();
+
+    private volatile InventoryStats snapshot;
+
+    public PlantStatistics(int overdueAfterDays) {
+        this.overdueAfterDays = overdueAfterDays;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Call before reading the rows for rebuild(); every call must be followed by
+     * rebuild() or cancelRebuild() with the returned token.
+     */
+    public synchronized int beginRebuild() {
+        loading++;
+        return replay.size();
+    }
+
+    /** The load started with beginRebuild() failed. */
+    public synchronized void cancelRebuild(int token) {
+        endLoad();
+    }
+
+    /**
+     * Replace all aggregates with ones computed from a full load read after
+     * beginRebuild() returned token, plus the updates reported since.
+     */
+    public synchronized void rebuild(int token, List<Plant> allPlants, List<Care> allCare) {
+        plants.clear();
+        lastWatering.clear();
+        byType.clear();
+        byLocation.clear();
+        byHeight.clear();
+        byMonth.clear();
+        wateringDays.clear();
+        for (Plant p : allPlants) {
+            add(p.getPlantId(), new Contribution(p));
+        }
+        for (Care c : allCare) {
+            if (plants.containsKey(c.getPlantId())) {
+                setWatering(c.getPlantId(), c.getLastWatering());
+            }
+        }
+        // rows read before a write was reported get it again; updates only replace
+        // a plant's contribution, so applying one twice is harmless
+        for (int i = token; i < replay.size(); i++) {
+            replay.get(i).run();
+        }
+        loaded = true;
+        snapshot = null;
+        endLoad();
+    }
+
+    // ---------- incremental updates (no-ops until the first rebuild) ----------
+
+    public synchronized void onPlantSaved(Plant p) {
+        int plantId = p.getPlantId();
+        Contribution c = new Contribution(p);
+        apply(() -> {
+            remove(plantId);
+            add(plantId, c);
+        });
+    }
+
+    public synchronized void onPlantDeleted(int plantId) {
+        apply(() -> {
+            remove(plantId);
+            setWatering(plantId, null); // care rows cascade with the plant
+        });
+    }
+
+    public synchronized void onLocationChanged(int plantId, String locationName) {
+        apply(() -> {
+            Contribution old = remove(plantId);
+            if (old != null) {
+                add(plantId, old.withLocation(locationName));
+            }
+        });
+    }
+
+    public synchronized void onLocationRenamed(String oldName, String newName) {
+        String from = label(oldName);
+        apply(() -> {
+            for (Map.Entry<Integer, Contribution> e : new ArrayList<>(plants.entrySet())) {
+                if (e.getValue().location.equals(from)) {
+                    remove(e.getKey());
+                    add(e.getKey(), e.getValue().withLocation(newName));
+                }
+            }
+        });
+    }
+
+    public synchronized void onCareSaved(Care care) {
+        int plantId = care.getPlantId();
+        LocalDate watered = care.getLastWatering();
+        apply(() -> {
+            if (plants.containsKey(plantId)) {
+                setWatering(plantId, watered);
+            }
+        });
+    }
+
+    public synchronized void onCareDeleted(int plantId) {
+        apply(() -> setWatering(plantId, null));
+    }
+
+    // ---------- reads ----------
+
+    /** Current aggregates; must only be called once loaded. */
+    public InventoryStats get() {
+        InventoryStats s = snapshot;
+        LocalDate today = LocalDate.now();
+        if (s != null && s.getAsOf().equals(today)) {
+            return s;
+        }
+        synchronized (this) {
+            s = snapshot;
+            if (s == null || !s.getAsOf().equals(today)) {
+                s = buildSnapshot(today);
+                snapshot = s;
+            }
+            return s;
+        }
+    }
+
+    // caller holds the lock
+    private InventoryStats buildSnapshot(LocalDate today) {
+        LocalDate cutoff = today.minusDays(overdueAfterDays);
+        long overdue = 0;
+        for (long n : wateringDays.headMap(cutoff, false).values()) {
+            overdue += n;
+        }
+        Map<String, Long> heights = new LinkedHashMap<>();
+        for (String label : HEIGHT_LABELS) {
+            heights.put(label, byHeight.getOrDefault(label, 0L));
+        }
+        heights.put(UNKNOWN, byHeight.getOrDefault(UNKNOWN, 0L));
+        return new InventoryStats(
+                plants.size(),
+                Collections.unmodifiableMap(new LinkedHashMap<>(byType)),
+                Collections.unmodifiableMap(new LinkedHashMap<>(byLocation)),
+                Collections.unmodifiableMap(heights),
+                Collections.unmodifiableMap(new LinkedHashMap<>(byMonth)),
+                overdue,
+                plants.size() - lastWatering.size(),
+                overdueAfterDays,
+                today);
+    }
+
+    // ---------- helpers (caller holds the lock) ----------
+
+    private void apply(Runnable update) {
+        if (loading > 0) {
+            replay.add(update);
+        }
+        if (loaded) {
+            update.run();
+            snapshot = null;
+        }
+    }
+
+    private void endLoad() {
+        if (--loading == 0) {
+            replay.clear();
+        }
+    }
+
+    private void add(int plantId, Contribution c) {
+        plants.put(plantId, c);
+        increment(byType, c.type, 1);
+        increment(byLocation, c.location, 1);
+        increment(byHeight, c.heightBucket, 1);
+        increment(byMonth, c.acquiredMonth, 1);
+    }
+
+    private Contribution remove(int plantId) {
+        Contribution old = plants.remove(plantId);
+        if (old != null) {
+            increment(byType, old.type, -1);
+            increment(byLocation, old.location, -1);
+            increment(byHeight, old.heightBucket, -1);
+            increment(byMonth, old.acquiredMonth, -1);
+        }
+        return old;
+    }
+
+    private void setWatering(int plantId, LocalDate date) {
+        LocalDate old = date == null ? lastWatering.remove(plantId) : lastWatering.put(plantId, date);
+        if (old != null) {
+            increment(wateringDays, old, -1);
+        }
+        if (date != null) {
+            increment(wateringDays, date, 1);
+        }
+    }
+
+    private static <K> void increment(Map<K, Long> counts, K key, long delta) {
+        long v = counts.getOrDefault(key, 0L) + delta;
+        if (v <= 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, v);
+        }
+    }
+
+    private static String label(String s) {
+        return s == null || s.trim().isEmpty() ? UNKNOWN : s.trim();
+    }
+
+    private static String heightBucket(Double h) {
+        if (h == null) {
+            return UNKNOWN;
+        }
+        for (int i = 0; i < HEIGHT_BOUNDS.length; i++) {
+            if (h < HEIGHT_BOUNDS[i]) {
+                return HEIGHT_LABELS[i];
+            }
+        }
+        return HEIGHT_LABELS[HEIGHT_LABELS.length - 1];
+    }
+}
@@ -0,0 +1,117 @@
+package com.planttracker.business;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Request coalescing ("single-flight") for reads.
+ *
+ * If a call for a key is already running, later callers for the same key wait for
+ * that call and share its result instead of running the same query again. Only
+ * calls that overlap in time are merged; nothing is cached once the call returns.
+ *
+ * With a data version (e.g. BusinessManager.getDataVersion), a caller only joins a
+ * call started at the current version: a read that begins after a write has
+ * completed never gets a result loaded before it. With a copy function every
+ * caller gets its own copy of the result, so callers may modify what they get;
+ * without one they share the instance and must treat it as read-only.
+ */
+public class SingleFlight<K, V> {
+
+    /** A database call that produces the shared value. */
+    @FunctionalInterface
+    public interface Call<V> {
+        V call() throws SQLException;
+    }
+
+    private static final class Flight<V> extends CompletableFuture<V> {
+        final long version;
+
+        Flight(long version) {
+            this.version = version;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongSupplier dataVersion;
+    private final UnaryOperator<V> copy;
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    /** Shared instances, no data version: for immutable values kept current by the caller. */
+    public SingleFlight() {
+        this(() -> 0, v -> v);
+    }
+
+    /** copy is never given null. */
+    public SingleFlight(LongSupplier dataVersion, UnaryOperator<V> copy) {
+        this.dataVersion = dataVersion;
+        this.copy = copy;
+    }
+
+    public V execute(K key, Call<V> call) throws SQLException {
+        Flight<V> mine = new Flight<>(dataVersion.getAsLong());
+        // a call started before the last write is left to finish for its own callers
+        Flight<V> leader = inFlight.compute(key, (k, cur) -> cur != null && cur.version >= mine.version ? cur : mine);
+        if (leader != mine) {
+            collapsed.increment();
+            V shared = await(leader);
+            return shared != null ? copy.apply(shared) : null;
+        }
+
+        executed.increment();
+        try {
+            V value = call.call();
+            mine.complete(value);
+            // the original stays untouched while followers copy it
+            return value != null ? copy.apply(value) : null;
+        } catch (Throwable t) {
+            // followers must never hang, whatever the leader threw
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private V await(Flight<V> leader) throws SQLException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a shared query", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        }
+    }
+
+    /** Number of calls that actually ran against the database. */
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    /** Number of calls that were merged into an already running call. */
+    public long getCollapsed() {
+        return collapsed.sum();
+    }
+
+    /** Number of keys with a call currently running. */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
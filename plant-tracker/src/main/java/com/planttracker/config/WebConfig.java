@@ -20,6 +20,7 @@ public class WebConfig {
                             "https://69a26a241c8f10f797f0d67a--funny-liger-c00f87.netlify.app" // if needed, exact preview host
                         )
                         .allowedMethods("GET","POST","PUT","DELETE","OPTIONS")
+                        .exposedHeaders("Idempotent-Replayed", "Server-Timing")
                         .allowCredentials(true)
                         .maxAge(3600);
             }
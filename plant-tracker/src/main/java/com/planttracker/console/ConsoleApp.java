@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.planttracker.dao.PlantDao;
 import com.planttracker.business.BusinessManager;
+import com.planttracker.data.DataProvider;
 
 import java.io.IOException;
 import java.net.URI;
@@ -17,7 +18,9 @@ import java.time.LocalDate;
  * - Set PLANT_SERVICE_URL env var to point at your service (defaults to
  *   https://csce548.onrender.com)
  * - Choose layer to test:
- *     TEST_LAYER env var or first command-line arg: "data" | "bus" | "svc"
+ *     TEST_LAYER env var or first command-line arg: "data" | "bus" | "svc" | "load"
+ *   "load" runs a concurrent load test against the service (see LoadGenerator
+ *   for the LOAD_* settings).
  *   Example:
  *     mvn compile exec:java -Dexec.mainClass="com.planttracker.console.ConsoleApp" -Dexec.args="data"
  */
@@ -32,6 +35,7 @@ import java.time.LocalDate;
  *   - Data layer (direct DAO): insert -> read -> update -> delete
  *   - Business layer (BusinessManager): same sequence using business API
  *   - Service layer (HTTP): same sequence via REST endpoints
+ *   - Load (HTTP): concurrent mixed traffic with throughput / latency report
  *
  * The service is assumed hosted at:
  *   https://csce548.onrender.com
@@ -67,6 +71,8 @@ public class ConsoleApp {
                 TestDataLayer();
             } else if ("bus".equalsIgnoreCase(layer) || "business".equalsIgnoreCase(layer)) {
                 TestBusinessLayer();
+            } else if ("load".equalsIgnoreCase(layer)) {
+                new LoadGenerator(CLIENT, MAPPER, BASE_URL).run();
             } else {
                 // default to service tests
                 TestServiceLayer();
@@ -140,7 +146,7 @@ public class ConsoleApp {
     // ---------------------------------------------------
     private static void TestDataLayer() {
         System.out.println("=== Running Data Layer Tests (direct DAO) ===");
-        PlantDao dao = new PlantDao();
+        PlantDao dao = DataProvider.forStore(System.getenv("PLANTTRACKER_STORE")).getPlantDao();
         try {
             // Build server-side model instance using fully-qualified class
             com.planttracker.model.Plant p = new com.planttracker.model.Plant();
@@ -182,7 +188,7 @@ public class ConsoleApp {
     // ---------------------------------------------------
     private static void TestBusinessLayer() {
         System.out.println("=== Running Business Layer Tests (BusinessManager) ===");
-        BusinessManager bm = new BusinessManager();
+        BusinessManager bm = new BusinessManager(DataProvider.forStore(System.getenv("PLANTTRACKER_STORE")));
         try {
             // Create server model instance
             com.planttracker.model.Plant p = new com.planttracker.model.Plant();
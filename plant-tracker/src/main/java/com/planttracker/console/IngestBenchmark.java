@@ -0,0 +1,151 @@
+package com.planttracker.console;
+
+import com.planttracker.dao.MeasurementDao;
+import com.planttracker.data.DataProvider;
+import com.planttracker.ingest.SensorIngestor;
+import com.planttracker.model.Measurement;
+import com.planttracker.model.MeasurementBatch;
+import com.planttracker.model.MeasurementBucket;
+import com.planttracker.model.MeasurementKind;
+import com.planttracker.model.Plant;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of the sensor ingestion path (SensorIngestor): producer threads offer
+ * requests of readings as fast as they are taken, backing off briefly when the
+ * queue is full, until every reading is written.
+ *
+ * Store (PLANTTRACKER_STORE): jdbc (default) writes real rows to the first
+ * BENCH_PLANTS plants of the database from DbConfig - use a scratch database;
+ * the readings are dated from 2001-01-01 on so they stay out of default chart
+ * ranges. memory creates its plants in an in-memory store. none discards the
+ * batches, which measures the ring and batching alone.
+ *
+ * Settings (env var or -D system property, env wins):
+ *   BENCH_READINGS   readings in total (default 1000000)
+ *   BENCH_PRODUCERS  producer threads, like concurrent requests (default 4)
+ *   BENCH_REQUEST    readings per offer, like one POST (default 500)
+ *   BENCH_PLANTS     plants the readings are spread over (default 100)
+ *   BENCH_BATCH, BENCH_WRITERS, BENCH_CAPACITY   SensorIngestor settings (5000, 2, 65536)
+ *
+ * Run: mvn compile exec:java -Dexec.mainClass=com.planttracker.console.IngestBenchmark
+ */
+public class IngestBenchmark {
+
+    private static final long START_MICROS = Instant.parse("2001-01-01T00:00:00Z").getEpochSecond() * 1_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        long total = Long.parseLong(setting("BENCH_READINGS", "1000000"));
+        int producers = Integer.parseInt(setting("BENCH_PRODUCERS", "4"));
+        int request = Integer.parseInt(setting("BENCH_REQUEST", "500"));
+        int plantCount = Integer.parseInt(setting("BENCH_PLANTS", "100"));
+        String store = setting("PLANTTRACKER_STORE", "jdbc");
+
+        MeasurementDao dao;
+        int[] plants;
+        if ("none".equalsIgnoreCase(store)) {
+            dao = new DiscardingDao();
+            plants = new int[plantCount];
+            for (int i = 0; i < plantCount; i++) {
+                plants[i] = i + 1;
+            }
+        } else {
+            DataProvider data = DataProvider.forStore(store);
+            dao = data.getMeasurementDao();
+            plants = plants(data, plantCount);
+            if (plants.length == 0) {
+                System.out.println("No plants in the database; add some first.");
+                return;
+            }
+        }
+
+        System.out.printf("Sensor ingestion benchmark: %d readings, %d producers x %d per request, %d plants, store %s%n",
+                total, producers, request, plants.length, store);
+        SensorIngestor ingestor = new SensorIngestor(dao,
+                Integer.parseInt(setting("BENCH_CAPACITY", "65536")),
+                Integer.parseInt(setting("BENCH_BATCH", "5000")),
+                Integer.parseInt(setting("BENCH_WRITERS", "2")),
+                50, SensorIngestor.Overflow.REJECT, 3);
+
+        AtomicLong next = new AtomicLong();   // readings handed out to producers
+        AtomicLong fullQueue = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(producers);
+        long t0 = System.nanoTime();
+        for (int p = 0; p < producers; p++) {
+            Thread t = new Thread(() -> {
+                MeasurementBatch batch = new MeasurementBatch(request);
+                long first;
+                while ((first = next.getAndAdd(request)) < total) {
+                    batch.clear();
+                    for (long i = first; i < Math.min(first + request, total); i++) {
+                        // one reading per plant per minute, soil moisture and light alternating
+                        batch.add(plants[(int) (i % plants.length)],
+                                (short) (i % 2 == 0 ? MeasurementKind.SOIL_MOISTURE : MeasurementKind.LIGHT).getCode(),
+                                START_MICROS + (i / plants.length) * 60_000_000L, (float) (i % 1000) / 10f);
+                    }
+                    while (ingestor.offer(batch) == 0) {
+                        fullQueue.incrementAndGet();
+                        LockSupport.parkNanos(100_000);
+                    }
+                }
+                done.countDown();
+            }, "bench-producer-" + p);
+            t.start();
+        }
+        done.await();
+        long offered = System.nanoTime() - t0;
+        if (!ingestor.flush(600_000)) {
+            System.out.println("Timed out waiting for the writers.");
+        }
+        long elapsed = System.nanoTime() - t0;
+        Map<String, Object> stats = ingestor.getStats();
+        ingestor.close();
+
+        System.out.printf("  queued by producers:  %10.0f readings/s  (%.2f s)%n", total / (offered / 1e9), offered / 1e9);
+        System.out.printf("  written end to end:   %10.0f readings/s  (%.2f s)%n", total / (elapsed / 1e9), elapsed / 1e9);
+        System.out.printf("  queue full (retried): %10d requests%n", fullQueue.get());
+        System.out.println("  " + stats);
+    }
+
+    private static int[] plants(DataProvider data, int count) throws SQLException {
+        if (!data.isInMemory()) {
+            return data.getPlantDao().findAll().stream().limit(count).mapToInt(Plant::getPlantId).toArray();
+        }
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            Plant p = new Plant();
+            p.setName("Bench " + i);
+            p.setType("Benchmark");
+            ids[i] = data.getPlantDao().insert(p);
+        }
+        return ids;
+    }
+
+    // store "none": counts as written, keeps nothing
+    private static final class DiscardingDao implements MeasurementDao {
+        public int insert(List<Measurement> measurements) { return measurements.size(); }
+        public int insertBatch(MeasurementBatch batch) { return batch.size(); }
+        public List<Measurement> findRange(int plantId, MeasurementKind kind, Instant from, Instant to, int limit) {
+            return List.of();
+        }
+        public List<MeasurementBucket> downsample(int plantId, MeasurementKind kind, Instant from, Instant to,
+                                                  long bucketSeconds) {
+            return List.of();
+        }
+    }
+
+    private static String setting(String name, String def) {
+        String v = System.getenv(name);
+        if (v == null || v.isBlank()) {
+            v = System.getProperty(name, def);
+        }
+        return v;
+    }
+}
@@ -0,0 +1,348 @@
+package com.planttracker.console;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP load generator used by the console client ("load" mode).
+ *
+ * Drives the PlantController endpoints with a weighted mix of operations and
+ * reports throughput plus latency percentiles (HdrHistogram) per endpoint.
+ *
+ * Settings (env var or -D system property, env wins):
+ *   LOAD_MIX          weighted mix, e.g. "list=10,get=60,create=10,update=15,delete=5"
+ *   LOAD_CONCURRENCY  max requests in flight (default 16)
+ *   LOAD_RATE         target requests/second; 0 = closed loop, as fast as possible (default 0)
+ *   LOAD_DURATION     run time in seconds (default 30)
+ *   LOAD_SEED         plants created before the run for get/update to target (default 10)
+ *
+ * Requests are sent with HttpClient.sendAsync so a single dispatcher thread can keep
+ * many requests in flight. With a fixed rate, latency is measured from the intended
+ * send time so a stalled server is not hidden by the generator slowing down
+ * (coordinated omission).
+ *
+ * All plants created by the run are deleted again at the end.
+ */
+public class LoadGenerator {
+
+    enum Op {
+        LIST("GET /api/plants"),
+        GET("GET /api/plants/{id}"),
+        CREATE("POST /api/plants"),
+        UPDATE("PUT /api/plants/{id}"),
+        DELETE("DELETE /api/plants/{id}");
+
+        final String label;
+
+        Op(String label) {
+            this.label = label;
+        }
+    }
+
+    private static class OpStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final HttpClient client;
+    private final ObjectMapper mapper;
+    private final String baseUrl;
+
+    private final Map<Op, Integer> mix;
+    private final int concurrency;
+    private final int rate;
+    private final int durationSeconds;
+    private final int seedCount;
+
+    private final Map<Op, OpStats> stats = new EnumMap<>(Op.class);
+    // ids created by this run; get/update/delete only ever target these
+    private final List<Integer> ids = new ArrayList<>();
+
+    public LoadGenerator(HttpClient client, ObjectMapper mapper, String baseUrl) {
+        this.client = client;
+        this.mapper = mapper;
+        this.baseUrl = baseUrl;
+        this.mix = parseMix(setting("LOAD_MIX", "list=10,get=60,create=10,update=15,delete=5"));
+        this.concurrency = Math.max(1, Integer.parseInt(setting("LOAD_CONCURRENCY", "16")));
+        this.rate = Math.max(0, Integer.parseInt(setting("LOAD_RATE", "0")));
+        this.durationSeconds = Math.max(1, Integer.parseInt(setting("LOAD_DURATION", "30")));
+        this.seedCount = Math.max(1, Integer.parseInt(setting("LOAD_SEED", "10")));
+        for (Op op : Op.values()) {
+            stats.put(op, new OpStats());
+        }
+    }
+
+    public void run() throws Exception {
+        System.out.println("=== Load test against " + baseUrl + " ===");
+        System.out.println("mix=" + mix + " concurrency=" + concurrency
+                + " rate=" + (rate == 0 ? "unbounded" : rate + "/s") + " duration=" + durationSeconds + "s");
+
+        seed();
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        long intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long nextSend = start;
+
+        while (System.nanoTime() < end) {
+            long intended;
+            if (rate > 0) {
+                long wait = nextSend - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                intended = nextSend;
+                nextSend += intervalNanos;
+                inFlight.acquire();
+            } else {
+                inFlight.acquire();
+                intended = System.nanoTime();
+            }
+            issue(pickOp(), intended).whenComplete((r, t) -> inFlight.release());
+        }
+
+        // drain everything still in flight before reporting
+        inFlight.acquire(concurrency);
+        long elapsed = System.nanoTime() - start;
+        inFlight.release(concurrency);
+
+        report(elapsed);
+        cleanup();
+    }
+
+    // ---------------------------------------------------
+    // Operations
+    // ---------------------------------------------------
+    private CompletableFuture<HttpResponse<String>> issue(Op op, long intendedNanos) {
+        HttpRequest request;
+        Integer id = null;
+        try {
+            switch (op) {
+                case LIST:
+                    request = get("/api/plants");
+                    break;
+                case GET:
+                    id = randomId();
+                    request = get("/api/plants/" + id);
+                    break;
+                case CREATE:
+                    request = send("POST", "/api/plants", newPlant("LOAD"));
+                    break;
+                case UPDATE:
+                    id = randomId();
+                    ConsoleApp.Plant p = newPlant("LOAD-UPD");
+                    p.setId(id);
+                    request = send("PUT", "/api/plants/" + id, p);
+                    break;
+                case DELETE:
+                    id = takeIdForDelete();
+                    if (id == null) {
+                        // nothing safe to delete right now; fall back to a read
+                        return issue(Op.GET, intendedNanos);
+                    }
+                    request = HttpRequest.newBuilder().uri(URI.create(baseUrl + "/api/plants/" + id)).DELETE().build();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown op " + op);
+            }
+        } catch (Exception e) {
+            stats.get(op).errors.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        OpStats s = stats.get(op);
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((resp, err) -> {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+                    s.latencyMicros.recordValue(Math.max(0, micros));
+                    if (err != null || resp.statusCode() >= 300) {
+                        s.errors.increment();
+                        return;
+                    }
+                    s.ok.increment();
+                    if (op == Op.CREATE) {
+                        rememberCreated(resp.body());
+                    }
+                });
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest send(String method, String path, ConsoleApp.Plant body) throws Exception {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private static ConsoleApp.Plant newPlant(String prefix) {
+        ConsoleApp.Plant p = new ConsoleApp.Plant();
+        p.setName(prefix + "-" + System.nanoTime());
+        p.setType("LoadPlant");
+        p.setHeight(ThreadLocalRandom.current().nextInt(1, 200) / 2.0);
+        p.setDateAcquired(LocalDate.now());
+        p.setLocationName("Load Room");
+        return p;
+    }
+
+    // ---------------------------------------------------
+    // Id pool
+    // ---------------------------------------------------
+    private void seed() throws Exception {
+        System.out.println("Seeding " + seedCount + " plants...");
+        for (int i = 0; i < seedCount; i++) {
+            HttpResponse<String> resp = client.send(send("POST", "/api/plants", newPlant("LOAD-SEED")),
+                    HttpResponse.BodyHandlers.ofString());
+            if (resp.statusCode() >= 300) {
+                throw new IllegalStateException("Seeding failed: " + resp.statusCode() + " " + resp.body());
+            }
+            rememberCreated(resp.body());
+        }
+    }
+
+    private void rememberCreated(String body) {
+        try {
+            ConsoleApp.Plant created = mapper.readValue(body, ConsoleApp.Plant.class);
+            if (created.getId() != null) {
+                synchronized (ids) {
+                    ids.add(created.getId());
+                }
+            }
+        } catch (Exception ignored) {
+            // counted as a successful request already; the id just isn't reusable
+        }
+    }
+
+    private Integer randomId() {
+        synchronized (ids) {
+            return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+    }
+
+    // never shrink the pool below the seed size so get/update always have targets
+    private Integer takeIdForDelete() {
+        synchronized (ids) {
+            if (ids.size() <= seedCount) {
+                return null;
+            }
+            return ids.remove(ids.size() - 1);
+        }
+    }
+
+    private void cleanup() {
+        List<Integer> remaining;
+        synchronized (ids) {
+            remaining = new ArrayList<>(ids);
+            ids.clear();
+        }
+        System.out.println("Cleaning up " + remaining.size() + " plants created by the run...");
+        for (Integer id : remaining) {
+            try {
+                client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl + "/api/plants/" + id)).DELETE().build(),
+                        HttpResponse.BodyHandlers.discarding());
+            } catch (Exception e) {
+                System.err.println("Cleanup of plant " + id + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // ---------------------------------------------------
+    // Mix / settings / report
+    // ---------------------------------------------------
+    private Op pickOp() {
+        int total = 0;
+        for (int w : mix.values()) {
+            total += w;
+        }
+        int r = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Op, Integer> e : mix.entrySet()) {
+            r -= e.getValue();
+            if (r < 0) {
+                return e.getKey();
+            }
+        }
+        return Op.LIST;
+    }
+
+    static Map<Op, Integer> parseMix(String spec) {
+        Map<Op, Integer> out = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad LOAD_MIX entry: " + part);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                out.put(Op.valueOf(kv[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (out.isEmpty()) {
+            throw new IllegalArgumentException("LOAD_MIX has no positive weights: " + spec);
+        }
+        return out;
+    }
+
+    private static String setting(String name, String def) {
+        String v = System.getenv(name);
+        if (v == null || v.isBlank()) {
+            v = System.getProperty(name, def);
+        }
+        return v;
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long totalOk = 0;
+        long totalErr = 0;
+
+        System.out.println();
+        System.out.printf("%-24s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "OK", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Op op : Op.values()) {
+            OpStats s = stats.get(op);
+            long ok = s.ok.sum();
+            long err = s.errors.sum();
+            if (ok + err == 0) {
+                continue;
+            }
+            totalOk += ok;
+            totalErr += err;
+            Histogram h = s.latencyMicros;
+            System.out.printf("%-24s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    op.label, ok, err, (ok + err) / seconds,
+                    h.getValueAtPercentile(50) / 1000.0,
+                    h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0,
+                    h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0);
+        }
+        System.out.printf("Total: %d ok, %d errors in %.1fs (%.1f req/s)%n",
+                totalOk, totalErr, seconds, (totalOk + totalErr) / seconds);
+    }
+}
@@ -0,0 +1,230 @@
+package com.planttracker.console;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.planttracker.model.Care;
+import com.planttracker.model.Information;
+import com.planttracker.model.Location;
+import com.planttracker.model.Plant;
+import com.planttracker.service.rpc.ProtoMapping;
+import com.planttracker.service.rpc.proto.ListPlantsRequest;
+import com.planttracker.service.rpc.proto.Parts;
+import com.planttracker.service.rpc.proto.PlantRecord;
+import com.planttracker.service.rpc.proto.PlantServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload size and CPU per request of the JSON API against the protobuf / gRPC one.
+ *
+ * Codec mode (default, no server needed): a list of BENCH_PLANTS generated plants
+ * is encoded and decoded the way each side of a request does it, Jackson (as
+ * configured by Spring Boot: java.time module, ISO dates) against protobuf
+ * (ProtoMapping + delimited PlantRecords, as on a ListPlants stream). Once with
+ * plants only (GET /api/plants) and once with care, information and location.
+ * CPU is the benchmark thread's CPU time.
+ *
+ * Server mode (BENCH_URL and BENCH_GRPC set): GET BENCH_URL/api/plants against
+ * ListPlants on BENCH_GRPC (host:port) of a running service, measuring the client's
+ * wall and CPU time and the bytes received.
+ *
+ * Settings (env var or -D system property, env wins):
+ *   BENCH_PLANTS      plants per response in codec mode (default 1000)
+ *   BENCH_ITERATIONS  timed requests per variant (default 200, after as many warm-up ones)
+ *   BENCH_URL         e.g. http://localhost:8080
+ *   BENCH_GRPC        e.g. localhost:9090
+ *
+ * Run: mvn compile exec:java -Dexec.mainClass=com.planttracker.console.ProtoBenchmark
+ */
+public class ProtoBenchmark {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final TypeReference<List<Plant>> PLANT_LIST = new TypeReference<>() { };
+    private static final TypeReference<List<Map<String, Object>>> RECORD_LIST = new TypeReference<>() { };
+
+    // keeps the JIT from discarding the decoded objects
+    private static volatile long sink;
+
+    private interface Request {
+        long run() throws Exception; // returns the bytes on the wire
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = Integer.parseInt(setting("BENCH_ITERATIONS", "200"));
+        String url = setting("BENCH_URL", "");
+        String grpc = setting("BENCH_GRPC", "");
+        ObjectMapper json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        if (!url.isBlank() && !grpc.isBlank()) {
+            server(json, url, grpc, iterations);
+        } else {
+            codec(json, Integer.parseInt(setting("BENCH_PLANTS", "1000")), iterations);
+        }
+    }
+
+    private static void codec(ObjectMapper json, int n, int iterations) throws Exception {
+        List<Plant> plants = new ArrayList<>();
+        List<Map<String, Object>> records = new ArrayList<>();
+        List<Care> care = new ArrayList<>();
+        List<Information> info = new ArrayList<>();
+        List<Location> locations = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            Plant p = new Plant(i, "Plant " + i, "Type " + (i % 20), i % 7 == 0 ? null : (i % 200) / 2.0,
+                    LocalDate.of(2023, 1, 1).plusDays(i % 700), "Room " + (i % 12));
+            p.setVersion(i % 5);
+            Care c = new Care(i, LocalDate.of(2025, 3, 1).plusDays(i % 90), LocalDate.of(2026, 9, 1).plusDays(i % 30));
+            c.setVersion(0);
+            Information inf = new Information(i, i % 3 == 0, "Potting mix " + (i % 4), (10 + i % 20) + " cm", i % 2 == 0);
+            inf.setVersion(0);
+            Location l = new Location(i, "Room " + (i % 12), i % 2 == 0 ? "Bright" : "Indirect");
+            l.setLocationId(i % 12 + 1);
+            l.setVersion(0);
+            plants.add(p);
+            care.add(c);
+            info.add(inf);
+            locations.add(l);
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("plant", p);
+            r.put("care", c);
+            r.put("information", inf);
+            r.put("location", l);
+            records.add(r);
+        }
+
+        System.out.println("JSON vs protobuf, " + n + " plants per response, " + iterations + " iterations");
+        Request jsonPlants = () -> {
+            byte[] body = json.writeValueAsBytes(plants);
+            sink += json.readValue(body, PLANT_LIST).size();
+            return body.length;
+        };
+        Request protoPlants = () -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (Plant p : plants) {
+                PlantRecord.newBuilder().setPlant(ProtoMapping.toProto(p)).build().writeDelimitedTo(out);
+            }
+            return decodeProto(out.toByteArray());
+        };
+        Request jsonRecords = () -> {
+            byte[] body = json.writeValueAsBytes(records);
+            sink += json.readValue(body, RECORD_LIST).size();
+            return body.length;
+        };
+        Request protoRecords = () -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int i = 0; i < n; i++) {
+                PlantRecord.newBuilder()
+                        .setPlant(ProtoMapping.toProto(plants.get(i)))
+                        .setCare(ProtoMapping.toProto(care.get(i)))
+                        .setInformation(ProtoMapping.toProto(info.get(i)))
+                        .setLocation(ProtoMapping.toProto(locations.get(i)))
+                        .build().writeDelimitedTo(out);
+            }
+            return decodeProto(out.toByteArray());
+        };
+
+        compare("plants", jsonPlants, protoPlants, iterations);
+        compare("plants + care, information, location", jsonRecords, protoRecords, iterations);
+    }
+
+    // what a client does with the stream: parse each record back into model objects
+    private static long decodeProto(byte[] bytes) throws IOException {
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+        PlantRecord r;
+        long count = 0;
+        while ((r = PlantRecord.parseDelimitedFrom(in)) != null) {
+            count += ProtoMapping.fromProto(r.getPlant()).getPlantId();
+            if (r.hasCare()) count += ProtoMapping.fromProto(r.getCare()).getPlantId();
+            if (r.hasInformation()) count += ProtoMapping.fromProto(r.getInformation()).getPlantId();
+            if (r.hasLocation()) count += ProtoMapping.fromProto(r.getLocation()).getPlantId();
+        }
+        sink += count;
+        return bytes.length;
+    }
+
+    private static void server(ObjectMapper json, String url, String target, int iterations) throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest get = HttpRequest.newBuilder(URI.create(url.replaceAll("/+$", "") + "/api/plants")).build();
+        ManagedChannel channel = ManagedChannelBuilder.forTarget(target).usePlaintext().build();
+        try {
+            PlantServiceGrpc.PlantServiceBlockingStub stub = PlantServiceGrpc.newBlockingStub(channel);
+            ListPlantsRequest list = ListPlantsRequest.newBuilder().setParts(Parts.getDefaultInstance()).build();
+
+            System.out.println("GET /api/plants vs ListPlants against " + url + " / " + target
+                    + ", " + iterations + " iterations");
+            Request jsonPlants = () -> {
+                HttpResponse<byte[]> response = http.send(get, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() != 200) {
+                    throw new IOException("GET /api/plants: " + response.statusCode());
+                }
+                sink += json.readValue(response.body(), PLANT_LIST).size();
+                return response.body().length;
+            };
+            Request protoPlants = () -> {
+                long bytes = 0;
+                for (Iterator<PlantRecord> it = stub.listPlants(list); it.hasNext(); ) {
+                    PlantRecord r = it.next();
+                    bytes += r.getSerializedSize();
+                    sink += ProtoMapping.fromProto(r.getPlant()).getPlantId();
+                }
+                return bytes;
+            };
+            compare("plants (client side)", jsonPlants, protoPlants, iterations);
+        } finally {
+            channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void compare(String what, Request json, Request proto, int iterations) throws Exception {
+        // warm up both before measuring either
+        measure(json, iterations);
+        measure(proto, iterations);
+        double[] j = measure(json, iterations);
+        double[] p = measure(proto, iterations);
+        System.out.println("  " + what + ":");
+        System.out.printf("    JSON:      %,10.0f bytes  %8.3f ms CPU  %8.3f ms wall  per request%n", j[0], j[1], j[2]);
+        System.out.printf("    protobuf:  %,10.0f bytes  %8.3f ms CPU  %8.3f ms wall  per request%n", p[0], p[1], p[2]);
+        System.out.printf("    protobuf / JSON: %.2f size, %.2f CPU%n", p[0] / j[0], p[1] / j[1]);
+    }
+
+    // bytes, CPU ms and wall ms per request
+    private static double[] measure(Request request, int iterations) throws Exception {
+        long bytes = 0;
+        long cpu0 = THREADS.getCurrentThreadCpuTime();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes += request.run();
+        }
+        long wall = System.nanoTime() - t0;
+        long cpu = THREADS.getCurrentThreadCpuTime() - cpu0;
+        return new double[] { (double) bytes / iterations, cpu / 1e6 / iterations, wall / 1e6 / iterations };
+    }
+
+    private static String setting(String name, String def) {
+        String v = System.getenv(name);
+        if (v == null || v.isBlank()) {
+            v = System.getProperty(name, def);
+        }
+        return v;
+    }
+}
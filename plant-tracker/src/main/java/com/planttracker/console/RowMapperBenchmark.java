@@ -0,0 +1,119 @@
+package com.planttracker.console;
+
+import com.planttracker.DbUtil;
+import com.planttracker.dao.RowMappers;
+import com.planttracker.dao.Rows;
+import com.planttracker.model.Plant;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Compares the old per-row, by-name column mapping of the plant DAO with
+ * RowMappers.PLANT (positions resolved once per statement).
+ *
+ * Uses the database from DbConfig but doesn't touch any table: rows shaped like
+ * the plant query come from generate_series. Only the mapping loop is timed; the
+ * driver has already received the whole result when executeQuery returns.
+ *
+ * Settings (env var or -D system property, env wins):
+ *   BENCH_ROWS        rows per query (default 100000)
+ *   BENCH_ITERATIONS  timed runs per variant (default 10, after as many warm-up runs)
+ *
+ * Run: mvn compile exec:java -Dexec.mainClass=com.planttracker.console.RowMapperBenchmark
+ */
+public class RowMapperBenchmark {
+
+    private static final String SQL = "SELECT g AS Plant_ID, 'Plant ' || g AS Name, 'Type ' || (g % 20) AS Type, "
+            + "CASE WHEN g % 7 = 0 THEN NULL ELSE (g % 200)::numeric(6,2) END AS Height, "
+            + "DATE '2023-01-01' + (g % 700) AS DateAcquired, 'Room ' || (g % 12) AS location_name, 0 AS version "
+            + "FROM generate_series(1, ?) g";
+
+    // keeps the JIT from discarding the mapped rows
+    private static volatile long sink;
+
+    private interface Mapping {
+        long run(ResultSet rs) throws SQLException;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int rows = Integer.parseInt(setting("BENCH_ROWS", "100000"));
+        int iterations = Integer.parseInt(setting("BENCH_ITERATIONS", "10"));
+
+        System.out.println("Row mapping benchmark: " + rows + " rows x " + iterations + " iterations");
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(SQL)) {
+            ps.setInt(1, rows);
+
+            Mapping byName = RowMapperBenchmark::mapByName;
+            Mapping compiled = rs -> {
+                int[] col = Rows.resolve(rs, RowMappers.PLANT);
+                long sum = 0;
+                while (rs.next()) {
+                    sum += RowMappers.PLANT.map(rs, col).getPlantId();
+                }
+                return sum;
+            };
+
+            // warm up both before measuring either
+            time(ps, byName, iterations);
+            time(ps, compiled, iterations);
+
+            double a = time(ps, byName, iterations) / rows;
+            double b = time(ps, compiled, iterations) / rows;
+            System.out.printf("  by column name (old):   %8.1f ns/row%n", a);
+            System.out.printf("  RowMappers.PLANT:       %8.1f ns/row%n", b);
+            System.out.printf("  speed-up:               %8.2fx%n", a / b);
+        }
+    }
+
+    // average nanoseconds per iteration spent in the mapping loop
+    private static double time(PreparedStatement ps, Mapping mapping, int iterations) throws SQLException {
+        long total = 0;
+        long check = 0;
+        for (int i = 0; i < iterations; i++) {
+            try (ResultSet rs = ps.executeQuery()) {
+                long t0 = System.nanoTime();
+                check += mapping.run(rs);
+                total += System.nanoTime() - t0;
+            }
+        }
+        sink = check;
+        return (double) total / iterations;
+    }
+
+    // the mapping code PlantDao.findAll used before RowMappers
+    private static long mapByName(ResultSet rs) throws SQLException {
+        long sum = 0;
+        while (rs.next()) {
+            Plant p = new Plant();
+            p.setPlantId(rs.getInt("Plant_ID"));
+            p.setName(rs.getString("Name"));
+            p.setType(rs.getString("Type"));
+
+            double h = rs.getDouble("Height");
+            if (!rs.wasNull())
+                p.setHeight(h);
+
+            Date da = rs.getDate("DateAcquired");
+            if (da != null)
+                p.setDateAcquired(da.toLocalDate());
+
+            p.setLocationName(rs.getString("location_name"));
+            p.setVersion(rs.getInt("version"));
+            sum += p.getPlantId();
+        }
+        return sum;
+    }
+
+    private static String setting(String name, String def) {
+        String v = System.getenv(name);
+        if (v == null || v.isBlank()) {
+            v = System.getProperty(name, def);
+        }
+        return v;
+    }
+}
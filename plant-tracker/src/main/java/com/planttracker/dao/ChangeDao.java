@@ -0,0 +1,19 @@
+package com.planttracker.dao;
+
+import com.planttracker.model.ChangeSet;
+
+import java.sql.SQLException;
+import java.time.Instant;
+
+/** Change feed over all four tables (GET /api/changes). */
+public interface ChangeDao {
+
+    /** Rows changed since cursor (0 = everything); see ChangeSet. */
+    ChangeSet changesSince(long cursor) throws SQLException;
+
+    /**
+     * Delete tombstones of rows deleted before the given time; later calls with an
+     * older cursor get a full change set. Returns the number deleted.
+     */
+    int purgeTombstones(Instant deletedBefore) throws SQLException;
+}
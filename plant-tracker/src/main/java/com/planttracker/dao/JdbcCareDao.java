@@ -0,0 +1,113 @@
+package com.planttracker.dao;
+
+import com.planttracker.DbUtil;
+import com.planttracker.model.Care;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class JdbcCareDao implements CareDao {
+
+    public JdbcCareDao() { }
+
+    // Insert a care record for a plant. Uses Plant_ID as the key column.
+    public int insert(Care cObj) throws SQLException {
+        String sql = "INSERT INTO Care (Plant_ID, LastSoilChange, LastWatering) VALUES (?, ?, ?)";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, cObj.getPlantId());
+
+            if (cObj.getLastSoilChange() != null)
+                ps.setDate(2, Date.valueOf(cObj.getLastSoilChange()));
+            else
+                ps.setNull(2, Types.DATE);
+
+            if (cObj.getLastWatering() != null)
+                ps.setDate(3, Date.valueOf(cObj.getLastWatering()));
+            else
+                ps.setNull(3, Types.DATE);
+
+            int affected = ps.executeUpdate();
+            cObj.setVersion(0);
+            return affected;
+        }
+    }
+
+    // Update care by Plant_ID (assumes one care row per plant).
+    // Compare-and-set when cObj.getVersion() is set (see Versioning); the new version
+    // is written back to cObj. Returns rows updated (0 = no care row).
+    public int updateByPlantId(Care cObj) throws SQLException {
+        String sql = "UPDATE Care SET LastSoilChange = ?, LastWatering = ?, version = version + 1 WHERE Plant_ID = ?"
+                + Versioning.casClause(cObj.getVersion()) + " RETURNING version";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            if (cObj.getLastSoilChange() != null)
+                ps.setDate(1, Date.valueOf(cObj.getLastSoilChange()));
+            else
+                ps.setNull(1, Types.DATE);
+
+            if (cObj.getLastWatering() != null)
+                ps.setDate(2, Date.valueOf(cObj.getLastWatering()));
+            else
+                ps.setNull(2, Types.DATE);
+
+            ps.setInt(3, cObj.getPlantId());
+            if (cObj.getVersion() != null)
+                ps.setInt(4, cObj.getVersion());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    cObj.setVersion(rs.getInt(1));
+                    return 1;
+                }
+            }
+            Versioning.checkConflict(c, "Care", cObj.getPlantId(), cObj.getVersion());
+            return 0;
+        }
+    }
+
+    public int deleteByPlantId(int plantId) throws SQLException {
+        String sql = "DELETE FROM Care WHERE Plant_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, plantId);
+            return ps.executeUpdate();
+        }
+    }
+
+    public Care findByPlantId(int plantId) throws SQLException {
+        String sql = "SELECT Plant_ID, LastSoilChange, LastWatering, version FROM Care WHERE Plant_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, plantId);
+            return Rows.first(ps, RowMappers.CARE);
+        }
+    }
+
+    public List<Care> findByPlantIds(Collection<Integer> plantIds) throws SQLException {
+        if (plantIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT Plant_ID, LastSoilChange, LastWatering, version FROM Care WHERE Plant_ID = ANY(?)";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setArray(1, c.createArrayOf("integer", plantIds.toArray()));
+            return Rows.list(ps, RowMappers.CARE);
+        }
+    }
+
+    public List<Care> findAll() throws SQLException {
+        String sql = "SELECT Plant_ID, LastSoilChange, LastWatering, version FROM Care";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            return Rows.list(ps, RowMappers.CARE);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.planttracker.dao;
+
+import com.planttracker.DbUtil;
+import com.planttracker.model.ChangeSet;
+import com.planttracker.model.Plant;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Change feed from the change_seq columns and Change_Tombstone table (see
+ * db_migration_03_change_tracking.sql). Every query is an index range scan on
+ * change_seq, so the cost follows the number of changes, not the inventory size.
+ *
+ * change_seq is the id of the writing transaction, and ids are handed out before
+ * commit. The returned cursor is therefore the oldest transaction still running
+ * in this read's snapshot: everything older is visible now, anything newer is
+ * read again next time.
+ *
+ * Tombstones are purged after a retention period (purgeTombstones, from the job
+ * housekeeping). A cursor not newer than the last purged one may have missed a
+ * delete, so it gets a full change set, like the first call.
+ */
+public class JdbcChangeDao implements ChangeDao {
+
+    private static final String SNAPSHOT_XMIN = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint, "
+            + "(SELECT purged_seq FROM Change_Purge)";
+
+    // A plant also counts as changed when its room was renamed or relit. Written as
+    // a UNION so both halves use an index (an OR over the subquery scans Plant).
+    private static final String CHANGED_PLANT = "p.Plant_ID IN ("
+            + "SELECT Plant_ID FROM Plant WHERE change_seq >= ? UNION "
+            + "SELECT Plant_ID FROM Plant WHERE Location_ID IN (SELECT Location_ID FROM Location WHERE change_seq >= ?))";
+
+    private static final String TOMBSTONES = "SELECT t.table_name, t.row_id FROM Change_Tombstone t "
+            + "WHERE t.change_seq >= ? AND NOT CASE t.table_name "
+            + "WHEN 'plant' THEN EXISTS (SELECT 1 FROM Plant x WHERE x.Plant_ID = t.row_id) "
+            + "WHEN 'care' THEN EXISTS (SELECT 1 FROM Care x WHERE x.Plant_ID = t.row_id) "
+            + "ELSE EXISTS (SELECT 1 FROM Information x WHERE x.Plant_ID = t.row_id) END";
+
+    public ChangeSet changesSince(long cursor) throws SQLException {
+        // one snapshot for the cursor and all reads
+        return DbUtil.inTransaction(Connection.TRANSACTION_REPEATABLE_READ, () -> {
+            try (Connection c = DbUtil.getConnection()) {
+                long[] snapshot = snapshot(c);
+                ChangeSet cs = new ChangeSet(snapshot[0], cursor <= 0 || cursor <= snapshot[1]);
+                long since = cs.isFull() ? 0 : cursor;
+                cs.setPlants(list(c, JdbcPlantDao.SELECT_PLANT + " WHERE " + CHANGED_PLANT, RowMappers.PLANT, since, 2));
+                cs.setCare(list(c, "SELECT Plant_ID, LastSoilChange, LastWatering, version FROM Care WHERE change_seq >= ?",
+                        RowMappers.CARE, since, 1));
+                cs.setInformation(list(c, "SELECT Plant_ID, FromAnotherPlant, SoilType, PotSize, WaterGlobeRequired, version "
+                        + "FROM Information WHERE change_seq >= ?", RowMappers.INFORMATION, since, 1));
+                cs.setLocations(list(c, "SELECT p.Plant_ID, l.Location_ID, l.location_name, l.LightLevel, l.version "
+                        + "FROM Plant p JOIN Location l ON l.Location_ID = p.Location_ID WHERE " + CHANGED_PLANT,
+                        RowMappers.LOCATION, since, 2));
+                for (Plant p : cs.getPlants()) {
+                    if (p.getLocationName() == null) {
+                        cs.getDeletedLocations().add(p.getPlantId());
+                    }
+                }
+                if (!cs.isFull()) {
+                    addTombstones(c, cs, cursor);
+                }
+                return cs;
+            }
+        });
+    }
+
+    public int purgeTombstones(Instant deletedBefore) throws SQLException {
+        String sql = "WITH gone AS (DELETE FROM Change_Tombstone WHERE deleted_at < ? RETURNING change_seq), "
+                + "horizon AS (UPDATE Change_Purge SET purged_seq = GREATEST(purged_seq, (SELECT max(change_seq) FROM gone)) "
+                + "  WHERE EXISTS (SELECT 1 FROM gone)) "
+                + "SELECT count(*) FROM gone";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.from(deletedBefore));
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    // the snapshot's xmin (the next cursor) and the newest purged tombstone's change_seq
+    private static long[] snapshot(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SNAPSHOT_XMIN);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return new long[] { rs.getLong(1), rs.getLong(2) };
+        }
+    }
+
+    // binds cursor to the first n parameters
+    private static <T> List<T> list(Connection c, String sql, RowMapper<T> mapper, long cursor, int n)
+            throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 1; i <= n; i++) {
+                ps.setLong(i, cursor);
+            }
+            return Rows.list(ps, mapper);
+        }
+    }
+
+    private static void addTombstones(Connection c, ChangeSet cs, long cursor) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(TOMBSTONES)) {
+            ps.setLong(1, cursor);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt(2);
+                    switch (rs.getString(1)) {
+                        case "plant": cs.getDeletedPlants().add(id); break;
+                        case "care": cs.getDeletedCare().add(id); break;
+                        default: cs.getDeletedInformation().add(id); break;
+                    }
+                }
+            }
+        }
+    }
+}
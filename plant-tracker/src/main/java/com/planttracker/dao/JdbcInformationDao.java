@@ -0,0 +1,116 @@
+package com.planttracker.dao;
+
+import com.planttracker.DbUtil;
+import com.planttracker.model.Information;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class JdbcInformationDao implements InformationDao {
+    public JdbcInformationDao() {
+        // no url/user/pass needed if DbUtil.getConnection() is the no-arg version
+    }
+
+    // Insert using fields that actually exist on Information.java
+    public int insert(Information info) throws SQLException {
+        String sql = "INSERT INTO Information (Plant_ID, FromAnotherPlant, SoilType, PotSize, WaterGlobeRequired) VALUES (?, ?, ?, ?, ?)";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            // Use the model's getters (not getNotes())
+            ps.setInt(1, info.getPlantId());
+            ps.setBoolean(2, info.isFromAnotherPlant());
+            ps.setString(3, info.getSoilType());
+            ps.setString(4, info.getPotSize());
+            ps.setBoolean(5, info.isWaterGlobeRequired());
+
+            int affected = ps.executeUpdate();
+            info.setVersion(0);
+            // if you have an auto-generated key and an id field in your model, set it here:
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) {
+                    // if your model had an id field, you'd call something like
+                    // info.setId(rs.getInt(1));
+                }
+            }
+            return affected;
+        }
+    }
+
+    public int update(Information info) throws SQLException {
+        // Plant_ID is the key of Information, so this is the same as updateByPlantId
+        return updateByPlantId(info);
+    }
+
+    public int deleteByPlantId(int plantId) throws SQLException {
+        String sql = "DELETE FROM Information WHERE Plant_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, plantId);
+            return ps.executeUpdate();
+        }
+    }
+
+    public Information findByPlantId(int plantId) throws SQLException {
+        String sql = "SELECT Plant_ID, FromAnotherPlant, SoilType, PotSize, WaterGlobeRequired, version FROM Information WHERE Plant_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, plantId);
+            return Rows.first(ps, RowMappers.INFORMATION);
+        }
+    }
+
+    public List<Information> findByPlantIds(Collection<Integer> plantIds) throws SQLException {
+        if (plantIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT Plant_ID, FromAnotherPlant, SoilType, PotSize, WaterGlobeRequired, version FROM Information "
+                + "WHERE Plant_ID = ANY(?)";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setArray(1, c.createArrayOf("integer", plantIds.toArray()));
+            return Rows.list(ps, RowMappers.INFORMATION);
+        }
+    }
+
+    public List<Information> findAll() throws SQLException {
+        String sql = "SELECT Plant_ID, FromAnotherPlant, SoilType, PotSize, WaterGlobeRequired, version FROM Information";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+            return Rows.list(ps, RowMappers.INFORMATION);
+        }
+    }
+
+    // Compare-and-set when info.getVersion() is set (see Versioning); the new version
+    // is written back to info. Returns rows updated (0 = no information row).
+    public int updateByPlantId(Information info) throws SQLException {
+        String sql = "UPDATE Information SET FromAnotherPlant = ?, SoilType = ?, PotSize = ?, WaterGlobeRequired = ?, "
+                + "version = version + 1 WHERE Plant_ID = ?" + Versioning.casClause(info.getVersion()) + " RETURNING version";
+
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setBoolean(1, info.isFromAnotherPlant());
+            ps.setString(2, info.getSoilType());
+            ps.setString(3, info.getPotSize());
+            ps.setBoolean(4, info.isWaterGlobeRequired());
+            ps.setInt(5, info.getPlantId());
+            if (info.getVersion() != null)
+                ps.setInt(6, info.getVersion());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    info.setVersion(rs.getInt(1));
+                    return 1;
+                }
+            }
+            Versioning.checkConflict(c, "Information", info.getPlantId(), info.getVersion());
+            return 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.planttracker.dao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planttracker.DbUtil;
+import com.planttracker.model.Job;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/** Jobs in the Job table (db_migration_06_jobs.sql); params and result are JSONB. */
+public class JdbcJobDao implements JobDao {
+
+    private static final String COLUMNS = "Job_ID, Type, State, Params, Total, Done, Message, Result, "
+            + "CancelRequested, CreatedAt, StartedAt, FinishedAt";
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() { };
+
+    private static final RowMapper<Job> JOB = new RowMapper<Job>() {
+        private final String[] columns = { "Job_ID", "Type", "State", "Params", "Total", "Done", "Message", "Result",
+                "CancelRequested", "CreatedAt", "StartedAt", "FinishedAt" };
+
+        @Override
+        public String[] columns() {
+            return columns;
+        }
+
+        @Override
+        public Job map(ResultSet rs, int[] col) throws SQLException {
+            Job j = new Job();
+            j.setJobId(rs.getLong(col[0]));
+            j.setType(rs.getString(col[1]));
+            j.setState(rs.getString(col[2]));
+            j.setParams(fromJson(rs.getString(col[3])));
+            j.setTotal(rs.getLong(col[4]));
+            j.setDone(rs.getLong(col[5]));
+            j.setMessage(rs.getString(col[6]));
+            j.setResult(fromJson(rs.getString(col[7])));
+            j.setCancelRequested(rs.getBoolean(col[8]));
+            j.setCreatedAt(instant(rs.getTimestamp(col[9])));
+            j.setStartedAt(instant(rs.getTimestamp(col[10])));
+            j.setFinishedAt(instant(rs.getTimestamp(col[11])));
+            return j;
+        }
+    };
+
+    public long insert(Job job) throws SQLException {
+        String sql = "INSERT INTO Job (Type, State, Params) VALUES (?, ?, ?::jsonb) RETURNING Job_ID, CreatedAt";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, job.getType());
+            ps.setString(2, job.getState());
+            ps.setString(3, toJson(job.getParams()));
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                job.setJobId(rs.getLong(1));
+                job.setCreatedAt(rs.getTimestamp(2).toInstant());
+                return job.getJobId();
+            }
+        }
+    }
+
+    public Job findById(long jobId) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM Job WHERE Job_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setLong(1, jobId);
+            return Rows.first(ps, JOB);
+        }
+    }
+
+    public List<Job> findRecent(int limit) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM Job ORDER BY Job_ID DESC LIMIT ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, limit);
+            return Rows.list(ps, JOB);
+        }
+    }
+
+    public boolean markRunning(long jobId, Instant startedAt) throws SQLException {
+        String sql = "UPDATE Job SET State = 'running', StartedAt = ?, UpdatedAt = now() "
+                + "WHERE Job_ID = ? AND State = 'queued' AND NOT CancelRequested";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.from(startedAt));
+            ps.setLong(2, jobId);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    public boolean updateProgress(long jobId, long done, long total) throws SQLException {
+        String sql = "UPDATE Job SET Done = ?, Total = ?, UpdatedAt = now() WHERE Job_ID = ? RETURNING CancelRequested";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setLong(1, done);
+            ps.setLong(2, total);
+            ps.setLong(3, jobId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    public void finish(Job job) throws SQLException {
+        String sql = "UPDATE Job SET State = ?, Done = ?, Total = ?, Message = ?, Result = ?::jsonb, "
+                + "StartedAt = ?, FinishedAt = ?, UpdatedAt = now() WHERE Job_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, job.getState());
+            ps.setLong(2, job.getDone());
+            ps.setLong(3, job.getTotal());
+            ps.setString(4, job.getMessage());
+            ps.setString(5, toJson(job.getResult()));
+            ps.setTimestamp(6, job.getStartedAt() != null ? Timestamp.from(job.getStartedAt()) : null);
+            ps.setTimestamp(7, Timestamp.from(job.getFinishedAt()));
+            ps.setLong(8, job.getJobId());
+            ps.executeUpdate();
+        }
+    }
+
+    public boolean requestCancel(long jobId) throws SQLException {
+        String sql = "UPDATE Job SET CancelRequested = TRUE WHERE Job_ID = ? AND State IN ('queued', 'running')";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setLong(1, jobId);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    public void heartbeat(Collection<Long> jobIds) throws SQLException {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE Job SET UpdatedAt = now() WHERE Job_ID = ANY(?) AND State IN ('queued', 'running')";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setArray(1, c.createArrayOf("bigint", jobIds.toArray()));
+            ps.executeUpdate();
+        }
+    }
+
+    public int failStale(Instant before, String message) throws SQLException {
+        String sql = "UPDATE Job SET State = 'failed', Message = ?, FinishedAt = now(), UpdatedAt = now() "
+                + "WHERE State IN ('queued', 'running') AND UpdatedAt < ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, message);
+            ps.setTimestamp(2, Timestamp.from(before));
+            return ps.executeUpdate();
+        }
+    }
+
+    public List<Long> deleteFinishedBefore(Instant before) throws SQLException {
+        String sql = "DELETE FROM Job WHERE State IN ('succeeded', 'failed', 'cancelled') AND FinishedAt < ? "
+                + "RETURNING Job_ID";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.from(before));
+            List<Long> ids = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            return ids;
+        }
+    }
+
+    private static String toJson(Map<String, Object> value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Job value is not JSON-serializable", "22023", e);
+        }
+    }
+
+    private static Map<String, Object> fromJson(String json) throws SQLException {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return JSON.readValue(json, MAP);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Bad JSON in Job row", "22P02", e);
+        }
+    }
+
+    private static Instant instant(Timestamp t) {
+        return t != null ? t.toInstant() : null;
+    }
+}
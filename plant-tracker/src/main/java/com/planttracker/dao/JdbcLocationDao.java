@@ -0,0 +1,304 @@
+package com.planttracker.dao;
+
+import com.planttracker.model.BulkLocationResult;
+import com.planttracker.model.Location;
+import com.planttracker.DbUtil;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Location is a dimension table: one row per room (Location_ID, unique
+ * location_name, LightLevel) and Plant.Location_ID points at it. The per-plant
+ * methods below keep their old signatures: "a plant's location" is the room it
+ * references, and writing it moves the plant to the named room (creating the room
+ * if needed) instead of storing another copy of the name.
+ */
+public class JdbcLocationDao implements LocationDao {
+
+    /**
+     * CTEs resolving a location name to "room" (Location_ID, version), creating the
+     * Location row if the name is new. Parameters: name, name, LightLevel for a new
+     * row (see bindRoom). Existing rooms are only read; ON CONFLICT covers two
+     * requests creating the same room at once.
+     */
+    static final String ROOM_CTE = roomCte("");
+
+    /**
+     * ROOM_CTE for a statement that also updates one plant: the room is only created
+     * while that plant exists (and, with cas, still has the expected version), so a
+     * 404 or 409 doesn't leave a new, empty room behind. The plant row is locked, so a
+     * concurrent update is waited for and the version re-checked. Parameters as
+     * ROOM_CTE, then Plant_ID (+ version); see bindPlantRoom.
+     */
+    static String plantRoomCte(boolean cas) {
+        return roomCte("  AND EXISTS (SELECT 1 FROM Plant WHERE Plant_ID = ?"
+                + (cas ? " AND version = ?" : "") + " FOR UPDATE) ");
+    }
+
+    private static String roomCte(String insertGuard) {
+        return "room_sel AS (SELECT Location_ID, version FROM Location WHERE location_name = ?), "
+                + "room_ins AS (INSERT INTO Location (location_name, LightLevel) SELECT ?, ? "
+                + "  WHERE NOT EXISTS (SELECT 1 FROM room_sel) "
+                + insertGuard
+                + "  ON CONFLICT (location_name) DO UPDATE SET location_name = EXCLUDED.location_name "
+                + "  RETURNING Location_ID, version), "
+                + "room AS (SELECT Location_ID, version FROM room_sel "
+                + "  UNION ALL SELECT Location_ID, version FROM room_ins)";
+    }
+
+    /** Binds the ROOM_CTE parameters starting at index; returns the next index. */
+    static int bindRoom(PreparedStatement ps, int index, String name, String lightLevel) throws SQLException {
+        ps.setString(index++, name);
+        ps.setString(index++, name);
+        ps.setString(index++, lightLevel);
+        return index;
+    }
+
+    /** Binds the plantRoomCte parameters (version only when non-null); returns the next index. */
+    static int bindPlantRoom(PreparedStatement ps, int index, String name, String lightLevel,
+            int plantId, Integer version) throws SQLException {
+        index = bindRoom(ps, index, name, lightLevel);
+        ps.setInt(index++, plantId);
+        if (version != null)
+            ps.setInt(index++, version);
+        return index;
+    }
+
+    /** Trimmed location name, or null when blank (= no room). */
+    static String roomName(String locationName) {
+        if (locationName == null || locationName.trim().isEmpty()) {
+            return null;
+        }
+        return locationName.trim();
+    }
+
+    public JdbcLocationDao() {
+    }
+
+    /**
+     * Put a plant in a location. Same as updateByPlantId: the room is created if it
+     * doesn't exist yet, and the plant's Location_ID is set.
+     */
+    public int insert(Location loc) throws SQLException {
+        int affected = updateByPlantId(loc);
+        System.out.println("JdbcLocationDao.insert -> affected: " + affected + ", plantId=" + loc.getPlantId() + ", locationName=" + loc.getLocationName());
+        return affected;
+    }
+
+    /**
+     * Move the plant to the room named loc.getLocationName() (created if new) and,
+     * when loc.getLightLevel() is set, store it on that room, in one statement.
+     * A null light level keeps the room's current one, since other plants share it.
+     *
+     * Compare-and-set: when loc.getVersion() is set and the plant is already in that
+     * room, the room's version must still match (otherwise StaleVersionException).
+     * Moving to another room doesn't check it. The room's id and current version are
+     * written back to loc. Returns rows updated (0 = no such plant).
+     */
+    public int updateByPlantId(Location loc) throws SQLException {
+        String name = roomName(loc.getLocationName());
+        if (name == null) {
+            throw new SQLException("location_name is required");
+        }
+        boolean setLight = loc.getLightLevel() != null;
+        String sql = "WITH " + plantRoomCte(false) + ", "
+                + "cur AS (SELECT Location_ID FROM Plant WHERE Plant_ID = ?), "
+                + "p AS (UPDATE Plant SET Location_ID = (SELECT Location_ID FROM room), version = version + 1 "
+                + "  WHERE Plant_ID = ? AND Location_ID IS DISTINCT FROM (SELECT Location_ID FROM room)) "
+                + (setLight
+                    ? ", light AS (UPDATE Location SET LightLevel = ?, version = Location.version + 1 "
+                    + "  FROM room_sel WHERE Location.Location_ID = room_sel.Location_ID "
+                    + "  AND Location.LightLevel IS DISTINCT FROM ? AND EXISTS (SELECT 1 FROM cur)"
+                    + (loc.getVersion() != null
+                        ? " AND (Location.version = ? OR Location.Location_ID IS DISTINCT FROM (SELECT Location_ID FROM cur))"
+                        : "")
+                    + "  RETURNING Location.version) "
+                    : "")
+                + "SELECT (SELECT Location_ID FROM room), (SELECT version FROM room), "
+                + (setLight ? "(SELECT version FROM light), " : "NULL::int, ")
+                + "EXISTS (SELECT 1 FROM cur), (SELECT Location_ID FROM cur)";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            int i = bindPlantRoom(ps, 1, name, loc.getLightLevel(), loc.getPlantId(), null);
+            ps.setInt(i++, loc.getPlantId());
+            ps.setInt(i++, loc.getPlantId());
+            if (setLight) {
+                ps.setString(i++, loc.getLightLevel());
+                ps.setString(i++, loc.getLightLevel());
+                if (loc.getVersion() != null)
+                    ps.setInt(i++, loc.getVersion());
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                int roomId = rs.getInt(1);
+                int roomVersion = rs.getInt(2);
+                int lightVersion = rs.getInt(3);
+                boolean lightUpdated = !rs.wasNull();
+                boolean plantExists = rs.getBoolean(4);
+                int oldRoomId = rs.getInt(5);
+                boolean sameRoom = !rs.wasNull() && oldRoomId == roomId;
+
+                int affected = plantExists ? 1 : 0;
+                System.out.println("JdbcLocationDao.updateByPlantId -> affected rows: " + affected + " [locationName=" + name + ", lightLevel=" + loc.getLightLevel() + ", plantId=" + loc.getPlantId() + "]");
+                if (!plantExists) {
+                    return 0;
+                }
+                if (loc.getVersion() != null && sameRoom && roomVersion != loc.getVersion()) {
+                    throw new StaleVersionException("Location", loc.getPlantId(), loc.getVersion());
+                }
+                loc.setLocationId(roomId);
+                loc.setLocationName(name);
+                loc.setVersion(lightUpdated ? lightVersion : roomVersion);
+                return affected;
+            }
+        }
+    }
+
+    /**
+     * Rename a room. Touches only its Location row; every plant in it sees the new
+     * name through Location_ID. Fails (unique constraint) if newName is already used.
+     *
+     * @return rows updated (0 = no room with that name)
+     */
+    public int renameLocation(String oldName, String newName) throws SQLException {
+        String sql = "UPDATE Location SET location_name = ?, version = version + 1 WHERE location_name = ?";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, roomName(newName));
+            ps.setString(2, roomName(oldName));
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Bulk rename, one statement: if no room is called newName the room is renamed;
+     * otherwise the old room is deleted, since its plants were merged into the
+     * existing one beforehand (PlantDao.moveBetweenLocations, same transaction).
+     * Counts are recorded on result.
+     */
+    public void renameOrMerge(String oldName, String newName, BulkLocationResult result) throws SQLException {
+        String sql = "WITH del AS ("
+                + "  DELETE FROM Location s WHERE s.location_name = ?"
+                + "  AND EXISTS (SELECT 1 FROM Location t WHERE t.location_name = ? AND t.Location_ID <> s.Location_ID)"
+                + "  RETURNING 1"
+                + "), ren AS ("
+                + "  UPDATE Location SET location_name = ?, version = version + 1 WHERE location_name = ?"
+                + "  AND NOT EXISTS (SELECT 1 FROM Location t WHERE t.location_name = ?)"
+                + "  RETURNING 1"
+                + ") SELECT (SELECT COUNT(*) FROM del), (SELECT COUNT(*) FROM ren)";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, oldName);
+            ps.setString(2, newName);
+            ps.setString(3, newName);
+            ps.setString(4, oldName);
+            ps.setString(5, newName);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                result.setLocationsDeleted(rs.getInt(1));
+                result.setLocationsRenamed(rs.getInt(2));
+            }
+        }
+    }
+
+    /**
+     * Location_ID of the named room, creating it if needed (recorded on result).
+     */
+    public int findOrCreate(String name, BulkLocationResult result) throws SQLException {
+        String sql = "WITH " + ROOM_CTE + " SELECT Location_ID, (SELECT COUNT(*) FROM room_ins) FROM room";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            bindRoom(ps, 1, roomName(name), null);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                result.setLocationsCreated(result.getLocationsCreated() + rs.getInt(2));
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /** Take the plant out of the named room (the room itself is kept). */
+    public int deleteByPlantIdAndName(int plantId, String locationName) throws SQLException {
+        String sql = "UPDATE Plant SET Location_ID = NULL, version = version + 1 WHERE Plant_ID = ? "
+                + "AND Location_ID = (SELECT Location_ID FROM Location WHERE location_name = ?)";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, plantId);
+            ps.setString(2, roomName(locationName));
+            int affected = ps.executeUpdate();
+            System.out.println("JdbcLocationDao.deleteByPlantIdAndName -> affected: " + affected + ", plantId=" + plantId + ", locationName=" + locationName);
+            return affected;
+        }
+    }
+
+    /** Take the plant out of its room (the room itself is kept). */
+    public int deleteByPlantId(int plantId) throws SQLException {
+        String sql = "UPDATE Plant SET Location_ID = NULL, version = version + 1 WHERE Plant_ID = ? AND Location_ID IS NOT NULL";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, plantId);
+            int affected = ps.executeUpdate();
+            System.out.println("JdbcLocationDao.deleteByPlantId -> affected: " + affected + ", plantId=" + plantId);
+            return affected;
+        }
+    }
+
+    /**
+     * Find the location (room) a plant is in, or null if it has none.
+     */
+    public Location findByPlantId(int plantId) throws SQLException {
+        List<Location> all = findAllForPlant(plantId);
+        return all.isEmpty() ? null : all.get(0);
+    }
+
+    // in JdbcLocationDao.java
+    public int renameLocationForPlant(int plantId, String newLocationName) throws SQLException {
+        // only this plant changes room; use renameLocation to rename the room itself
+        int affected = updateByPlantId(new Location(plantId, newLocationName, null));
+        System.out.println("JdbcLocationDao.renameLocationForPlant -> affected: " + affected + ", plantId=" + plantId + ", newLocationName=" + newLocationName);
+        return affected; // returns number of rows updated
+    }
+
+    /**
+     * Return all locations for a plant. Since a plant references a single room this
+     * is empty or one element; kept for callers written against the old layout.
+     */
+    public List<Location> findAllForPlant(int plantId) throws SQLException {
+        String sql = "SELECT p.Plant_ID, l.Location_ID, l.location_name, l.LightLevel, l.version "
+                + "FROM Plant p JOIN Location l ON l.Location_ID = p.Location_ID WHERE p.Plant_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, plantId);
+            return Rows.list(ps, RowMappers.LOCATION);
+        }
+    }
+
+    public List<Location> findByPlantIds(Collection<Integer> plantIds) throws SQLException {
+        if (plantIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT p.Plant_ID, l.Location_ID, l.location_name, l.LightLevel, l.version "
+                + "FROM Plant p JOIN Location l ON l.Location_ID = p.Location_ID WHERE p.Plant_ID = ANY(?)";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setArray(1, c.createArrayOf("integer", plantIds.toArray()));
+            return Rows.list(ps, RowMappers.LOCATION);
+        }
+    }
+
+    public List<Location> findAll() throws SQLException {
+        String sql = "SELECT p.Plant_ID, l.Location_ID, l.location_name, l.LightLevel, l.version "
+                + "FROM Plant p JOIN Location l ON l.Location_ID = p.Location_ID";
+        try (Connection c = DbUtil.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            return Rows.list(ps, RowMappers.LOCATION);
+        }
+    }
+}
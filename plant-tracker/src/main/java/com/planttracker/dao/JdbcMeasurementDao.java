@@ -0,0 +1,236 @@
+package com.planttracker.dao;
+
+import com.planttracker.DbUtil;
+import com.planttracker.model.Measurement;
+import com.planttracker.model.MeasurementBatch;
+import com.planttracker.model.MeasurementBucket;
+import com.planttracker.model.MeasurementKind;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measurements in the partitioned Measurement table (see
+ * db_migration_05_measurements.sql). Range queries are served by the
+ * (Plant_ID, Kind, MeasuredAt) INCLUDE (Value) index and only touch the partitions
+ * of the requested years. Buckets of whole hours are computed from the
+ * Measurement_Hourly rollup, so a chart over years reads one row per hour.
+ */
+public class JdbcMeasurementDao implements MeasurementDao {
+
+    private static final long HOUR = 3600;
+
+    public int insert(List<Measurement> measurements) throws SQLException {
+        if (measurements.isEmpty()) {
+            return 0;
+        }
+        // one statement for the whole batch: the columns go over as four arrays
+        String sql = "INSERT INTO Measurement (Plant_ID, Kind, MeasuredAt, Value) "
+                + "SELECT p, k, timestamptz 'epoch' + t * interval '1 microsecond', v "
+                + "FROM unnest(?::int[], ?::smallint[], ?::bigint[], ?::real[]) AS m(p, k, t, v)";
+        int n = measurements.size();
+        Integer[] plants = new Integer[n];
+        Short[] kinds = new Short[n];
+        Long[] times = new Long[n];
+        Float[] values = new Float[n];
+        for (int i = 0; i < n; i++) {
+            Measurement m = measurements.get(i);
+            plants[i] = m.getPlantId();
+            kinds[i] = (short) kind(m).getCode();
+            times[i] = micros(m.getMeasuredAt());
+            values[i] = (float) m.getValue();
+        }
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setArray(1, c.createArrayOf("int4", plants));
+            ps.setArray(2, c.createArrayOf("int2", kinds));
+            ps.setArray(3, c.createArrayOf("int8", times));
+            ps.setArray(4, c.createArrayOf("float4", values));
+            return ps.executeUpdate();
+        }
+    }
+
+    public int insertBatch(MeasurementBatch batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try (Connection c = DbUtil.getConnection()) {
+            try {
+                return copy(c, batch);
+            } catch (SQLException e) {
+                if (!"23503".equals(e.getSQLState())) {
+                    throw e;
+                }
+            }
+            // a plant in the batch doesn't exist: COPY can't skip rows, so insert
+            // through a join that leaves out the readings of unknown plants
+            return insertKnown(c, batch);
+        }
+    }
+
+    // COPY ... FROM STDIN in text format: no statement parsing or parameter binding per row
+    private static int copy(Connection c, MeasurementBatch batch) throws SQLException {
+        StringBuilder sb = new StringBuilder(batch.size() * 56);
+        for (int i = 0; i < batch.size(); i++) {
+            long us = batch.micros(i);
+            sb.append(batch.plantId(i)).append('\t')
+                    .append(batch.kind(i)).append('\t')
+                    .append(Instant.ofEpochSecond(Math.floorDiv(us, 1_000_000L), Math.floorMod(us, 1_000_000L) * 1_000L))
+                    .append('\t')
+                    .append(batch.value(i)).append('\n');
+        }
+        CopyManager copy = c.unwrap(PGConnection.class).getCopyAPI();
+        try {
+            return (int) copy.copyIn("COPY Measurement (Plant_ID, Kind, MeasuredAt, Value) FROM STDIN",
+                    new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new SQLException("COPY into Measurement failed", "08006", e);
+        }
+    }
+
+    private static int insertKnown(Connection c, MeasurementBatch batch) throws SQLException {
+        String sql = "INSERT INTO Measurement (Plant_ID, Kind, MeasuredAt, Value) "
+                + "SELECT m.p, m.k, timestamptz 'epoch' + m.t * interval '1 microsecond', m.v "
+                + "FROM unnest(?::int[], ?::smallint[], ?::bigint[], ?::real[]) AS m(p, k, t, v) "
+                + "JOIN Plant ON Plant.Plant_ID = m.p";
+        int n = batch.size();
+        Integer[] plants = new Integer[n];
+        Short[] kinds = new Short[n];
+        Long[] times = new Long[n];
+        Float[] values = new Float[n];
+        for (int i = 0; i < n; i++) {
+            plants[i] = batch.plantId(i);
+            kinds[i] = batch.kind(i);
+            times[i] = batch.micros(i);
+            values[i] = batch.value(i);
+        }
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setArray(1, c.createArrayOf("int4", plants));
+            ps.setArray(2, c.createArrayOf("int2", kinds));
+            ps.setArray(3, c.createArrayOf("int8", times));
+            ps.setArray(4, c.createArrayOf("float4", values));
+            return ps.executeUpdate();
+        }
+    }
+
+    public List<Measurement> findRange(int plantId, MeasurementKind kind, Instant from, Instant to, int limit)
+            throws SQLException {
+        String sql = "SELECT MeasuredAt, Value FROM Measurement "
+                + "WHERE Plant_ID = ? AND Kind = ? AND MeasuredAt >= ? AND MeasuredAt < ? "
+                + "ORDER BY MeasuredAt LIMIT ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, plantId);
+            ps.setShort(2, (short) kind.getCode());
+            ps.setObject(3, timestamp(from));
+            ps.setObject(4, timestamp(to));
+            ps.setInt(5, limit);
+            List<Measurement> out = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new Measurement(plantId, kind.apiName(),
+                            rs.getObject(1, OffsetDateTime.class).toInstant(), rs.getFloat(2)));
+                }
+            }
+            return out;
+        }
+    }
+
+    public List<MeasurementBucket> downsample(int plantId, MeasurementKind kind, Instant from, Instant to,
+                                              long bucketSeconds) throws SQLException {
+        long fromHour = Math.floorDiv(from.getEpochSecond() + HOUR - 1, HOUR) * HOUR;
+        long toHour = Math.floorDiv(to.getEpochSecond(), HOUR) * HOUR;
+        if (bucketSeconds % HOUR == 0 && fromHour < toHour) {
+            return downsampleHourly(plantId, kind, from, to, bucketSeconds,
+                    Instant.ofEpochSecond(fromHour), Instant.ofEpochSecond(toHour));
+        }
+        String sql = "SELECT floor(date_part('epoch', MeasuredAt) / ?)::bigint AS bucket, "
+                + "min(Value), max(Value), avg(Value), count(*) FROM Measurement "
+                + "WHERE Plant_ID = ? AND Kind = ? AND MeasuredAt >= ? AND MeasuredAt < ? "
+                + "GROUP BY bucket ORDER BY bucket";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setLong(1, bucketSeconds);
+            ps.setInt(2, plantId);
+            ps.setShort(3, (short) kind.getCode());
+            ps.setObject(4, timestamp(from));
+            ps.setObject(5, timestamp(to));
+            return buckets(ps, bucketSeconds);
+        }
+    }
+
+    // Buckets of whole hours: the whole hours of [from, to) come from the hourly rollup,
+    // only the partial hours at either end from the raw rows.
+    private List<MeasurementBucket> downsampleHourly(int plantId, MeasurementKind kind, Instant from, Instant to,
+                                                     long bucketSeconds, Instant fromHour, Instant toHour)
+            throws SQLException {
+        String sql = "SELECT floor(date_part('epoch', t) / ?)::bigint AS bucket, "
+                + "min(lo), max(hi), sum(total) / sum(n), sum(n) FROM ("
+                + "SELECT Hour AS t, MinValue AS lo, MaxValue AS hi, SumValue AS total, Count AS n "
+                + "FROM Measurement_Hourly WHERE Plant_ID = ? AND Kind = ? AND Hour >= ? AND Hour < ? "
+                + "UNION ALL SELECT MeasuredAt, Value, Value, Value, 1 FROM Measurement "
+                + "WHERE Plant_ID = ? AND Kind = ? AND MeasuredAt >= ? AND MeasuredAt < ? "
+                + "UNION ALL SELECT MeasuredAt, Value, Value, Value, 1 FROM Measurement "
+                + "WHERE Plant_ID = ? AND Kind = ? AND MeasuredAt >= ? AND MeasuredAt < ?"
+                + ") x GROUP BY bucket ORDER BY bucket";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            short k = (short) kind.getCode();
+            ps.setLong(1, bucketSeconds);
+            ps.setInt(2, plantId);
+            ps.setShort(3, k);
+            ps.setObject(4, timestamp(fromHour));
+            ps.setObject(5, timestamp(toHour));
+            ps.setInt(6, plantId);
+            ps.setShort(7, k);
+            ps.setObject(8, timestamp(from));
+            ps.setObject(9, timestamp(fromHour));
+            ps.setInt(10, plantId);
+            ps.setShort(11, k);
+            ps.setObject(12, timestamp(toHour));
+            ps.setObject(13, timestamp(to));
+            return buckets(ps, bucketSeconds);
+        }
+    }
+
+    private static List<MeasurementBucket> buckets(PreparedStatement ps, long bucketSeconds) throws SQLException {
+        List<MeasurementBucket> out = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                out.add(new MeasurementBucket(Instant.ofEpochSecond(rs.getLong(1) * bucketSeconds),
+                        rs.getFloat(2), rs.getFloat(3), rs.getDouble(4), rs.getLong(5)));
+            }
+        }
+        return out;
+    }
+
+    private static OffsetDateTime timestamp(Instant t) {
+        return OffsetDateTime.ofInstant(t, ZoneOffset.UTC);
+    }
+
+    private static MeasurementKind kind(Measurement m) {
+        MeasurementKind k = MeasurementKind.fromName(m.getKind());
+        if (k == null) {
+            throw new IllegalArgumentException("Unknown measurement kind: " + m.getKind());
+        }
+        return k;
+    }
+
+    private static long micros(Instant t) {
+        return t.getEpochSecond() * 1_000_000L + t.getNano() / 1_000;
+    }
+}
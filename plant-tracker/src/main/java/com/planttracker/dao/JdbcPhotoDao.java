@@ -0,0 +1,97 @@
+package com.planttracker.dao;
+
+import com.planttracker.DbUtil;
+import com.planttracker.model.Photo;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JdbcPhotoDao implements PhotoDao {
+
+    private static final String COLUMNS =
+            "Photo_ID, Plant_ID, Sha256, ContentType, SizeBytes, Width, Height, UploadedAt";
+
+    public int insert(Photo photo) throws SQLException {
+        String sql = "INSERT INTO Plant_Photo (Plant_ID, Sha256, ContentType, SizeBytes, Width, Height) "
+                + "VALUES (?, ?, ?, ?, ?, ?) RETURNING Photo_ID, UploadedAt";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, photo.getPlantId());
+            ps.setString(2, photo.getSha256());
+            ps.setString(3, photo.getContentType());
+            ps.setLong(4, photo.getSizeBytes());
+            ps.setObject(5, photo.getWidth(), Types.INTEGER);
+            ps.setObject(6, photo.getHeight(), Types.INTEGER);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                photo.setPhotoId(rs.getInt(1));
+                photo.setUploadedAt(rs.getTimestamp(2).toInstant());
+                return photo.getPhotoId();
+            }
+        }
+    }
+
+    public Photo findById(int photoId) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM Plant_Photo WHERE Photo_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, photoId);
+            return Rows.first(ps, RowMappers.PHOTO);
+        }
+    }
+
+    public List<Photo> findByPlantId(int plantId) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM Plant_Photo WHERE Plant_ID = ? ORDER BY Photo_ID";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, plantId);
+            return Rows.list(ps, RowMappers.PHOTO);
+        }
+    }
+
+    public String delete(int plantId, int photoId) throws SQLException {
+        String sql = "DELETE FROM Plant_Photo WHERE Photo_ID = ? AND Plant_ID = ? RETURNING Sha256";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, photoId);
+            ps.setInt(2, plantId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    public List<String> deleteByPlantId(int plantId) throws SQLException {
+        String sql = "DELETE FROM Plant_Photo WHERE Plant_ID = ? RETURNING Sha256";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, plantId);
+            List<String> shas = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    shas.add(rs.getString(1));
+                }
+            }
+            return shas;
+        }
+    }
+
+    public boolean isReferenced(String sha256) throws SQLException {
+        String sql = "SELECT 1 FROM Plant_Photo WHERE Sha256 = ? LIMIT 1";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setString(1, sha256);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
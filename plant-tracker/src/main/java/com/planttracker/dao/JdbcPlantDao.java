@@ -0,0 +1,416 @@
+package com.planttracker.dao;
+
+import com.planttracker.model.Plant;
+import com.planttracker.model.PlantFilter;
+import com.planttracker.model.PlantProjection;
+import com.planttracker.DbUtil;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class JdbcPlantDao implements PlantDao {
+
+    // plants store only Location_ID; the name comes from the Location row
+    static final String SELECT_PLANT =
+            "SELECT p.Plant_ID, p.Name, p.Type, p.Height, p.DateAcquired, l.location_name, p.version "
+            + "FROM Plant p LEFT JOIN Location l ON l.Location_ID = p.Location_ID";
+
+    // ?fields= / ?include= (see PlantProjection): JSON field -> column, per part
+    private static final Map<String, String> PLANT_COLUMNS = Map.of(
+            "plantId", "p.Plant_ID", "name", "p.Name", "type", "p.Type", "height", "p.Height",
+            "dateAcquired", "p.DateAcquired", "locationName", "l.location_name", "version", "p.version");
+    private static final Map<String, Map<String, String>> INCLUDE_COLUMNS = Map.of(
+            PlantProjection.CARE, Map.of("plantId", "c.Plant_ID", "lastSoilChange", "c.LastSoilChange",
+                    "lastWatering", "c.LastWatering", "version", "c.version"),
+            PlantProjection.INFORMATION, Map.of("plantId", "i.Plant_ID", "fromAnotherPlant", "i.FromAnotherPlant",
+                    "soilType", "i.SoilType", "potSize", "i.PotSize", "waterGlobeRequired", "i.WaterGlobeRequired",
+                    "version", "i.version"),
+            PlantProjection.LOCATION, Map.of("plantId", "p.Plant_ID", "locationId", "l.Location_ID",
+                    "locationName", "l.location_name", "lightLevel", "l.LightLevel", "version", "l.version"));
+    // a null key means the plant has no such row
+    private static final Map<String, String> INCLUDE_KEYS = Map.of(
+            PlantProjection.CARE, "c.Plant_ID", PlantProjection.INFORMATION, "i.Plant_ID",
+            PlantProjection.LOCATION, "l.Location_ID");
+
+    public JdbcPlantDao() {
+    }
+
+    // inside src/main/java/com/planttracker/dao/JdbcPlantDao.java
+    public int insert(Plant p) throws SQLException {
+        // use lowercase unquoted identifiers to match Postgres table/column names
+        // location_name is resolved to its Location row (created if new) in the same statement
+        String room = JdbcLocationDao.roomName(p.getLocationName());
+        String sql = (room != null ? "WITH " + JdbcLocationDao.ROOM_CTE + " " : "")
+                + "INSERT INTO plant (name, type, height, dateacquired, location_id) "
+                + "VALUES (?, ?, ?, ?, " + locationIdExpr(room, "NULL") + ") RETURNING plant_id";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            int i = room != null ? JdbcLocationDao.bindRoom(ps, 1, room, null) : 1;
+            ps.setString(i, p.getName());
+            ps.setString(i + 1, p.getType());
+
+            // Height column DECIMAL -> use NUMERIC type when setting nulls
+            if (p.getHeight() != null) {
+                ps.setDouble(i + 2, p.getHeight());
+            } else {
+                ps.setNull(i + 2, Types.NUMERIC);
+            }
+
+            if (p.getDateAcquired() != null) {
+                ps.setDate(i + 3, Date.valueOf(p.getDateAcquired()));
+            } else {
+                ps.setNull(i + 3, Types.DATE);
+            }
+
+            // RETURNING produces a ResultSet; executeQuery() must be used
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    // use column name in lowercase as returned by query
+                    int newId = rs.getInt(1); // or rs.getInt("plant_id");
+                    // set back on POJO - adapt setter name to your Plant model
+                    // e.g. p.setId(newId) or p.setPlantId(newId)
+                    p.setPlantId(newId); // replace with the actual setter name in your Plant class
+                    p.setLocationName(room);
+                    p.setVersion(0);
+                    return newId;
+                } else {
+                    return 0; // no id returned -> insert didn't happen
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare-and-set update. When p.getVersion() is set, the row is only updated if
+     * its version still matches (otherwise StaleVersionException). The new version
+     * is written back to p.
+     *
+     * @return rows updated (0 = no such plant)
+     */
+    public int update(Plant p) throws SQLException {
+        String room = JdbcLocationDao.roomName(p.getLocationName());
+        String sql = (room != null ? "WITH " + JdbcLocationDao.plantRoomCte(p.getVersion() != null) + " " : "")
+                + "UPDATE Plant SET Name = ?, Type = ?, Height = ?, DateAcquired = ?, "
+                + "Location_ID = " + locationIdExpr(room, "NULL") + ", "
+                + "version = version + 1 WHERE Plant_ID = ?" + Versioning.casClause(p.getVersion())
+                + " RETURNING version";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            bindUpdate(ps, room != null ? bindRoom(ps, room, p) : 1, p);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    p.setLocationName(room);
+                    p.setVersion(rs.getInt("version"));
+                    return 1;
+                }
+            }
+            Versioning.checkConflict(c, "Plant", p.getPlantId(), p.getVersion());
+            return 0;
+        }
+    }
+
+    /**
+     * Update a plant in ONE statement and return the stored row. Used by
+     * PUT /api/plants/{id}.
+     *
+     * - Compare-and-set on p.getVersion() like update(Plant).
+     * - A blank locationName keeps the plant's room instead of clearing it; a new
+     *   name is resolved to its Location row (created if needed) in the same
+     *   statement. Nothing but the plant row is written for an existing room.
+     *
+     * On success every column (incl. version and the effective location name) is
+     * written back to p, so no reload is needed.
+     *
+     * @return true if updated, false if there is no such plant
+     */
+    public boolean updateWithLocation(Plant p) throws SQLException {
+        String room = JdbcLocationDao.roomName(p.getLocationName());
+        String sql = "WITH " + (room != null ? JdbcLocationDao.plantRoomCte(p.getVersion() != null) + ", " : "") + "p AS ("
+                + "  UPDATE Plant SET Name = ?, Type = ?, Height = ?, DateAcquired = ?,"
+                + "    Location_ID = " + locationIdExpr(room, "Location_ID") + ", version = version + 1"
+                + "  WHERE Plant_ID = ?" + Versioning.casClause(p.getVersion())
+                + "  RETURNING Plant_ID, Name, Type, Height, DateAcquired, Location_ID, version"
+                + ") SELECT Name, Type, Height, DateAcquired, version,"
+                + "  (SELECT l.location_name FROM Location l WHERE l.Location_ID = p.Location_ID) AS location_name"
+                + " FROM p";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            bindUpdate(ps, room != null ? bindRoom(ps, room, p) : 1, p);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    p.setName(rs.getString("Name"));
+                    p.setType(rs.getString("Type"));
+                    double h = rs.getDouble("Height");
+                    p.setHeight(rs.wasNull() ? null : h);
+                    Date da = rs.getDate("DateAcquired");
+                    p.setDateAcquired(da != null ? da.toLocalDate() : null);
+                    // a room created by this statement isn't visible to its own subquery
+                    p.setLocationName(room != null ? room : rs.getString("location_name"));
+                    p.setVersion(rs.getInt("version"));
+                    return true;
+                }
+            }
+            Versioning.checkConflict(c, "Plant", p.getPlantId(), p.getVersion());
+            return false;
+        }
+    }
+
+    // plantRoomCte parameters for updating p; returns the next index
+    private static int bindRoom(PreparedStatement ps, String room, Plant p) throws SQLException {
+        return JdbcLocationDao.bindPlantRoom(ps, 1, room, null, p.getPlantId(), p.getVersion());
+    }
+
+    // Location_ID value: the resolved room (ROOM_CTE), or fallback when there is no name
+    private static String locationIdExpr(String room, String fallback) {
+        return room != null ? "(SELECT Location_ID FROM room)" : fallback;
+    }
+
+    // Name, Type, Height, DateAcquired, Plant_ID (+ expected version) from index on,
+    // shared by update and updateWithLocation
+    private static void bindUpdate(PreparedStatement ps, int i, Plant p) throws SQLException {
+        ps.setString(i, p.getName());
+        ps.setString(i + 1, p.getType());
+
+        if (p.getHeight() != null)
+            ps.setDouble(i + 2, p.getHeight());
+        else
+            ps.setNull(i + 2, Types.DOUBLE);
+
+        if (p.getDateAcquired() != null)
+            ps.setDate(i + 3, Date.valueOf(p.getDateAcquired()));
+        else
+            ps.setNull(i + 3, Types.DATE);
+
+        ps.setInt(i + 4, p.getPlantId());
+        if (p.getVersion() != null)
+            ps.setInt(i + 5, p.getVersion());
+    }
+
+    /**
+     * Bulk move of every plant in room oldName to the existing room newName, in one
+     * statement. Moves nothing if either room is missing (then the room is simply
+     * renamed, see JdbcLocationDao.renameOrMerge).
+     *
+     * @return ids of the plants moved
+     */
+    public List<Integer> moveBetweenLocations(String oldName, String newName) throws SQLException {
+        String sql = "UPDATE Plant SET Location_ID = t.Location_ID, version = Plant.version + 1 "
+                + "FROM Location s, Location t "
+                + "WHERE s.location_name = ? AND t.location_name = ? AND s.Location_ID <> t.Location_ID "
+                + "AND Plant.Location_ID = s.Location_ID RETURNING Plant.Plant_ID";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, oldName);
+            ps.setString(2, newName);
+            return plantIds(ps);
+        }
+    }
+
+    /**
+     * Bulk move of the plants matching filter to room locationId, in one statement.
+     * Plants already there are left alone.
+     *
+     * @return ids of the plants moved
+     */
+    public List<Integer> moveToLocation(PlantFilter filter, int locationId) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "UPDATE Plant SET Location_ID = ?, version = version + 1 WHERE Location_ID IS DISTINCT FROM ?");
+        String from = JdbcLocationDao.roomName(filter.getLocationName());
+        if (from != null)
+            sql.append(" AND Location_ID = (SELECT Location_ID FROM Location WHERE location_name = ?)");
+        if (filter.getType() != null && !filter.getType().trim().isEmpty())
+            sql.append(" AND Type = ?");
+        if (filter.getPlantIds() != null && !filter.getPlantIds().isEmpty())
+            sql.append(" AND Plant_ID = ANY(?)");
+        sql.append(" RETURNING Plant_ID");
+
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int i = 1;
+            ps.setInt(i++, locationId);
+            ps.setInt(i++, locationId);
+            if (from != null)
+                ps.setString(i++, from);
+            if (filter.getType() != null && !filter.getType().trim().isEmpty())
+                ps.setString(i++, filter.getType().trim());
+            if (filter.getPlantIds() != null && !filter.getPlantIds().isEmpty())
+                ps.setArray(i++, c.createArrayOf("integer", filter.getPlantIds().toArray()));
+            return plantIds(ps);
+        }
+    }
+
+    private static List<Integer> plantIds(PreparedStatement ps) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    public int delete(int plantId) throws SQLException {
+        String sql = "DELETE FROM Plant WHERE Plant_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, plantId);
+            return ps.executeUpdate();
+        }
+    }
+
+    public Plant findById(int plantId) throws SQLException {
+        String sql = SELECT_PLANT + " WHERE p.Plant_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setInt(1, plantId);
+            return Rows.first(ps, RowMappers.PLANT);
+        }
+    }
+
+    public List<Plant> findByIds(Collection<Integer> plantIds) throws SQLException {
+        if (plantIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = SELECT_PLANT + " WHERE p.Plant_ID = ANY(?)";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+
+            ps.setArray(1, c.createArrayOf("integer", plantIds.toArray()));
+            return Rows.list(ps, RowMappers.PLANT);
+        }
+    }
+
+    /**
+     * One statement selecting just the projection's columns, joining Location, Care
+     * and Information only when they are asked for.
+     */
+    public List<Map<String, Object>> findProjected(PlantProjection projection, Integer plantId) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        for (String f : projection.getPlantFields()) {
+            columns.add(PLANT_COLUMNS.get(f));
+        }
+        for (Map.Entry<String, Set<String>> inc : projection.getIncludes().entrySet()) {
+            columns.add(INCLUDE_KEYS.get(inc.getKey()));
+            for (String f : inc.getValue()) {
+                columns.add(INCLUDE_COLUMNS.get(inc.getKey()).get(f));
+            }
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", columns)).append(" FROM Plant p");
+        if (projection.getPlantFields().contains("locationName") || projection.includes(PlantProjection.LOCATION))
+            sql.append(" LEFT JOIN Location l ON l.Location_ID = p.Location_ID");
+        if (projection.includes(PlantProjection.CARE))
+            sql.append(" LEFT JOIN Care c ON c.Plant_ID = p.Plant_ID");
+        if (projection.includes(PlantProjection.INFORMATION))
+            sql.append(" LEFT JOIN Information i ON i.Plant_ID = p.Plant_ID");
+        sql.append(plantId != null ? " WHERE p.Plant_ID = ?" : " ORDER BY p.Plant_ID");
+
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            if (plantId != null)
+                ps.setInt(1, plantId);
+            List<Map<String, Object>> out = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int col = 1;
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (String f : projection.getPlantFields()) {
+                        row.put(f, value(rs, col++));
+                    }
+                    for (Map.Entry<String, Set<String>> inc : projection.getIncludes().entrySet()) {
+                        boolean present = rs.getObject(col++) != null;
+                        Map<String, Object> part = present ? new LinkedHashMap<>() : null;
+                        for (String f : inc.getValue()) {
+                            Object v = value(rs, col++);
+                            if (present)
+                                part.put(f, v);
+                        }
+                        row.put(inc.getKey(), part);
+                    }
+                    out.add(row);
+                }
+            }
+            return out;
+        }
+    }
+
+    // JSON-friendly values: LocalDate for DATE, Double for DECIMAL
+    private static Object value(ResultSet rs, int col) throws SQLException {
+        Object v = rs.getObject(col);
+        if (v instanceof Date d)
+            return d.toLocalDate();
+        if (v instanceof BigDecimal b)
+            return b.doubleValue();
+        return v;
+    }
+
+    public List<Plant> findAll() throws SQLException {
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(SELECT_PLANT)) {
+            return Rows.list(ps, RowMappers.PLANT);
+        }
+    }
+
+    /**
+     * Stream every plant to callback without building a list; rows are fetched
+     * through a cursor in batches of fetchSize. Returns the number of plants.
+     */
+    public int forEach(int fetchSize, RowCallback<? super Plant> callback) throws SQLException {
+        // cursor-based fetching needs auto-commit off
+        return DbUtil.inTransaction(() -> {
+            try (Connection c = DbUtil.getConnection();
+                    PreparedStatement ps = c.prepareStatement(SELECT_PLANT)) {
+                ps.setFetchSize(fetchSize);
+                return Rows.forEach(ps, RowMappers.PLANT, callback);
+            }
+        });
+    }
+
+    /**
+     * Optional helper if you still need max ID logic (not required if DB uses
+     * auto-increment).
+     */
+    public int getMaxPlantId() throws SQLException {
+        String sql = "SELECT MAX(Plant_ID) AS mx FROM Plant";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+                int mx = rs.getInt("mx");
+                if (rs.wasNull())
+                    return 0;
+                return mx;
+            } else {
+                return 0;
+            }
+        }
+    }
+
+    // in com.planttracker.dao.PlantDao
+    // Moves the plant to the named room (created if new); a blank name clears it.
+    public int updateLocationName(int plantId, String locationName) throws SQLException {
+        String room = JdbcLocationDao.roomName(locationName);
+        final String sql = (room != null ? "WITH " + JdbcLocationDao.plantRoomCte(false) + " " : "")
+                + "UPDATE Plant SET Location_ID = " + locationIdExpr(room, "NULL")
+                + ", version = version + 1 WHERE Plant_ID = ?";
+        try (Connection c = DbUtil.getConnection();
+                PreparedStatement ps = c.prepareStatement(sql)) {
+            int i = room != null ? JdbcLocationDao.bindPlantRoom(ps, 1, room, null, plantId, null) : 1;
+            ps.setInt(i, plantId);
+            int affected = ps.executeUpdate();
+            System.out.println("JdbcPlantDao.updateLocationName -> affected: " + affected + ", plantId=" + plantId
+                    + ", locationName=" + locationName);
+            return affected;
+        }
+    }
+}
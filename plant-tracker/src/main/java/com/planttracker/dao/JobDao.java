@@ -0,0 +1,41 @@
+package com.planttracker.dao;
+
+import com.planttracker.model.Job;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/** Background jobs (see JobManager): state, progress, result. */
+public interface JobDao {
+
+    /** Insert a queued job; sets and returns its id (createdAt is set too). */
+    long insert(Job job) throws SQLException;
+
+    Job findById(long jobId) throws SQLException;
+
+    /** Newest first. */
+    List<Job> findRecent(int limit) throws SQLException;
+
+    /** queued -> running; false if the job is no longer queued (e.g. cancelled meanwhile). */
+    boolean markRunning(long jobId, Instant startedAt) throws SQLException;
+
+    /** Save progress; returns whether cancellation has been requested. */
+    boolean updateProgress(long jobId, long done, long total) throws SQLException;
+
+    /** Save the final state, counts, message, result and finishedAt. */
+    void finish(Job job) throws SQLException;
+
+    /** Flag a queued or running job for cancellation; false if it is finished or unknown. */
+    boolean requestCancel(long jobId) throws SQLException;
+
+    /** Note that these unfinished jobs are still alive. */
+    void heartbeat(Collection<Long> jobIds) throws SQLException;
+
+    /** Mark queued / running jobs without a heartbeat since before as failed; returns how many. */
+    int failStale(Instant before, String message) throws SQLException;
+
+    /** Delete finished jobs that finished before; returns their ids. */
+    List<Long> deleteFinishedBefore(Instant before) throws SQLException;
+}
@@ -0,0 +1,40 @@
+package com.planttracker.dao;
+
+import com.planttracker.model.Measurement;
+import com.planttracker.model.MeasurementBatch;
+import com.planttracker.model.MeasurementBucket;
+import com.planttracker.model.MeasurementKind;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Time series of plant measurements (append-mostly). Height changes are recorded
+ * by the store itself (trigger in the database, MemoryPlantDao in memory).
+ */
+public interface MeasurementDao {
+
+    /**
+     * Insert all measurements in one statement (kinds must be MeasurementKind names,
+     * measuredAt set). SQLState 23503 if a plant doesn't exist. Returns rows inserted.
+     */
+    int insert(List<Measurement> measurements) throws SQLException;
+
+    /**
+     * Bulk write for the sensor ingestion path. Readings of plants that don't exist
+     * (any more) are skipped instead of failing the batch. Returns rows inserted.
+     */
+    int insertBatch(MeasurementBatch batch) throws SQLException;
+
+    /** Raw measurements in [from, to), oldest first, at most limit. */
+    List<Measurement> findRange(int plantId, MeasurementKind kind, Instant from, Instant to, int limit)
+            throws SQLException;
+
+    /**
+     * min / max / avg / count per bucket of bucketSeconds (aligned to the epoch) over
+     * [from, to), oldest first; empty buckets are left out.
+     */
+    List<MeasurementBucket> downsample(int plantId, MeasurementKind kind, Instant from, Instant to,
+                                       long bucketSeconds) throws SQLException;
+}
@@ -0,0 +1,27 @@
+package com.planttracker.dao;
+
+import com.planttracker.model.Photo;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/** Photo metadata, any number per plant. The files are in the PhotoStore. */
+public interface PhotoDao {
+
+    /** Insert and return the new photo id (also set on photo). */
+    int insert(Photo photo) throws SQLException;
+
+    Photo findById(int photoId) throws SQLException;
+
+    /** The plant's photos, oldest first. */
+    List<Photo> findByPlantId(int plantId) throws SQLException;
+
+    /** Delete one of the plant's photos; returns its sha256, or null if the plant has no such photo. */
+    String delete(int plantId, int photoId) throws SQLException;
+
+    /** Delete all of a plant's photos; returns their sha256s. */
+    List<String> deleteByPlantId(int plantId) throws SQLException;
+
+    /** Whether any photo still has this content. */
+    boolean isReferenced(String sha256) throws SQLException;
+}
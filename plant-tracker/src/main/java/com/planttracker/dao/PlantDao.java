@@ -1,182 +1,55 @@
 package com.planttracker.dao;
 
 import com.planttracker.model.Plant;
-import com.planttracker.DbUtil;
+import com.planttracker.model.PlantFilter;
+import com.planttracker.model.PlantProjection;
 
-import java.sql.*;
-import java.time.LocalDate;
-import java.util.ArrayList;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
-public class PlantDao {
-
-    public PlantDao() {
-    }
-
-    // inside src/main/java/com/planttracker/dao/PlantDao.java
-    public int insert(Plant p) throws SQLException {
-        // use lowercase unquoted identifiers to match Postgres table/column names
-        String sql = "INSERT INTO plant (name, type, height, dateacquired, location_name) " +
-                "VALUES (?, ?, ?, ?, ?) RETURNING plant_id";
-        try (Connection c = DbUtil.getConnection();
-                PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setString(1, p.getName());
-            ps.setString(2, p.getType());
-
-            // Height column DECIMAL -> use NUMERIC type when setting nulls
-            if (p.getHeight() != null) {
-                ps.setDouble(3, p.getHeight());
-            } else {
-                ps.setNull(3, Types.NUMERIC);
-            }
-
-            if (p.getDateAcquired() != null) {
-                ps.setDate(4, Date.valueOf(p.getDateAcquired()));
-            } else {
-                ps.setNull(4, Types.DATE);
-            }
-
-            ps.setString(5, p.getLocationName());
-
-            // RETURNING produces a ResultSet; executeQuery() must be used
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    // use column name in lowercase as returned by query
-                    int newId = rs.getInt(1); // or rs.getInt("plant_id");
-                    // set back on POJO - adapt setter name to your Plant model
-                    // e.g. p.setId(newId) or p.setPlantId(newId)
-                    p.setPlantId(newId); // replace with the actual setter name in your Plant class
-                    return newId;
-                } else {
-                    return 0; // no id returned -> insert didn't happen
-                }
-            }
-        }
-    }
-
-    public int update(Plant p) throws SQLException {
-        String sql = "UPDATE Plant SET Name = ?, Type = ?, Height = ?, DateAcquired = ?, location_name = ? WHERE Plant_ID = ?";
-        try (Connection c = DbUtil.getConnection();
-                PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setString(1, p.getName());
-            ps.setString(2, p.getType());
-
-            if (p.getHeight() != null)
-                ps.setDouble(3, p.getHeight());
-            else
-                ps.setNull(3, Types.DOUBLE);
-
-            if (p.getDateAcquired() != null)
-                ps.setDate(4, Date.valueOf(p.getDateAcquired()));
-            else
-                ps.setNull(4, Types.DATE);
-
-            ps.setString(5, p.getLocationName());
-            ps.setInt(6, p.getPlantId());
-
-            return ps.executeUpdate();
-        }
-    }
-
-    public int delete(int plantId) throws SQLException {
-        String sql = "DELETE FROM Plant WHERE Plant_ID = ?";
-        try (Connection c = DbUtil.getConnection();
-                PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, plantId);
-            return ps.executeUpdate();
-        }
-    }
-
-    public Plant findById(int plantId) throws SQLException {
-        String sql = "SELECT Plant_ID, Name, Type, Height, DateAcquired, location_name FROM Plant WHERE Plant_ID = ?";
-        try (Connection c = DbUtil.getConnection();
-                PreparedStatement ps = c.prepareStatement(sql)) {
-
-            ps.setInt(1, plantId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Plant p = new Plant();
-                    p.setPlantId(rs.getInt("Plant_ID"));
-                    p.setName(rs.getString("Name"));
-                    p.setType(rs.getString("Type"));
-
-                    double h = rs.getDouble("Height");
-                    if (!rs.wasNull())
-                        p.setHeight(h);
-
-                    Date da = rs.getDate("DateAcquired");
-                    if (da != null)
-                        p.setDateAcquired(da.toLocalDate());
-
-                    p.setLocationName(rs.getString("location_name"));
-                    return p;
-                }
-            }
-        }
-        return null;
-    }
-
-    public List<Plant> findAll() throws SQLException {
-        String sql = "SELECT Plant_ID, Name, Type, Height, DateAcquired, location_name FROM Plant";
-        List<Plant> out = new ArrayList<>();
-        try (Connection c = DbUtil.getConnection();
-                PreparedStatement ps = c.prepareStatement(sql);
-                ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Plant p = new Plant();
-                p.setPlantId(rs.getInt("Plant_ID"));
-                p.setName(rs.getString("Name"));
-                p.setType(rs.getString("Type"));
-
-                double h = rs.getDouble("Height");
-                if (!rs.wasNull())
-                    p.setHeight(h);
-
-                Date da = rs.getDate("DateAcquired");
-                if (da != null)
-                    p.setDateAcquired(da.toLocalDate());
-
-                p.setLocationName(rs.getString("location_name"));
-                out.add(p);
-            }
-        }
-        return out;
-    }
+/**
+ * Plant storage. JdbcPlantDao is the PostgreSQL implementation; see
+ * com.planttracker.dao.memory for the in-memory one.
+ */
+public interface PlantDao {
+
+    /** Insert; the new id and version are written back to p. Returns the new id. */
+    int insert(Plant p) throws SQLException;
+
+    /** Compare-and-set update (see Versioning). Returns rows updated (0 = no such plant). */
+    int update(Plant p) throws SQLException;
+
+    /** Update keeping the room when locationName is blank; p is refreshed from the stored row. */
+    boolean updateWithLocation(Plant p) throws SQLException;
+
+    /** Move every plant in room oldName to the existing room newName. Returns the moved ids. */
+    List<Integer> moveBetweenLocations(String oldName, String newName) throws SQLException;
+
+    /** Move the plants matching filter to room locationId. Returns the moved ids. */
+    List<Integer> moveToLocation(PlantFilter filter, int locationId) throws SQLException;
+
+    int delete(int plantId) throws SQLException;
+
+    Plant findById(int plantId) throws SQLException;
+
+    /** The plants with these ids, in one query; unknown ids are left out, order is not kept. */
+    List<Plant> findByIds(Collection<Integer> plantIds) throws SQLException;
+
+    List<Plant> findAll() throws SQLException;
 
     /**
-     * Optional helper if you still need max ID logic (not required if DB uses
-     * auto-increment).
+     * Plants as response objects holding only the fields and related rows the
+     * projection asks for (see PlantProjection). plantId null = every plant, in id order.
      */
-    public int getMaxPlantId() throws SQLException {
-        String sql = "SELECT MAX(Plant_ID) AS mx FROM Plant";
-        try (Connection c = DbUtil.getConnection();
-                PreparedStatement ps = c.prepareStatement(sql);
-                ResultSet rs = ps.executeQuery()) {
-            if (rs.next()) {
-                int mx = rs.getInt("mx");
-                if (rs.wasNull())
-                    return 0;
-                return mx;
-            } else {
-                return 0;
-            }
-        }
-    }
-
-    // in com.planttracker.dao.PlantDao
-    public int updateLocationName(int plantId, String locationName) throws SQLException {
-        final String sql = "UPDATE Plant SET location_name = ? WHERE Plant_ID = ?";
-        try (Connection c = DbUtil.getConnection();
-                PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setString(1, locationName);
-            ps.setInt(2, plantId);
-            int affected = ps.executeUpdate();
-            System.out.println("PlantDao.updateLocationName -> affected: " + affected + ", plantId=" + plantId
-                    + ", locationName=" + locationName);
-            return affected;
-        }
-    }
-}
\ No newline at end of file
+    List<Map<String, Object>> findProjected(PlantProjection projection, Integer plantId) throws SQLException;
+
+    /** Stream every plant to callback; returns the number of plants. */
+    int forEach(int fetchSize, RowCallback<? super Plant> callback) throws SQLException;
+
+    int getMaxPlantId() throws SQLException;
+
+    /** Move the plant to the named room (created if new); a blank name clears it. */
+    int updateLocationName(int plantId, String locationName) throws SQLException;
+}
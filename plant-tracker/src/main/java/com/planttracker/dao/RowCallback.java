@@ -0,0 +1,9 @@
+package com.planttracker.dao;
+
+import java.sql.SQLException;
+
+/** Receives mapped rows one at a time (see Rows.forEach). */
+@FunctionalInterface
+public interface RowCallback<T> {
+    void accept(T row) throws SQLException;
+}
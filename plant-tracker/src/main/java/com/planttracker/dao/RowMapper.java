@@ -0,0 +1,19 @@
+package com.planttracker.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps one result-set row to an object.
+ *
+ * A mapper names the columns it reads; Rows resolves them to positions once per
+ * statement and map() then reads by index only, so there is no per-row column
+ * name lookup and no reflection.
+ */
+public interface RowMapper<T> {
+
+    /** Column labels read by map(); col[i] passed to map() is the position of columns()[i]. */
+    String[] columns();
+
+    T map(ResultSet rs, int[] col) throws SQLException;
+}
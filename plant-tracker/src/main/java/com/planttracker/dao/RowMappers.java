@@ -0,0 +1,137 @@
+package com.planttracker.dao;
+
+import com.planttracker.model.Care;
+import com.planttracker.model.Information;
+import com.planttracker.model.Location;
+import com.planttracker.model.Photo;
+import com.planttracker.model.Plant;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Row mappers for the model classes, shared by the DAOs. Queries must select the
+ * listed column labels (any order, extra columns are ignored).
+ */
+public final class RowMappers {
+
+    private RowMappers() {
+    }
+
+    public static final RowMapper<Plant> PLANT = new RowMapper<Plant>() {
+        private final String[] columns = { "Plant_ID", "Name", "Type", "Height", "DateAcquired", "location_name", "version" };
+
+        @Override
+        public String[] columns() {
+            return columns;
+        }
+
+        @Override
+        public Plant map(ResultSet rs, int[] col) throws SQLException {
+            Plant p = new Plant();
+            p.setPlantId(rs.getInt(col[0]));
+            p.setName(rs.getString(col[1]));
+            p.setType(rs.getString(col[2]));
+            double h = rs.getDouble(col[3]);
+            if (!rs.wasNull())
+                p.setHeight(h);
+            p.setDateAcquired(localDate(rs, col[4]));
+            p.setLocationName(rs.getString(col[5]));
+            p.setVersion(rs.getInt(col[6]));
+            return p;
+        }
+    };
+
+    public static final RowMapper<Care> CARE = new RowMapper<Care>() {
+        private final String[] columns = { "Plant_ID", "LastSoilChange", "LastWatering", "version" };
+
+        @Override
+        public String[] columns() {
+            return columns;
+        }
+
+        @Override
+        public Care map(ResultSet rs, int[] col) throws SQLException {
+            Care c = new Care();
+            c.setPlantId(rs.getInt(col[0]));
+            c.setLastSoilChange(localDate(rs, col[1]));
+            c.setLastWatering(localDate(rs, col[2]));
+            c.setVersion(rs.getInt(col[3]));
+            return c;
+        }
+    };
+
+    public static final RowMapper<Information> INFORMATION = new RowMapper<Information>() {
+        private final String[] columns = { "Plant_ID", "FromAnotherPlant", "SoilType", "PotSize", "WaterGlobeRequired", "version" };
+
+        @Override
+        public String[] columns() {
+            return columns;
+        }
+
+        @Override
+        public Information map(ResultSet rs, int[] col) throws SQLException {
+            Information info = new Information();
+            info.setPlantId(rs.getInt(col[0]));
+            info.setFromAnotherPlant(rs.getBoolean(col[1]));
+            info.setSoilType(rs.getString(col[2]));
+            info.setPotSize(rs.getString(col[3]));
+            info.setWaterGlobeRequired(rs.getBoolean(col[4]));
+            info.setVersion(rs.getInt(col[5]));
+            return info;
+        }
+    };
+
+    // the room a plant is in (Plant joined to Location)
+    public static final RowMapper<Location> LOCATION = new RowMapper<Location>() {
+        private final String[] columns = { "Plant_ID", "Location_ID", "location_name", "LightLevel", "version" };
+
+        @Override
+        public String[] columns() {
+            return columns;
+        }
+
+        @Override
+        public Location map(ResultSet rs, int[] col) throws SQLException {
+            Location l = new Location();
+            l.setPlantId(rs.getInt(col[0]));
+            l.setLocationId(rs.getInt(col[1]));
+            l.setLocationName(rs.getString(col[2]));
+            l.setLightLevel(rs.getString(col[3]));
+            l.setVersion(rs.getInt(col[4]));
+            return l;
+        }
+    };
+
+    public static final RowMapper<Photo> PHOTO = new RowMapper<Photo>() {
+        private final String[] columns = { "Photo_ID", "Plant_ID", "Sha256", "ContentType", "SizeBytes", "Width", "Height", "UploadedAt" };
+
+        @Override
+        public String[] columns() {
+            return columns;
+        }
+
+        @Override
+        public Photo map(ResultSet rs, int[] col) throws SQLException {
+            Photo p = new Photo();
+            p.setPhotoId(rs.getInt(col[0]));
+            p.setPlantId(rs.getInt(col[1]));
+            p.setSha256(rs.getString(col[2]));
+            p.setContentType(rs.getString(col[3]));
+            p.setSizeBytes(rs.getLong(col[4]));
+            p.setWidth((Integer) rs.getObject(col[5]));
+            p.setHeight((Integer) rs.getObject(col[6]));
+            Timestamp at = rs.getTimestamp(col[7]);
+            p.setUploadedAt(at != null ? at.toInstant() : null);
+            return p;
+        }
+    };
+
+    private static LocalDate localDate(ResultSet rs, int col) throws SQLException {
+        Date d = rs.getDate(col);
+        return d != null ? d.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.planttracker.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a prepared query and maps its rows with a RowMapper. Column positions are
+ * resolved once per statement.
+ */
+public final class Rows {
+
+    private Rows() {
+    }
+
+    /** Positions of mapper.columns() in this result set. */
+    public static int[] resolve(ResultSet rs, RowMapper<?> mapper) throws SQLException {
+        String[] names = mapper.columns();
+        int[] col = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            col[i] = rs.findColumn(names[i]);
+        }
+        return col;
+    }
+
+    /** All rows as a list. */
+    public static <T> List<T> list(PreparedStatement ps, RowMapper<T> mapper) throws SQLException {
+        List<T> out = new ArrayList<>();
+        forEach(ps, mapper, out::add);
+        return out;
+    }
+
+    /** First row, or null if there is none. */
+    public static <T> T first(PreparedStatement ps, RowMapper<T> mapper) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? mapper.map(rs, resolve(rs, mapper)) : null;
+        }
+    }
+
+    /**
+     * Stream the rows to callback without collecting them. With a fetch size set
+     * and auto-commit off (DbUtil.inTransaction) the driver reads them in batches
+     * through a cursor instead of loading the whole result.
+     *
+     * @return number of rows
+     */
+    public static <T> int forEach(PreparedStatement ps, RowMapper<T> mapper, RowCallback<? super T> callback)
+            throws SQLException {
+        int n = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+            int[] col = null;
+            while (rs.next()) {
+                if (col == null) {
+                    col = resolve(rs, mapper);
+                }
+                callback.accept(mapper.map(rs, col));
+                n++;
+            }
+        }
+        return n;
+    }
+}
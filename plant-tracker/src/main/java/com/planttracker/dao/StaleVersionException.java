@@ -0,0 +1,16 @@
+package com.planttracker.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown by a compare-and-set update when the row's version no longer matches the
+ * version the caller read (someone else updated or deleted it in the meantime).
+ * The service layer maps this to HTTP 409.
+ */
+public class StaleVersionException extends SQLException {
+
+    public StaleVersionException(String table, int plantId, Integer expectedVersion) {
+        super(table + " for plant " + plantId + " was modified by someone else (expected version "
+                + expectedVersion + ")");
+    }
+}
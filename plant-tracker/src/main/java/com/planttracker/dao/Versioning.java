@@ -0,0 +1,43 @@
+package com.planttracker.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Helpers for the compare-and-set updates shared by the DAOs.
+ *
+ * Every table has an integer version column that each update increments. When the
+ * caller passes the version it read, the update only matches if the row still has
+ * that version; callers that pass null update unconditionally (legacy clients).
+ */
+final class Versioning {
+
+    private Versioning() {
+    }
+
+    /** Extra WHERE clause for a compare-and-set update ("" when version is null). */
+    static String casClause(Integer version) {
+        return version != null ? " AND version = ?" : "";
+    }
+
+    /**
+     * Called after an update matched no rows. If the caller asked for a specific
+     * version and the row still exists, the version was stale -> StaleVersionException.
+     * Otherwise the row simply doesn't exist and the caller sees 0 rows updated.
+     */
+    static void checkConflict(Connection c, String table, int plantId, Integer version) throws SQLException {
+        if (version == null) {
+            return;
+        }
+        try (PreparedStatement ps = c.prepareStatement("SELECT 1 FROM " + table + " WHERE Plant_ID = ?")) {
+            ps.setInt(1, plantId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    throw new StaleVersionException(table, plantId, version);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.DbUtil;
+import com.planttracker.model.Care;
+import com.planttracker.model.Information;
+import com.planttracker.model.Location;
+import com.planttracker.model.MeasurementKind;
+import com.planttracker.model.Plant;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared state of the in-memory DAOs: the same four tables as the database, held
+ * in lock-striped int-keyed maps, plus secondary indexes (room name -> id, room id
+ * -> plant ids). Rows are immutable; the DAOs copy them in and out of the model
+ * classes, so callers never share mutable state with the store.
+ *
+ * Lock order is plants, care, information, locations. A single operation holds at
+ * most one stripe per map in that order; inTransaction holds all of them.
+ */
+public final class InMemoryStore {
+
+    private static final int STRIPES = 64;
+
+    static final class PlantRow {
+        final String name;
+        final String type;
+        final Double height;
+        final LocalDate dateAcquired;
+        final int locationId;   // 0 = none
+        final int version;
+
+        PlantRow(String name, String type, Double height, LocalDate dateAcquired, int locationId, int version) {
+            this.name = name;
+            this.type = type;
+            this.height = height;
+            this.dateAcquired = dateAcquired;
+            this.locationId = locationId;
+            this.version = version;
+        }
+
+        PlantRow withLocation(int newLocationId) {
+            return new PlantRow(name, type, height, dateAcquired, newLocationId, version + 1);
+        }
+    }
+
+    static final class LocationRow {
+        final int id;
+        final String name;
+        final String lightLevel;
+        final int version;
+
+        LocationRow(int id, String name, String lightLevel, int version) {
+            this.id = id;
+            this.name = name;
+            this.lightLevel = lightLevel;
+            this.version = version;
+        }
+    }
+
+    final StripedIntMap<PlantRow> plants = new StripedIntMap<>(STRIPES);
+    final StripedIntMap<Care> care = new StripedIntMap<>(STRIPES);
+    final StripedIntMap<Information> information = new StripedIntMap<>(STRIPES);
+    final StripedIntMap<LocationRow> locations = new StripedIntMap<>(STRIPES);
+    // plant id -> one TimeSeries per MeasurementKind (by ordinal, null until the first reading)
+    final StripedIntMap<TimeSeries[]> measurements = new StripedIntMap<>(STRIPES);
+
+    // secondary indexes, maintained by the DAOs while holding the row's stripe lock
+    final Map<String, Integer> locationIdsByName = new ConcurrentHashMap<>();
+    final Map<Integer, Set<Integer>> plantIdsByLocation = new ConcurrentHashMap<>();
+
+    final AtomicInteger plantIds = new AtomicInteger();
+    final AtomicInteger locationIds = new AtomicInteger();
+    private final boolean negativePlantIds;
+
+    public InMemoryStore() {
+        this(false);
+    }
+
+    /**
+     * @param negativePlantIds new plants get ids -1, -2, ... so they can't collide with
+     *                         ids copied in from another database (edge mode)
+     */
+    public InMemoryStore(boolean negativePlantIds) {
+        this.negativePlantIds = negativePlantIds;
+    }
+
+    int nextPlantId() {
+        return negativePlantIds ? plantIds.decrementAndGet() : plantIds.incrementAndGet();
+    }
+
+    /**
+     * Run work with every stripe locked, so it sees and leaves a consistent state
+     * and no other operation interleaves. Unlike the database there is no rollback:
+     * changes made before an exception stay.
+     */
+    public <T> T inTransaction(DbUtil.Work<T> work) throws SQLException {
+        plants.lockAll();
+        care.lockAll();
+        information.lockAll();
+        locations.lockAll();
+        try {
+            return work.run();
+        } finally {
+            locations.unlockAll();
+            information.unlockAll();
+            care.unlockAll();
+            plants.unlockAll();
+        }
+    }
+
+    // ---------- replication (rows copied from another store as-is) ----------
+    // These bypass version checks and keep the given ids and versions.
+
+    public void putPlant(Plant p) throws SQLException {
+        String room = roomName(p.getLocationName());
+        int locationId = room != null ? findOrCreateLocation(room, null, null) : 0;
+        int id = p.getPlantId();
+        int version = p.getVersion() != null ? p.getVersion() : 0;
+        // keep new ids clear of the copied ones
+        if (negativePlantIds ? id < 0 : id > 0) {
+            plantIds.accumulateAndGet(id, negativePlantIds ? Math::min : Math::max);
+        }
+        plants.compute(id, cur -> {
+            index(id, cur != null ? cur.locationId : 0, locationId);
+            return new PlantRow(p.getName(), p.getType(), p.getHeight(), p.getDateAcquired(), locationId, version);
+        });
+    }
+
+    public void putCare(Care c) {
+        Care copy = new Care(c.getPlantId(), c.getLastSoilChange(), c.getLastWatering());
+        copy.setVersion(c.getVersion() != null ? c.getVersion() : 0);
+        care.put(c.getPlantId(), copy);
+    }
+
+    public void putInformation(Information i) {
+        Information copy = new Information(i.getPlantId(), i.isFromAnotherPlant(), i.getSoilType(), i.getPotSize(),
+                i.isWaterGlobeRequired());
+        copy.setVersion(i.getVersion() != null ? i.getVersion() : 0);
+        information.put(i.getPlantId(), copy);
+    }
+
+    /** Put the plant in the named room and give the room this light level and version. */
+    public void putLocation(Location l) throws SQLException {
+        String room = roomName(l.getLocationName());
+        if (room == null) {
+            removeLocation(l.getPlantId());
+            return;
+        }
+        int roomId = findOrCreateLocation(room, l.getLightLevel(), null);
+        int version = l.getVersion() != null ? l.getVersion() : 0;
+        locations.compute(roomId, r -> r != null ? new LocationRow(r.id, r.name, l.getLightLevel(), version) : null);
+        int plantId = l.getPlantId();
+        plants.compute(plantId, cur -> {
+            if (cur == null || cur.locationId == roomId) {
+                return cur;
+            }
+            index(plantId, cur.locationId, roomId);
+            return new PlantRow(cur.name, cur.type, cur.height, cur.dateAcquired, roomId, cur.version);
+        });
+    }
+
+    /** Remove a plant and its care / information rows. */
+    public void removePlant(int plantId) throws SQLException {
+        plants.compute(plantId, cur -> {
+            if (cur != null) {
+                care.remove(plantId);
+                information.remove(plantId);
+                measurements.remove(plantId);
+                index(plantId, cur.locationId, 0);
+            }
+            return null;
+        });
+    }
+
+    public void removeCare(int plantId) {
+        care.remove(plantId);
+    }
+
+    public void removeInformation(int plantId) {
+        information.remove(plantId);
+    }
+
+    public void removeLocation(int plantId) throws SQLException {
+        plants.compute(plantId, cur -> {
+            if (cur == null || cur.locationId == 0) {
+                return cur;
+            }
+            index(plantId, cur.locationId, 0);
+            return new PlantRow(cur.name, cur.type, cur.height, cur.dateAcquired, 0, cur.version);
+        });
+    }
+
+    /**
+     * Run work holding the plant's stripe lock, so it doesn't interleave with another
+     * lockPlant call for the same plant.
+     */
+    public <T> T lockPlant(int plantId, DbUtil.Work<T> work) throws SQLException {
+        Object[] result = new Object[1];
+        plants.compute(plantId, cur -> {
+            result[0] = work.run();
+            return cur;
+        });
+        @SuppressWarnings("unchecked")
+        T t = (T) result[0];
+        return t;
+    }
+
+    /** Move a plant and its child rows to a new id (a local id replaced by the central one). */
+    public void renumberPlant(int fromId, int toId) throws SQLException {
+        inTransaction(() -> {
+            PlantRow row = plants.remove(fromId);
+            if (row != null) {
+                index(fromId, row.locationId, 0);
+                plants.put(toId, row);
+                index(toId, 0, row.locationId);
+            }
+            Care c = care.remove(fromId);
+            if (c != null) {
+                c.setPlantId(toId);
+                care.put(toId, c);
+            }
+            Information i = information.remove(fromId);
+            if (i != null) {
+                i.setPlantId(toId);
+                information.put(toId, i);
+            }
+            TimeSeries[] m = measurements.remove(fromId);
+            if (m != null) {
+                measurements.put(toId, m);
+            }
+            return null;
+        });
+    }
+
+    // ---------- helpers shared by the DAOs ----------
+
+    /** What reading a series is passed to (under the plant's measurement stripe). */
+    @FunctionalInterface
+    interface SeriesReader {
+        void read(TimeSeries series);
+    }
+
+    void record(int plantId, MeasurementKind kind, long atMicros, float value) throws SQLException {
+        measurements.compute(plantId, cur -> {
+            TimeSeries[] bykind = cur != null ? cur : new TimeSeries[MeasurementKind.values().length];
+            if (bykind[kind.ordinal()] == null) {
+                bykind[kind.ordinal()] = new TimeSeries();
+            }
+            bykind[kind.ordinal()].add(atMicros, value);
+            return bykind;
+        });
+    }
+
+    void readSeries(int plantId, MeasurementKind kind, SeriesReader reader) throws SQLException {
+        measurements.compute(plantId, cur -> {
+            if (cur != null && cur[kind.ordinal()] != null) {
+                reader.read(cur[kind.ordinal()]);
+            }
+            return cur;
+        });
+    }
+
+    // like the plant_record_height trigger: a new or changed height becomes a measurement
+    void recordHeight(int plantId, Double before, Double after) throws SQLException {
+        if (after != null && !after.equals(before)) {
+            record(plantId, MeasurementKind.HEIGHT, micros(Instant.now()), after.floatValue());
+        }
+    }
+
+    static long micros(Instant t) {
+        return t.getEpochSecond() * 1_000_000L + t.getNano() / 1_000;
+    }
+
+    static String roomName(String locationName) {
+        if (locationName == null || locationName.trim().isEmpty()) {
+            return null;
+        }
+        return locationName.trim();
+    }
+
+    String locationName(int locationId) {
+        if (locationId == 0) {
+            return null;
+        }
+        LocationRow l = locations.get(locationId);
+        return l != null ? l.name : null;
+    }
+
+    /** Id of the named room (0 if none). */
+    int locationId(String name) {
+        Integer id = name != null ? locationIdsByName.get(name) : null;
+        return id != null ? id : 0;
+    }
+
+    /**
+     * Id of the named room, creating it with lightLevel if new. created[0] is set
+     * when this call created it. Like renames and merges (MemoryLocationDao), the name
+     * index is only changed under the room's stripe lock, so a room found here is
+     * checked under that lock to still have the name; one renamed or removed
+     * meanwhile is looked up again.
+     */
+    int findOrCreateLocation(String name, String lightLevel, boolean[] created) throws SQLException {
+        while (true) {
+            Integer id = locationIdsByName.get(name);
+            if (id != null) {
+                LocationRow r = locations.get(id);
+                if (r != null && r.name.equals(name)) {
+                    return id;
+                }
+                continue;
+            }
+            int newId = locationIds.incrementAndGet();
+            LocationRow row = locations.compute(newId,
+                    cur -> locationIdsByName.putIfAbsent(name, newId) == null
+                            ? new LocationRow(newId, name, lightLevel, 0) : null);
+            if (row != null) {
+                if (created != null) {
+                    created[0] = true;
+                }
+                return newId;
+            }
+        }
+    }
+
+    // called with the plant's stripe locked
+    void index(int plantId, int oldLocationId, int newLocationId) {
+        if (oldLocationId == newLocationId) {
+            return;
+        }
+        if (oldLocationId != 0) {
+            Set<Integer> s = plantIdsByLocation.get(oldLocationId);
+            if (s != null) {
+                s.remove(plantId);
+            }
+        }
+        if (newLocationId != 0) {
+            plantIdsByLocation.computeIfAbsent(newLocationId, k -> ConcurrentHashMap.newKeySet()).add(plantId);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.dao.CareDao;
+import com.planttracker.dao.StaleVersionException;
+import com.planttracker.model.Care;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/** In-memory CareDao; same results and version checks as JdbcCareDao. */
+public class MemoryCareDao implements CareDao {
+
+    private final InMemoryStore store;
+
+    public MemoryCareDao(InMemoryStore store) {
+        this.store = store;
+    }
+
+    public int insert(Care c) throws SQLException {
+        int id = c.getPlantId();
+        // holding the plant's stripe keeps it from being deleted meanwhile
+        store.plants.compute(id, plant -> {
+            if (plant == null) {
+                throw new SQLException("Care references missing plant " + id, "23503");
+            }
+            store.care.compute(id, cur -> {
+                if (cur != null) {
+                    throw new SQLException("Care for plant " + id + " already exists", "23505");
+                }
+                return copy(c, 0);
+            });
+            return plant;
+        });
+        c.setVersion(0);
+        return 1;
+    }
+
+    public int updateByPlantId(Care c) throws SQLException {
+        int id = c.getPlantId();
+        Care saved = store.care.compute(id, cur -> {
+            if (cur == null) {
+                return null;
+            }
+            if (c.getVersion() != null && !cur.getVersion().equals(c.getVersion())) {
+                throw new StaleVersionException("Care", id, c.getVersion());
+            }
+            return copy(c, cur.getVersion() + 1);
+        });
+        if (saved == null) {
+            return 0;
+        }
+        c.setVersion(saved.getVersion());
+        return 1;
+    }
+
+    public int deleteByPlantId(int plantId) throws SQLException {
+        return store.care.remove(plantId) != null ? 1 : 0;
+    }
+
+    public Care findByPlantId(int plantId) throws SQLException {
+        Care c = store.care.get(plantId);
+        return c != null ? copy(c, c.getVersion()) : null;
+    }
+
+    public List<Care> findByPlantIds(Collection<Integer> plantIds) throws SQLException {
+        List<Care> out = new ArrayList<>();
+        for (int id : plantIds) {
+            Care c = findByPlantId(id);
+            if (c != null) {
+                out.add(c);
+            }
+        }
+        return out;
+    }
+
+    public List<Care> findAll() throws SQLException {
+        List<Care> out = new ArrayList<>();
+        store.care.forEach((id, c) -> out.add(copy(c, c.getVersion())));
+        out.sort(Comparator.comparingInt(Care::getPlantId));
+        return out;
+    }
+
+    private static Care copy(Care c, int version) {
+        Care out = new Care(c.getPlantId(), c.getLastSoilChange(), c.getLastWatering());
+        out.setVersion(version);
+        return out;
+    }
+}
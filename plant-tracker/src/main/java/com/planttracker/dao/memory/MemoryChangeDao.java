@@ -0,0 +1,40 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.dao.ChangeDao;
+import com.planttracker.model.ChangeSet;
+
+import java.sql.SQLException;
+import java.time.Instant;
+
+/**
+ * The in-memory store keeps no change history: every call returns all rows with
+ * full = true (and cursor 0), which callers of the change feed already handle.
+ */
+public class MemoryChangeDao implements ChangeDao {
+
+    private final MemoryPlantDao plants;
+    private final MemoryCareDao care;
+    private final MemoryInformationDao information;
+    private final MemoryLocationDao locations;
+
+    public MemoryChangeDao(InMemoryStore store) {
+        this.plants = new MemoryPlantDao(store);
+        this.care = new MemoryCareDao(store);
+        this.information = new MemoryInformationDao(store);
+        this.locations = new MemoryLocationDao(store);
+    }
+
+    public ChangeSet changesSince(long cursor) throws SQLException {
+        ChangeSet cs = new ChangeSet(0, true);
+        cs.setPlants(plants.findAll());
+        cs.setCare(care.findAll());
+        cs.setInformation(information.findAll());
+        cs.setLocations(locations.findAll());
+        return cs;
+    }
+
+    /** Nothing to purge: there are no tombstones. */
+    public int purgeTombstones(Instant deletedBefore) {
+        return 0;
+    }
+}
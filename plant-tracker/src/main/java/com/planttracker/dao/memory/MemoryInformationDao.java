@@ -0,0 +1,96 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.dao.InformationDao;
+import com.planttracker.dao.StaleVersionException;
+import com.planttracker.model.Information;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/** In-memory InformationDao; same results and version checks as JdbcInformationDao. */
+public class MemoryInformationDao implements InformationDao {
+
+    private final InMemoryStore store;
+
+    public MemoryInformationDao(InMemoryStore store) {
+        this.store = store;
+    }
+
+    public int insert(Information info) throws SQLException {
+        int id = info.getPlantId();
+        // holding the plant's stripe keeps it from being deleted meanwhile
+        store.plants.compute(id, plant -> {
+            if (plant == null) {
+                throw new SQLException("Information references missing plant " + id, "23503");
+            }
+            store.information.compute(id, cur -> {
+                if (cur != null) {
+                    throw new SQLException("Information for plant " + id + " already exists", "23505");
+                }
+                return copy(info, 0);
+            });
+            return plant;
+        });
+        info.setVersion(0);
+        return 1;
+    }
+
+    public int update(Information info) throws SQLException {
+        return updateByPlantId(info);
+    }
+
+    public int updateByPlantId(Information info) throws SQLException {
+        int id = info.getPlantId();
+        Information saved = store.information.compute(id, cur -> {
+            if (cur == null) {
+                return null;
+            }
+            if (info.getVersion() != null && !cur.getVersion().equals(info.getVersion())) {
+                throw new StaleVersionException("Information", id, info.getVersion());
+            }
+            return copy(info, cur.getVersion() + 1);
+        });
+        if (saved == null) {
+            return 0;
+        }
+        info.setVersion(saved.getVersion());
+        return 1;
+    }
+
+    public int deleteByPlantId(int plantId) throws SQLException {
+        return store.information.remove(plantId) != null ? 1 : 0;
+    }
+
+    public Information findByPlantId(int plantId) throws SQLException {
+        Information info = store.information.get(plantId);
+        return info != null ? copy(info, info.getVersion()) : null;
+    }
+
+    public List<Information> findByPlantIds(Collection<Integer> plantIds) throws SQLException {
+        List<Information> out = new ArrayList<>();
+        for (int id : plantIds) {
+            Information info = findByPlantId(id);
+            if (info != null) {
+                out.add(info);
+            }
+        }
+        return out;
+    }
+
+    public List<Information> findAll() throws SQLException {
+        List<Information> out = new ArrayList<>();
+        store.information.forEach((id, info) -> out.add(copy(info, info.getVersion())));
+        out.sort(Comparator.comparingInt(Information::getPlantId));
+        return out;
+    }
+
+    private static Information copy(Information i, int version) {
+        Information out = new Information(i.getPlantId(), i.isFromAnotherPlant(), i.getSoilType(), i.getPotSize(),
+                i.isWaterGlobeRequired());
+        out.setVersion(version);
+        return out;
+    }
+}
@@ -0,0 +1,129 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.dao.JobDao;
+import com.planttracker.model.Job;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** In-memory JobDao; same results as JdbcJobDao. Jobs are lost on restart like the rest of the store. */
+public class MemoryJobDao implements JobDao {
+
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> updatedAt = new ConcurrentHashMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+
+    public long insert(Job job) throws SQLException {
+        long id = jobIds.incrementAndGet();
+        job.setJobId(id);
+        job.setCreatedAt(Instant.now());
+        jobs.put(id, job.copy());
+        updatedAt.put(id, Instant.now());
+        return id;
+    }
+
+    public Job findById(long jobId) throws SQLException {
+        Job j = jobs.get(jobId);
+        return j != null ? j.copy() : null;
+    }
+
+    public List<Job> findRecent(int limit) throws SQLException {
+        List<Job> out = new ArrayList<>();
+        jobs.values().stream()
+                .sorted(Comparator.comparingLong(Job::getJobId).reversed())
+                .limit(limit)
+                .forEach(j -> out.add(j.copy()));
+        return out;
+    }
+
+    public boolean markRunning(long jobId, Instant startedAt) throws SQLException {
+        boolean[] ok = new boolean[1];
+        jobs.computeIfPresent(jobId, (id, j) -> {
+            if (Job.QUEUED.equals(j.getState()) && !j.isCancelRequested()) {
+                j.setState(Job.RUNNING);
+                j.setStartedAt(startedAt);
+                updatedAt.put(id, Instant.now());
+                ok[0] = true;
+            }
+            return j;
+        });
+        return ok[0];
+    }
+
+    public boolean updateProgress(long jobId, long done, long total) throws SQLException {
+        boolean[] cancel = new boolean[1];
+        jobs.computeIfPresent(jobId, (id, j) -> {
+            j.setDone(done);
+            j.setTotal(total);
+            updatedAt.put(id, Instant.now());
+            cancel[0] = j.isCancelRequested();
+            return j;
+        });
+        return cancel[0];
+    }
+
+    public void finish(Job job) throws SQLException {
+        jobs.computeIfPresent(job.getJobId(), (id, j) -> {
+            Job done = job.copy();
+            done.setCancelRequested(j.isCancelRequested() || job.isCancelRequested());
+            updatedAt.put(id, Instant.now());
+            return done;
+        });
+    }
+
+    public boolean requestCancel(long jobId) throws SQLException {
+        boolean[] ok = new boolean[1];
+        jobs.computeIfPresent(jobId, (id, j) -> {
+            if (!j.isFinished()) {
+                j.setCancelRequested(true);
+                ok[0] = true;
+            }
+            return j;
+        });
+        return ok[0];
+    }
+
+    public void heartbeat(Collection<Long> jobIds) throws SQLException {
+        Instant now = Instant.now();
+        for (long id : jobIds) {
+            updatedAt.computeIfPresent(id, (k, v) -> now);
+        }
+    }
+
+    public int failStale(Instant before, String message) throws SQLException {
+        int[] n = new int[1];
+        for (long jobId : jobs.keySet()) {
+            jobs.computeIfPresent(jobId, (id, j) -> {
+                Instant seen = updatedAt.get(id);
+                if (!j.isFinished() && seen != null && seen.isBefore(before)) {
+                    j.setState(Job.FAILED);
+                    j.setMessage(message);
+                    j.setFinishedAt(Instant.now());
+                    n[0]++;
+                }
+                return j;
+            });
+        }
+        return n[0];
+    }
+
+    public List<Long> deleteFinishedBefore(Instant before) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        jobs.values().removeIf(j -> {
+            if (j.isFinished() && j.getFinishedAt() != null && j.getFinishedAt().isBefore(before)) {
+                ids.add(j.getJobId());
+                updatedAt.remove(j.getJobId());
+                return true;
+            }
+            return false;
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,201 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.dao.LocationDao;
+import com.planttracker.dao.StaleVersionException;
+import com.planttracker.dao.memory.InMemoryStore.LocationRow;
+import com.planttracker.dao.memory.InMemoryStore.PlantRow;
+import com.planttracker.model.BulkLocationResult;
+import com.planttracker.model.Location;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/** In-memory LocationDao; same results and version checks as JdbcLocationDao. */
+public class MemoryLocationDao implements LocationDao {
+
+    private final InMemoryStore store;
+
+    public MemoryLocationDao(InMemoryStore store) {
+        this.store = store;
+    }
+
+    public int insert(Location loc) throws SQLException {
+        return updateByPlantId(loc);
+    }
+
+    public int updateByPlantId(Location loc) throws SQLException {
+        String name = InMemoryStore.roomName(loc.getLocationName());
+        if (name == null) {
+            throw new SQLException("location_name is required");
+        }
+        int plantId = loc.getPlantId();
+        int[] roomIds = { 0 };
+        store.plants.compute(plantId, cur -> {
+            if (cur == null) {
+                return null;
+            }
+            int roomId = store.findOrCreateLocation(name, loc.getLightLevel(), null); // only for an existing plant
+            roomIds[0] = roomId;
+            boolean sameRoom = cur.locationId == roomId;
+            LocationRow room = store.locations.compute(roomId, r -> {
+                if (r == null) {
+                    return null; // removed meanwhile
+                }
+                if (loc.getVersion() != null && sameRoom && r.version != loc.getVersion()) {
+                    throw new StaleVersionException("Location", plantId, loc.getVersion());
+                }
+                if (loc.getLightLevel() != null && !loc.getLightLevel().equals(r.lightLevel)) {
+                    return new LocationRow(r.id, r.name, loc.getLightLevel(), r.version + 1);
+                }
+                return r;
+            });
+            loc.setVersion(room != null ? room.version : 0);
+            if (sameRoom) {
+                return cur;
+            }
+            store.index(plantId, cur.locationId, roomId);
+            return cur.withLocation(roomId);
+        });
+        if (roomIds[0] == 0) {
+            return 0;
+        }
+        loc.setLocationId(roomIds[0]);
+        loc.setLocationName(name);
+        return 1;
+    }
+
+    // The name index is changed under the room's stripe lock, as in
+    // InMemoryStore.findOrCreateLocation, so lookups never see a name half moved.
+
+    public int renameLocation(String oldName, String newName) throws SQLException {
+        String from = InMemoryStore.roomName(oldName);
+        String to = InMemoryStore.roomName(newName);
+        int id = store.locationId(from);
+        if (id == 0) {
+            return 0;
+        }
+        boolean[] renamed = { false };
+        store.locations.compute(id, r -> {
+            if (r == null || !r.name.equals(from)) {
+                return r; // renamed or removed meanwhile
+            }
+            if (store.locationIdsByName.putIfAbsent(to, id) != null) {
+                throw new SQLException("Location " + to + " already exists", "23505");
+            }
+            store.locationIdsByName.remove(from, id);
+            renamed[0] = true;
+            return new LocationRow(r.id, to, r.lightLevel, r.version + 1);
+        });
+        return renamed[0] ? 1 : 0;
+    }
+
+    public void renameOrMerge(String oldName, String newName, BulkLocationResult result) throws SQLException {
+        int from = store.locationId(oldName);
+        int to = store.locationId(newName);
+        if (from != 0 && to != 0 && from != to) {
+            store.locations.compute(from, r -> {
+                store.locationIdsByName.remove(oldName, from);
+                return null;
+            });
+            // plants were moved before; any left behind lose their room (ON DELETE SET NULL)
+            Set<Integer> left = store.plantIdsByLocation.remove(from);
+            if (left != null) {
+                for (int plantId : new ArrayList<>(left)) {
+                    store.plants.compute(plantId, cur -> cur != null && cur.locationId == from ? cur.withLocation(0) : cur);
+                }
+            }
+            result.setLocationsDeleted(1);
+        } else if (from != 0 && to == 0) {
+            result.setLocationsRenamed(renameLocation(oldName, newName));
+        }
+    }
+
+    public int findOrCreate(String name, BulkLocationResult result) throws SQLException {
+        boolean[] created = { false };
+        int id = store.findOrCreateLocation(InMemoryStore.roomName(name), null, created);
+        if (created[0]) {
+            result.setLocationsCreated(result.getLocationsCreated() + 1);
+        }
+        return id;
+    }
+
+    public int deleteByPlantIdAndName(int plantId, String locationName) throws SQLException {
+        int roomId = store.locationId(InMemoryStore.roomName(locationName));
+        return roomId != 0 ? clear(plantId, roomId) : 0;
+    }
+
+    public int deleteByPlantId(int plantId) throws SQLException {
+        return clear(plantId, 0);
+    }
+
+    // take the plant out of its room (only if it's in onlyRoom, when that's non-zero)
+    private int clear(int plantId, int onlyRoom) throws SQLException {
+        boolean[] changed = { false };
+        store.plants.compute(plantId, cur -> {
+            if (cur == null || cur.locationId == 0 || (onlyRoom != 0 && cur.locationId != onlyRoom)) {
+                return cur;
+            }
+            changed[0] = true;
+            store.index(plantId, cur.locationId, 0);
+            return cur.withLocation(0);
+        });
+        return changed[0] ? 1 : 0;
+    }
+
+    public Location findByPlantId(int plantId) throws SQLException {
+        PlantRow plant = store.plants.get(plantId);
+        LocationRow room = plant != null && plant.locationId != 0 ? store.locations.get(plant.locationId) : null;
+        if (room == null) {
+            return null;
+        }
+        Location l = new Location(plantId, room.name, room.lightLevel);
+        l.setLocationId(room.id);
+        l.setVersion(room.version);
+        return l;
+    }
+
+    public int renameLocationForPlant(int plantId, String newLocationName) throws SQLException {
+        return updateByPlantId(new Location(plantId, newLocationName, null));
+    }
+
+    public List<Location> findAllForPlant(int plantId) throws SQLException {
+        List<Location> out = new ArrayList<>();
+        Location l = findByPlantId(plantId);
+        if (l != null) {
+            out.add(l);
+        }
+        return out;
+    }
+
+    public List<Location> findByPlantIds(Collection<Integer> plantIds) throws SQLException {
+        List<Location> out = new ArrayList<>();
+        for (int id : plantIds) {
+            Location l = findByPlantId(id);
+            if (l != null) {
+                out.add(l);
+            }
+        }
+        return out;
+    }
+
+    public List<Location> findAll() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        store.plants.forEach((id, row) -> {
+            if (row.locationId != 0) {
+                ids.add(id);
+            }
+        });
+        ids.sort(null);
+        List<Location> out = new ArrayList<>();
+        for (int id : ids) {
+            Location l = findByPlantId(id);
+            if (l != null) {
+                out.add(l);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,89 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.dao.MeasurementDao;
+import com.planttracker.model.Measurement;
+import com.planttracker.model.MeasurementBatch;
+import com.planttracker.model.MeasurementBucket;
+import com.planttracker.model.MeasurementKind;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/** In-memory MeasurementDao over the store's TimeSeries; same results as JdbcMeasurementDao. */
+public class MemoryMeasurementDao implements MeasurementDao {
+
+    private final InMemoryStore store;
+
+    public MemoryMeasurementDao(InMemoryStore store) {
+        this.store = store;
+    }
+
+    public int insert(List<Measurement> measurements) throws SQLException {
+        for (Measurement m : measurements) {
+            if (store.plants.get(m.getPlantId()) == null) {
+                throw new SQLException("Measurement references missing plant " + m.getPlantId(), "23503");
+            }
+        }
+        for (Measurement m : measurements) {
+            MeasurementKind kind = MeasurementKind.fromName(m.getKind());
+            if (kind == null) {
+                throw new IllegalArgumentException("Unknown measurement kind: " + m.getKind());
+            }
+            // under the plant's stripe, so a plant deleted meanwhile gets no readings back
+            store.plants.compute(m.getPlantId(), plant -> {
+                if (plant != null) {
+                    store.record(m.getPlantId(), kind, InMemoryStore.micros(m.getMeasuredAt()), (float) m.getValue());
+                }
+                return plant;
+            });
+        }
+        return measurements.size();
+    }
+
+    public int insertBatch(MeasurementBatch batch) throws SQLException {
+        int inserted = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            MeasurementKind kind = MeasurementKind.fromCode(batch.kind(i));
+            int plantId = batch.plantId(i);
+            long at = batch.micros(i);
+            float value = batch.value(i);
+            boolean[] known = new boolean[1];
+            store.plants.compute(plantId, plant -> {
+                if (plant != null) {
+                    store.record(plantId, kind, at, value);
+                    known[0] = true;
+                }
+                return plant;
+            });
+            if (known[0]) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    public List<Measurement> findRange(int plantId, MeasurementKind kind, Instant from, Instant to, int limit)
+            throws SQLException {
+        List<Measurement> out = new ArrayList<>();
+        long f = InMemoryStore.micros(from), t = InMemoryStore.micros(to);
+        store.readSeries(plantId, kind, series -> {
+            for (int i = series.lowerBound(f); i < series.size() && series.microsAt(i) < t && out.size() < limit; i++) {
+                long us = series.microsAt(i);
+                out.add(new Measurement(plantId, kind.apiName(),
+                        Instant.ofEpochSecond(Math.floorDiv(us, 1_000_000L), Math.floorMod(us, 1_000_000L) * 1_000L),
+                        series.valueAt(i)));
+            }
+        });
+        return out;
+    }
+
+    public List<MeasurementBucket> downsample(int plantId, MeasurementKind kind, Instant from, Instant to,
+                                              long bucketSeconds) throws SQLException {
+        List<MeasurementBucket> out = new ArrayList<>();
+        store.readSeries(plantId, kind,
+                series -> out.addAll(series.downsample(InMemoryStore.micros(from), InMemoryStore.micros(to), bucketSeconds)));
+        return out;
+    }
+}
@@ -0,0 +1,94 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.dao.PhotoDao;
+import com.planttracker.model.Photo;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** In-memory PhotoDao; same results as JdbcPhotoDao. */
+public class MemoryPhotoDao implements PhotoDao {
+
+    private final InMemoryStore store;
+    private final Map<Integer, Photo> photos = new ConcurrentHashMap<>();
+    private final AtomicInteger photoIds = new AtomicInteger();
+
+    public MemoryPhotoDao(InMemoryStore store) {
+        this.store = store;
+    }
+
+    public int insert(Photo photo) throws SQLException {
+        int plantId = photo.getPlantId();
+        int id = photoIds.incrementAndGet();
+        // holding the plant's stripe keeps it from being deleted meanwhile
+        store.plants.compute(plantId, plant -> {
+            if (plant == null) {
+                throw new SQLException("Photo references missing plant " + plantId, "23503");
+            }
+            photo.setPhotoId(id);
+            photo.setUploadedAt(Instant.now());
+            photos.put(id, copy(photo));
+            return plant;
+        });
+        return id;
+    }
+
+    public Photo findById(int photoId) {
+        Photo p = photos.get(photoId);
+        return p != null ? copy(p) : null;
+    }
+
+    public List<Photo> findByPlantId(int plantId) {
+        List<Photo> out = new ArrayList<>();
+        for (Photo p : photos.values()) {
+            if (p.getPlantId() == plantId) {
+                out.add(copy(p));
+            }
+        }
+        out.sort(Comparator.comparingInt(Photo::getPhotoId));
+        return out;
+    }
+
+    public String delete(int plantId, int photoId) {
+        Photo p = photos.get(photoId);
+        return p != null && p.getPlantId() == plantId && photos.remove(photoId, p) ? p.getSha256() : null;
+    }
+
+    public List<String> deleteByPlantId(int plantId) {
+        List<String> shas = new ArrayList<>();
+        for (Photo p : findByPlantId(plantId)) {
+            if (photos.remove(p.getPhotoId()) != null) {
+                shas.add(p.getSha256());
+            }
+        }
+        return shas;
+    }
+
+    public boolean isReferenced(String sha256) {
+        for (Photo p : photos.values()) {
+            if (p.getSha256().equals(sha256)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Photo copy(Photo p) {
+        Photo c = new Photo();
+        c.setPhotoId(p.getPhotoId());
+        c.setPlantId(p.getPlantId());
+        c.setSha256(p.getSha256());
+        c.setContentType(p.getContentType());
+        c.setSizeBytes(p.getSizeBytes());
+        c.setWidth(p.getWidth());
+        c.setHeight(p.getHeight());
+        c.setUploadedAt(p.getUploadedAt());
+        return c;
+    }
+}
@@ -0,0 +1,234 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.dao.PlantDao;
+import com.planttracker.dao.RowCallback;
+import com.planttracker.dao.StaleVersionException;
+import com.planttracker.dao.memory.InMemoryStore.PlantRow;
+import com.planttracker.model.Plant;
+import com.planttracker.model.PlantFilter;
+import com.planttracker.model.PlantProjection;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** In-memory PlantDao; same results and version checks as JdbcPlantDao. */
+public class MemoryPlantDao implements PlantDao {
+
+    private final InMemoryStore store;
+    // related rows for findProjected
+    private final MemoryCareDao care;
+    private final MemoryInformationDao information;
+    private final MemoryLocationDao locations;
+
+    public MemoryPlantDao(InMemoryStore store) {
+        this.store = store;
+        this.care = new MemoryCareDao(store);
+        this.information = new MemoryInformationDao(store);
+        this.locations = new MemoryLocationDao(store);
+    }
+
+    public int insert(Plant p) throws SQLException {
+        String room = InMemoryStore.roomName(p.getLocationName());
+        int locationId = room != null ? store.findOrCreateLocation(room, null, null) : 0;
+        int id = store.nextPlantId();
+        store.plants.compute(id, cur -> {
+            store.index(id, 0, locationId);
+            store.recordHeight(id, null, p.getHeight());
+            return new PlantRow(p.getName(), p.getType(), p.getHeight(), p.getDateAcquired(), locationId, 0);
+        });
+        p.setPlantId(id);
+        p.setLocationName(room);
+        p.setVersion(0);
+        return id;
+    }
+
+    public int update(Plant p) throws SQLException {
+        String room = InMemoryStore.roomName(p.getLocationName());
+        PlantRow row = write(p, room, false);
+        if (row == null) {
+            return 0;
+        }
+        p.setLocationName(room);
+        p.setVersion(row.version);
+        return 1;
+    }
+
+    public boolean updateWithLocation(Plant p) throws SQLException {
+        PlantRow row = write(p, InMemoryStore.roomName(p.getLocationName()), true);
+        if (row == null) {
+            return false;
+        }
+        p.setLocationName(store.locationName(row.locationId));
+        p.setVersion(row.version);
+        return true;
+    }
+
+    // compare-and-set write of all columns; a null room clears it, or keeps it with keepRoom.
+    // The room is only created once the plant is known to exist and match (plants before locations).
+    private PlantRow write(Plant p, String room, boolean keepRoom) throws SQLException {
+        int id = p.getPlantId();
+        return store.plants.compute(id, cur -> {
+            if (cur == null) {
+                return null;
+            }
+            if (p.getVersion() != null && cur.version != p.getVersion()) {
+                throw new StaleVersionException("Plant", id, p.getVersion());
+            }
+            int loc = room != null ? store.findOrCreateLocation(room, null, null) : keepRoom ? cur.locationId : 0;
+            store.index(id, cur.locationId, loc);
+            store.recordHeight(id, cur.height, p.getHeight());
+            return new PlantRow(p.getName(), p.getType(), p.getHeight(), p.getDateAcquired(), loc, cur.version + 1);
+        });
+    }
+
+    public List<Integer> moveBetweenLocations(String oldName, String newName) throws SQLException {
+        int from = store.locationId(oldName);
+        int to = store.locationId(newName);
+        if (from == 0 || to == 0 || from == to) {
+            return new ArrayList<>();
+        }
+        return move(candidates(from), to, null);
+    }
+
+    public List<Integer> moveToLocation(PlantFilter filter, int locationId) throws SQLException {
+        String from = InMemoryStore.roomName(filter.getLocationName());
+        List<Integer> ids;
+        if (from != null) {
+            int fromId = store.locationId(from);
+            ids = fromId != 0 ? candidates(fromId) : new ArrayList<>();
+        } else if (filter.getPlantIds() != null && !filter.getPlantIds().isEmpty()) {
+            ids = new ArrayList<>(filter.getPlantIds());
+        } else {
+            ids = new ArrayList<>();
+            List<Integer> all = ids;
+            store.plants.forEach((id, row) -> all.add(id));
+        }
+        return move(ids, locationId, filter);
+    }
+
+    private List<Integer> candidates(int locationId) {
+        Set<Integer> s = store.plantIdsByLocation.get(locationId);
+        return s != null ? new ArrayList<>(s) : new ArrayList<>();
+    }
+
+    private List<Integer> move(List<Integer> ids, int to, PlantFilter filter) throws SQLException {
+        String type = filter != null && filter.getType() != null && !filter.getType().trim().isEmpty()
+                ? filter.getType().trim() : null;
+        List<Integer> onlyIds = filter != null && filter.getPlantIds() != null && !filter.getPlantIds().isEmpty()
+                ? filter.getPlantIds() : null;
+        List<Integer> moved = new ArrayList<>();
+        for (int id : ids) {
+            if (onlyIds != null && !onlyIds.contains(id)) {
+                continue;
+            }
+            boolean[] changed = { false };
+            store.plants.compute(id, cur -> {
+                if (cur == null || cur.locationId == to || (type != null && !type.equals(cur.type))) {
+                    return cur;
+                }
+                changed[0] = true;
+                store.index(id, cur.locationId, to);
+                return cur.withLocation(to);
+            });
+            if (changed[0]) {
+                moved.add(id);
+            }
+        }
+        return moved;
+    }
+
+    public int delete(int plantId) throws SQLException {
+        boolean[] deleted = { false };
+        store.plants.compute(plantId, cur -> {
+            if (cur != null) {
+                // child rows go with the plant (ON DELETE CASCADE)
+                store.care.remove(plantId);
+                store.information.remove(plantId);
+                store.measurements.remove(plantId);
+                store.index(plantId, cur.locationId, 0);
+                deleted[0] = true;
+            }
+            return null;
+        });
+        return deleted[0] ? 1 : 0;
+    }
+
+    public Plant findById(int plantId) throws SQLException {
+        PlantRow row = store.plants.get(plantId);
+        return row != null ? toPlant(plantId, row) : null;
+    }
+
+    public List<Plant> findByIds(Collection<Integer> plantIds) throws SQLException {
+        List<Plant> out = new ArrayList<>();
+        for (int id : plantIds) {
+            Plant p = findById(id);
+            if (p != null) {
+                out.add(p);
+            }
+        }
+        return out;
+    }
+
+    public List<Map<String, Object>> findProjected(PlantProjection projection, Integer plantId) throws SQLException {
+        List<Plant> plants;
+        if (plantId != null) {
+            Plant p = findById(plantId);
+            plants = p != null ? List.of(p) : List.of();
+        } else {
+            plants = findAll();
+        }
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Plant p : plants) {
+            int id = p.getPlantId();
+            out.add(projection.project(p,
+                    projection.includes(PlantProjection.CARE) ? care.findByPlantId(id) : null,
+                    projection.includes(PlantProjection.INFORMATION) ? information.findByPlantId(id) : null,
+                    projection.includes(PlantProjection.LOCATION) ? locations.findByPlantId(id) : null));
+        }
+        return out;
+    }
+
+    public List<Plant> findAll() throws SQLException {
+        List<Plant> out = new ArrayList<>();
+        store.plants.forEach((id, row) -> out.add(toPlant(id, row)));
+        out.sort(Comparator.comparingInt(Plant::getPlantId));
+        return out;
+    }
+
+    public int forEach(int fetchSize, RowCallback<? super Plant> callback) throws SQLException {
+        int n = 0;
+        for (Plant p : findAll()) {
+            callback.accept(p);
+            n++;
+        }
+        return n;
+    }
+
+    public int getMaxPlantId() throws SQLException {
+        return store.plants.maxKey();
+    }
+
+    public int updateLocationName(int plantId, String locationName) throws SQLException {
+        String room = InMemoryStore.roomName(locationName);
+        PlantRow row = store.plants.compute(plantId, cur -> {
+            if (cur == null) {
+                return null;
+            }
+            int locationId = room != null ? store.findOrCreateLocation(room, null, null) : 0;
+            store.index(plantId, cur.locationId, locationId);
+            return cur.withLocation(locationId);
+        });
+        return row != null ? 1 : 0;
+    }
+
+    private Plant toPlant(int id, PlantRow row) {
+        Plant p = new Plant(id, row.name, row.type, row.height, row.dateAcquired, store.locationName(row.locationId));
+        p.setVersion(row.version);
+        return p;
+    }
+}
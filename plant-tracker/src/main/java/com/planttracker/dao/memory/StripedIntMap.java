@@ -0,0 +1,133 @@
+package com.planttracker.dao.memory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent int-keyed map split into lock stripes: a key's stripe is chosen by
+ * its low bits and guarded by its own lock, so operations on different stripes
+ * never contend. Locks are reentrant, so a transaction holding every stripe
+ * (lockAll) can still call the single-key methods.
+ */
+final class StripedIntMap<V> {
+
+    /** Read-modify-write of one entry under its stripe lock; return null to remove it. */
+    @FunctionalInterface
+    interface Update<V> {
+        V apply(V current) throws SQLException;
+    }
+
+    private static final class Stripe<V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final IntHashMap<V> map = new IntHashMap<>(64);
+    }
+
+    private final Stripe<V>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    StripedIntMap(int stripeCount) {
+        int n = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        mask = n - 1;
+    }
+
+    V get(int key) {
+        Stripe<V> s = stripe(key);
+        s.lock.lock();
+        try {
+            return s.map.get(key);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    V put(int key, V value) {
+        Stripe<V> s = stripe(key);
+        s.lock.lock();
+        try {
+            return s.map.put(key, value);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    V remove(int key) {
+        Stripe<V> s = stripe(key);
+        s.lock.lock();
+        try {
+            return s.map.remove(key);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /** Atomically replace the entry with update(current); returns the new value. */
+    V compute(int key, Update<V> update) throws SQLException {
+        Stripe<V> s = stripe(key);
+        s.lock.lock();
+        try {
+            V current = s.map.get(key);
+            V next = update.apply(current);
+            if (next == null) {
+                if (current != null) {
+                    s.map.remove(key);
+                }
+            } else if (next != current) {
+                s.map.put(key, next);
+            }
+            return next;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Visit every entry, one stripe at a time under its lock (consistent per stripe,
+     * not across stripes unless lockAll is held). Keep the consumer short.
+     */
+    void forEach(IntHashMap.EntryConsumer<? super V> consumer) {
+        for (Stripe<V> s : stripes) {
+            s.lock.lock();
+            try {
+                s.map.forEach(consumer);
+            } finally {
+                s.lock.unlock();
+            }
+        }
+    }
+
+    /** Snapshot of all values. */
+    List<V> values() {
+        List<V> out = new ArrayList<>();
+        forEach((k, v) -> out.add(v));
+        return out;
+    }
+
+    int maxKey() {
+        int[] max = { 0 };
+        forEach((k, v) -> max[0] = Math.max(max[0], k));
+        return max[0];
+    }
+
+    void lockAll() {
+        for (Stripe<V> s : stripes) {
+            s.lock.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].lock.unlock();
+        }
+    }
+
+    private Stripe<V> stripe(int key) {
+        return stripes[(key ^ (key >>> 16)) & mask];
+    }
+}
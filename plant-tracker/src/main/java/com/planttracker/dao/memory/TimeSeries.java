@@ -0,0 +1,93 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.model.MeasurementBucket;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One plant's measurements of one kind, stored column-wise in two primitive arrays
+ * sorted by time (12 bytes per reading instead of an object per reading). Appends
+ * in time order are O(1) amortized; range lookups are binary searches. Not
+ * thread-safe: used under the plant's stripe lock (InMemoryStore.measurements).
+ */
+final class TimeSeries {
+
+    private long[] micros = new long[16];
+    private float[] values = new float[16];
+    private int size;
+
+    void add(long atMicros, float value) {
+        if (size == micros.length) {
+            micros = Arrays.copyOf(micros, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int i = size;
+        if (size > 0 && micros[size - 1] > atMicros) {
+            // late reading: keep the order (after equal timestamps, like an append)
+            i = upperBound(atMicros);
+            System.arraycopy(micros, i, micros, i + 1, size - i);
+            System.arraycopy(values, i, values, i + 1, size - i);
+        }
+        micros[i] = atMicros;
+        values[i] = value;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Index of the first reading at or after t. */
+    int lowerBound(long t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (micros[mid] < t) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int upperBound(long t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (micros[mid] <= t) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    long microsAt(int i) {
+        return micros[i];
+    }
+
+    float valueAt(int i) {
+        return values[i];
+    }
+
+    /** Same buckets as JdbcMeasurementDao.downsample. */
+    List<MeasurementBucket> downsample(long fromMicros, long toMicros, long bucketSeconds) {
+        List<MeasurementBucket> out = new ArrayList<>();
+        long bucketMicros = bucketSeconds * 1_000_000L;
+        int i = lowerBound(fromMicros);
+        int end = lowerBound(toMicros);
+        while (i < end) {
+            long bucket = Math.floorDiv(micros[i], bucketMicros);
+            long bucketEnd = (bucket + 1) * bucketMicros;
+            float min = values[i], max = values[i];
+            double sum = 0;
+            int n = 0;
+            for (; i < end && micros[i] < bucketEnd; i++) {
+                float v = values[i];
+                if (v < min) min = v;
+                if (v > max) max = v;
+                sum += v;
+                n++;
+            }
+            out.add(new MeasurementBucket(Instant.ofEpochSecond(bucket * bucketSeconds), min, max, sum / n, n));
+        }
+        return out;
+    }
+}
@@ -2,9 +2,31 @@ package com.planttracker.data;
 
 import com.planttracker.DbUtil;
 import com.planttracker.dao.CareDao;
+import com.planttracker.dao.ChangeDao;
 import com.planttracker.dao.InformationDao;
+import com.planttracker.dao.JdbcCareDao;
+import com.planttracker.dao.JdbcChangeDao;
+import com.planttracker.dao.JdbcInformationDao;
+import com.planttracker.dao.JdbcJobDao;
+import com.planttracker.dao.JdbcLocationDao;
+import com.planttracker.dao.JdbcMeasurementDao;
+import com.planttracker.dao.JdbcPhotoDao;
+import com.planttracker.dao.JdbcPlantDao;
 import com.planttracker.dao.LocationDao;
+import com.planttracker.dao.JobDao;
+import com.planttracker.dao.MeasurementDao;
+import com.planttracker.dao.PhotoDao;
 import com.planttracker.dao.PlantDao;
+import com.planttracker.dao.memory.InMemoryStore;
+import com.planttracker.dao.memory.MemoryCareDao;
+import com.planttracker.dao.memory.MemoryChangeDao;
+import com.planttracker.dao.memory.MemoryInformationDao;
+import com.planttracker.dao.memory.MemoryLocationDao;
+import com.planttracker.dao.memory.MemoryJobDao;
+import com.planttracker.dao.memory.MemoryMeasurementDao;
+import com.planttracker.dao.memory.MemoryPhotoDao;
+import com.planttracker.dao.memory.MemoryPlantDao;
+import com.planttracker.edge.EdgeNode;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -13,10 +35,15 @@ import java.util.Objects;
 /**
  * DataProvider: single place to construct/access DAOs.
  *
- * Two usage styles:
+ * Usage styles:
  *  1) new DataProvider() - DAOs use DbUtil.getConnection() (which reads DbConfig/env vars).
  *  2) DataProvider.withCredentials(url, user, pass) - returns a DataProvider
  *     whose DAOs will use the provided credentials (no global state change).
+ *  3) DataProvider.inMemory() - DAOs backed by an InMemoryStore, no database at all
+ *     (demo mode, business-layer tests and benchmarks). forStore("memory") picks it
+ *     from a setting (planttracker.store / PLANTTRACKER_STORE).
+ *  4) DataProvider.edge(node) - DAOs of an EdgeNode: in-memory, with every write
+ *     logged for EdgeSync to push to the central database (planttracker.store=edge).
  *
  * The withCredentials(...) factory creates simple adapter DAOs that open connections
  * via DbUtil.getConnection(url,user,pass) for each call. This keeps the explicit-credential
@@ -31,15 +58,43 @@ public class DataProvider {
     private final CareDao careDao;
     private final InformationDao informationDao;
     private final LocationDao locationDao;
+    private final ChangeDao changeDao;
+    private final PhotoDao photoDao;
+    private final MeasurementDao measurementDao;
+    private final JobDao jobDao;
+    private final InMemoryStore memoryStore; // null = database
 
     /**
      * Default constructor - DAOs use DbUtil.getConnection() which reads DbConfig (env/defaults).
      */
     public DataProvider() {
-        this.plantDao = new PlantDao();
-        this.careDao = new CareDao();
-        this.informationDao = new InformationDao();
-        this.locationDao = new LocationDao();
+        this.plantDao = new JdbcPlantDao();
+        this.careDao = new JdbcCareDao();
+        this.informationDao = new JdbcInformationDao();
+        this.locationDao = new JdbcLocationDao();
+        this.changeDao = new JdbcChangeDao();
+        this.photoDao = new JdbcPhotoDao();
+        this.measurementDao = new JdbcMeasurementDao();
+        this.jobDao = new JdbcJobDao();
+        this.memoryStore = null;
+    }
+
+    /** DataProvider whose DAOs share a new, empty in-memory store. */
+    public static DataProvider inMemory() {
+        InMemoryStore store = new InMemoryStore();
+        return new DataProvider(new MemoryPlantDao(store), new MemoryCareDao(store),
+                new MemoryInformationDao(store), new MemoryLocationDao(store), store);
+    }
+
+    /** DataProvider over an edge node's local store. */
+    public static DataProvider edge(EdgeNode node) {
+        return new DataProvider(node.getPlantDao(), node.getCareDao(), node.getInformationDao(),
+                node.getLocationDao(), node.getStore());
+    }
+
+    /** "memory" -> inMemory(); anything else (or null) -> the database. */
+    public static DataProvider forStore(String store) {
+        return "memory".equalsIgnoreCase(store == null ? "" : store.trim()) ? inMemory() : new DataProvider();
     }
 
     /**
@@ -61,10 +116,10 @@ public class DataProvider {
         Objects.requireNonNull(pass, "pass is required");
 
         // Create plain DAOs (they don't accept credentials). We'll wrap them with adapter helpers below.
-        PlantDao basePlantDao = new PlantDao();
-        CareDao baseCareDao = new CareDao();
-        InformationDao baseInfoDao = new InformationDao();
-        LocationDao baseLocDao = new LocationDao();
+        PlantDao basePlantDao = new JdbcPlantDao();
+        CareDao baseCareDao = new JdbcCareDao();
+        InformationDao baseInfoDao = new JdbcInformationDao();
+        LocationDao baseLocDao = new JdbcLocationDao();
 
         // Return a DataProvider with DAOs that are adapted to use explicit credentials.
         return new DataProvider(new CredentialAwareDaoWrapper(url, user, pass,
@@ -77,6 +132,26 @@ public class DataProvider {
         this.careDao = wrapper.careDao;
         this.informationDao = wrapper.informationDao;
         this.locationDao = wrapper.locationDao;
+        this.changeDao = new JdbcChangeDao();
+        this.photoDao = new JdbcPhotoDao();
+        this.measurementDao = new JdbcMeasurementDao();
+        this.jobDao = new JdbcJobDao();
+        this.memoryStore = null;
+    }
+
+    private DataProvider(PlantDao plantDao, CareDao careDao, InformationDao informationDao,
+                         LocationDao locationDao, InMemoryStore memoryStore) {
+        this.plantDao = plantDao;
+        this.careDao = careDao;
+        this.informationDao = informationDao;
+        this.locationDao = locationDao;
+        this.changeDao = new MemoryChangeDao(memoryStore);
+        // edge mode too: photo metadata, measurements and jobs are neither saved to the
+        // edge directory nor synced (height changes pushed by EdgeSync are recorded centrally)
+        this.photoDao = new MemoryPhotoDao(memoryStore);
+        this.measurementDao = new MemoryMeasurementDao(memoryStore);
+        this.jobDao = new MemoryJobDao();
+        this.memoryStore = memoryStore;
     }
 
     // Getters for clients
@@ -84,6 +159,19 @@ public class DataProvider {
     public CareDao getCareDao() { return careDao; }
     public InformationDao getInformationDao() { return informationDao; }
     public LocationDao getLocationDao() { return locationDao; }
+    public ChangeDao getChangeDao() { return changeDao; }
+    public PhotoDao getPhotoDao() { return photoDao; }
+    public MeasurementDao getMeasurementDao() { return measurementDao; }
+    public JobDao getJobDao() { return jobDao; }
+    public boolean isInMemory() { return memoryStore != null; }
+
+    /**
+     * Run work as one transaction of this provider's store: DbUtil.inTransaction for
+     * the database, InMemoryStore.inTransaction (exclusive, no rollback) in memory.
+     */
+    public <T> T inTransaction(DbUtil.Work<T> work) throws SQLException {
+        return memoryStore != null ? memoryStore.inTransaction(work) : DbUtil.inTransaction(work);
+    }
 
     /**
      * Internal helper class that returns DAO instances which, when they need a Connection,
@@ -0,0 +1,140 @@
+package com.planttracker.edge;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only log of local writes on an edge node, one JSON object per line.
+ *
+ * Each entry holds the full row image after the write (null = row deleted), so
+ * replaying entries in order is idempotent. Entries are flushed to the OS on every
+ * append (they survive a crash of the service, not of the machine). compact()
+ * drops entries that the snapshot and the central database both have.
+ */
+final class ChangeLog implements AutoCloseable {
+
+    /** One logged change. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static final class Entry {
+        public long seq;
+        public String table;          // EdgeNode.PLANT ... or REMAP
+        public int plantId;
+        public Map<String, Object> row; // row after the write; null = deleted
+        public Integer remapTo;       // REMAP: plantId now has this central id
+        public long at;               // epoch millis
+    }
+
+    static final String REMAP = "Remap";
+
+    private final Path file;
+    private final ObjectMapper json;
+    private BufferedWriter out;
+    private long lastSeq;
+
+    ChangeLog(Path file, ObjectMapper json) {
+        this.file = file;
+        this.json = json;
+    }
+
+    /**
+     * Read the existing entries and open the file for appending. New entries are
+     * numbered after both the file's last entry and minSeq (the file may have been
+     * compacted to nothing).
+     */
+    synchronized List<Entry> open(long minSeq) throws IOException {
+        List<Entry> entries = read();
+        lastSeq = entries.isEmpty() ? minSeq : Math.max(minSeq, entries.get(entries.size() - 1).seq);
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return entries;
+    }
+
+    synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    /** Append a row image (null = deleted); returns its sequence number. */
+    synchronized long append(String table, int plantId, Map<String, Object> row) throws IOException {
+        Entry e = new Entry();
+        e.table = table;
+        e.plantId = plantId;
+        e.row = row;
+        return append(e);
+    }
+
+    synchronized long appendRemap(int localId, int centralId) throws IOException {
+        Entry e = new Entry();
+        e.table = REMAP;
+        e.plantId = localId;
+        e.remapTo = centralId;
+        return append(e);
+    }
+
+    private long append(Entry e) throws IOException {
+        e.seq = lastSeq + 1;
+        e.at = System.currentTimeMillis();
+        out.write(json.writeValueAsString(e));
+        out.newLine();
+        out.flush();
+        lastSeq = e.seq;
+        return e.seq;
+    }
+
+    /** Rewrite the file keeping only entries after seq. */
+    synchronized void compact(long seq) throws IOException {
+        out.close();
+        List<Entry> keep = new ArrayList<>();
+        for (Entry e : read()) {
+            if (e.seq > seq) {
+                keep.add(e);
+            }
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Entry e : keep) {
+                w.write(json.writeValueAsString(e));
+                w.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+
+    private List<Entry> read() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(json.readValue(line, Entry.class));
+            } catch (IOException e) {
+                // a line cut short by a crash can only be the last one
+                break;
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,54 @@
+package com.planttracker.edge;
+
+import com.planttracker.dao.CareDao;
+import com.planttracker.model.Care;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/** Local CareDao of an edge node: the in-memory DAO, with writes recorded by EdgeNode. */
+class EdgeCareDao implements CareDao {
+
+    private final CareDao local;
+    private final EdgeNode node;
+
+    EdgeCareDao(CareDao local, EdgeNode node) {
+        this.local = local;
+        this.node = node;
+    }
+
+    public int insert(Care care) throws SQLException {
+        int n = local.insert(care);
+        node.changed(EdgeNode.CARE, care.getPlantId());
+        return n;
+    }
+
+    public int updateByPlantId(Care care) throws SQLException {
+        int n = local.updateByPlantId(care);
+        if (n > 0) {
+            node.changed(EdgeNode.CARE, care.getPlantId());
+        }
+        return n;
+    }
+
+    public int deleteByPlantId(int plantId) throws SQLException {
+        int n = local.deleteByPlantId(plantId);
+        if (n > 0) {
+            node.changed(EdgeNode.CARE, plantId);
+        }
+        return n;
+    }
+
+    public Care findByPlantId(int plantId) throws SQLException {
+        return local.findByPlantId(plantId);
+    }
+
+    public List<Care> findByPlantIds(Collection<Integer> plantIds) throws SQLException {
+        return local.findByPlantIds(plantIds);
+    }
+
+    public List<Care> findAll() throws SQLException {
+        return local.findAll();
+    }
+}
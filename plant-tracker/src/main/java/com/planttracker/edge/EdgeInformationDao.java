@@ -0,0 +1,58 @@
+package com.planttracker.edge;
+
+import com.planttracker.dao.InformationDao;
+import com.planttracker.model.Information;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/** Local InformationDao of an edge node: the in-memory DAO, with writes recorded by EdgeNode. */
+class EdgeInformationDao implements InformationDao {
+
+    private final InformationDao local;
+    private final EdgeNode node;
+
+    EdgeInformationDao(InformationDao local, EdgeNode node) {
+        this.local = local;
+        this.node = node;
+    }
+
+    public int insert(Information info) throws SQLException {
+        int n = local.insert(info);
+        node.changed(EdgeNode.INFORMATION, info.getPlantId());
+        return n;
+    }
+
+    public int update(Information info) throws SQLException {
+        return updateByPlantId(info);
+    }
+
+    public int updateByPlantId(Information info) throws SQLException {
+        int n = local.updateByPlantId(info);
+        if (n > 0) {
+            node.changed(EdgeNode.INFORMATION, info.getPlantId());
+        }
+        return n;
+    }
+
+    public int deleteByPlantId(int plantId) throws SQLException {
+        int n = local.deleteByPlantId(plantId);
+        if (n > 0) {
+            node.changed(EdgeNode.INFORMATION, plantId);
+        }
+        return n;
+    }
+
+    public Information findByPlantId(int plantId) throws SQLException {
+        return local.findByPlantId(plantId);
+    }
+
+    public List<Information> findByPlantIds(Collection<Integer> plantIds) throws SQLException {
+        return local.findByPlantIds(plantIds);
+    }
+
+    public List<Information> findAll() throws SQLException {
+        return local.findAll();
+    }
+}
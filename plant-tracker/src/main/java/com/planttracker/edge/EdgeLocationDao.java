@@ -0,0 +1,96 @@
+package com.planttracker.edge;
+
+import com.planttracker.dao.LocationDao;
+import com.planttracker.model.BulkLocationResult;
+import com.planttracker.model.Location;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Local LocationDao of an edge node: the in-memory DAO, with writes recorded by
+ * EdgeNode. Changes to a whole room (rename, merge) are recorded as a change to the
+ * Location row of every plant in it. A room without plants isn't synced.
+ */
+class EdgeLocationDao implements LocationDao {
+
+    private final LocationDao local;
+    private final EdgeNode node;
+
+    EdgeLocationDao(LocationDao local, EdgeNode node) {
+        this.local = local;
+        this.node = node;
+    }
+
+    public int insert(Location loc) throws SQLException {
+        return updateByPlantId(loc);
+    }
+
+    public int updateByPlantId(Location loc) throws SQLException {
+        int n = local.updateByPlantId(loc);
+        if (n > 0) {
+            node.changed(EdgeNode.LOCATION, loc.getPlantId());
+        }
+        return n;
+    }
+
+    public int renameLocation(String oldName, String newName) throws SQLException {
+        List<Integer> ids = node.plantIdsIn(oldName);
+        int n = local.renameLocation(oldName, newName);
+        if (n > 0) {
+            node.changed(EdgeNode.LOCATION, ids);
+        }
+        return n;
+    }
+
+    public void renameOrMerge(String oldName, String newName, BulkLocationResult result) throws SQLException {
+        List<Integer> ids = node.plantIdsIn(oldName);
+        local.renameOrMerge(oldName, newName, result);
+        node.changed(EdgeNode.LOCATION, ids);
+    }
+
+    public int findOrCreate(String name, BulkLocationResult result) throws SQLException {
+        return local.findOrCreate(name, result);
+    }
+
+    public int deleteByPlantIdAndName(int plantId, String locationName) throws SQLException {
+        int n = local.deleteByPlantIdAndName(plantId, locationName);
+        if (n > 0) {
+            node.changed(EdgeNode.LOCATION, plantId);
+        }
+        return n;
+    }
+
+    public int deleteByPlantId(int plantId) throws SQLException {
+        int n = local.deleteByPlantId(plantId);
+        if (n > 0) {
+            node.changed(EdgeNode.LOCATION, plantId);
+        }
+        return n;
+    }
+
+    public Location findByPlantId(int plantId) throws SQLException {
+        return local.findByPlantId(plantId);
+    }
+
+    public int renameLocationForPlant(int plantId, String newLocationName) throws SQLException {
+        int n = local.renameLocationForPlant(plantId, newLocationName);
+        if (n > 0) {
+            node.changed(EdgeNode.LOCATION, plantId);
+        }
+        return n;
+    }
+
+    public List<Location> findAllForPlant(int plantId) throws SQLException {
+        return local.findAllForPlant(plantId);
+    }
+
+    public List<Location> findByPlantIds(Collection<Integer> plantIds) throws SQLException {
+        return local.findByPlantIds(plantIds);
+    }
+
+    public List<Location> findAll() throws SQLException {
+        return local.findAll();
+    }
+}
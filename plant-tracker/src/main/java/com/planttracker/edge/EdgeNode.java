@@ -0,0 +1,539 @@
+package com.planttracker.edge;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.planttracker.dao.CareDao;
+import com.planttracker.dao.InformationDao;
+import com.planttracker.dao.LocationDao;
+import com.planttracker.dao.PlantDao;
+import com.planttracker.dao.memory.InMemoryStore;
+import com.planttracker.dao.memory.MemoryCareDao;
+import com.planttracker.dao.memory.MemoryInformationDao;
+import com.planttracker.dao.memory.MemoryLocationDao;
+import com.planttracker.dao.memory.MemoryPlantDao;
+import com.planttracker.model.Care;
+import com.planttracker.model.ChangeSet;
+import com.planttracker.model.Information;
+import com.planttracker.model.Location;
+import com.planttracker.model.Plant;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Local side of edge mode (planttracker.store=edge): the service reads and writes an
+ * InMemoryStore, so requests never wait on the central database, and every write
+ * is appended to a ChangeLog. EdgeSync pushes the changed rows to the central
+ * database and pulls central changes (the GET /api/changes feed) back in.
+ *
+ * Rows are identified by table and plant id (Care, Information and Location have one
+ * row per plant). For each row the node keeps:
+ *  - dirty: sequence number of the last local change not yet pushed;
+ *  - base:  the row as last seen in the central database, used by EdgeSync for a
+ *           three-way merge when both sides changed it.
+ * Plants created locally get negative ids until they are pushed; the central id then
+ * replaces it everywhere (a REMAP entry in the log).
+ *
+ * Durability: the store and base rows are written to snapshot.json after
+ * each sync; on start the snapshot is loaded and newer log entries are replayed.
+ * A write whose log append failed has no sequence number to be dirty under, so
+ * the node is marked for a resync instead (see resyncIfNeeded).
+ *
+ * Locking: a write's row image is read and logged while holding the plant's stripe
+ * lock (InMemoryStore.lockPlant), so log order matches write order per plant. Lock
+ * order is store stripes, then this.
+ */
+public class EdgeNode implements AutoCloseable {
+
+    public static final String PLANT = "Plant";
+    public static final String CARE = "Care";
+    public static final String INFORMATION = "Information";
+    public static final String LOCATION = "Location";
+    /** Push order: a plant before the rows that reference it. */
+    public static final List<String> TABLES = List.of(PLANT, CARE, INFORMATION, LOCATION);
+
+    private static final TypeReference<Map<String, Object>> ROW = new TypeReference<>() {};
+
+    /** A row with unpushed local changes. */
+    public static final class Pending {
+        public final String table;
+        public final int plantId;
+        public final long seq;
+
+        Pending(String table, int plantId, long seq) {
+            this.table = table;
+            this.plantId = plantId;
+            this.seq = seq;
+        }
+    }
+
+    /** Contents of snapshot.json. */
+    static final class Snapshot {
+        public long lastSeq;   // log entries up to here are reflected in rows
+        public long ackedSeq;  // log entries up to here are in the central database
+        public long centralCursor; // change feed position (GET /api/changes)
+        public boolean resync;     // rows may differ from base without a log entry
+        public Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+        public Map<String, Map<Integer, Map<String, Object>>> base = new LinkedHashMap<>();
+    }
+
+    private final InMemoryStore store = new InMemoryStore(true);
+    private final MemoryPlantDao localPlants = new MemoryPlantDao(store);
+    private final MemoryCareDao localCare = new MemoryCareDao(store);
+    private final MemoryInformationDao localInformation = new MemoryInformationDao(store);
+    private final MemoryLocationDao localLocations = new MemoryLocationDao(store);
+
+    private final PlantDao plantDao = new EdgePlantDao(localPlants, this);
+    private final CareDao careDao = new EdgeCareDao(localCare, this);
+    private final InformationDao informationDao = new EdgeInformationDao(localInformation, this);
+    private final LocationDao locationDao = new EdgeLocationDao(localLocations, this);
+
+    private final ObjectMapper json = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final Path snapshotFile;
+    private final ChangeLog log;
+
+    // guarded by this
+    private final Map<String, Map<Integer, Long>> dirty = tableMap();
+    private final Map<String, Map<Integer, Map<String, Object>>> base = tableMap();
+    private long centralCursor;
+    private boolean resync;
+    private long resyncSeq; // rows marked dirty by the last resync have this seq
+
+    private EdgeNode(Path dir) {
+        this.snapshotFile = dir.resolve("snapshot.json");
+        this.log = new ChangeLog(dir.resolve("changes.log"), json);
+    }
+
+    /** Open (or create) the edge data in dir: load the snapshot, then replay the log. */
+    public static EdgeNode open(Path dir) throws IOException, SQLException {
+        Files.createDirectories(dir);
+        EdgeNode node = new EdgeNode(dir);
+        node.load();
+        return node;
+    }
+
+    public PlantDao getPlantDao() { return plantDao; }
+    public CareDao getCareDao() { return careDao; }
+    public InformationDao getInformationDao() { return informationDao; }
+    public LocationDao getLocationDao() { return locationDao; }
+    public InMemoryStore getStore() { return store; }
+
+    // ---------- called by the Edge*Dao wrappers after a successful local write ----------
+
+    void changed(String table, int plantId) throws SQLException {
+        store.lockPlant(plantId, () -> {
+            Map<String, Object> row = localRow(table, plantId);
+            synchronized (this) {
+                try {
+                    dirty.get(table).put(plantId, log.append(table, plantId, row));
+                } catch (IOException e) {
+                    // the row is written but has no seq of its own; the next sync finds it
+                    resync = true;
+                    throw new SQLException("Edge change log write failed: " + e.getMessage(), e);
+                }
+            }
+            return null;
+        });
+    }
+
+    void changed(String table, List<Integer> plantIds) throws SQLException {
+        for (int id : plantIds) {
+            changed(table, id);
+        }
+    }
+
+    /** Ids of the plants currently in the named room. */
+    List<Integer> plantIdsIn(String locationName) throws SQLException {
+        String name = locationName != null ? locationName.trim() : "";
+        List<Integer> ids = new ArrayList<>();
+        for (Location l : localLocations.findAll()) {
+            if (name.equals(l.getLocationName())) {
+                ids.add(l.getPlantId());
+            }
+        }
+        return ids;
+    }
+
+    // ---------- used by EdgeSync ----------
+
+    /** Up to max dirty rows, plants first, oldest change first within a table. */
+    public synchronized List<Pending> pending(int max) {
+        List<Pending> out = new ArrayList<>();
+        for (String table : TABLES) {
+            List<Map.Entry<Integer, Long>> rows = new ArrayList<>(dirty.get(table).entrySet());
+            rows.sort(Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Long> e : rows) {
+                if (out.size() == max) {
+                    return out;
+                }
+                out.add(new Pending(table, e.getKey(), e.getValue()));
+            }
+        }
+        return out;
+    }
+
+    public synchronized int pendingCount() {
+        int n = 0;
+        for (Map<Integer, Long> rows : dirty.values()) {
+            n += rows.size();
+        }
+        return n;
+    }
+
+    /** The row as last seen in the central database, or null. */
+    public synchronized Map<String, Object> base(String table, int plantId) {
+        return base.get(table).get(plantId);
+    }
+
+    /** The local row as a field map (see image), or null if there is none. */
+    public Map<String, Object> localRow(String table, int plantId) throws SQLException {
+        switch (table) {
+            case PLANT: return image(localPlants.findById(plantId));
+            case CARE: return image(localCare.findByPlantId(plantId));
+            case INFORMATION: return image(localInformation.findByPlantId(plantId));
+            case LOCATION: return image(localLocations.findByPlantId(plantId));
+            default: throw new IllegalArgumentException(table);
+        }
+    }
+
+    /**
+     * A model object as a field map, the form rows are logged, merged and compared
+     * in. Location's room id is left out: it differs between the two databases.
+     */
+    public Map<String, Object> image(Object row) {
+        if (row == null) {
+            return null;
+        }
+        Map<String, Object> m = json.convertValue(row, ROW);
+        m.remove("locationId");
+        return m;
+    }
+
+    public <T> T toModel(Map<String, Object> row, Class<T> type) {
+        return json.convertValue(row, type);
+    }
+
+    /**
+     * A plant created locally now exists centrally as centralId: renumber it and its
+     * rows, and carry over their dirty/base state.
+     */
+    public void remap(int localId, int centralId) throws SQLException {
+        store.inTransaction(() -> {
+            synchronized (this) {
+                try {
+                    log.appendRemap(localId, centralId);
+                } catch (IOException e) {
+                    throw new SQLException("Edge change log write failed: " + e.getMessage(), e);
+                }
+                applyRemap(localId, centralId);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * A pushed row is now central (null = deleted there) as of the local change seq.
+     * Becomes the row's base; it also replaces the local row unless the row changed
+     * locally again since seq, in which case it stays dirty and is merged next time.
+     */
+    public void pushed(String table, int plantId, long seq, Map<String, Object> central) throws SQLException {
+        store.inTransaction(() -> {
+            synchronized (this) {
+                setBase(table, plantId, central);
+                Map<Integer, Long> d = dirty.get(table);
+                if (Objects.equals(d.get(plantId), seq)) {
+                    d.remove(plantId);
+                    putLocal(table, plantId, central);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * After a failed log append: mark every row that differs from its base dirty
+     * (including rows created or deleted locally) and reset the central cursor, so
+     * the next pull is a full change set. Returns whether a resync was due.
+     */
+    public boolean resyncIfNeeded() throws SQLException {
+        return store.inTransaction(() -> {
+            synchronized (this) {
+                if (!resync) {
+                    return false;
+                }
+                long seq = log.lastSeq();
+                for (String table : TABLES) {
+                    Map<Integer, Long> d = dirty.get(table);
+                    Map<Integer, Map<String, Object>> b = base.get(table);
+                    Map<Integer, Map<String, Object>> local = new HashMap<>();
+                    byPlantId(local, localRows(table));
+                    Set<Integer> ids = new HashSet<>(local.keySet());
+                    ids.addAll(b.keySet());
+                    for (int id : ids) {
+                        if (!d.containsKey(id) && !Objects.equals(local.get(id), b.get(id))) {
+                            d.put(id, seq);
+                        }
+                    }
+                }
+                resyncSeq = seq;
+                centralCursor = 0;
+                resync = false;
+                return true;
+            }
+        });
+    }
+
+    public synchronized boolean isResyncNeeded() {
+        return resync;
+    }
+
+    /** Cursor of the last central change set applied (0 = none yet). */
+    public synchronized long getCentralCursor() {
+        return centralCursor;
+    }
+
+    /**
+     * Bring in a central change set (GET /api/changes format). Rows with local
+     * changes are left alone (they are merged on push); the others are replaced,
+     * added or removed to match. A full change set also removes every row it
+     * doesn't contain. Returns the number of local rows changed.
+     */
+    public int applyCentral(ChangeSet cs) throws SQLException {
+        Map<String, Map<Integer, Map<String, Object>>> rows = tableMap();
+        byPlantId(rows.get(PLANT), cs.getPlants());
+        byPlantId(rows.get(CARE), cs.getCare());
+        byPlantId(rows.get(INFORMATION), cs.getInformation());
+        byPlantId(rows.get(LOCATION), cs.getLocations());
+        Map<String, List<Integer>> deleted = new HashMap<>();
+        deleted.put(PLANT, cs.getDeletedPlants());
+        deleted.put(CARE, cs.getDeletedCare());
+        deleted.put(INFORMATION, cs.getDeletedInformation());
+        deleted.put(LOCATION, cs.getDeletedLocations());
+
+        return store.inTransaction(() -> {
+            synchronized (this) {
+                int changes = 0;
+                for (String table : TABLES) {
+                    Map<Integer, Long> d = dirty.get(table);
+                    Map<Integer, Map<String, Object>> b = base.get(table);
+                    for (Map.Entry<Integer, Map<String, Object>> e : rows.get(table).entrySet()) {
+                        int id = e.getKey();
+                        if (d.containsKey(id) || e.getValue().equals(b.get(id))) {
+                            continue;
+                        }
+                        if (!PLANT.equals(table) && localPlants.findById(id) == null) {
+                            continue; // plant deleted locally, not pushed yet
+                        }
+                        putLocal(table, id, e.getValue());
+                        b.put(id, e.getValue());
+                        changes++;
+                    }
+                    List<Integer> gone = cs.isFull() ? new ArrayList<>(b.keySet()) : deleted.get(table);
+                    for (int id : gone) {
+                        if (d.containsKey(id) || rows.get(table).containsKey(id)) {
+                            continue;
+                        }
+                        if (b.remove(id) != null || localRow(table, id) != null) {
+                            putLocal(table, id, null);
+                            changes++;
+                        }
+                    }
+                }
+                centralCursor = cs.getCursor();
+                return changes;
+            }
+        });
+    }
+
+    private void byPlantId(Map<Integer, Map<String, Object>> out, List<?> rows) {
+        for (Object row : rows) {
+            Map<String, Object> image = image(row);
+            out.put(((Number) image.get("plantId")).intValue(), image);
+        }
+    }
+
+    /**
+     * Write snapshot.json and drop log entries it and the central database both
+     * cover. The sequence numbers are taken first, so a write racing with this is
+     * either in the snapshot's rows or replayed from the log (replay is idempotent).
+     */
+    public void saveSnapshot() throws IOException, SQLException {
+        Snapshot s = new Snapshot();
+        synchronized (this) {
+            s.lastSeq = log.lastSeq();
+            s.ackedSeq = ackedSeq();
+            s.centralCursor = centralCursor;
+            // until the rows a resync marked are pushed, a restart has to find them again
+            s.resync = resync || ackedSeq() < resyncSeq;
+            for (String table : TABLES) {
+                s.base.put(table, new HashMap<>(base.get(table)));
+            }
+        }
+        for (String table : TABLES) {
+            s.rows.put(table, images(localRows(table)));
+        }
+
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        json.writeValue(tmp.toFile(), s);
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.compact(Math.min(s.lastSeq, s.ackedSeq));
+    }
+
+    @Override
+    public void close() throws IOException, SQLException {
+        saveSnapshot();
+        log.close();
+    }
+
+    // ---------- internals ----------
+
+    private void load() throws IOException, SQLException {
+        Snapshot s = Files.exists(snapshotFile) ? json.readValue(snapshotFile.toFile(), Snapshot.class) : new Snapshot();
+        for (String table : TABLES) {
+            for (Map<String, Object> row : s.rows.getOrDefault(table, List.of())) {
+                putLocal(table, ((Number) row.get("plantId")).intValue(), row);
+            }
+            base.get(table).putAll(s.base.getOrDefault(table, Map.of()));
+        }
+        centralCursor = s.centralCursor;
+        resync = s.resync;
+
+        // Replay what came after the snapshot, in order; everything not acknowledged
+        // is dirty. A remap always follows the entries of the local id it replaces
+        // (which may be reused for a new plant after a restart).
+        for (ChangeLog.Entry e : log.open(s.lastSeq)) {
+            if (ChangeLog.REMAP.equals(e.table)) {
+                if (e.seq > s.lastSeq) {
+                    store.renumberPlant(e.plantId, e.remapTo);
+                }
+                moveRow(e.plantId, e.remapTo);
+                continue;
+            }
+            if (e.seq > s.lastSeq) {
+                putLocal(e.table, e.plantId, e.row);
+            }
+            if (e.seq > s.ackedSeq) {
+                dirty.get(e.table).put(e.plantId, e.seq);
+            }
+        }
+    }
+
+    // caller holds this and the store's locks (or is load())
+    private void applyRemap(int localId, int centralId) throws SQLException {
+        store.renumberPlant(localId, centralId);
+        moveRow(localId, centralId);
+    }
+
+    // carry a plant's dirty / base state over to its new id
+    private void moveRow(int localId, int centralId) {
+        for (String table : TABLES) {
+            Long seq = dirty.get(table).remove(localId);
+            if (seq != null) {
+                dirty.get(table).put(centralId, seq);
+            }
+            Map<String, Object> b = base.get(table).remove(localId);
+            if (b != null) {
+                base.get(table).put(centralId, b);
+            }
+        }
+    }
+
+    private void setBase(String table, int plantId, Map<String, Object> row) {
+        if (row == null) {
+            base.get(table).remove(plantId);
+        } else {
+            base.get(table).put(plantId, row);
+        }
+    }
+
+    // last log entry whose change is in the central database
+    private long ackedSeq() {
+        long oldest = Long.MAX_VALUE;
+        for (Map<Integer, Long> rows : dirty.values()) {
+            for (long seq : rows.values()) {
+                oldest = Math.min(oldest, seq);
+            }
+        }
+        return oldest == Long.MAX_VALUE ? log.lastSeq() : oldest - 1;
+    }
+
+    // replace (row != null) or remove the local row, bypassing versions and the log
+    private void putLocal(String table, int plantId, Map<String, Object> row) throws SQLException {
+        switch (table) {
+            case PLANT:
+                if (row != null) {
+                    store.putPlant(toModel(row, Plant.class));
+                } else {
+                    store.removePlant(plantId);
+                }
+                break;
+            case CARE:
+                if (row != null) {
+                    store.putCare(toModel(row, Care.class));
+                } else {
+                    store.removeCare(plantId);
+                }
+                break;
+            case INFORMATION:
+                if (row != null) {
+                    store.putInformation(toModel(row, Information.class));
+                } else {
+                    store.removeInformation(plantId);
+                }
+                break;
+            case LOCATION:
+                if (row != null) {
+                    store.putLocation(toModel(row, Location.class));
+                } else {
+                    store.removeLocation(plantId);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(table);
+        }
+    }
+
+    private List<?> localRows(String table) throws SQLException {
+        switch (table) {
+            case PLANT: return localPlants.findAll();
+            case CARE: return localCare.findAll();
+            case INFORMATION: return localInformation.findAll();
+            case LOCATION: return localLocations.findAll();
+            default: throw new IllegalArgumentException(table);
+        }
+    }
+
+    private List<Map<String, Object>> images(List<?> rows) {
+        List<Map<String, Object>> out = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            out.add(image(row));
+        }
+        out.sort(Comparator.comparingInt(m -> ((Number) m.get("plantId")).intValue()));
+        return out;
+    }
+
+    private static <V> Map<String, Map<Integer, V>> tableMap() {
+        Map<String, Map<Integer, V>> m = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            m.put(table, new HashMap<>());
+        }
+        return m;
+    }
+}
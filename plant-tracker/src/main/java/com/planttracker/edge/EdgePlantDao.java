@@ -0,0 +1,98 @@
+package com.planttracker.edge;
+
+import com.planttracker.dao.PlantDao;
+import com.planttracker.dao.RowCallback;
+import com.planttracker.model.Plant;
+import com.planttracker.model.PlantFilter;
+import com.planttracker.model.PlantProjection;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/** Local PlantDao of an edge node: the in-memory DAO, with writes recorded by EdgeNode. */
+class EdgePlantDao implements PlantDao {
+
+    private final PlantDao local;
+    private final EdgeNode node;
+
+    EdgePlantDao(PlantDao local, EdgeNode node) {
+        this.local = local;
+        this.node = node;
+    }
+
+    public int insert(Plant p) throws SQLException {
+        int id = local.insert(p);
+        node.changed(EdgeNode.PLANT, id);
+        return id;
+    }
+
+    public int update(Plant p) throws SQLException {
+        int n = local.update(p);
+        if (n > 0) {
+            node.changed(EdgeNode.PLANT, p.getPlantId());
+        }
+        return n;
+    }
+
+    public boolean updateWithLocation(Plant p) throws SQLException {
+        boolean updated = local.updateWithLocation(p);
+        if (updated) {
+            node.changed(EdgeNode.PLANT, p.getPlantId());
+        }
+        return updated;
+    }
+
+    public List<Integer> moveBetweenLocations(String oldName, String newName) throws SQLException {
+        List<Integer> ids = local.moveBetweenLocations(oldName, newName);
+        node.changed(EdgeNode.PLANT, ids);
+        return ids;
+    }
+
+    public List<Integer> moveToLocation(PlantFilter filter, int locationId) throws SQLException {
+        List<Integer> ids = local.moveToLocation(filter, locationId);
+        node.changed(EdgeNode.PLANT, ids);
+        return ids;
+    }
+
+    public int delete(int plantId) throws SQLException {
+        int n = local.delete(plantId);
+        if (n > 0) {
+            node.changed(EdgeNode.PLANT, plantId);
+        }
+        return n;
+    }
+
+    public Plant findById(int plantId) throws SQLException {
+        return local.findById(plantId);
+    }
+
+    public List<Plant> findByIds(Collection<Integer> plantIds) throws SQLException {
+        return local.findByIds(plantIds);
+    }
+
+    public List<Map<String, Object>> findProjected(PlantProjection projection, Integer plantId) throws SQLException {
+        return local.findProjected(projection, plantId);
+    }
+
+    public List<Plant> findAll() throws SQLException {
+        return local.findAll();
+    }
+
+    public int forEach(int fetchSize, RowCallback<? super Plant> callback) throws SQLException {
+        return local.forEach(fetchSize, callback);
+    }
+
+    public int getMaxPlantId() throws SQLException {
+        return local.getMaxPlantId();
+    }
+
+    public int updateLocationName(int plantId, String locationName) throws SQLException {
+        int n = local.updateLocationName(plantId, locationName);
+        if (n > 0) {
+            node.changed(EdgeNode.PLANT, plantId);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,411 @@
+package com.planttracker.edge;
+
+import com.planttracker.DbLimiter;
+import com.planttracker.DbUtil;
+import com.planttracker.dao.StaleVersionException;
+import com.planttracker.data.DataProvider;
+import com.planttracker.model.Care;
+import com.planttracker.model.Information;
+import com.planttracker.model.Location;
+import com.planttracker.model.Plant;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background sync between an EdgeNode and the central database.
+ *
+ * Each run pushes, then pulls:
+ *  - push: the node's dirty rows, batchSize per central transaction. For every row
+ *    the local row, its base (last central version seen) and the current central
+ *    row are merged field by field: a field changed on one side only takes that
+ *    side's value; a field changed on both is a conflict, resolved by the policy
+ *    (Care dates always keep the later date). The result is written with the
+ *    central row's version (compare-and-set) and becomes the row's new base.
+ *  - pull: the central rows changed since the last pull (JdbcChangeDao), applied
+ *    to local rows that have no pending change.
+ *
+ * A node marked for a resync (a change it couldn't log) has its dirty rows
+ * re-derived from the base rows first, and pulls a full change set.
+ *
+ * Runs are serialized. A failed run (central database unreachable) leaves all
+ * local changes pending and is simply retried on the next tick; pushing a row that
+ * is already central is a no-op, so a batch can safely be repeated.
+ */
+public class EdgeSync implements AutoCloseable {
+
+    /** Which side wins when both changed the same field of a row. */
+    public enum ConflictPolicy { CENTRAL, LOCAL }
+
+    /** Called after a pull changed local rows. */
+    public interface Listener {
+        void remoteChanges(int rows) throws SQLException;
+    }
+
+    private static final int MAX_CAS_ATTEMPTS = 3;
+    private static final int RECENT_CONFLICTS = 20;
+    private static final Set<String> NOT_MERGED = Set.of("plantId", "version");
+    private static final Set<String> CARE_DATES = Set.of("lastSoilChange", "lastWatering");
+
+    private final EdgeNode node;
+    private final DataProvider central;
+    private final ConflictPolicy policy;
+    private final int batchSize;
+    private final Listener listener;
+    private ScheduledExecutorService scheduler;
+
+    // status, written by the sync thread
+    private volatile boolean online;
+    private volatile Instant lastSuccess;
+    private volatile Instant lastAttempt;
+    private volatile String lastError;
+    private volatile long rowsPushed;
+    private volatile long rowsPulled;
+    private volatile long conflicts;
+    private final Deque<String> recentConflicts = new ArrayDeque<>();
+
+    public EdgeSync(EdgeNode node, DataProvider central, ConflictPolicy policy, int batchSize, Listener listener) {
+        this.node = node;
+        this.central = central;
+        this.policy = policy;
+        this.batchSize = batchSize;
+        this.listener = listener;
+    }
+
+    /** Sync every intervalSeconds on a daemon thread, starting now. */
+    public synchronized void start(long intervalSeconds) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(DbLimiter.as(DbLimiter.Kind.BULK, r), "edge-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runQuietly, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void runQuietly() {
+        try {
+            syncNow();
+        } catch (Exception e) {
+            // already recorded in the status; retried on the next tick
+        }
+    }
+
+    /** Push, pull and snapshot once; returns the status afterwards. */
+    public synchronized Map<String, Object> syncNow() throws SQLException, IOException {
+        lastAttempt = Instant.now();
+        try {
+            node.resyncIfNeeded();
+            rowsPushed += push();
+            int pulled = pull();
+            rowsPulled += pulled;
+            node.saveSnapshot();
+            online = true;
+            lastError = null;
+            lastSuccess = Instant.now();
+            if (pulled > 0 && listener != null) {
+                listener.remoteChanges(pulled);
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            online = false;
+            lastError = e.getMessage();
+            throw e;
+        }
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("online", online);
+        m.put("pendingRows", node.pendingCount());
+        m.put("resyncNeeded", node.isResyncNeeded());
+        m.put("lastAttempt", lastAttempt);
+        m.put("lastSuccess", lastSuccess);
+        m.put("lastError", lastError);
+        m.put("rowsPushed", rowsPushed);
+        m.put("rowsPulled", rowsPulled);
+        m.put("conflicts", conflicts);
+        m.put("conflictPolicy", policy);
+        synchronized (recentConflicts) {
+            m.put("recentConflicts", new ArrayList<>(recentConflicts));
+        }
+        return m;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // ---------- push ----------
+
+    /** One central write, applied to the node once its transaction committed. */
+    private static final class Pushed {
+        final EdgeNode.Pending pending;
+        final int centralId;
+        final Map<String, Object> row; // null = deleted centrally
+
+        Pushed(EdgeNode.Pending pending, int centralId, Map<String, Object> row) {
+            this.pending = pending;
+            this.centralId = centralId;
+            this.row = row;
+        }
+    }
+
+    private int push() throws SQLException {
+        int total = 0;
+        // table:id:seq already handled this run; a row changed again since gets a new seq
+        Set<String> handled = new HashSet<>();
+        while (true) {
+            List<EdgeNode.Pending> batch = new ArrayList<>();
+            for (EdgeNode.Pending p : node.pending(batchSize + handled.size())) {
+                if (batch.size() < batchSize && !handled.contains(key(p))) {
+                    batch.add(p);
+                }
+            }
+            if (batch.isEmpty()) {
+                return total;
+            }
+            Map<Integer, Integer> newIds = new HashMap<>();
+            List<Pushed> done = DbUtil.inTransaction(() -> {
+                List<Pushed> out = new ArrayList<>();
+                for (EdgeNode.Pending p : batch) {
+                    int id = newIds.getOrDefault(p.plantId, p.plantId);
+                    if (id < 0 && !EdgeNode.PLANT.equals(p.table)) {
+                        // its plant isn't central: deleted before it was pushed, or in a later batch
+                        if (node.localRow(EdgeNode.PLANT, p.plantId) == null) {
+                            out.add(new Pushed(p, id, null));
+                        }
+                        continue;
+                    }
+                    Map<String, Object> row = pushRow(p, id, newIds);
+                    out.add(new Pushed(p, newIds.getOrDefault(p.plantId, id), row));
+                }
+                return out;
+            });
+            for (EdgeNode.Pending p : batch) {
+                handled.add(key(p));
+            }
+            // committed: now renumber new plants and record the central rows
+            for (Map.Entry<Integer, Integer> e : newIds.entrySet()) {
+                node.remap(e.getKey(), e.getValue());
+            }
+            for (Pushed d : done) {
+                node.pushed(d.pending.table, d.centralId, d.pending.seq, d.row);
+            }
+            total += done.size();
+        }
+    }
+
+    private static String key(EdgeNode.Pending p) {
+        return p.table + ":" + p.plantId + ":" + p.seq;
+    }
+
+    // Merge the row into the central database; returns the central row afterwards.
+    private Map<String, Object> pushRow(EdgeNode.Pending p, int id, Map<Integer, Integer> newIds) throws SQLException {
+        Map<String, Object> local = node.localRow(p.table, p.plantId);
+        Map<String, Object> base = node.base(p.table, p.plantId);
+        for (int attempt = 1; ; attempt++) {
+            Map<String, Object> remote = id > 0 ? centralRow(p.table, id) : null;
+            Map<String, Object> merged = merge(p.table, id, base, local, remote);
+            if (merged == null ? remote == null : sameContent(merged, remote)) {
+                return remote;
+            }
+            try {
+                if (merged == null) {
+                    deleteCentral(p.table, id);
+                    return null;
+                }
+                if (remote == null) {
+                    int newId = insertCentral(p.table, id, merged);
+                    if (newId != p.plantId) {
+                        newIds.put(p.plantId, newId);
+                    }
+                    return centralRow(p.table, newId);
+                }
+                updateCentral(p.table, merged, (Integer) remote.get("version"));
+                return centralRow(p.table, id);
+            } catch (StaleVersionException e) {
+                // changed centrally between our read and write: merge again
+                if (attempt == MAX_CAS_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Three-way merge; null = the row should not exist. Starts from the central row
+     * and takes every field the edge node changed since base.
+     */
+    Map<String, Object> merge(String table, int id, Map<String, Object> base,
+                             Map<String, Object> local, Map<String, Object> remote) {
+        if (local == null) {
+            if (remote == null || (base != null && sameContent(base, remote))) {
+                return null;
+            }
+            return conflict(table, id, "row", "deleted", "changed") == ConflictPolicy.LOCAL ? null : remote;
+        }
+        if (remote == null) {
+            if (base == null) {
+                return local;
+            }
+            return conflict(table, id, "row", "changed", "deleted") == ConflictPolicy.LOCAL ? local : null;
+        }
+        Map<String, Object> out = new LinkedHashMap<>(remote);
+        Set<String> fields = new LinkedHashSet<>(local.keySet());
+        fields.addAll(remote.keySet());
+        fields.removeAll(NOT_MERGED);
+        for (String f : fields) {
+            Object l = local.get(f);
+            Object r = remote.get(f);
+            Object b = base != null ? base.get(f) : null;
+            if (Objects.equals(l, r) || Objects.equals(l, b)) {
+                continue; // same, or only changed centrally
+            }
+            if (base != null && Objects.equals(r, b)) {
+                out.put(f, l); // only changed here
+            } else if (EdgeNode.CARE.equals(table) && CARE_DATES.contains(f)) {
+                out.put(f, later(l, r)); // plants don't get un-watered
+            } else if (conflict(table, id, f, l, r) == ConflictPolicy.LOCAL) {
+                out.put(f, l);
+            }
+        }
+        return out;
+    }
+
+    private ConflictPolicy conflict(String table, int id, String field, Object local, Object central) {
+        conflicts++;
+        String msg = Instant.now() + " " + table + " " + id + " " + field + ": edge=" + local
+                + " central=" + central + " -> " + policy.name().toLowerCase();
+        synchronized (recentConflicts) {
+            if (recentConflicts.size() == RECENT_CONFLICTS) {
+                recentConflicts.removeFirst();
+            }
+            recentConflicts.addLast(msg);
+        }
+        return policy;
+    }
+
+    // ISO dates compare as strings
+    private static Object later(Object a, Object b) {
+        if (a == null || b == null) {
+            return a != null ? a : b;
+        }
+        return a.toString().compareTo(b.toString()) >= 0 ? a : b;
+    }
+
+    private static boolean sameContent(Map<String, Object> a, Map<String, Object> b) {
+        if (b == null) {
+            return false;
+        }
+        Set<String> fields = new LinkedHashSet<>(a.keySet());
+        fields.addAll(b.keySet());
+        fields.removeAll(NOT_MERGED);
+        for (String f : fields) {
+            if (!Objects.equals(a.get(f), b.get(f))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ---------- central reads and writes ----------
+
+    private Map<String, Object> centralRow(String table, int id) throws SQLException {
+        switch (table) {
+            case EdgeNode.PLANT: return node.image(central.getPlantDao().findById(id));
+            case EdgeNode.CARE: return node.image(central.getCareDao().findByPlantId(id));
+            case EdgeNode.INFORMATION: return node.image(central.getInformationDao().findByPlantId(id));
+            case EdgeNode.LOCATION: return node.image(central.getLocationDao().findByPlantId(id));
+            default: throw new IllegalArgumentException(table);
+        }
+    }
+
+    // returns the central plant id
+    private int insertCentral(String table, int id, Map<String, Object> row) throws SQLException {
+        switch (table) {
+            case EdgeNode.PLANT:
+                Plant plant = node.toModel(row, Plant.class);
+                plant.setVersion(null);
+                return central.getPlantDao().insert(plant);
+            case EdgeNode.CARE:
+                Care care = node.toModel(row, Care.class);
+                care.setPlantId(id);
+                central.getCareDao().insert(care);
+                return id;
+            case EdgeNode.INFORMATION:
+                Information info = node.toModel(row, Information.class);
+                info.setPlantId(id);
+                central.getInformationDao().insert(info);
+                return id;
+            case EdgeNode.LOCATION:
+                Location loc = node.toModel(row, Location.class);
+                loc.setPlantId(id);
+                loc.setVersion(null);
+                central.getLocationDao().insert(loc);
+                return id;
+            default:
+                throw new IllegalArgumentException(table);
+        }
+    }
+
+    private void updateCentral(String table, Map<String, Object> row, Integer version) throws SQLException {
+        switch (table) {
+            case EdgeNode.PLANT:
+                Plant plant = node.toModel(row, Plant.class);
+                plant.setVersion(version);
+                central.getPlantDao().update(plant);
+                break;
+            case EdgeNode.CARE:
+                Care care = node.toModel(row, Care.class);
+                care.setVersion(version);
+                central.getCareDao().updateByPlantId(care);
+                break;
+            case EdgeNode.INFORMATION:
+                Information info = node.toModel(row, Information.class);
+                info.setVersion(version);
+                central.getInformationDao().updateByPlantId(info);
+                break;
+            case EdgeNode.LOCATION:
+                Location loc = node.toModel(row, Location.class);
+                loc.setVersion(version);
+                central.getLocationDao().updateByPlantId(loc);
+                break;
+            default:
+                throw new IllegalArgumentException(table);
+        }
+    }
+
+    private void deleteCentral(String table, int id) throws SQLException {
+        switch (table) {
+            case EdgeNode.PLANT: central.getPlantDao().delete(id); break;
+            case EdgeNode.CARE: central.getCareDao().deleteByPlantId(id); break;
+            case EdgeNode.INFORMATION: central.getInformationDao().deleteByPlantId(id); break;
+            case EdgeNode.LOCATION: central.getLocationDao().deleteByPlantId(id); break;
+            default: throw new IllegalArgumentException(table);
+        }
+    }
+
+    // ---------- pull ----------
+
+    private int pull() throws SQLException {
+        return node.applyCentral(central.getChangeDao().changesSince(node.getCentralCursor()));
+    }
+}
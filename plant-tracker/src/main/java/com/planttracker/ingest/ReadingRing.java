@@ -0,0 +1,101 @@
+package com.planttracker.ingest;
+
+import com.planttracker.model.MeasurementBatch;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free ring of readings: many producers (request threads), one
+ * consumer (SensorIngestor's drain thread).
+ *
+ * A producer reserves a run of slots for its whole request with one CAS on tail,
+ * fills them, and publishes each slot by storing its position + 1 (release). The
+ * consumer takes a slot once that store is visible (acquire) and frees slots by
+ * advancing head; producers never pass head + capacity. Readings live in
+ * primitive columns, so the ring holds no object per reading.
+ */
+final class ReadingRing {
+
+    private final int mask;
+    private final int[] plantIds;
+    private final short[] kinds;
+    private final long[] micros;
+    private final float[] values;
+    // slot -> position + 1 of the reading written there (0 = never written)
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong(); // next position to reserve
+    private final AtomicLong head = new AtomicLong(); // next position to consume
+
+    /** capacity is rounded up to a power of two. */
+    ReadingRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        plantIds = new int[size];
+        kinds = new short[size];
+        micros = new long[size];
+        values = new float[size];
+        published = new AtomicLongArray(size);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /** Readings reserved but not yet consumed (approximate while producers are active). */
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Put the batch's readings in the ring. If they don't all fit, none are taken,
+     * or with partial only the first ones that fit. Returns how many were taken.
+     */
+    int offer(MeasurementBatch batch, boolean partial) {
+        int n = batch.size();
+        long t;
+        int take;
+        do {
+            t = tail.get();
+            long free = capacity() - (t - head.get());
+            take = (int) Math.min(n, free);
+            if (take <= 0 || (take < n && !partial)) {
+                return 0;
+            }
+        } while (!tail.compareAndSet(t, t + take));
+
+        for (int i = 0; i < take; i++) {
+            long pos = t + i;
+            int slot = (int) (pos & mask);
+            plantIds[slot] = batch.plantId(i);
+            kinds[slot] = batch.kind(i);
+            micros[slot] = batch.micros(i);
+            values[slot] = batch.value(i);
+            published.setRelease(slot, pos + 1);
+        }
+        return take;
+    }
+
+    /**
+     * Move up to max readings, in order, into the batch; stops early at a slot whose
+     * producer hasn't finished writing. Consumer thread only.
+     */
+    int drainTo(MeasurementBatch batch, int max) {
+        long h = head.get();
+        int n = 0;
+        while (n < max) {
+            long pos = h + n;
+            int slot = (int) (pos & mask);
+            if (published.getAcquire(slot) != pos + 1) {
+                break;
+            }
+            batch.add(plantIds[slot], kinds[slot], micros[slot], values[slot]);
+            n++;
+        }
+        if (n > 0) {
+            // slots below the new head may be overwritten from here on
+            head.set(h + n);
+        }
+        return n;
+    }
+}
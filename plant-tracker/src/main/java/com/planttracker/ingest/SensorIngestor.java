@@ -0,0 +1,278 @@
+package com.planttracker.ingest;
+
+import com.planttracker.DbLimiter;
+import com.planttracker.dao.MeasurementDao;
+import com.planttracker.model.MeasurementBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sensor readings from request threads to the database in large batches.
+ *
+ * offer() copies a request's readings into a lock-free ReadingRing and returns;
+ * no database work happens on the request thread. One drain thread moves readings
+ * from the ring into batches of up to batchSize, handing a batch to the writer
+ * pool when it is full or its oldest reading has waited lingerMillis. Writers
+ * store a batch with one MeasurementDao.insertBatch (COPY on PostgreSQL).
+ *
+ * Backpressure: there are only 2 x writers batches. While they are all being
+ * written the drain thread waits, the ring fills up, and offer() refuses readings
+ * (Overflow.REJECT: the whole request, so the sensor can resend it; DROP: the part
+ * that doesn't fit). A batch that fails with a connection / serialization / resource
+ * error is retried maxRetries times with growing pauses (which also slows intake),
+ * then dropped and counted as failed.
+ */
+public final class SensorIngestor implements AutoCloseable {
+
+    /** What offer() does when the ring is full. */
+    public enum Overflow { REJECT, DROP }
+
+    private static final Logger log = LoggerFactory.getLogger(SensorIngestor.class);
+    private static final long RETRY_PAUSE_MILLIS = 200;
+
+    private final MeasurementDao dao;
+    private final ReadingRing ring;
+    private final Overflow overflow;
+    private final long lingerNanos;
+    private final int maxRetries;
+    private final BlockingQueue<MeasurementBatch> freeBatches;
+    private final ExecutorService writers;
+    private final Thread drainer;
+
+    private volatile boolean closed;
+    private volatile boolean drainerIdle;
+    private final AtomicInteger offering = new AtomicInteger(); // producers inside offer()
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder skipped = new LongAdder();   // plant doesn't exist
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private volatile String lastError;
+    private volatile Instant lastErrorAt;
+
+    public SensorIngestor(MeasurementDao dao, int capacity, int batchSize, int writerThreads,
+                          long lingerMillis, Overflow overflow, int maxRetries) {
+        this.dao = dao;
+        this.ring = new ReadingRing(capacity);
+        this.overflow = overflow;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, lingerMillis));
+        this.maxRetries = Math.max(0, maxRetries);
+
+        int threads = Math.max(1, writerThreads);
+        this.freeBatches = new ArrayBlockingQueue<>(threads * 2);
+        for (int i = 0; i < threads * 2; i++) {
+            freeBatches.add(new MeasurementBatch(Math.max(1, batchSize)));
+        }
+        AtomicInteger n = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(DbLimiter.as(DbLimiter.Kind.BULK, r), "sensor-ingest-writer-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.drainer = new Thread(this::drain, "sensor-ingest-drain");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Queue the batch's readings (kinds as MeasurementKind codes). Returns how many
+     * were taken: all or none with Overflow.REJECT, a prefix with DROP; none once closed.
+     */
+    public int offer(MeasurementBatch readings) {
+        if (readings.isEmpty()) {
+            return 0;
+        }
+        offering.incrementAndGet();
+        try {
+            int taken = closed ? 0 : ring.offer(readings, overflow == Overflow.DROP);
+            accepted.add(taken);
+            refused.add(readings.size() - taken);
+            if (taken > 0 && drainerIdle) {
+                LockSupport.unpark(drainer);
+            }
+            return taken;
+        } finally {
+            offering.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wait until every accepted reading has been written, skipped or given up on.
+     * Returns false on timeout. Meant for benchmarks and shutdown, not requests.
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (written.sum() + skipped.sum() + failed.sum() < accepted.sum()) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.sleep(2);
+        }
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("overflow", overflow.name().toLowerCase());
+        m.put("capacity", ring.capacity());
+        m.put("queued", ring.size());
+        m.put("accepted", accepted.sum());
+        m.put("refused", refused.sum());
+        m.put("written", written.sum());
+        m.put("skipped", skipped.sum());
+        m.put("failed", failed.sum());
+        m.put("batches", batches.sum());
+        m.put("retries", retries.sum());
+        m.put("lastError", lastError);
+        m.put("lastErrorAt", lastErrorAt);
+        return m;
+    }
+
+    /** Stop taking readings, write what's queued (waits up to 30 s). */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        LockSupport.unpark(drainer);
+        drainer.join(TimeUnit.SECONDS.toMillis(30));
+        if (drainer.isAlive()) {
+            // writers stuck (database down): stop waiting for a free batch
+            drainer.interrupt();
+            drainer.join(1000);
+        }
+        writers.shutdown();
+        if (!writers.awaitTermination(30, TimeUnit.SECONDS)) {
+            writers.shutdownNow();
+        }
+        long lost = accepted.sum() - written.sum() - skipped.sum();
+        if (lost > 0) {
+            log.warn("Sensor ingestion stopped with {} readings not written", lost);
+        }
+    }
+
+    // ---- drain thread ----
+
+    private void drain() {
+        MeasurementBatch batch = null;
+        long firstAt = 0;
+        try {
+            while (true) {
+                if (batch == null) {
+                    // blocks while every batch is being written: the ring then fills up
+                    batch = freeBatches.take();
+                }
+                boolean wasEmpty = batch.isEmpty();
+                int n = ring.drainTo(batch, batch.capacity() - batch.size());
+                if (wasEmpty && n > 0) {
+                    firstAt = System.nanoTime();
+                }
+                long waited = System.nanoTime() - firstAt;
+                if (batch.size() == batch.capacity() || (!batch.isEmpty() && (waited >= lingerNanos || closed))) {
+                    submit(batch);
+                    batch = null;
+                    continue;
+                }
+                if (n > 0) {
+                    continue;
+                }
+                if (closed && offering.get() == 0 && ring.size() == 0 && batch.isEmpty()) {
+                    break;
+                }
+                // nothing to take: sleep until a producer unparks us or the batch is due
+                drainerIdle = true;
+                if (ring.size() == 0) {
+                    LockSupport.parkNanos(batch.isEmpty() ? lingerNanos : lingerNanos - waited);
+                }
+                drainerIdle = false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (batch != null) {
+                freeBatches.offer(batch);
+            }
+        }
+    }
+
+    private void submit(MeasurementBatch batch) {
+        try {
+            writers.execute(() -> {
+                try {
+                    write(batch);
+                } finally {
+                    batch.clear();
+                    freeBatches.add(batch);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // close() gave up waiting
+            giveUp(batch, e);
+            batch.clear();
+            freeBatches.add(batch);
+        }
+    }
+
+    // ---- writer threads ----
+
+    private void write(MeasurementBatch batch) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                int inserted = dao.insertBatch(batch);
+                written.add(inserted);
+                skipped.add(batch.size() - inserted);
+                batches.increment();
+                return;
+            } catch (SQLException e) {
+                if (attempt >= maxRetries || !retryable(e) || !pause(attempt)) {
+                    giveUp(batch, e);
+                    return;
+                }
+                retries.increment();
+            } catch (RuntimeException e) {
+                giveUp(batch, e);
+                return;
+            }
+        }
+    }
+
+    private void giveUp(MeasurementBatch batch, Exception e) {
+        failed.add(batch.size());
+        lastError = e.getMessage();
+        lastErrorAt = Instant.now();
+        log.warn("Dropped {} sensor readings: {}", batch.size(), e.toString());
+    }
+
+    // connection trouble, serialization failure / deadlock, server out of resources or
+    // shutting down, and a plant deleted while the batch was being inserted
+    private static boolean retryable(SQLException e) {
+        String state = e.getSQLState();
+        return state == null || state.startsWith("08") || state.startsWith("40") || state.startsWith("53")
+                || state.startsWith("57P") || state.equals("23503");
+    }
+
+    private static boolean pause(int attempt) {
+        try {
+            Thread.sleep(RETRY_PAUSE_MILLIS << Math.min(attempt, 5));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
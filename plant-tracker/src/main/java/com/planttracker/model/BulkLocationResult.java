@@ -0,0 +1,54 @@
+package com.planttracker.model;
+
+// BulkLocationResult.java - affected counts of a bulk rename / move
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkLocationResult {
+    private String operation;          // "rename", "merge" or "move"
+    private String toLocation;
+    private int locationsCreated;
+    private int locationsRenamed;
+    private int locationsDeleted;      // merged into toLocation
+    private List<Integer> movedPlantIds = new ArrayList<>();
+
+    public BulkLocationResult() {}
+
+    public BulkLocationResult(String operation, String toLocation) {
+        this.operation = operation;
+        this.toLocation = toLocation;
+    }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public String getToLocation() { return toLocation; }
+    public void setToLocation(String toLocation) { this.toLocation = toLocation; }
+
+    public int getLocationsCreated() { return locationsCreated; }
+    public void setLocationsCreated(int locationsCreated) { this.locationsCreated = locationsCreated; }
+
+    public int getLocationsRenamed() { return locationsRenamed; }
+    public void setLocationsRenamed(int locationsRenamed) { this.locationsRenamed = locationsRenamed; }
+
+    public int getLocationsDeleted() { return locationsDeleted; }
+    public void setLocationsDeleted(int locationsDeleted) { this.locationsDeleted = locationsDeleted; }
+
+    public int getPlantsMoved() { return movedPlantIds.size(); }
+
+    public List<Integer> getMovedPlantIds() { return movedPlantIds; }
+    public void setMovedPlantIds(List<Integer> movedPlantIds) { this.movedPlantIds = movedPlantIds; }
+
+    @Override
+    public String toString() {
+        return "BulkLocationResult{" +
+                "operation='" + operation + '\'' +
+                ", toLocation='" + toLocation + '\'' +
+                ", locationsCreated=" + locationsCreated +
+                ", locationsRenamed=" + locationsRenamed +
+                ", locationsDeleted=" + locationsDeleted +
+                ", plantsMoved=" + getPlantsMoved() +
+                '}';
+    }
+}
@@ -7,6 +7,7 @@ public class Care {
     private int plantId;
     private LocalDate lastSoilChange;
     private LocalDate lastWatering;
+    private Integer version; // row version for optimistic locking; null = not checked
 
     public Care() {}
 
@@ -25,12 +26,23 @@ public class Care {
     public LocalDate getLastWatering() { return lastWatering; }
     public void setLastWatering(LocalDate lastWatering) { this.lastWatering = lastWatering; }
 
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    /** Copy, for handing the same row to several callers (see SingleFlight). */
+    public Care copy() {
+        Care c = new Care(plantId, lastSoilChange, lastWatering);
+        c.version = version;
+        return c;
+    }
+
     @Override
     public String toString() {
         return "Care{" +
                 "plantId=" + plantId +
                 ", lastSoilChange=" + lastSoilChange +
                 ", lastWatering=" + lastWatering +
+                ", version=" + version +
                 '}';
     }
 }
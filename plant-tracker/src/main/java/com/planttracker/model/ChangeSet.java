@@ -0,0 +1,63 @@
+package com.planttracker.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of GET /api/changes: the rows changed since a cursor, and the cursor to
+ * pass next time. A row may appear in two consecutive change sets; apply them as
+ * upserts. When full is true the lists hold every row (first call, or a store
+ * without change tracking) and replace whatever the caller had.
+ *
+ * locations has one entry per changed plant that is in a room; deletedLocations
+ * lists changed plants that are in none.
+ */
+public class ChangeSet {
+    private long cursor;
+    private boolean full;
+    private List<Plant> plants = new ArrayList<>();
+    private List<Care> care = new ArrayList<>();
+    private List<Information> information = new ArrayList<>();
+    private List<Location> locations = new ArrayList<>();
+    private List<Integer> deletedPlants = new ArrayList<>();
+    private List<Integer> deletedCare = new ArrayList<>();
+    private List<Integer> deletedInformation = new ArrayList<>();
+    private List<Integer> deletedLocations = new ArrayList<>();
+
+    public ChangeSet() {}
+
+    public ChangeSet(long cursor, boolean full) {
+        this.cursor = cursor;
+        this.full = full;
+    }
+
+    public long getCursor() { return cursor; }
+    public void setCursor(long cursor) { this.cursor = cursor; }
+
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+
+    public List<Plant> getPlants() { return plants; }
+    public void setPlants(List<Plant> plants) { this.plants = plants; }
+
+    public List<Care> getCare() { return care; }
+    public void setCare(List<Care> care) { this.care = care; }
+
+    public List<Information> getInformation() { return information; }
+    public void setInformation(List<Information> information) { this.information = information; }
+
+    public List<Location> getLocations() { return locations; }
+    public void setLocations(List<Location> locations) { this.locations = locations; }
+
+    public List<Integer> getDeletedPlants() { return deletedPlants; }
+    public void setDeletedPlants(List<Integer> deletedPlants) { this.deletedPlants = deletedPlants; }
+
+    public List<Integer> getDeletedCare() { return deletedCare; }
+    public void setDeletedCare(List<Integer> deletedCare) { this.deletedCare = deletedCare; }
+
+    public List<Integer> getDeletedInformation() { return deletedInformation; }
+    public void setDeletedInformation(List<Integer> deletedInformation) { this.deletedInformation = deletedInformation; }
+
+    public List<Integer> getDeletedLocations() { return deletedLocations; }
+    public void setDeletedLocations(List<Integer> deletedLocations) { this.deletedLocations = deletedLocations; }
+}
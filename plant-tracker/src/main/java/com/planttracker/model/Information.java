@@ -7,6 +7,7 @@ public class Information {
     private String soilType;
     private String potSize;
     private boolean waterGlobeRequired;
+    private Integer version; // row version for optimistic locking; null = not checked
 
     public Information() {}
 
@@ -33,6 +34,16 @@ public class Information {
     public boolean isWaterGlobeRequired() { return waterGlobeRequired; }
     public void setWaterGlobeRequired(boolean waterGlobeRequired) { this.waterGlobeRequired = waterGlobeRequired; }
 
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    /** Copy, for handing the same row to several callers (see SingleFlight). */
+    public Information copy() {
+        Information i = new Information(plantId, fromAnotherPlant, soilType, potSize, waterGlobeRequired);
+        i.version = version;
+        return i;
+    }
+
     @Override
     public String toString() {
         return "Information{" +
@@ -41,6 +52,7 @@ public class Information {
                 ", soilType='" + soilType + '\'' +
                 ", potSize='" + potSize + '\'' +
                 ", waterGlobeRequired=" + waterGlobeRequired +
+                ", version=" + version +
                 '}';
     }
 }
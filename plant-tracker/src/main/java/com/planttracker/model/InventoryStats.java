@@ -0,0 +1,56 @@
+package com.planttracker.model;
+
+// InventoryStats.java - read-only summary returned by GET /api/stats
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public class InventoryStats {
+    private final long totalPlants;
+    private final Map<String, Long> byType;
+    private final Map<String, Long> byLocation;
+    private final Map<String, Long> heightDistribution; // bucket label -> count
+    private final Map<String, Long> acquiredByMonth;    // "YYYY-MM" -> count
+    private final long overdueForWater;
+    private final long neverWatered;
+    private final int overdueAfterDays;
+    private final LocalDate asOf;
+
+    public InventoryStats(long totalPlants, Map<String, Long> byType, Map<String, Long> byLocation,
+                          Map<String, Long> heightDistribution, Map<String, Long> acquiredByMonth,
+                          long overdueForWater, long neverWatered, int overdueAfterDays, LocalDate asOf) {
+        this.totalPlants = totalPlants;
+        this.byType = byType;
+        this.byLocation = byLocation;
+        this.heightDistribution = heightDistribution;
+        this.acquiredByMonth = acquiredByMonth;
+        this.overdueForWater = overdueForWater;
+        this.neverWatered = neverWatered;
+        this.overdueAfterDays = overdueAfterDays;
+        this.asOf = asOf;
+    }
+
+    public long getTotalPlants() { return totalPlants; }
+    public Map<String, Long> getByType() { return byType; }
+    public Map<String, Long> getByLocation() { return byLocation; }
+    public Map<String, Long> getHeightDistribution() { return heightDistribution; }
+    public Map<String, Long> getAcquiredByMonth() { return acquiredByMonth; }
+    public long getOverdueForWater() { return overdueForWater; }
+    public long getNeverWatered() { return neverWatered; }
+    public int getOverdueAfterDays() { return overdueAfterDays; }
+    public LocalDate getAsOf() { return asOf; }
+
+    @Override
+    public String toString() {
+        return "InventoryStats{" +
+                "totalPlants=" + totalPlants +
+                ", byType=" + byType +
+                ", byLocation=" + byLocation +
+                ", heightDistribution=" + heightDistribution +
+                ", acquiredByMonth=" + acquiredByMonth +
+                ", overdueForWater=" + overdueForWater +
+                ", neverWatered=" + neverWatered +
+                ", asOf=" + asOf +
+                '}';
+    }
+}
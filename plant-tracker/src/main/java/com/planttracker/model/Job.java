@@ -0,0 +1,107 @@
+package com.planttracker.model;
+
+// Job.java
+import java.time.Instant;
+import java.util.Map;
+
+/** A background job (bulk delete, import, export, ...): its state and progress. */
+public class Job {
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String SUCCEEDED = "succeeded";
+    public static final String FAILED = "failed";
+    public static final String CANCELLED = "cancelled";
+
+    private long jobId;
+    private String type;
+    private String state;
+    private Map<String, Object> params;
+    private long total;            // units of work, 0 = not known yet
+    private long done;
+    private String message;        // why it failed / was cancelled
+    private Map<String, Object> result;
+    private boolean cancelRequested;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    public Job() {}
+
+    public Job(String type, Map<String, Object> params) {
+        this.type = type;
+        this.params = params;
+        this.state = QUEUED;
+    }
+
+    public long getJobId() { return jobId; }
+    public void setJobId(long jobId) { this.jobId = jobId; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public Map<String, Object> getParams() { return params; }
+    public void setParams(Map<String, Object> params) { this.params = params; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getDone() { return done; }
+    public void setDone(long done) { this.done = done; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Map<String, Object> getResult() { return result; }
+    public void setResult(Map<String, Object> result) { this.result = result; }
+
+    public boolean isCancelRequested() { return cancelRequested; }
+    public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+
+    /** Percent done (null while the total isn't known). */
+    public Integer getPercent() {
+        return total > 0 ? (int) Math.min(100, done * 100 / total) : null;
+    }
+
+    public boolean isFinished() {
+        return SUCCEEDED.equals(state) || FAILED.equals(state) || CANCELLED.equals(state);
+    }
+
+    /** Copy, for handing out a snapshot of a job that is still being updated. */
+    public Job copy() {
+        Job j = new Job(type, params);
+        j.jobId = jobId;
+        j.state = state;
+        j.total = total;
+        j.done = done;
+        j.message = message;
+        j.result = result;
+        j.cancelRequested = cancelRequested;
+        j.createdAt = createdAt;
+        j.startedAt = startedAt;
+        j.finishedAt = finishedAt;
+        return j;
+    }
+
+    @Override
+    public String toString() {
+        return "Job{" +
+                "jobId=" + jobId +
+                ", type='" + type + '\'' +
+                ", state='" + state + '\'' +
+                ", done=" + done +
+                ", total=" + total +
+                '}';
+    }
+}
@@ -3,8 +3,10 @@ package com.planttracker.model;
 // Location.java
 public class Location {
     private int plantId;
+    private Integer locationId; // the room's key in the Location table
     private String locationName;
     private String lightLevel;
+    private Integer version; // row version for optimistic locking; null = not checked
 
     public Location() {}
 
@@ -17,18 +19,34 @@ public class Location {
     public int getPlantId() { return plantId; }
     public void setPlantId(int plantId) { this.plantId = plantId; }
 
+    public Integer getLocationId() { return locationId; }
+    public void setLocationId(Integer locationId) { this.locationId = locationId; }
+
     public String getLocationName() { return locationName; }
     public void setLocationName(String locationName) { this.locationName = locationName; }
 
     public String getLightLevel() { return lightLevel; }
     public void setLightLevel(String lightLevel) { this.lightLevel = lightLevel; }
 
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    /** Copy, for handing the same row to several callers (see SingleFlight). */
+    public Location copy() {
+        Location l = new Location(plantId, locationName, lightLevel);
+        l.locationId = locationId;
+        l.version = version;
+        return l;
+    }
+
     @Override
     public String toString() {
         return "Location{" +
                 "plantId=" + plantId +
+                ", locationId=" + locationId +
                 ", locationName='" + locationName + '\'' +
                 ", lightLevel='" + lightLevel + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
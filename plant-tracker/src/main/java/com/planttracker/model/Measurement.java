@@ -0,0 +1,43 @@
+package com.planttracker.model;
+
+// Measurement.java
+import java.time.Instant;
+
+/** One reading of a plant at a point in time (kind is a MeasurementKind api name). */
+public class Measurement {
+    private int plantId;
+    private String kind;
+    private Instant measuredAt; // null on upload = now
+    private double value;
+
+    public Measurement() {}
+
+    public Measurement(int plantId, String kind, Instant measuredAt, double value) {
+        this.plantId = plantId;
+        this.kind = kind;
+        this.measuredAt = measuredAt;
+        this.value = value;
+    }
+
+    public int getPlantId() { return plantId; }
+    public void setPlantId(int plantId) { this.plantId = plantId; }
+
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+
+    public Instant getMeasuredAt() { return measuredAt; }
+    public void setMeasuredAt(Instant measuredAt) { this.measuredAt = measuredAt; }
+
+    public double getValue() { return value; }
+    public void setValue(double value) { this.value = value; }
+
+    @Override
+    public String toString() {
+        return "Measurement{" +
+                "plantId=" + plantId +
+                ", kind='" + kind + '\'' +
+                ", measuredAt=" + measuredAt +
+                ", value=" + value +
+                '}';
+    }
+}
@@ -0,0 +1,44 @@
+package com.planttracker.model;
+
+// MeasurementBatch.java
+/**
+ * Readings of any plants in columns (no object per reading), for bulk writes from
+ * the sensor ingestion path. Fixed capacity, reused after clear().
+ */
+public class MeasurementBatch {
+    private final int[] plantIds;
+    private final short[] kinds;     // MeasurementKind codes
+    private final long[] micros;     // measuredAt, microseconds since the epoch
+    private final float[] values;
+    private int size;
+
+    public MeasurementBatch(int capacity) {
+        plantIds = new int[capacity];
+        kinds = new short[capacity];
+        micros = new long[capacity];
+        values = new float[capacity];
+    }
+
+    /** false when full. */
+    public boolean add(int plantId, short kind, long atMicros, float value) {
+        if (size == plantIds.length) {
+            return false;
+        }
+        plantIds[size] = plantId;
+        kinds[size] = kind;
+        micros[size] = atMicros;
+        values[size] = value;
+        size++;
+        return true;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return plantIds.length; }
+    public boolean isEmpty() { return size == 0; }
+    public void clear() { size = 0; }
+
+    public int plantId(int i) { return plantIds[i]; }
+    public short kind(int i) { return kinds[i]; }
+    public long micros(int i) { return micros[i]; }
+    public float value(int i) { return values[i]; }
+}
@@ -0,0 +1,38 @@
+package com.planttracker.model;
+
+// MeasurementBucket.java
+import java.time.Instant;
+
+/** Aggregate of the measurements in [start, start + bucket length). */
+public class MeasurementBucket {
+    private Instant start;
+    private double min;
+    private double max;
+    private double avg;
+    private long count;
+
+    public MeasurementBucket() {}
+
+    public MeasurementBucket(Instant start, double min, double max, double avg, long count) {
+        this.start = start;
+        this.min = min;
+        this.max = max;
+        this.avg = avg;
+        this.count = count;
+    }
+
+    public Instant getStart() { return start; }
+    public void setStart(Instant start) { this.start = start; }
+
+    public double getMin() { return min; }
+    public void setMin(double min) { this.min = min; }
+
+    public double getMax() { return max; }
+    public void setMax(double max) { this.max = max; }
+
+    public double getAvg() { return avg; }
+    public void setAvg(double avg) { this.avg = avg; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,48 @@
+package com.planttracker.model;
+
+// MeasurementHistory.java
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A plant's measurements of one kind over [from, to), downsampled server-side into
+ * buckets of bucketSeconds (aligned to the epoch). Buckets without data are left out.
+ */
+public class MeasurementHistory {
+    private int plantId;
+    private String kind;
+    private Instant from;
+    private Instant to;
+    private long bucketSeconds;
+    private List<MeasurementBucket> buckets;
+
+    public MeasurementHistory() {}
+
+    public MeasurementHistory(int plantId, String kind, Instant from, Instant to, long bucketSeconds,
+                              List<MeasurementBucket> buckets) {
+        this.plantId = plantId;
+        this.kind = kind;
+        this.from = from;
+        this.to = to;
+        this.bucketSeconds = bucketSeconds;
+        this.buckets = buckets;
+    }
+
+    public int getPlantId() { return plantId; }
+    public void setPlantId(int plantId) { this.plantId = plantId; }
+
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+
+    public Instant getFrom() { return from; }
+    public void setFrom(Instant from) { this.from = from; }
+
+    public Instant getTo() { return to; }
+    public void setTo(Instant to) { this.to = to; }
+
+    public long getBucketSeconds() { return bucketSeconds; }
+    public void setBucketSeconds(long bucketSeconds) { this.bucketSeconds = bucketSeconds; }
+
+    public List<MeasurementBucket> getBuckets() { return buckets; }
+    public void setBuckets(List<MeasurementBucket> buckets) { this.buckets = buckets; }
+}
@@ -0,0 +1,46 @@
+package com.planttracker.model;
+
+import java.util.Locale;
+
+/**
+ * What a measurement measures. The code is what the database stores (SMALLINT);
+ * the API uses the lower-case name ("height", "soil_moisture", ...).
+ */
+public enum MeasurementKind {
+    HEIGHT(1),         // same unit as Plant.height; recorded on every height change
+    SOIL_MOISTURE(2),  // percent
+    TEMPERATURE(3),    // degrees Celsius
+    HUMIDITY(4),       // percent relative humidity
+    LIGHT(5);          // lux
+
+    private final int code;
+
+    MeasurementKind(int code) {
+        this.code = code;
+    }
+
+    public int getCode() { return code; }
+
+    public String apiName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /** null if there is no such kind */
+    public static MeasurementKind fromName(String name) {
+        for (MeasurementKind k : values()) {
+            if (k.apiName().equalsIgnoreCase(name == null ? "" : name.trim())) {
+                return k;
+            }
+        }
+        return null;
+    }
+
+    public static MeasurementKind fromCode(int code) {
+        for (MeasurementKind k : values()) {
+            if (k.code == code) {
+                return k;
+            }
+        }
+        throw new IllegalArgumentException("Unknown measurement kind " + code);
+    }
+}
@@ -0,0 +1,53 @@
+package com.planttracker.model;
+
+// Photo.java
+import java.time.Instant;
+
+/** Metadata of a plant photo; the image itself is a file in the PhotoStore. */
+public class Photo {
+    private int photoId;
+    private int plantId;
+    private String sha256;      // content hash = the file's name in the PhotoStore
+    private String contentType; // image/jpeg, image/png or image/gif
+    private long sizeBytes;
+    private Integer width;
+    private Integer height;
+    private Instant uploadedAt;
+
+    public Photo() {}
+
+    public int getPhotoId() { return photoId; }
+    public void setPhotoId(int photoId) { this.photoId = photoId; }
+
+    public int getPlantId() { return plantId; }
+    public void setPlantId(int plantId) { this.plantId = plantId; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public Integer getWidth() { return width; }
+    public void setWidth(Integer width) { this.width = width; }
+
+    public Integer getHeight() { return height; }
+    public void setHeight(Integer height) { this.height = height; }
+
+    public Instant getUploadedAt() { return uploadedAt; }
+    public void setUploadedAt(Instant uploadedAt) { this.uploadedAt = uploadedAt; }
+
+    @Override
+    public String toString() {
+        return "Photo{" +
+                "photoId=" + photoId +
+                ", plantId=" + plantId +
+                ", sha256='" + sha256 + '\'' +
+                ", contentType='" + contentType + '\'' +
+                ", sizeBytes=" + sizeBytes +
+                '}';
+    }
+}
@@ -11,6 +11,7 @@ public class Plant {
     private Double height; // nullable
     private LocalDate dateAcquired;
     private String locationName;
+    private Integer version; // row version for optimistic locking; null = not checked
 
     public Plant() {}
 
@@ -42,6 +43,16 @@ public class Plant {
     public String getLocationName() { return locationName; }
     public void setLocationName(String locationName) { this.locationName = locationName; }
 
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    /** Copy, for handing the same row to several callers (see SingleFlight). */
+    public Plant copy() {
+        Plant p = new Plant(plantId, name, type, height, dateAcquired, locationName);
+        p.version = version;
+        return p;
+    }
+
     @Override
     public String toString() {
         return "Plant{" +
@@ -51,6 +62,7 @@ public class Plant {
                 ", height=" + height +
                 ", dateAcquired=" + dateAcquired +
                 ", locationName='" + locationName + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
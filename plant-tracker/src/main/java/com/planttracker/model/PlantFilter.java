@@ -0,0 +1,50 @@
+package com.planttracker.model;
+
+// PlantFilter.java - selects plants for bulk operations; unset fields don't filter
+
+import java.util.List;
+
+public class PlantFilter {
+    private String locationName;   // plants currently in this location
+    private String type;
+    private List<Integer> plantIds;
+
+    public PlantFilter() {}
+
+    public String getLocationName() { return locationName; }
+    public void setLocationName(String locationName) { this.locationName = locationName; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public List<Integer> getPlantIds() { return plantIds; }
+    public void setPlantIds(List<Integer> plantIds) { this.plantIds = plantIds; }
+
+    /** True if at least one criterion is set (an empty filter would match every plant). */
+    public boolean hasCriteria() {
+        return (locationName != null && !locationName.trim().isEmpty())
+                || (type != null && !type.trim().isEmpty())
+                || (plantIds != null && !plantIds.isEmpty());
+    }
+
+    /** Same selection as the bulk SQL (trimmed location name and type, any of plantIds). */
+    public boolean matches(Plant p) {
+        if (locationName != null && !locationName.trim().isEmpty()
+                && !locationName.trim().equals(p.getLocationName())) {
+            return false;
+        }
+        if (type != null && !type.trim().isEmpty() && !type.trim().equals(p.getType())) {
+            return false;
+        }
+        return plantIds == null || plantIds.isEmpty() || plantIds.contains(p.getPlantId());
+    }
+
+    @Override
+    public String toString() {
+        return "PlantFilter{" +
+                "locationName='" + locationName + '\'' +
+                ", type='" + type + '\'' +
+                ", plantIds=" + plantIds +
+                '}';
+    }
+}
@@ -0,0 +1,200 @@
+package com.planttracker.model;
+
+// PlantProjection.java - the plant fields and related resources a response carries
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed ?fields= and ?include= of the plant endpoints.
+ *
+ *   fields=plantId,name,locationName         only these plant fields (plantId is always there)
+ *   include=care,information,location        the related rows as nested objects (null when missing)
+ *   fields=name,care.lastWatering            a dotted field picks fields of an include (and includes it)
+ *
+ * Without plain fields every plant field is returned. Names are the JSON property
+ * names of the model classes; unknown ones are an IllegalArgumentException.
+ */
+public class PlantProjection {
+
+    public static final String CARE = "care";
+    public static final String INFORMATION = "information";
+    public static final String LOCATION = "location";
+
+    public static final List<String> PLANT_FIELDS =
+            List.of("plantId", "name", "type", "height", "dateAcquired", "locationName", "version");
+    public static final Map<String, List<String>> INCLUDE_FIELDS = Map.of(
+            CARE, List.of("plantId", "lastSoilChange", "lastWatering", "version"),
+            INFORMATION, List.of("plantId", "fromAnotherPlant", "soilType", "potSize", "waterGlobeRequired", "version"),
+            LOCATION, List.of("plantId", "locationId", "locationName", "lightLevel", "version"));
+
+    private final Set<String> plantFields;
+    private final Map<String, Set<String>> includes;
+
+    private PlantProjection(Set<String> plantFields, Map<String, Set<String>> includes) {
+        this.plantFields = plantFields;
+        this.includes = includes;
+    }
+
+    /** From the request parameters; either may be null or blank. */
+    public static PlantProjection parse(String fields, String include) {
+        Set<String> plain = new LinkedHashSet<>();
+        Map<String, Set<String>> picked = new LinkedHashMap<>();
+        for (String name : split(include)) {
+            fieldsOf(name);
+            picked.put(name, new LinkedHashSet<>());
+        }
+        for (String f : split(fields)) {
+            int dot = f.indexOf('.');
+            if (dot < 0) {
+                if (!PLANT_FIELDS.contains(f)) {
+                    throw new IllegalArgumentException("Unknown plant field '" + f + "', expected one of " + PLANT_FIELDS);
+                }
+                plain.add(f);
+            } else {
+                String name = f.substring(0, dot);
+                String field = f.substring(dot + 1);
+                if (!fieldsOf(name).contains(field)) {
+                    throw new IllegalArgumentException("Unknown " + name + " field '" + field + "', expected one of "
+                            + fieldsOf(name));
+                }
+                picked.computeIfAbsent(name, k -> new LinkedHashSet<>()).add(field);
+            }
+        }
+
+        // keep the model's field order; nothing picked = everything
+        Set<String> plantFields = new LinkedHashSet<>();
+        for (String f : PLANT_FIELDS) {
+            if (plain.isEmpty() || plain.contains(f) || f.equals("plantId")) {
+                plantFields.add(f);
+            }
+        }
+        Map<String, Set<String>> includes = new LinkedHashMap<>();
+        for (String name : List.of(CARE, INFORMATION, LOCATION)) {
+            Set<String> chosen = picked.get(name);
+            if (chosen == null) {
+                continue;
+            }
+            Set<String> ordered = new LinkedHashSet<>();
+            for (String f : fieldsOf(name)) {
+                if (chosen.isEmpty() || chosen.contains(f)) {
+                    ordered.add(f);
+                }
+            }
+            includes.put(name, Collections.unmodifiableSet(ordered));
+        }
+        return new PlantProjection(Collections.unmodifiableSet(plantFields), Collections.unmodifiableMap(includes));
+    }
+
+    public Set<String> getPlantFields() { return plantFields; }
+
+    /** Include name -> its fields, in CARE, INFORMATION, LOCATION order. */
+    public Map<String, Set<String>> getIncludes() { return includes; }
+
+    public boolean includes(String name) { return includes.containsKey(name); }
+
+    /** The response object for p and its related rows (null = none, or not included). */
+    public Map<String, Object> project(Plant p, Care care, Information information, Location location) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (String f : plantFields) {
+            out.put(f, plantValue(p, f));
+        }
+        if (includes(CARE)) {
+            out.put(CARE, care == null ? null : pick(includes.get(CARE), f -> careValue(care, f)));
+        }
+        if (includes(INFORMATION)) {
+            out.put(INFORMATION, information == null ? null : pick(includes.get(INFORMATION), f -> informationValue(information, f)));
+        }
+        if (includes(LOCATION)) {
+            out.put(LOCATION, location == null ? null : pick(includes.get(LOCATION), f -> locationValue(location, f)));
+        }
+        return out;
+    }
+
+    private interface Getter {
+        Object get(String field);
+    }
+
+    private static Map<String, Object> pick(Set<String> fields, Getter getter) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (String f : fields) {
+            out.put(f, getter.get(f));
+        }
+        return out;
+    }
+
+    private static Object plantValue(Plant p, String field) {
+        switch (field) {
+            case "plantId": return p.getPlantId();
+            case "name": return p.getName();
+            case "type": return p.getType();
+            case "height": return p.getHeight();
+            case "dateAcquired": return p.getDateAcquired();
+            case "locationName": return p.getLocationName();
+            default: return p.getVersion();
+        }
+    }
+
+    private static Object careValue(Care c, String field) {
+        switch (field) {
+            case "plantId": return c.getPlantId();
+            case "lastSoilChange": return c.getLastSoilChange();
+            case "lastWatering": return c.getLastWatering();
+            default: return c.getVersion();
+        }
+    }
+
+    private static Object informationValue(Information i, String field) {
+        switch (field) {
+            case "plantId": return i.getPlantId();
+            case "fromAnotherPlant": return i.isFromAnotherPlant();
+            case "soilType": return i.getSoilType();
+            case "potSize": return i.getPotSize();
+            case "waterGlobeRequired": return i.isWaterGlobeRequired();
+            default: return i.getVersion();
+        }
+    }
+
+    private static Object locationValue(Location l, String field) {
+        switch (field) {
+            case "plantId": return l.getPlantId();
+            case "locationId": return l.getLocationId();
+            case "locationName": return l.getLocationName();
+            case "lightLevel": return l.getLightLevel();
+            default: return l.getVersion();
+        }
+    }
+
+    private static List<String> fieldsOf(String include) {
+        List<String> fields = INCLUDE_FIELDS.get(include);
+        if (fields == null) {
+            throw new IllegalArgumentException("Unknown include '" + include + "', expected care, information or location");
+        }
+        return fields;
+    }
+
+    private static List<String> split(String csv) {
+        List<String> out = new ArrayList<>();
+        if (csv != null) {
+            for (String s : csv.split(",")) {
+                if (!s.isBlank()) {
+                    out.add(s.trim());
+                }
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return "PlantProjection{" +
+                "plantFields=" + plantFields +
+                ", includes=" + includes +
+                '}';
+    }
+}
@@ -0,0 +1,252 @@
+package com.planttracker.photo;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.regex.Pattern;
+
+/**
+ * Photo files on local disk, content-addressed: a file is named after the SHA-256
+ * of its bytes (objects/ab/abcd...), so the same image uploaded twice is stored
+ * once. Files never change once written. Scaled-down JPEG thumbnails are made on
+ * first request and kept next to them (thumbs/ab/abcd...-256.jpg). Images above
+ * maxPixels (width x height) are refused on upload, since the byte limit says
+ * little about the memory a compressed image decodes to.
+ *
+ * Which photo belongs to which plant is kept in the database (PhotoDao); this class
+ * knows nothing about plants. Deleting a file that a photo still uses is the
+ * caller's business (see PhotoManager).
+ */
+public class PhotoStore {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final int STRIPES = 64;
+
+    /** An upload written to a temporary file by stage(), not yet in the store. */
+    public static final class Staged {
+        public final String sha256;
+        public final long size;
+        public final String contentType;
+        public final int width;
+        public final int height;
+        private final Path tmp;
+
+        Staged(Path tmp, String sha256, long size, String contentType, int width, int height) {
+            this.tmp = tmp;
+            this.sha256 = sha256;
+            this.size = size;
+            this.contentType = contentType;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final Path objects;
+    private final Path thumbs;
+    private final Path tmp;
+    private final long maxPixels;
+    // thumbnail generation per (hash, size) is serialized so concurrent first requests scale once
+    private final Object[] thumbLocks = new Object[STRIPES];
+
+    public PhotoStore(Path dir, long maxPixels) throws IOException {
+        this.maxPixels = maxPixels;
+        this.objects = Files.createDirectories(dir.resolve("objects"));
+        this.thumbs = Files.createDirectories(dir.resolve("thumbs"));
+        this.tmp = Files.createDirectories(dir.resolve("tmp"));
+        for (int i = 0; i < STRIPES; i++) {
+            thumbLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Copy in to a temporary file, hashing on the way; commit() or discard() it
+     * afterwards. Throws UnsupportedImageException for anything that is not a
+     * readable JPEG, PNG or GIF, or is larger than maxPixels.
+     */
+    public Staged stage(InputStream in) throws IOException {
+        Path t = Files.createTempFile(tmp, "upload", ".part");
+        try {
+            MessageDigest sha = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(t), sha)) {
+                size = in.transferTo(out);
+            }
+            String contentType = contentType(t);
+            int[] dims = dimensions(t);
+            if ((long) dims[0] * dims[1] > maxPixels) {
+                throw new UnsupportedImageException("Image is " + dims[0] + "x" + dims[1]
+                        + ", at most " + maxPixels + " pixels are allowed");
+            }
+            return new Staged(t, HexFormat.of().formatHex(sha.digest()), size, contentType, dims[0], dims[1]);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(t);
+            throw e;
+        }
+    }
+
+    /** Move a staged upload into the store; if the same image is already stored, just drop it. */
+    public void commit(Staged staged) throws IOException {
+        Path target = file(staged.sha256);
+        if (Files.exists(target)) {
+            discard(staged);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(staged.tmp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void discard(Staged staged) throws IOException {
+        Files.deleteIfExists(staged.tmp);
+    }
+
+    /** The file for a hash (which may not exist). */
+    public Path file(String sha256) {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 hash: " + sha256);
+        }
+        return objects.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    public boolean exists(String sha256) {
+        return Files.isRegularFile(file(sha256));
+    }
+
+    /**
+     * A JPEG of the image scaled to fit size x size (never enlarged), made on first
+     * use. Null if the image file is missing.
+     */
+    public Path thumbnail(String sha256, int size) throws IOException {
+        Path thumb = thumbs.resolve(sha256.substring(0, 2)).resolve(sha256 + "-" + size + ".jpg");
+        if (Files.exists(thumb)) {
+            return thumb;
+        }
+        Path original = file(sha256);
+        synchronized (thumbLocks[Math.floorMod(thumb.hashCode(), STRIPES)]) {
+            if (Files.exists(thumb)) {
+                return thumb;
+            }
+            if (!Files.exists(original)) {
+                return null;
+            }
+            BufferedImage image = readReduced(original, size);
+            double scale = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+            int w = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            int h = Math.max(1, (int) Math.round(image.getHeight() * scale));
+            BufferedImage scaled = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(image, 0, 0, w, h, Color.WHITE, null); // JPEG has no alpha
+            } finally {
+                g.dispose();
+            }
+            Files.createDirectories(thumb.getParent());
+            Path t = Files.createTempFile(tmp, "thumb", ".part");
+            try {
+                ImageIO.write(scaled, "jpg", t.toFile());
+                Files.move(t, thumb, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(t);
+            }
+            return thumb;
+        }
+    }
+
+    /** Delete an image and its thumbnails. */
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(file(sha256));
+        Path dir = thumbs.resolve(sha256.substring(0, 2));
+        if (Files.isDirectory(dir)) {
+            try (var thumbnails = Files.newDirectoryStream(dir, sha256 + "-*.jpg")) {
+                for (Path p : thumbnails) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        }
+    }
+
+    // from the first bytes; the client's Content-Type is not trusted
+    private static String contentType(Path file) throws IOException {
+        byte[] head = new byte[8];
+        int n;
+        try (InputStream in = Files.newInputStream(file)) {
+            n = in.readNBytes(head, 0, head.length);
+        }
+        if (n >= 3 && (head[0] & 0xff) == 0xff && (head[1] & 0xff) == 0xd8 && (head[2] & 0xff) == 0xff) {
+            return "image/jpeg";
+        }
+        if (n >= 8 && (head[0] & 0xff) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "image/png";
+        }
+        if (n >= 4 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return "image/gif";
+        }
+        throw new UnsupportedImageException("Only JPEG, PNG and GIF images are supported");
+    }
+
+    // the image decoded with every n-th pixel only, n chosen so it stays at least 2 x size
+    // (smoothed by the scaling after), so memory doesn't grow with the original's size
+    private static BufferedImage readReduced(Path file, int size) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = iis != null ? ImageIO.getImageReaders(iis) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new UnsupportedImageException("Cannot decode " + file.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / (2 * size));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // width and height from the image header, without decoding the pixels
+    private static int[] dimensions(Path file) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = iis != null ? ImageIO.getImageReaders(iis) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new UnsupportedImageException("Not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                return new int[] { reader.getWidth(0), reader.getHeight(0) };
+            } catch (IOException e) {
+                throw new UnsupportedImageException("Not a readable image: " + e.getMessage());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.planttracker.photo;
+
+/** An uploaded file is not a JPEG, PNG or GIF image (or not a readable one). */
+public class UnsupportedImageException extends IllegalArgumentException {
+
+    public UnsupportedImageException(String message) {
+        super(message);
+    }
+}
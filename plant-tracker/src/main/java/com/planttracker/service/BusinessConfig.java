@@ -1,13 +1,78 @@
 package com.planttracker.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.planttracker.business.BusinessManager;
+import com.planttracker.business.JobManager;
+import com.planttracker.business.PhotoManager;
+import com.planttracker.business.PlantJobs;
+import com.planttracker.data.DataProvider;
+import com.planttracker.edge.EdgeNode;
+import com.planttracker.photo.PhotoStore;
+import com.planttracker.service.api.ResponseCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 
 @Configuration
 public class BusinessConfig {
+    // planttracker.store: "jdbc" (PostgreSQL, default), "memory" (no database; demo / load tests)
+    // or "edge" (local store synced with PostgreSQL, see EdgeConfig)
+    @Bean
+    public DataProvider dataProvider(@Value("${planttracker.store:jdbc}") String store,
+                                     ObjectProvider<EdgeNode> edgeNode) {
+        EdgeNode node = edgeNode.getIfAvailable();
+        return node != null ? DataProvider.edge(node) : DataProvider.forStore(store);
+    }
+
+    @Bean
+    public BusinessManager businessManager(DataProvider data) {
+        return new BusinessManager(data);
+    }
+
+    // photo files on local disk (planttracker.photos.dir), metadata in the provider's store
+    @Bean
+    public PhotoManager photoManager(DataProvider data,
+                                     @Value("${planttracker.photos.dir:photos}") String dir,
+                                     @Value("${planttracker.photos.max-pixels:40000000}") long maxPixels)
+            throws IOException {
+        return new PhotoManager(data.getPhotoDao(), new PhotoStore(Paths.get(dir), maxPixels));
+    }
+
+    // finished GET /api/plants bodies (JSON and gzip), rebuilt after writes (see ResponseCache)
+    @Bean
+    public ResponseCache responseCache(BusinessManager mgr, ObjectMapper json,
+                                       @Value("${planttracker.response-cache.max-age-seconds:60}") long maxAgeSeconds,
+                                       @Value("${planttracker.response-cache.max-entries:200}") int maxEntries) {
+        return new ResponseCache(json, mgr::getDataVersion, maxAgeSeconds, maxEntries);
+    }
+
+    // background jobs; not lazy so jobs left unfinished by a stopped instance are
+    // marked failed soon after startup (see JobManager). Its housekeeping also purges
+    // change-feed tombstones older than planttracker.changes.tombstone-retention-days
+    @Bean(destroyMethod = "close")
+    @Lazy(false)
+    public JobManager jobManager(DataProvider data,
+                                 @Value("${planttracker.jobs.dir:jobs}") String dir,
+                                 @Value("${planttracker.jobs.workers:2}") int workers,
+                                 @Value("${planttracker.jobs.queue:100}") int queue,
+                                 @Value("${planttracker.jobs.retention-days:7}") int retentionDays,
+                                 @Value("${planttracker.changes.tombstone-retention-days:30}") int tombstoneDays)
+            throws IOException {
+        JobManager jobs = new JobManager(data.getJobDao(), Paths.get(dir), workers, queue, Duration.ofDays(retentionDays));
+        Duration tombstoneRetention = Duration.ofDays(tombstoneDays);
+        jobs.addHousekeeping(() -> data.getChangeDao().purgeTombstones(Instant.now().minus(tombstoneRetention)));
+        return jobs;
+    }
+
     @Bean
-    public BusinessManager businessManager() {
-        return new BusinessManager();
+    public PlantJobs plantJobs(BusinessManager mgr, PhotoManager photos, JobManager jobs, ObjectMapper json) {
+        return new PlantJobs(mgr, photos, jobs, json);
     }
-}
\ No newline at end of file
+}
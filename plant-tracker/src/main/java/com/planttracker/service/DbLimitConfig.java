@@ -0,0 +1,74 @@
+package com.planttracker.service;
+
+import com.planttracker.DbCircuitBreaker;
+import com.planttracker.DbLimiter;
+import com.planttracker.DbTimeouts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.Map;
+
+/**
+ * What DbUtil.getConnection does to protect the service from a slow or failing
+ * database, installed at startup so the first requests are already covered:
+ *   - adaptive concurrency limit (see DbLimiter), GET /api/admin/db-limit;
+ *     planttracker.db-limit.enabled=false turns it off
+ *   - statement, connect and socket timeouts (see DbTimeouts)
+ *   - circuit breaker (see DbCircuitBreaker), GET /api/admin/db-breaker;
+ *     planttracker.db-breaker.enabled=false turns it off
+ */
+@Configuration
+public class DbLimitConfig {
+
+    @Bean(destroyMethod = "close")
+    @Lazy(false)
+    public DbLimiter dbLimiter(@Value("${planttracker.db-limit.enabled:true}") boolean enabled,
+                               @Value("${planttracker.db-limit.retry-after-seconds:1}") int retryAfterSeconds,
+                               @Value("${planttracker.db-limit.read.max:16}") int readMax,
+                               @Value("${planttracker.db-limit.read.max-wait-ms:50}") long readWaitMs,
+                               @Value("${planttracker.db-limit.read.latency-target-ms:250}") long readTargetMs,
+                               @Value("${planttracker.db-limit.write.max:8}") int writeMax,
+                               @Value("${planttracker.db-limit.write.max-wait-ms:50}") long writeWaitMs,
+                               @Value("${planttracker.db-limit.write.latency-target-ms:250}") long writeTargetMs,
+                               @Value("${planttracker.db-limit.bulk.max:4}") int bulkMax,
+                               @Value("${planttracker.db-limit.bulk.max-wait-ms:30000}") long bulkWaitMs,
+                               @Value("${planttracker.db-limit.bulk.latency-target-ms:0}") long bulkTargetMs) {
+        DbLimiter limiter = new DbLimiter(Map.of(
+                DbLimiter.Kind.READ, new DbLimiter.Settings(readMax, readWaitMs, readTargetMs),
+                DbLimiter.Kind.WRITE, new DbLimiter.Settings(writeMax, writeWaitMs, writeTargetMs),
+                DbLimiter.Kind.BULK, new DbLimiter.Settings(bulkMax, bulkWaitMs, bulkTargetMs)),
+                retryAfterSeconds);
+        if (enabled) {
+            DbLimiter.install(limiter);
+        }
+        return limiter;
+    }
+
+    @Bean
+    @Lazy(false)
+    public DbTimeouts dbTimeouts(@Value("${planttracker.db.timeout.read-seconds:10}") int readSeconds,
+                                 @Value("${planttracker.db.timeout.write-seconds:15}") int writeSeconds,
+                                 @Value("${planttracker.db.timeout.bulk-seconds:300}") int bulkSeconds,
+                                 @Value("${planttracker.db.timeout.default-seconds:60}") int defaultSeconds,
+                                 @Value("${planttracker.db.timeout.connect-seconds:10}") int connectSeconds,
+                                 @Value("${planttracker.db.timeout.socket-seconds:330}") int socketSeconds) {
+        DbTimeouts timeouts = new DbTimeouts(readSeconds, writeSeconds, bulkSeconds, defaultSeconds,
+                connectSeconds, socketSeconds);
+        DbTimeouts.install(timeouts);
+        return timeouts;
+    }
+
+    @Bean(destroyMethod = "close")
+    @Lazy(false)
+    public DbCircuitBreaker dbCircuitBreaker(@Value("${planttracker.db-breaker.enabled:true}") boolean enabled,
+                                             @Value("${planttracker.db-breaker.failures:5}") int failures,
+                                             @Value("${planttracker.db-breaker.open-seconds:10}") long openSeconds) {
+        DbCircuitBreaker breaker = new DbCircuitBreaker(failures, openSeconds);
+        if (enabled) {
+            DbCircuitBreaker.install(breaker);
+        }
+        return breaker;
+    }
+}
@@ -0,0 +1,43 @@
+package com.planttracker.service;
+
+import com.planttracker.business.BusinessManager;
+import com.planttracker.data.DataProvider;
+import com.planttracker.edge.EdgeNode;
+import com.planttracker.edge.EdgeSync;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+/**
+ * Edge mode (planttracker.store=edge): requests use the EdgeNode's local store, and
+ * EdgeSync keeps it in step with the central database in the background.
+ */
+@Configuration
+@ConditionalOnProperty(name = "planttracker.store", havingValue = "edge")
+public class EdgeConfig {
+
+    @Bean(destroyMethod = "close")
+    public EdgeNode edgeNode(@Value("${planttracker.edge.dir:edge-data}") String dir) throws IOException, SQLException {
+        return EdgeNode.open(Paths.get(dir));
+    }
+
+    // not lazy: syncing starts with the application, not with the first admin request
+    @Bean(destroyMethod = "close")
+    @Lazy(false)
+    public EdgeSync edgeSync(EdgeNode node, BusinessManager mgr,
+                             @Value("${planttracker.edge.sync-interval-seconds:30}") long interval,
+                             @Value("${planttracker.edge.batch-size:200}") int batchSize,
+                             @Value("${planttracker.edge.conflict:central}") String conflict) {
+        EdgeSync sync = new EdgeSync(node, new DataProvider(),
+                EdgeSync.ConflictPolicy.valueOf(conflict.trim().toUpperCase()), batchSize,
+                rows -> mgr.rebuildStatistics());
+        sync.start(interval);
+        return sync;
+    }
+}
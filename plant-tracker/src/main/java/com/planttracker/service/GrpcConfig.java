@@ -0,0 +1,26 @@
+package com.planttracker.service;
+
+import com.planttracker.business.BusinessManager;
+import com.planttracker.service.rpc.GrpcServer;
+import com.planttracker.service.rpc.PlantGrpcService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.io.IOException;
+
+/**
+ * gRPC API (see PlantGrpcService) on planttracker.grpc.port; -1 turns it off.
+ */
+@Configuration
+public class GrpcConfig {
+
+    // not lazy: nothing in the HTTP side asks for it
+    @Bean(destroyMethod = "close")
+    @Lazy(false)
+    public GrpcServer grpcServer(BusinessManager mgr,
+                                 @Value("${planttracker.grpc.port:9090}") int port) throws IOException {
+        return new GrpcServer(port, new PlantGrpcService(mgr));
+    }
+}
@@ -0,0 +1,27 @@
+package com.planttracker.service;
+
+import com.planttracker.data.DataProvider;
+import com.planttracker.ingest.SensorIngestor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sensor ingestion (POST /api/ingest/readings, see SensorIngestor): created with
+ * the first request; closing it on shutdown writes what is still queued.
+ */
+@Configuration
+public class IngestConfig {
+
+    @Bean(destroyMethod = "close")
+    public SensorIngestor sensorIngestor(DataProvider data,
+                                         @Value("${planttracker.ingest.capacity:65536}") int capacity,
+                                         @Value("${planttracker.ingest.batch-size:5000}") int batchSize,
+                                         @Value("${planttracker.ingest.writers:2}") int writers,
+                                         @Value("${planttracker.ingest.linger-ms:50}") long lingerMs,
+                                         @Value("${planttracker.ingest.overflow:reject}") String overflow,
+                                         @Value("${planttracker.ingest.retries:3}") int retries) {
+        return new SensorIngestor(data.getMeasurementDao(), capacity, batchSize, writers, lingerMs,
+                SensorIngestor.Overflow.valueOf(overflow.trim().toUpperCase()), retries);
+    }
+}
@@ -0,0 +1,30 @@
+package com.planttracker.service;
+
+import com.planttracker.SlowQueryLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Slow-query log (see SlowQueryLog): installed at startup so statements are timed
+ * from the first request on; shown on GET /api/admin/slow-queries.
+ * planttracker.slow-query.threshold-ms below 0 turns it off.
+ */
+@Configuration
+public class SlowQueryConfig {
+
+    // not lazy: nothing else asks for it before the first slow statement
+    @Bean(destroyMethod = "close")
+    @Lazy(false)
+    public SlowQueryLog slowQueryLog(@Value("${planttracker.slow-query.threshold-ms:200}") long thresholdMs,
+                                     @Value("${planttracker.slow-query.capacity:100}") int capacity,
+                                     @Value("${planttracker.slow-query.explain:true}") boolean explain,
+                                     @Value("${planttracker.slow-query.explain-timeout-ms:10000}") int explainTimeoutMs) {
+        SlowQueryLog log = new SlowQueryLog(Math.max(0, thresholdMs), capacity, explain, explainTimeoutMs);
+        if (thresholdMs >= 0) {
+            SlowQueryLog.install(log);
+        }
+        return log;
+    }
+}
@@ -0,0 +1,66 @@
+package com.planttracker.service;
+
+import com.planttracker.DbUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+
+/**
+ * Startup hooks for cold starts (the service scales to zero on Render).
+ *
+ * - Prints the JVM-start-to-ready time as "startup.ms=..." so the startup
+ *   benchmark (startup-benchmark.sh) can parse it.
+ * - planttracker.startup.exit=true exits right after startup. The Docker build
+ *   uses this for the AppCDS training run and for the benchmark.
+ * - planttracker.db.warmup=true opens one DB connection on a background thread
+ *   after the app is ready, so the first request doesn't pay for driver loading,
+ *   DNS and the TLS handshake, and startup itself never waits on the database.
+ */
+@Component
+public class StartupListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupListener.class);
+
+    @Value("${planttracker.startup.exit:false}")
+    private boolean exitAfterStart;
+
+    @Value("${planttracker.db.warmup:true}")
+    private boolean dbWarmup;
+
+    @Value("${planttracker.store:jdbc}")
+    private String store;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        System.out.println("startup.ms=" + uptime); // stdout on purpose: parsed by startup-benchmark.sh
+
+        if (exitAfterStart) {
+            System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+        }
+
+        if (dbWarmup && !"memory".equalsIgnoreCase(store.trim())) {
+            Thread warmup = new Thread(StartupListener::warmUpDatabase, "db-warmup");
+            warmup.setDaemon(true);
+            warmup.start();
+        }
+    }
+
+    private static void warmUpDatabase() {
+        long start = System.nanoTime();
+        try (Connection c = DbUtil.getConnection()) {
+            c.isValid(5);
+            log.info("DB warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            // not fatal: the first real request will simply open its own connection
+            log.warn("DB warm-up failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.planttracker.service.api;
+
+import com.planttracker.DbCircuitBreaker;
+import com.planttracker.DbLimiter;
+import com.planttracker.SlowQueryLog;
+import com.planttracker.business.BusinessManager;
+import com.planttracker.edge.EdgeSync;
+import com.planttracker.ingest.SensorIngestor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Operational endpoints (metrics / diagnostics). Not used by the React client.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final BusinessManager mgr;
+    private final ObjectProvider<EdgeSync> edgeSync; // only in edge mode
+    private final SlowQueryLog slowQueries;
+    private final SensorIngestor ingestor;
+    private final ResponseCache responses;
+    private final DbLimiter dbLimiter;
+    private final DbCircuitBreaker dbBreaker;
+
+    public AdminController(BusinessManager mgr, ObjectProvider<EdgeSync> edgeSync, SlowQueryLog slowQueries,
+                           SensorIngestor ingestor, ResponseCache responses, DbLimiter dbLimiter,
+                           DbCircuitBreaker dbBreaker) {
+        this.mgr = mgr;
+        this.edgeSync = edgeSync;
+        this.slowQueries = slowQueries;
+        this.ingestor = ingestor;
+        this.responses = responses;
+        this.dbLimiter = dbLimiter;
+        this.dbBreaker = dbBreaker;
+    }
+
+    // How many concurrent identical reads were merged into one DAO call
+    @GetMapping("/single-flight")
+    public ResponseEntity<Map<String, Map<String, Long>>> singleFlight() {
+        return ResponseEntity.ok(mgr.getSingleFlightStats());
+    }
+
+    // Edge mode: pending local changes, last sync, conflicts (404 when not in edge mode)
+    @GetMapping("/edge")
+    public ResponseEntity<Map<String, Object>> edgeStatus() {
+        EdgeSync sync = edgeSync.getIfAvailable();
+        return sync != null ? ResponseEntity.ok(sync.getStatus()) : ResponseEntity.notFound().build();
+    }
+
+    // Edge mode: sync now instead of waiting for the next tick (503 if the central database is unreachable)
+    @PostMapping("/edge/sync")
+    public ResponseEntity<Map<String, Object>> edgeSync() {
+        EdgeSync sync = edgeSync.getIfAvailable();
+        if (sync == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(sync.syncNow());
+        } catch (SQLException | IOException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(sync.getStatus());
+        }
+    }
+
+    // Statements slower than planttracker.slow-query.threshold-ms, newest first, with their EXPLAIN plans
+    @GetMapping("/slow-queries")
+    public ResponseEntity<Map<String, Object>> slowQueries() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", slowQueries.isInstalled());
+        body.put("thresholdMs", slowQueries.getThresholdMillis());
+        body.put("capacity", slowQueries.getCapacity());
+        body.put("recorded", slowQueries.recorded());
+        body.put("explainsSkipped", slowQueries.getExplainsSkipped());
+        body.put("entries", slowQueries.entries());
+        return ResponseEntity.ok(body);
+    }
+
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> clearSlowQueries() {
+        slowQueries.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Sensor ingestion queue: readings accepted / refused / written / skipped (unknown plant) / failed
+    @GetMapping("/ingest")
+    public ResponseEntity<Map<String, Object>> ingest() {
+        return ResponseEntity.ok(ingestor.getStats());
+    }
+
+    // Cached GET bodies: hits / misses / 304s, variants held and their size as JSON and gzipped
+    @GetMapping("/response-cache")
+    public ResponseEntity<Map<String, Object>> responseCache() {
+        return ResponseEntity.ok(responses.getStats());
+    }
+
+    // Database bulkheads: current adaptive limit, connections in use, acquired / rejected / slow
+    @GetMapping("/db-limit")
+    public ResponseEntity<Map<String, Object>> dbLimit() {
+        return ResponseEntity.ok(dbLimiter.getStats());
+    }
+
+    // Database circuit breaker: CLOSED / OPEN / HALF_OPEN, failures in a row, calls refused
+    @GetMapping("/db-breaker")
+    public ResponseEntity<Map<String, Object>> dbBreaker() {
+        return ResponseEntity.ok(dbBreaker.getStats());
+    }
+}
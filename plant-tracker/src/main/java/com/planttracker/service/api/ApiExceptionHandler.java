@@ -0,0 +1,56 @@
+package com.planttracker.service.api;
+
+import com.planttracker.DbOverloadedException;
+import com.planttracker.QueryCancelledException;
+import com.planttracker.dao.StaleVersionException;
+import com.planttracker.photo.UnsupportedImageException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps business/DAO exceptions to HTTP responses for all controllers.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // Optimistic locking: the client's version is stale; it should re-read and retry
+    @ExceptionHandler(StaleVersionException.class)
+    public ResponseEntity<Map<String, Object>> onStaleVersion(StaleVersionException e) {
+        return error(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    // Photo upload that is not a JPEG, PNG or GIF image
+    @ExceptionHandler(UnsupportedImageException.class)
+    public ResponseEntity<Map<String, Object>> onUnsupportedImage(UnsupportedImageException e) {
+        return error(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getMessage());
+    }
+
+    // The request's database bulkhead is full (see DbLimiter); nothing was done
+    @ExceptionHandler(DbOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> onDbOverloaded(DbOverloadedException e) {
+        ResponseEntity<Map<String, Object>> r = error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        return ResponseEntity.status(r.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(r.getBody());
+    }
+
+    // A statement ran past its timeout, or the request past its database deadline (see DbLimitFilter)
+    @ExceptionHandler(QueryCancelledException.class)
+    public ResponseEntity<Map<String, Object>> onQueryCancelled(QueryCancelledException e) {
+        return error(HttpStatus.GATEWAY_TIMEOUT, e.getMessage());
+    }
+
+    static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        return ResponseEntity.status(status).body(body);
+    }
+}
@@ -0,0 +1,33 @@
+package com.planttracker.service.api;
+
+import com.planttracker.business.BusinessManager;
+import com.planttracker.model.ChangeSet;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+
+/**
+ * Delta sync: GET /api/changes?since=<cursor> returns the rows changed since the
+ * cursor from the previous response (omit it, or 0, for everything).
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeController {
+
+    private final BusinessManager mgr;
+
+    public ChangeController(BusinessManager mgr) {
+        this.mgr = mgr;
+    }
+
+    @GetMapping
+    public ResponseEntity<ChangeSet> getChanges(@RequestParam(defaultValue = "0") long since) throws SQLException {
+        if (since < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must be a cursor from a previous response");
+        }
+        return ResponseEntity.ok(mgr.getChanges(since));
+    }
+}
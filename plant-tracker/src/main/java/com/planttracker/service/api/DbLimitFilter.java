@@ -0,0 +1,56 @@
+package com.planttracker.service.api;
+
+import com.planttracker.DbCancellation;
+import com.planttracker.DbLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Puts each request's database work in the read or write bulkhead of the
+ * DbLimiter: GET / HEAD (and GraphQL, which only has queries) are reads,
+ * everything else writes. A request that finds its bulkhead full gets a 503
+ * with Retry-After (see ApiExceptionHandler).
+ *
+ * Each request also gets a DbCancellation with a deadline of
+ * planttracker.db.request-timeout-ms for all its statements together: past it,
+ * the running statement is cancelled and the request answers 504. Tomcat doesn't
+ * tell a blocking request that its client went away (that only shows when the
+ * response is written), so the deadline is what stops work nobody waits for any
+ * more; gRPC calls are cancelled on disconnect (see DbCallInterceptor).
+ */
+@Component
+public class DbLimitFilter extends OncePerRequestFilter {
+
+    @Value("${planttracker.db.request-timeout-ms:30000}")
+    private long requestTimeoutMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        DbLimiter.Kind previous = DbLimiter.use(kind(request));
+        DbCancellation cancellation = new DbCancellation().cancelAfter(requestTimeoutMs);
+        DbCancellation previousCancellation = DbCancellation.use(cancellation);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DbCancellation.use(previousCancellation);
+            cancellation.close();
+            DbLimiter.use(previous);
+        }
+    }
+
+    private static DbLimiter.Kind kind(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (method.equals("GET") || method.equals("HEAD") || request.getRequestURI().endsWith("/graphql")) {
+            return DbLimiter.Kind.READ;
+        }
+        return DbLimiter.Kind.WRITE;
+    }
+}
@@ -0,0 +1,142 @@
+package com.planttracker.service.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sends a file that never changes (a content-addressed photo or thumbnail) with
+ * ETag / If-None-Match, long-lived caching and single byte ranges (Range /
+ * If-Range, 206 / 416), so browsers can resume and seek.
+ *
+ * The bytes don't pass through the JVM heap: large bodies go out through
+ * Tomcat's sendfile (the connector sends the file after the handler returns),
+ * smaller ones and containers without sendfile through FileChannel.transferTo.
+ */
+final class FileResponses {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // below this a sendfile hand-off costs more than it saves (Tomcat's DefaultServlet uses the same)
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    private FileResponses() {
+    }
+
+    static void send(HttpServletRequest request, HttpServletResponse response, Path file,
+                     String contentType, String etag) throws IOException {
+        String quoted = '"' + etag + '"';
+        response.setHeader("ETag", quoted);
+        response.setHeader("Cache-Control", "public, max-age=31536000, immutable");
+        response.setHeader("Accept-Ranges", "bytes");
+        if (matches(request.getHeader("If-None-Match"), quoted)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = ch.size();
+            long start = 0;
+            long end = length; // exclusive
+            String range = request.getHeader("Range");
+            String ifRange = request.getHeader("If-Range");
+            if (range != null && (ifRange == null || ifRange.trim().equals(quoted))) {
+                long[] r = parseRange(range, length);
+                if (r == null) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader("Content-Range", "bytes */" + length);
+                    return;
+                }
+                if (r.length == 2) {
+                    start = r[0];
+                    end = r[1];
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader("Content-Range", "bytes " + start + "-" + (end - 1) + "/" + length);
+                }
+            }
+            response.setContentType(contentType);
+            response.setContentLengthLong(end - start);
+            if ("HEAD".equals(request.getMethod()) || end == start) {
+                return;
+            }
+
+            if (end - start >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long pos = start;
+            while (pos < end) {
+                long n = ch.transferTo(pos, end - pos, out);
+                if (n <= 0) {
+                    break; // file shrank underneath us; cannot happen for content-addressed files
+                }
+                pos += n;
+            }
+        }
+    }
+
+    /**
+     * A "bytes=" header: {start, endExclusive} for one satisfiable range, {} to send
+     * the whole file (several ranges or a header we don't understand; ignoring
+     * Range is allowed), null if the range lies outside the file (416).
+     */
+    static long[] parseRange(String header, long length) {
+        String h = header.trim();
+        if (!h.startsWith("bytes=") || h.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = h.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // bytes=-N: the last N bytes
+                long n = Long.parseLong(last);
+                if (n <= 0 || length == 0) {
+                    return null;
+                }
+                return new long[] { Math.max(0, length - n), length };
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length : Long.parseLong(last) + 1;
+            if (!last.isEmpty() && end <= start) {
+                return new long[0]; // invalid, e.g. bytes=5-2
+            }
+            if (start >= length) {
+                return null;
+            }
+            end = Math.min(end, length);
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String quoted) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.equals("*") || t.equals(quoted) || t.equals("W/" + quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,163 @@
+package com.planttracker.service.api;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Remembers the response of writes sent with an Idempotency-Key header so a
+ * retried request gets the original response back instead of running again.
+ *
+ * - The first request for a key runs; duplicates that arrive while it is still
+ *   running wait for it (up to planttracker.idempotency.wait-seconds, then 409)
+ *   and receive the same response.
+ * - Reusing a key with a different request body is rejected with 422.
+ * - If the write throws, the key is released so the client can retry it.
+ * - Bounded: entries expire after planttracker.idempotency.ttl-seconds and the
+ *   oldest entries are evicted past planttracker.idempotency.max-entries.
+ *
+ * The store is in memory, so keys are only remembered per service instance.
+ */
+@Component
+public class IdempotencyStore {
+
+    /** Response header set on replayed responses. */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    @FunctionalInterface
+    public interface Action<T> {
+        ResponseEntity<T> run() throws SQLException;
+    }
+
+    private static final class Entry {
+        final String key;
+        final String fingerprint;
+        final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        long expiresAt = Long.MAX_VALUE; // set once the response is known
+
+        Entry(String key, String fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long waitMillis;
+    // guarded by entries
+    private final Map<String, Entry> entries = new HashMap<>();
+    // completed entries in completion order, so by expiry too (same ttl): the head
+    // is always the next to expire, and the one evicted when full
+    private final ArrayDeque<Entry> done = new ArrayDeque<>();
+
+    public IdempotencyStore(@Value("${planttracker.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${planttracker.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${planttracker.idempotency.wait-seconds:30}") long waitSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+        this.waitMillis = waitSeconds * 1000;
+    }
+
+    /**
+     * Run the action once per key.
+     *
+     * @param key         scoped key (idempotency key + method + path)
+     * @param fingerprint hash of the request body, used to detect key reuse
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String key, String fingerprint, Action<T> action) throws SQLException {
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            purge(now);
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(key, fingerprint);
+                entries.put(key, entry);
+                owner = true;
+            } else if (!entry.fingerprint.equals(fingerprint)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with a different request body");
+            }
+        }
+
+        if (!owner) {
+            return (ResponseEntity<T>) replay(await(entry, waitMillis));
+        }
+
+        try {
+            ResponseEntity<T> response = action.run();
+            synchronized (entries) {
+                entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+                done.addLast(entry);
+            }
+            entry.response.complete(response);
+            return response;
+        } catch (Throwable t) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.response.completeExceptionally(t);
+            throw t;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // caller holds the lock. Only completed entries are evicted, expired ones and then
+    // the oldest while full; a running write keeps its key. O(1) per evicted entry.
+    private void purge(long now) {
+        while (!done.isEmpty()) {
+            Entry e = done.peekFirst();
+            if (e.expiresAt > now && entries.size() < maxEntries) {
+                return;
+            }
+            done.pollFirst();
+            entries.remove(e.key, e);
+        }
+    }
+
+    private static ResponseEntity<?> await(Entry entry, long waitMillis) throws SQLException {
+        try {
+            return entry.response.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "The request with this Idempotency-Key is still being processed; retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the original request", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException(cause);
+        }
+    }
+
+    private static ResponseEntity<?> replay(ResponseEntity<?> original) {
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+}
@@ -0,0 +1,74 @@
+package com.planttracker.service.api;
+
+import com.planttracker.ingest.SensorIngestor;
+import com.planttracker.model.Measurement;
+import com.planttracker.model.MeasurementBatch;
+import com.planttracker.model.MeasurementKind;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk sensor readings for many plants at once (gateways / sensor hubs).
+ *
+ * POST /api/ingest/readings  [{"plantId":1,"kind":"soil_moisture","value":41.5,"measuredAt":"..."}, ...]
+ *
+ * Readings are queued and written in the background (see SensorIngestor), so the
+ * answer is 202 once they are queued, not stored. When the queue is full: 503 with
+ * Retry-After and nothing taken (planttracker.ingest.overflow=reject), or 202 with
+ * the number dropped (overflow=drop). Readings of unknown plants are skipped when
+ * written; GET /api/admin/ingest shows the counts.
+ */
+@RestController
+@RequestMapping("/api/ingest")
+public class IngestController {
+
+    static final int MAX_BATCH = 10000;
+
+    private final SensorIngestor ingestor;
+
+    public IngestController(SensorIngestor ingestor) {
+        this.ingestor = ingestor;
+    }
+
+    @PostMapping("/readings")
+    public ResponseEntity<Map<String, Integer>> ingest(@RequestBody List<Measurement> readings) {
+        if (readings.isEmpty() || readings.size() > MAX_BATCH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "send 1.." + MAX_BATCH + " readings");
+        }
+        MeasurementBatch batch = new MeasurementBatch(readings.size());
+        Instant now = Instant.now();
+        for (Measurement m : readings) {
+            MeasurementKind kind = MeasurementKind.fromName(m.getKind());
+            if (kind == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown measurement kind: " + m.getKind());
+            }
+            if (!Double.isFinite(m.getValue())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "value must be a number");
+            }
+            Instant at = m.getMeasuredAt() != null ? m.getMeasuredAt() : now;
+            batch.add(m.getPlantId(), (short) kind.getCode(),
+                    at.getEpochSecond() * 1_000_000L + at.getNano() / 1_000, (float) m.getValue());
+        }
+
+        int taken = ingestor.offer(batch);
+        Map<String, Integer> body = new LinkedHashMap<>();
+        body.put("accepted", taken);
+        if (taken == 0) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(body);
+        }
+        if (taken < readings.size()) {
+            body.put("dropped", readings.size() - taken);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(body);
+    }
+}
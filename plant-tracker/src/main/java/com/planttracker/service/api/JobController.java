@@ -0,0 +1,127 @@
+package com.planttracker.service.api;
+
+import com.planttracker.business.JobManager;
+import com.planttracker.business.PlantJobs;
+import com.planttracker.model.Job;
+import com.planttracker.model.Plant;
+import com.planttracker.model.PlantFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Background jobs for operations too long for a request (see JobManager).
+ *
+ * POST /api/jobs/delete-plants        body: PlantFilter (at least one criterion)
+ * POST /api/jobs/import-plants        body: [Plant, ...]
+ * POST /api/jobs/export-plants        result file: GET /api/jobs/{id}/output
+ * POST /api/jobs/rebuild-statistics
+ *      -> 202 with the queued job and Location: /api/jobs/{id};
+ *         503 with Retry-After when the job queue is full
+ * GET  /api/jobs/{id}                 state, done / total / percent, message, result
+ * GET  /api/jobs?limit=20             newest first
+ * POST /api/jobs/{id}/cancel          stops the job after its current step
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    static final int MAX_IMPORT = 100_000;
+
+    private final JobManager jobs;
+    private final PlantJobs plantJobs;
+
+    public JobController(JobManager jobs, PlantJobs plantJobs) {
+        this.jobs = jobs;
+        this.plantJobs = plantJobs;
+    }
+
+    @PostMapping("/" + PlantJobs.DELETE_PLANTS)
+    public ResponseEntity<Job> deletePlants(@RequestBody PlantFilter filter) throws SQLException {
+        if (!filter.hasCriteria()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Give locationName, type and / or plantIds (an empty filter would delete every plant)");
+        }
+        return submitted(() -> plantJobs.deletePlants(filter));
+    }
+
+    @PostMapping("/" + PlantJobs.IMPORT_PLANTS)
+    public ResponseEntity<Job> importPlants(@RequestBody List<Plant> plants) throws SQLException {
+        if (plants.isEmpty() || plants.size() > MAX_IMPORT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "send 1.." + MAX_IMPORT + " plants");
+        }
+        for (Plant p : plants) {
+            if (p.getName() == null || p.getName().isBlank()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "every plant needs a name");
+            }
+        }
+        return submitted(() -> plantJobs.importPlants(plants));
+    }
+
+    @PostMapping("/" + PlantJobs.EXPORT_PLANTS)
+    public ResponseEntity<Job> exportPlants() throws SQLException {
+        return submitted(plantJobs::exportPlants);
+    }
+
+    @PostMapping("/" + PlantJobs.REBUILD_STATISTICS)
+    public ResponseEntity<Job> rebuildStatistics() throws SQLException {
+        return submitted(plantJobs::rebuildStatistics);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Job> getJob(@PathVariable long id) throws SQLException {
+        Job job = jobs.get(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Job>> recentJobs(@RequestParam(defaultValue = "20") int limit) throws SQLException {
+        return ResponseEntity.ok(jobs.recent(Math.max(1, Math.min(limit, 200))));
+    }
+
+    // 200 with the job; its state shows whether it was still running (cancelRequested) or already done
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<Job> cancel(@PathVariable long id) throws SQLException {
+        Job job = jobs.cancel(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+
+    // An export's file; 404 until the job has succeeded
+    @GetMapping("/{id}/output")
+    public void output(@PathVariable long id, HttpServletRequest request, HttpServletResponse response)
+            throws SQLException, IOException {
+        Job job = jobs.get(id);
+        Path file = jobs.outputFile(id);
+        if (job == null || !Job.SUCCEEDED.equals(job.getState()) || !Files.exists(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"plants-export-" + id + ".json\"");
+        FileResponses.send(request, response, file, "application/json", "job-" + id);
+    }
+
+    private interface Submit {
+        Job submit() throws SQLException;
+    }
+
+    private static ResponseEntity<Job> submitted(Submit submit) throws SQLException {
+        try {
+            Job job = submit.submit();
+            return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getJobId())).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.planttracker.service.api;
+
+import com.planttracker.business.BusinessManager;
+import com.planttracker.model.BulkLocationResult;
+import com.planttracker.model.PlantFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+
+/**
+ * Bulk location operations: each request is one transaction instead of a PUT per plant.
+ */
+@RestController
+@RequestMapping("/api/locations")
+public class LocationController {
+
+    private final BusinessManager mgr;
+
+    public LocationController(BusinessManager mgr) {
+        this.mgr = mgr;
+    }
+
+    // POST /api/locations/rename?from=Kitchen&to=Sunroom
+    // Merges into "to" when that location already exists.
+    @PostMapping("/rename")
+    public ResponseEntity<BulkLocationResult> rename(@RequestParam String from, @RequestParam String to) throws SQLException {
+        requireName(from, "from");
+        requireName(to, "to");
+        return ResponseEntity.ok(mgr.renameLocation(from, to));
+    }
+
+    // POST /api/locations/move?to=Sunroom  body: {"locationName":"Kitchen","type":"Fern","plantIds":[1,2]}
+    @PostMapping("/move")
+    public ResponseEntity<BulkLocationResult> move(@RequestParam String to, @RequestBody PlantFilter filter) throws SQLException {
+        requireName(to, "to");
+        if (!filter.hasCriteria()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "filter needs locationName, type or plantIds");
+        }
+        return ResponseEntity.ok(mgr.movePlants(filter, to));
+    }
+
+    private static void requireName(String name, String param) {
+        if (name.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, param + " must not be blank");
+        }
+    }
+}
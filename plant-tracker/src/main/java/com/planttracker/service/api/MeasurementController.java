@@ -0,0 +1,111 @@
+package com.planttracker.service.api;
+
+import com.planttracker.business.BusinessManager;
+import com.planttracker.model.Measurement;
+import com.planttracker.model.MeasurementHistory;
+import com.planttracker.model.MeasurementKind;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plant measurements over time (height history and other readings).
+ *
+ * GET  /api/plants/{id}/measurements?kind=height&from=...&to=...&points=500
+ *      downsampled to at most ~points buckets (min / max / avg / count each), so a
+ *      chart of years of readings is one small response; buckets over an hour are
+ *      rounded to whole hours. bucket=<seconds> fixes the bucket size instead.
+ *      from / to are ISO instants (default: the last year).
+ * GET  /api/plants/{id}/measurements/raw?kind=...&from=...&to=...&limit=1000
+ * POST /api/plants/{id}/measurements  [{"kind":"soil_moisture","value":41.5,"measuredAt":"..."}]
+ */
+@RestController
+@RequestMapping("/api/plants/{id}/measurements")
+public class MeasurementController {
+
+    static final int MAX_POINTS = 5000;
+    static final int MAX_BATCH = 10000;
+    static final long HOUR = 3600;
+
+    private final BusinessManager mgr;
+
+    public MeasurementController(BusinessManager mgr) {
+        this.mgr = mgr;
+    }
+
+    @GetMapping
+    public ResponseEntity<MeasurementHistory> history(@PathVariable int id,
+            @RequestParam(defaultValue = "height") String kind,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "500") int points,
+            @RequestParam(required = false) Long bucket) throws SQLException {
+        MeasurementKind k = kind(kind);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(365));
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        if (points < 1 || points > MAX_POINTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "points must be 1.." + MAX_POINTS);
+        }
+        long seconds = Duration.between(start, end).toSeconds();
+        long minBucket = Math.max(1, (seconds + MAX_POINTS - 1) / MAX_POINTS);
+        long bucketSeconds = bucket != null ? bucket : Math.max(1, (seconds + points - 1) / points);
+        if (bucket == null && bucketSeconds > HOUR) {
+            // whole hours can be served from the hourly rollup
+            bucketSeconds = (bucketSeconds + HOUR - 1) / HOUR * HOUR;
+        }
+        if (bucketSeconds < minBucket) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "bucket must be at least " + minBucket + " seconds for this range");
+        }
+        return ResponseEntity.ok(mgr.getMeasurementHistory(id, k, start, end, bucketSeconds));
+    }
+
+    @GetMapping("/raw")
+    public ResponseEntity<List<Measurement>> raw(@PathVariable int id,
+            @RequestParam(defaultValue = "height") String kind,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "1000") int limit) throws SQLException {
+        if (limit < 1 || limit > MAX_BATCH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be 1.." + MAX_BATCH);
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : Instant.EPOCH;
+        return ResponseEntity.ok(mgr.getMeasurements(id, kind(kind), start, end, limit));
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Integer>> record(@PathVariable int id,
+            @RequestBody List<Measurement> readings) throws SQLException {
+        if (readings.isEmpty() || readings.size() > MAX_BATCH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "send 1.." + MAX_BATCH + " readings");
+        }
+        for (Measurement m : readings) {
+            m.setKind(kind(m.getKind()).apiName());
+            if (!Double.isFinite(m.getValue())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "value must be a number");
+            }
+        }
+        int stored = mgr.recordMeasurements(id, readings);
+        return stored < 0 ? ResponseEntity.notFound().build()
+                : ResponseEntity.status(HttpStatus.CREATED).body(Map.of("recorded", stored));
+    }
+
+    private static MeasurementKind kind(String name) {
+        MeasurementKind k = MeasurementKind.fromName(name);
+        if (k == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown measurement kind: " + name);
+        }
+        return k;
+    }
+}
@@ -1,92 +1,119 @@
 package com.planttracker.service.api;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.planttracker.business.BusinessManager;
+import com.planttracker.business.PhotoManager;
 import com.planttracker.model.Care;
 import com.planttracker.model.Information;
 import com.planttracker.model.Location;
+import com.planttracker.model.Photo;
 import com.planttracker.model.Plant;
+import com.planttracker.model.PlantProjection;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 public class PlantController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final BusinessManager mgr;
+    private final IdempotencyStore idempotency;
+    private final ObjectMapper mapper;
+    private final PhotoManager photos;
+    private final ResponseCache responses;
 
-    public PlantController(BusinessManager mgr) {
+    public PlantController(BusinessManager mgr, IdempotencyStore idempotency, ObjectMapper mapper,
+                           PhotoManager photos, ResponseCache responses) {
         this.mgr = mgr;
+        this.idempotency = idempotency;
+        this.mapper = mapper;
+        this.photos = photos;
+        this.responses = responses;
     }
 
     // ---------- Plant ----------
+    // ?fields=plantId,name,locationName returns only those fields, ?include=care,information,location
+    // adds the related rows; both are served by one query built to match (see PlantProjection).
+    // Without them the full plants come from the usual (single-flighted) read.
+    // Each variant's finished (and gzipped) body is kept in the ResponseCache until the next write.
     @GetMapping("/plants")
-    public ResponseEntity<List<Plant>> listPlants() throws SQLException {
-        return ResponseEntity.ok(mgr.getAllPlants());
+    public void listPlants(@RequestParam(required = false) String fields,
+                           @RequestParam(required = false) String include,
+                           HttpServletRequest request, HttpServletResponse response)
+            throws SQLException, IOException {
+        if (fields == null && include == null) {
+            responses.send(request, response, "plants", mgr::getAllPlants);
+            return;
+        }
+        PlantProjection projection = projection(fields, include);
+        responses.send(request, response, "plants " + projection, () -> mgr.getPlants(projection));
     }
 
     @GetMapping("/plants/{id}")
-    public ResponseEntity<Plant> getPlant(@PathVariable int id) throws SQLException {
-        Plant p = mgr.getPlant(id);
+    public ResponseEntity<?> getPlant(@PathVariable int id,
+                                      @RequestParam(required = false) String fields,
+                                      @RequestParam(required = false) String include) throws SQLException {
+        Object p = fields == null && include == null ? mgr.getPlant(id) : mgr.getPlant(id, projection(fields, include));
         return p == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(p);
     }
 
+    private static PlantProjection projection(String fields, String include) {
+        try {
+            return PlantProjection.parse(fields, include);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Idempotency-Key makes client retries safe: a replay returns the first response
+    // instead of inserting another plant.
     @PostMapping("/plants")
-    public ResponseEntity<Plant> savePlant(@RequestBody Plant plant) throws SQLException {
-        Plant saved = mgr.savePlant(plant);
-        return ResponseEntity.ok(saved);
+    public ResponseEntity<Plant> savePlant(@RequestBody Plant plant,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idemKey) throws SQLException {
+        return idempotent(idemKey, "POST /plants", plant, () -> ResponseEntity.ok(mgr.savePlant(plant)));
     }
 
-    // PlantController.java (update the method)
+    // One round trip: the plant update, resolving the location name to its room and the
+    // returned row are a single UPDATE ... RETURNING statement (see PlantDao.updateWithLocation).
+    // Compare-and-set on plant.version when the client sends it (409 on conflict).
+    // A blank locationName keeps the stored one; a missing plant returns 404.
+    // With an Idempotency-Key a retry gets the first response, not a 409 for the version it bumped.
     @PutMapping("/plants/{id}")
-    public ResponseEntity<Plant> updatePlant(@PathVariable int id, @RequestBody Plant plant) throws SQLException {
+    public ResponseEntity<Plant> updatePlant(@PathVariable int id, @RequestBody Plant plant,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idemKey) throws SQLException {
         plant.setPlantId(id);
 
         System.out.println("updatePlant called for id=" + id + " payload=" + plant);
 
-        Plant existing = mgr.getPlant(id);
-        if (existing == null) {
-            return ResponseEntity.notFound().build();
-        }
-
-        // If incoming payload omitted locationName, preserve existing to avoid clearing
-        // it
-        if (plant.getLocationName() == null || plant.getLocationName().trim().isEmpty()) {
-            plant.setLocationName(existing.getLocationName());
-        }
-
-        // Option A: call a manager helper that saves plant and location together
-        // (recommended)
-        Plant savedPlant;
-        try {
-            savedPlant = mgr.savePlantAndLocation(plant); // add this helper to BusinessManager if you haven't
-        } catch (NoSuchMethodError e) {
-            // Option B: fallback to explicit sequence (if you didn't add
-            // savePlantAndLocation)
-            savedPlant = mgr.savePlant(plant); // save plant row (updates plant.location_name)
-            // sync locations table
-            if (savedPlant.getLocationName() != null && !savedPlant.getLocationName().trim().isEmpty()) {
-                Location loc = mgr.getLocation(id);
-                if (loc == null)
-                    loc = new Location();
-                loc.setPlantId(id);
-                loc.setLocationName(savedPlant.getLocationName());
-                // optionally preserve existing lightLevel if you want
-                mgr.saveLocation(loc);
-            }
-        }
-
-        // Re-fetch plant to ensure returned object contains database state (optional
-        // but safer)
-        Plant reloaded = mgr.getPlant(id);
-        return ResponseEntity.ok(reloaded != null ? reloaded : savedPlant);
+        return idempotent(idemKey, "PUT /plants/" + id, plant, () -> {
+            Plant savedPlant = mgr.savePlantAndLocation(plant);
+            return savedPlant == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(savedPlant);
+        });
     }
 
     @DeleteMapping("/plants/{id}")
-    public ResponseEntity<?> deletePlant(@PathVariable int id) throws SQLException {
+    public ResponseEntity<?> deletePlant(@PathVariable int id) throws SQLException, IOException {
+        List<String> files = photos.getPhotoFiles(id);
         mgr.deletePlant(id);
+        photos.deletePhotos(id, files);
         return ResponseEntity.noContent().build();
     }
 
@@ -98,18 +125,18 @@ public class PlantController {
     }
 
     @PostMapping("/plants/{id}/care")
-    public ResponseEntity<Care> saveCare(@PathVariable int id, @RequestBody Care care) throws SQLException {
+    public ResponseEntity<Care> saveCare(@PathVariable int id, @RequestBody Care care,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idemKey) throws SQLException {
         care.setPlantId(id);
-        Care saved = mgr.saveCare(care);
-        return ResponseEntity.ok(saved);
+        return idempotent(idemKey, "POST /plants/" + id + "/care", care, () -> ResponseEntity.ok(mgr.saveCare(care)));
     }
 
     // NEW: PUT for care (update existing care or create if missing)
     @PutMapping("/plants/{id}/care")
-    public ResponseEntity<Care> updateCare(@PathVariable int id, @RequestBody Care care) throws SQLException {
+    public ResponseEntity<Care> updateCare(@PathVariable int id, @RequestBody Care care,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idemKey) throws SQLException {
         care.setPlantId(id);
-        Care saved = mgr.saveCare(care);
-        return ResponseEntity.ok(saved);
+        return idempotent(idemKey, "PUT /plants/" + id + "/care", care, () -> ResponseEntity.ok(mgr.saveCare(care)));
     }
 
     @DeleteMapping("/plants/{id}/care")
@@ -126,20 +153,20 @@ public class PlantController {
     }
 
     @PostMapping("/plants/{id}/information")
-    public ResponseEntity<Information> saveInformation(@PathVariable int id, @RequestBody Information info)
-            throws SQLException {
+    public ResponseEntity<Information> saveInformation(@PathVariable int id, @RequestBody Information info,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idemKey) throws SQLException {
         info.setPlantId(id);
-        Information saved = mgr.saveInformation(info);
-        return ResponseEntity.ok(saved);
+        return idempotent(idemKey, "POST /plants/" + id + "/information", info,
+                () -> ResponseEntity.ok(mgr.saveInformation(info)));
     }
 
     // NEW: PUT for information
     @PutMapping("/plants/{id}/information")
-    public ResponseEntity<Information> updateInformation(@PathVariable int id, @RequestBody Information info)
-            throws SQLException {
+    public ResponseEntity<Information> updateInformation(@PathVariable int id, @RequestBody Information info,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idemKey) throws SQLException {
         info.setPlantId(id);
-        Information saved = mgr.saveInformation(info);
-        return ResponseEntity.ok(saved);
+        return idempotent(idemKey, "PUT /plants/" + id + "/information", info,
+                () -> ResponseEntity.ok(mgr.saveInformation(info)));
     }
 
     @DeleteMapping("/plants/{id}/information")
@@ -156,18 +183,24 @@ public class PlantController {
     }
 
     @PostMapping("/plants/{id}/location")
-    public ResponseEntity<Location> saveLocation(@PathVariable int id, @RequestBody Location l) throws SQLException {
+    public ResponseEntity<Location> saveLocation(@PathVariable int id, @RequestBody Location l,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idemKey) throws SQLException {
         l.setPlantId(id);
-        Location saved = mgr.saveLocation(l);
-        return ResponseEntity.ok(saved);
+        return idempotent(idemKey, "POST /plants/" + id + "/location", l, () -> {
+            Location saved = mgr.saveLocation(l);
+            return saved == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(saved);
+        });
     }
 
     // NEW: PUT for location
     @PutMapping("/plants/{id}/location")
-    public ResponseEntity<Location> updateLocation(@PathVariable int id, @RequestBody Location l) throws SQLException {
+    public ResponseEntity<Location> updateLocation(@PathVariable int id, @RequestBody Location l,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idemKey) throws SQLException {
         l.setPlantId(id);
-        Location saved = mgr.saveLocation(l);
-        return ResponseEntity.ok(saved);
+        return idempotent(idemKey, "PUT /plants/" + id + "/location", l, () -> {
+            Location saved = mgr.saveLocation(l);
+            return saved == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(saved);
+        });
     }
 
     @DeleteMapping("/plants/{id}/location")
@@ -175,4 +208,81 @@ public class PlantController {
         mgr.deleteLocation(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // ---------- Photos ----------
+    // Files live on local disk (PhotoManager); only metadata is in the database.
+    static final int[] THUMBNAIL_SIZES = { 128, 256, 512 };
+
+    @GetMapping("/plants/{id}/photos")
+    public ResponseEntity<List<Photo>> listPhotos(@PathVariable int id) throws SQLException {
+        return ResponseEntity.ok(photos.getPhotos(id));
+    }
+
+    // multipart/form-data with the image in "file"; JPEG, PNG or GIF (415 otherwise)
+    @PostMapping("/plants/{id}/photos")
+    public ResponseEntity<Photo> addPhoto(@PathVariable int id, @RequestParam("file") MultipartFile file)
+            throws SQLException, IOException {
+        try (InputStream in = file.getInputStream()) {
+            Photo photo = photos.addPhoto(id, in);
+            return photo == null ? ResponseEntity.notFound().build()
+                    : ResponseEntity.status(HttpStatus.CREATED).body(photo);
+        }
+    }
+
+    // The image itself; supports Range requests and If-None-Match (see FileResponses)
+    @GetMapping("/plants/{id}/photos/{photoId}")
+    public ResponseEntity<Void> getPhotoFile(@PathVariable int id, @PathVariable int photoId,
+            HttpServletRequest request, HttpServletResponse response) throws SQLException, IOException {
+        Photo photo = photos.getPhoto(id, photoId);
+        Path file = photo == null ? null : photos.getFile(photo);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        FileResponses.send(request, response, file, photo.getContentType(), photo.getSha256());
+        return null;
+    }
+
+    // JPEG that fits size x size (128, 256 or 512), made once and then served from disk
+    @GetMapping("/plants/{id}/photos/{photoId}/thumbnail")
+    public ResponseEntity<Void> getPhotoThumbnail(@PathVariable int id, @PathVariable int photoId,
+            @RequestParam(defaultValue = "256") int size,
+            HttpServletRequest request, HttpServletResponse response) throws SQLException, IOException {
+        if (Arrays.stream(THUMBNAIL_SIZES).noneMatch(s -> s == size)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Photo photo = photos.getPhoto(id, photoId);
+        Path thumb = photo == null ? null : photos.getThumbnail(photo, size);
+        if (thumb == null) {
+            return ResponseEntity.notFound().build();
+        }
+        FileResponses.send(request, response, thumb, "image/jpeg", photo.getSha256() + "-" + size);
+        return null;
+    }
+
+    @DeleteMapping("/plants/{id}/photos/{photoId}")
+    public ResponseEntity<?> deletePhoto(@PathVariable int id, @PathVariable int photoId)
+            throws SQLException, IOException {
+        return photos.deletePhoto(id, photoId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    // ---------- Idempotency ----------
+    // Without a key the write simply runs; with one it runs at most once per key
+    // (see IdempotencyStore). The fingerprint is taken before the write so it
+    // doesn't see ids assigned by the save.
+    private <T> ResponseEntity<T> idempotent(String idemKey, String route, Object body,
+            IdempotencyStore.Action<T> action) throws SQLException {
+        if (idemKey == null || idemKey.isBlank()) {
+            return action.run();
+        }
+        return idempotency.execute(idemKey.trim() + " " + route, fingerprint(body), action);
+    }
+
+    private String fingerprint(Object body) {
+        try {
+            byte[] json = mapper.writeValueAsBytes(body);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request body", e);
+        }
+    }
+}
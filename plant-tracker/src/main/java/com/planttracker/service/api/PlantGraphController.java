@@ -0,0 +1,111 @@
+package com.planttracker.service.api;
+
+import com.planttracker.business.BusinessManager;
+import com.planttracker.model.Care;
+import com.planttracker.model.Information;
+import com.planttracker.model.Location;
+import com.planttracker.model.Plant;
+import com.planttracker.model.PlantFilter;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GraphQL over plants (POST /api/graphql, schema in resources/graphql), so a
+ * screen can ask for exactly the fields it shows in one request:
+ *
+ *   { plants(type: "Cactus") { plantId name location { locationName lightLevel } care { lastWatering } } }
+ *
+ * care, information and location are @BatchMapping fields: graphql-java collects
+ * the plants of a request into one DataLoader batch per field, so 100 plants with
+ * all three cost one plant query plus one query each (WHERE Plant_ID = ANY(?)),
+ * not 1 + 3 x 100. Plant ids are de-duplicated within a batch.
+ */
+@Controller
+public class PlantGraphController {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final BusinessManager mgr;
+
+    public PlantGraphController(BusinessManager mgr) {
+        this.mgr = mgr;
+    }
+
+    @QueryMapping
+    public Plant plant(@Argument int id) throws SQLException {
+        return mgr.getPlant(id);
+    }
+
+    @QueryMapping
+    public List<Plant> plants(@Argument List<Integer> ids, @Argument String type, @Argument String locationName,
+                              @Argument int offset, @Argument int limit) throws SQLException {
+        PlantFilter filter = new PlantFilter();
+        filter.setType(type);
+        filter.setLocationName(locationName);
+
+        List<Plant> matching = new ArrayList<>();
+        if (ids != null) {
+            Map<Integer, Plant> byId = mgr.getPlantsById(new LinkedHashSet<>(ids));
+            for (int id : new LinkedHashSet<>(ids)) {
+                Plant p = byId.get(id);
+                if (p != null && filter.matches(p)) {
+                    matching.add(p);
+                }
+            }
+        } else {
+            for (Plant p : mgr.getAllPlants()) {
+                if (filter.matches(p)) {
+                    matching.add(p);
+                }
+            }
+        }
+        int from = Math.min(Math.max(0, offset), matching.size());
+        int to = Math.min(matching.size(), from + Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return new ArrayList<>(matching.subList(from, to));
+    }
+
+    @BatchMapping
+    public Map<Plant, Care> care(List<Plant> plants) throws SQLException {
+        return byPlant(plants, mgr.getCareByPlantId(plantIds(plants)));
+    }
+
+    @BatchMapping
+    public Map<Plant, Information> information(List<Plant> plants) throws SQLException {
+        return byPlant(plants, mgr.getInformationByPlantId(plantIds(plants)));
+    }
+
+    @BatchMapping
+    public Map<Plant, Location> location(List<Plant> plants) throws SQLException {
+        return byPlant(plants, mgr.getLocationsByPlantId(plantIds(plants)));
+    }
+
+    private static Set<Integer> plantIds(List<Plant> plants) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Plant p : plants) {
+            ids.add(p.getPlantId());
+        }
+        return ids;
+    }
+
+    // the batch is keyed by the Plant objects themselves; plants without a row get null
+    private static <T> Map<Plant, T> byPlant(List<Plant> plants, Map<Integer, T> byId) {
+        Map<Plant, T> out = new HashMap<>();
+        for (Plant p : plants) {
+            T row = byId.get(p.getPlantId());
+            if (row != null) {
+                out.put(p, row);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,221 @@
+package com.planttracker.service.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planttracker.business.SingleFlight;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Finished GET response bodies, kept per variant (endpoint plus query) as JSON bytes
+ * and gzipped bytes. A hit writes the stored bytes as they are: no query, no
+ * Jackson, no compression. Unlike the entity reads in BusinessManager this holds
+ * whole responses, one per variant.
+ *
+ * Every entry remembers the data version (BusinessManager.getDataVersion) it was
+ * built at; once a write bumps the version the entry is rebuilt on its next use.
+ * Writes this instance doesn't see (other instances, direct SQL) are picked up
+ * when an entry turns maxAge old. Concurrent misses for one variant build it once
+ * (SingleFlight), but a miss after a write never joins a build started before it.
+ * The ETag is a hash of the JSON bytes, so it is the same on every instance and
+ * across restarts, and clients can revalidate with If-None-Match and get 304 until
+ * the content itself changes. The gzip body has its own tag (suffix -gzip): a
+ * strong validator names one exact byte sequence.
+ */
+public class ResponseCache {
+
+    /** Produces the response object of a variant; serialized with the application's ObjectMapper. */
+    public interface Body {
+        Object get() throws SQLException;
+    }
+
+    private static final class Entry {
+        final long version;
+        final long builtAt;
+        final byte[] json;
+        final byte[] gzip; // null when compressing didn't make it smaller
+        final String etag;
+        final String gzipEtag;
+
+        Entry(long version, byte[] json, byte[] gzip, String hash) {
+            this.version = version;
+            this.builtAt = System.nanoTime();
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = '"' + hash + '"';
+            this.gzipEtag = '"' + hash + "-gzip\"";
+        }
+    }
+
+    private final ObjectMapper json;
+    private final LongSupplier dataVersion;
+    private final long maxAgeNanos;
+    private final int maxEntries;
+    // access order: the least recently used variant is dropped when full
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final SingleFlight<String, Entry> builds;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    public ResponseCache(ObjectMapper json, LongSupplier dataVersion, long maxAgeSeconds, int maxEntries) {
+        this.json = json;
+        this.dataVersion = dataVersion;
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+        this.maxEntries = Math.max(1, maxEntries);
+        // entries are immutable, so callers can share one
+        this.builds = new SingleFlight<>(dataVersion, e -> e);
+    }
+
+    /** Write the variant key's response (200 or 304), building it with body when needed. */
+    public void send(HttpServletRequest request, HttpServletResponse response, String key, Body body)
+            throws SQLException, IOException {
+        Entry e = current(key);
+        if (e == null) {
+            misses.increment();
+            e = builds.execute(key, () -> build(key, body));
+        } else {
+            hits.increment();
+        }
+
+        boolean gzip = e.gzip != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? e.gzipEtag : e.etag;
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] bytes = e.json;
+        if (gzip) {
+            bytes = e.gzip;
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentType("application/json");
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("hits", hits.sum());
+        m.put("misses", misses.sum());
+        m.put("notModified", notModified.sum());
+        m.put("builds", builds.getExecuted());
+        long jsonBytes = 0;
+        long gzipBytes = 0;
+        synchronized (entries) {
+            m.put("entries", entries.size());
+            for (Entry e : entries.values()) {
+                jsonBytes += e.json.length;
+                gzipBytes += e.gzip != null ? e.gzip.length : e.json.length;
+            }
+        }
+        m.put("jsonBytes", jsonBytes);
+        m.put("gzipBytes", gzipBytes);
+        m.put("dataVersion", dataVersion.getAsLong());
+        return m;
+    }
+
+    private Entry current(String key) {
+        Entry e;
+        synchronized (entries) {
+            e = entries.get(key);
+        }
+        if (e == null || e.version != dataVersion.getAsLong() || System.nanoTime() - e.builtAt > maxAgeNanos) {
+            return null;
+        }
+        return e;
+    }
+
+    private Entry build(String key, Body body) throws SQLException {
+        // the version is read before the data, so a write meanwhile makes this entry stale
+        long version = dataVersion.getAsLong();
+        byte[] bytes;
+        try {
+            bytes = json.writeValueAsBytes(body.get());
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        byte[] gzip = gzip(bytes);
+        Entry e = new Entry(version, bytes, gzip.length < bytes.length ? gzip : null, hash(bytes));
+        synchronized (entries) {
+            entries.put(key, e);
+            if (entries.size() > maxEntries) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+        return e;
+    }
+
+    // first 128 bits of the body's SHA-256
+    static String hash(byte[] bytes) {
+        try {
+            byte[] sha = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(sha, 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // not for a byte array
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: its q-value, or that of "*"
+     * when gzip isn't listed, is above 0 ("gzip;q=0" refuses it).
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase();
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String p = params[i].trim();
+                if (p.startsWith("q=") || p.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(p.substring(2).trim());
+                    } catch (NumberFormatException ex) {
+                        q = 0; // malformed: don't guess
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = Math.max(any, q);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+}
@@ -0,0 +1,129 @@
+package com.planttracker.service.api;
+
+import com.planttracker.SqlStats;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Per-request SQL accounting (see SqlStats): how many statements and connections
+ * each request used and how long they took, so N+1 queries and read-before-write
+ * show up in normal traffic.
+ *
+ * Reported as a Server-Timing header (visible in the browser's network panel):
+ *   Server-Timing: sql;desc="3 statements";dur=4.12, conn;desc="1 connection";dur=2.05, total;dur=9.80
+ * and, with logging.level.com.planttracker.service.api.SqlTimingFilter=DEBUG, one
+ * log line per request. The header is added when the response body starts, i.e.
+ * after the controller returned; the log line has the final numbers.
+ */
+@Component
+public class SqlTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTimingFilter.class);
+
+    @Value("${planttracker.sql-timing.header:true}")
+    private boolean header;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!header && !log.isDebugEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        SqlStats stats = SqlStats.begin();
+        TimingResponse timed = header ? new TimingResponse(response, stats, start) : null;
+        try {
+            chain.doFilter(request, timed != null ? timed : response);
+        } finally {
+            if (timed != null && !response.isCommitted()) {
+                timed.addTiming();
+            }
+            SqlStats.end();
+            if (log.isDebugEnabled()) {
+                log.debug(String.format(Locale.ROOT, "%s %s -> %d: %d sql (%.2f ms), %d connections (%.2f ms), total %.2f ms",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        stats.getStatements(), stats.getStatementMillis(),
+                        stats.getConnections(), stats.getConnectMillis(),
+                        (System.nanoTime() - start) / 1e6));
+            }
+        }
+    }
+
+    static String serverTiming(SqlStats stats, long start) {
+        return String.format(Locale.ROOT,
+                "sql;desc=\"%d statement%s\";dur=%.2f, conn;desc=\"%d connection%s\";dur=%.2f, total;dur=%.2f",
+                stats.getStatements(), stats.getStatements() == 1 ? "" : "s", stats.getStatementMillis(),
+                stats.getConnections(), stats.getConnections() == 1 ? "" : "s", stats.getConnectMillis(),
+                (System.nanoTime() - start) / 1e6);
+    }
+
+    // Sets the header just before the response is committed (headers can't change after).
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+        private final SqlStats stats;
+        private final long start;
+        private boolean added;
+
+        TimingResponse(HttpServletResponse response, SqlStats stats, long start) {
+            super(response);
+            this.stats = stats;
+            this.start = start;
+        }
+
+        void addTiming() {
+            if (!added) {
+                added = true;
+                setHeader("Server-Timing", serverTiming(stats, start));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.planttracker.service.api;
+
+import com.planttracker.business.BusinessManager;
+import com.planttracker.model.InventoryStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.sql.SQLException;
+
+/**
+ * Inventory dashboard statistics (see PlantStatistics).
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final BusinessManager mgr;
+
+    public StatsController(BusinessManager mgr) {
+        this.mgr = mgr;
+    }
+
+    @GetMapping
+    public ResponseEntity<InventoryStats> getStats() throws SQLException {
+        return ResponseEntity.ok(mgr.getStatistics());
+    }
+
+    // Full recompute from the database
+    @PostMapping("/rebuild")
+    public ResponseEntity<InventoryStats> rebuild() throws SQLException {
+        return ResponseEntity.ok(mgr.rebuildStatistics());
+    }
+}
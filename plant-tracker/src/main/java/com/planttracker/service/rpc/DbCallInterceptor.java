@@ -0,0 +1,60 @@
+package com.planttracker.service.rpc;
+
+import com.planttracker.DbCancellation;
+import com.planttracker.DbLimiter;
+import com.planttracker.service.rpc.proto.PlantServiceGrpc;
+import io.grpc.Context;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+/**
+ * The gRPC side of DbLimitFilter: each call's database work goes to the read
+ * bulkhead (SavePlants: write) and gets a DbCancellation that is cancelled as
+ * soon as the client cancels the call or goes away, so its running statement is
+ * stopped instead of finishing for nobody.
+ */
+public class DbCallInterceptor implements ServerInterceptor {
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                      ServerCallHandler<Q, R> next) {
+        DbLimiter.Kind kind = PlantServiceGrpc.getSavePlantsMethod().getFullMethodName()
+                .equals(call.getMethodDescriptor().getFullMethodName()) ? DbLimiter.Kind.WRITE : DbLimiter.Kind.READ;
+        DbCancellation cancellation = new DbCancellation();
+        // the context is cancelled right away (on the transport thread) when the client cancels;
+        // also once the call is over, when there is nothing left to stop
+        Context.current().addListener(ctx -> cancellation.cancel("the client cancelled the call"), Runnable::run);
+
+        ServerCall.Listener<Q> delegate = next.startCall(call, headers);
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(delegate) {
+            @Override
+            public void onMessage(Q message) {
+                within(() -> super.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose() {
+                within(super::onHalfClose);
+            }
+
+            @Override
+            public void onReady() {
+                within(super::onReady);
+            }
+
+            private void within(Runnable r) {
+                DbLimiter.Kind previousKind = DbLimiter.use(kind);
+                DbCancellation previous = DbCancellation.use(cancellation);
+                try {
+                    r.run();
+                } finally {
+                    DbCancellation.use(previous);
+                    DbLimiter.use(previousKind);
+                }
+            }
+        };
+    }
+}
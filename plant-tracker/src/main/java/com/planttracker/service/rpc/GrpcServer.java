@@ -0,0 +1,52 @@
+package com.planttracker.service.rpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gRPC server next to the HTTP one; a port below 0 means no server. Every
+ * service's calls go through DbCallInterceptor.
+ */
+public class GrpcServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final Server server;
+
+    public GrpcServer(int port, BindableService... services) throws IOException {
+        if (port < 0) {
+            server = null;
+            return;
+        }
+        ServerBuilder<?> builder = ServerBuilder.forPort(port);
+        for (BindableService s : services) {
+            builder.addService(ServerInterceptors.intercept(s, new DbCallInterceptor()));
+        }
+        server = builder.build().start();
+        log.info("gRPC server listening on port {}", server.getPort());
+    }
+
+    /** The bound port, -1 when there is no server. */
+    public int getPort() {
+        return server != null ? server.getPort() : -1;
+    }
+
+    // running calls get 10 seconds to finish
+    @Override
+    public void close() throws InterruptedException {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        if (!server.awaitTermination(10, TimeUnit.SECONDS)) {
+            server.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.planttracker.service.rpc;
+
+import com.planttracker.business.BusinessManager;
+import com.planttracker.QueryCancelledException;
+import com.planttracker.dao.StaleVersionException;
+import com.planttracker.model.Care;
+import com.planttracker.model.Information;
+import com.planttracker.model.Location;
+import com.planttracker.model.Plant;
+import com.planttracker.model.PlantFilter;
+import com.planttracker.service.rpc.proto.GetPlantRequest;
+import com.planttracker.service.rpc.proto.ListPlantsRequest;
+import com.planttracker.service.rpc.proto.Parts;
+import com.planttracker.service.rpc.proto.PlantRecord;
+import com.planttracker.service.rpc.proto.PlantServiceGrpc;
+import com.planttracker.service.rpc.proto.SavePlantsResponse;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * gRPC counterpart of PlantController for machine clients (see plant_tracker.proto),
+ * backed by the same BusinessManager.
+ *
+ * ListPlants follows the client's flow control: records are produced only while
+ * the stream is ready, CHUNK plants at a time, with the requested parts of a chunk
+ * loaded in one query each (as for GraphQL). SavePlants writes each record as it
+ * arrives.
+ */
+public class PlantGrpcService extends PlantServiceGrpc.PlantServiceImplBase {
+
+    static final int CHUNK = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(PlantGrpcService.class);
+
+    private final BusinessManager mgr;
+
+    public PlantGrpcService(BusinessManager mgr) {
+        this.mgr = mgr;
+    }
+
+    @Override
+    public void getPlant(GetPlantRequest request, StreamObserver<PlantRecord> response) {
+        try {
+            Plant p = mgr.getPlant(request.getPlantId());
+            if (p == null) {
+                response.onError(Status.NOT_FOUND.withDescription("No plant " + request.getPlantId())
+                        .asRuntimeException());
+                return;
+            }
+            response.onNext(records(List.of(p), request.getParts()).get(0));
+            response.onCompleted();
+        } catch (SQLException e) {
+            response.onError(status(e));
+        }
+    }
+
+    @Override
+    public void listPlants(ListPlantsRequest request, StreamObserver<PlantRecord> response) {
+        PlantFilter filter = new PlantFilter();
+        filter.setType(request.getType());
+        filter.setLocationName(request.getLocationName());
+        List<Plant> plants = new ArrayList<>();
+        try {
+            for (Plant p : mgr.getAllPlants()) {
+                if (filter.matches(p)) {
+                    plants.add(p);
+                }
+            }
+        } catch (SQLException e) {
+            response.onError(status(e));
+            return;
+        }
+
+        ServerCallStreamObserver<PlantRecord> out = (ServerCallStreamObserver<PlantRecord>) response;
+        out.setOnCancelHandler(() -> log.debug("ListPlants cancelled by the client"));
+        out.setOnReadyHandler(new Runnable() {
+            // gRPC runs the handler on one thread at a time
+            private int next;
+            private List<PlantRecord> chunk = List.of();
+            private int inChunk;
+            private boolean done;
+
+            @Override
+            public void run() {
+                try {
+                    while (!done && !out.isCancelled() && out.isReady()) {
+                        if (inChunk == chunk.size()) {
+                            if (next == plants.size()) {
+                                done = true;
+                                out.onCompleted();
+                                return;
+                            }
+                            int end = Math.min(plants.size(), next + CHUNK);
+                            chunk = records(plants.subList(next, end), request.getParts());
+                            inChunk = 0;
+                            next = end;
+                        }
+                        out.onNext(chunk.get(inChunk++));
+                    }
+                } catch (SQLException e) {
+                    done = true;
+                    out.onError(status(e));
+                }
+            }
+        });
+    }
+
+    @Override
+    public StreamObserver<PlantRecord> savePlants(StreamObserver<SavePlantsResponse> response) {
+        return new StreamObserver<>() {
+            private final SavePlantsResponse.Builder result = SavePlantsResponse.newBuilder();
+            private boolean failed;
+
+            @Override
+            public void onNext(PlantRecord record) {
+                if (failed) {
+                    return;
+                }
+                try {
+                    result.addPlantIds(save(record));
+                    result.setSaved(result.getSaved() + 1);
+                } catch (SQLException | StatusRuntimeException e) {
+                    failed = true;
+                    StatusRuntimeException s = e instanceof StatusRuntimeException sre ? sre : status((SQLException) e);
+                    response.onError(s.getStatus()
+                            .augmentDescription("record " + (result.getSaved() + 1) + "; "
+                                    + result.getSaved() + " saved before it")
+                            .asRuntimeException());
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("SavePlants aborted by the client after {} records: {}", result.getSaved(), t.toString());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (!failed) {
+                    response.onNext(result.build());
+                    response.onCompleted();
+                }
+            }
+        };
+    }
+
+    // the plant, then its care / information / location when given; returns the plant id
+    private int save(PlantRecord record) throws SQLException {
+        Plant p = ProtoMapping.fromProto(record.getPlant());
+        if (p.getName() == null || p.getName().isBlank()) {
+            throw Status.INVALID_ARGUMENT.withDescription("every plant needs a name").asRuntimeException();
+        }
+        if (mgr.savePlantAndLocation(p) == null) {
+            throw Status.NOT_FOUND.withDescription("No plant " + p.getPlantId()).asRuntimeException();
+        }
+        int id = p.getPlantId();
+        if (record.hasCare()) {
+            Care c = ProtoMapping.fromProto(record.getCare());
+            c.setPlantId(id);
+            mgr.saveCare(c);
+        }
+        if (record.hasInformation()) {
+            Information i = ProtoMapping.fromProto(record.getInformation());
+            i.setPlantId(id);
+            mgr.saveInformation(i);
+        }
+        if (record.hasLocation()) {
+            Location l = ProtoMapping.fromProto(record.getLocation());
+            l.setPlantId(id);
+            mgr.saveLocation(l);
+        }
+        return id;
+    }
+
+    private List<PlantRecord> records(List<Plant> plants, Parts parts) throws SQLException {
+        List<Integer> ids = new ArrayList<>(plants.size());
+        for (Plant p : plants) {
+            ids.add(p.getPlantId());
+        }
+        Map<Integer, Care> care = parts.getCare() ? mgr.getCareByPlantId(ids) : Map.of();
+        Map<Integer, Information> info = parts.getInformation() ? mgr.getInformationByPlantId(ids) : Map.of();
+        Map<Integer, Location> location = parts.getLocation() ? mgr.getLocationsByPlantId(ids) : Map.of();
+
+        List<PlantRecord> out = new ArrayList<>(plants.size());
+        for (Plant p : plants) {
+            PlantRecord.Builder r = PlantRecord.newBuilder().setPlant(ProtoMapping.toProto(p));
+            Care c = care.get(p.getPlantId());
+            if (c != null) r.setCare(ProtoMapping.toProto(c));
+            Information i = info.get(p.getPlantId());
+            if (i != null) r.setInformation(ProtoMapping.toProto(i));
+            Location l = location.get(p.getPlantId());
+            if (l != null) r.setLocation(ProtoMapping.toProto(l));
+            out.add(r.build());
+        }
+        return out;
+    }
+
+    // same meaning as the HTTP statuses of ApiExceptionHandler
+    private static StatusRuntimeException status(SQLException e) {
+        if (e instanceof StaleVersionException) {
+            return Status.ABORTED.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof QueryCancelledException) {
+            return Status.DEADLINE_EXCEEDED.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.warn("gRPC call failed", e);
+        String state = e.getSQLState();
+        Status s = state != null && state.startsWith("08") ? Status.UNAVAILABLE : Status.INTERNAL;
+        return s.withDescription(e.getMessage()).withCause(e).asRuntimeException();
+    }
+}
@@ -0,0 +1,96 @@
+package com.planttracker.service.rpc;
+
+import com.planttracker.model.Care;
+import com.planttracker.model.Information;
+import com.planttracker.model.Location;
+import com.planttracker.model.Plant;
+
+import java.time.LocalDate;
+
+/**
+ * Model objects <-> generated protobuf messages (src/main/proto/plant_tracker.proto).
+ * Null fields are left unset; dates travel as epoch days.
+ */
+public final class ProtoMapping {
+
+    private ProtoMapping() { }
+
+    public static com.planttracker.service.rpc.proto.Plant toProto(Plant p) {
+        com.planttracker.service.rpc.proto.Plant.Builder b = com.planttracker.service.rpc.proto.Plant.newBuilder()
+                .setPlantId(p.getPlantId());
+        if (p.getName() != null) b.setName(p.getName());
+        if (p.getType() != null) b.setType(p.getType());
+        if (p.getHeight() != null) b.setHeight(p.getHeight());
+        if (p.getDateAcquired() != null) b.setDateAcquired((int) p.getDateAcquired().toEpochDay());
+        if (p.getLocationName() != null) b.setLocationName(p.getLocationName());
+        if (p.getVersion() != null) b.setVersion(p.getVersion());
+        return b.build();
+    }
+
+    public static Plant fromProto(com.planttracker.service.rpc.proto.Plant m) {
+        Plant p = new Plant(m.getPlantId(), m.getName(),
+                m.hasType() ? m.getType() : null,
+                m.hasHeight() ? m.getHeight() : null,
+                m.hasDateAcquired() ? LocalDate.ofEpochDay(m.getDateAcquired()) : null,
+                m.hasLocationName() ? m.getLocationName() : null);
+        p.setVersion(m.hasVersion() ? m.getVersion() : null);
+        return p;
+    }
+
+    public static com.planttracker.service.rpc.proto.Care toProto(Care c) {
+        com.planttracker.service.rpc.proto.Care.Builder b = com.planttracker.service.rpc.proto.Care.newBuilder()
+                .setPlantId(c.getPlantId());
+        if (c.getLastSoilChange() != null) b.setLastSoilChange((int) c.getLastSoilChange().toEpochDay());
+        if (c.getLastWatering() != null) b.setLastWatering((int) c.getLastWatering().toEpochDay());
+        if (c.getVersion() != null) b.setVersion(c.getVersion());
+        return b.build();
+    }
+
+    public static Care fromProto(com.planttracker.service.rpc.proto.Care m) {
+        Care c = new Care(m.getPlantId(),
+                m.hasLastSoilChange() ? LocalDate.ofEpochDay(m.getLastSoilChange()) : null,
+                m.hasLastWatering() ? LocalDate.ofEpochDay(m.getLastWatering()) : null);
+        c.setVersion(m.hasVersion() ? m.getVersion() : null);
+        return c;
+    }
+
+    public static com.planttracker.service.rpc.proto.Information toProto(Information i) {
+        com.planttracker.service.rpc.proto.Information.Builder b =
+                com.planttracker.service.rpc.proto.Information.newBuilder()
+                        .setPlantId(i.getPlantId())
+                        .setFromAnotherPlant(i.isFromAnotherPlant())
+                        .setWaterGlobeRequired(i.isWaterGlobeRequired());
+        if (i.getSoilType() != null) b.setSoilType(i.getSoilType());
+        if (i.getPotSize() != null) b.setPotSize(i.getPotSize());
+        if (i.getVersion() != null) b.setVersion(i.getVersion());
+        return b.build();
+    }
+
+    public static Information fromProto(com.planttracker.service.rpc.proto.Information m) {
+        Information i = new Information(m.getPlantId(), m.getFromAnotherPlant(),
+                m.hasSoilType() ? m.getSoilType() : null,
+                m.hasPotSize() ? m.getPotSize() : null,
+                m.getWaterGlobeRequired());
+        i.setVersion(m.hasVersion() ? m.getVersion() : null);
+        return i;
+    }
+
+    public static com.planttracker.service.rpc.proto.Location toProto(Location l) {
+        com.planttracker.service.rpc.proto.Location.Builder b =
+                com.planttracker.service.rpc.proto.Location.newBuilder().setPlantId(l.getPlantId());
+        if (l.getLocationId() != null) b.setLocationId(l.getLocationId());
+        if (l.getLocationName() != null) b.setLocationName(l.getLocationName());
+        if (l.getLightLevel() != null) b.setLightLevel(l.getLightLevel());
+        if (l.getVersion() != null) b.setVersion(l.getVersion());
+        return b.build();
+    }
+
+    public static Location fromProto(com.planttracker.service.rpc.proto.Location m) {
+        Location l = new Location(m.getPlantId(),
+                m.hasLocationName() ? m.getLocationName() : null,
+                m.hasLightLevel() ? m.getLightLevel() : null);
+        l.setLocationId(m.hasLocationId() ? m.getLocationId() : null);
+        l.setVersion(m.hasVersion() ? m.getVersion() : null);
+        return l;
+    }
+}
@@ -0,0 +1,118 @@
+package com.planttracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DbCircuitBreakerTest {
+
+    private static final SQLException DOWN = new SQLException("Connection refused", "08001");
+
+    private static String state(DbCircuitBreaker breaker) {
+        return (String) breaker.getStats().get("state");
+    }
+
+    @Test
+    void databaseFailuresAreTold() {
+        assertTrue(DbCircuitBreaker.isDatabaseFailure(DOWN));
+        assertTrue(DbCircuitBreaker.isDatabaseFailure(new SQLException("timeout", "57014")));
+        assertFalse(DbCircuitBreaker.isDatabaseFailure(new SQLException("duplicate key", "23505")));
+        assertFalse(DbCircuitBreaker.isDatabaseFailure(new SQLException("no state")));
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() throws Exception {
+        DbCircuitBreaker breaker = new DbCircuitBreaker(3, 30);
+        breaker.onFailure(DOWN);
+        breaker.onFailure(DOWN);
+        breaker.onSuccess(); // resets the count
+        breaker.onFailure(DOWN);
+        breaker.onFailure(DOWN);
+        breaker.allow();
+        assertEquals("CLOSED", state(breaker));
+
+        breaker.onFailure(DOWN);
+        assertEquals("OPEN", state(breaker));
+        DbCircuitOpenException e = assertThrows(DbCircuitOpenException.class, breaker::allow);
+        assertTrue(e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= 30, "" + e.getRetryAfterSeconds());
+        assertEquals(1L, breaker.getStats().get("rejected"));
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThrough() throws Exception {
+        DbCircuitBreaker breaker = new DbCircuitBreaker(1, 1);
+        breaker.onFailure(DOWN);
+        assertThrows(DbCircuitOpenException.class, breaker::allow);
+
+        Thread.sleep(1100);
+        assertDoesNotThrow(breaker::allow); // the probe
+        assertEquals("HALF_OPEN", state(breaker));
+        assertThrows(DbCircuitOpenException.class, breaker::allow); // everyone else waits for it
+
+        breaker.onSuccess();
+        assertEquals("CLOSED", state(breaker));
+        assertDoesNotThrow(breaker::allow);
+    }
+
+    @Test
+    void failedProbeOpensAgain() throws Exception {
+        DbCircuitBreaker breaker = new DbCircuitBreaker(5, 1);
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure(DOWN);
+        }
+        Thread.sleep(1100);
+        breaker.allow();
+        breaker.onFailure(DOWN); // one failure is enough while half open
+        assertEquals("OPEN", state(breaker));
+        assertEquals(2L, breaker.getStats().get("opened"));
+    }
+
+    @Test
+    void concurrentTrafficWithScatteredFailuresStaysClosed() throws Exception {
+        DbCircuitBreaker breaker = new DbCircuitBreaker(3, 30);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    try {
+                        breaker.allow();
+                    } catch (DbCircuitOpenException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    breaker.onSuccess();
+                }
+            });
+            threads[t].start();
+        }
+        breaker.onFailure(DOWN);
+        breaker.onSuccess(); // takes the slow path and resets the count
+        breaker.onFailure(DOWN);
+        breaker.onFailure(DOWN);
+        for (Thread t : threads) {
+            t.join();
+        }
+        breaker.onSuccess();
+        assertEquals("CLOSED", state(breaker));
+        assertEquals(0, breaker.getStats().get("consecutiveFailures"));
+        assertEquals(0L, breaker.getStats().get("opened"));
+    }
+
+    @Test
+    void installAndClose() {
+        DbCircuitBreaker breaker = new DbCircuitBreaker(1, 1);
+        DbCircuitBreaker.install(breaker);
+        try {
+            assertEquals(breaker, DbCircuitBreaker.installed());
+        } finally {
+            breaker.close();
+        }
+        assertNull(DbCircuitBreaker.installed());
+    }
+}
@@ -0,0 +1,127 @@
+package com.planttracker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DbLimiterTest {
+
+    private static final Connection FAKE = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class }, (proxy, method, args) -> null);
+
+    @AfterEach
+    void clearKind() {
+        DbLimiter.use(null);
+    }
+
+    private static DbLimiter limiter(int max, long latencyTargetMillis) {
+        return new DbLimiter(Map.of(DbLimiter.Kind.READ, new DbLimiter.Settings(max, 0, latencyTargetMillis)), 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int limit(DbLimiter limiter) {
+        return (int) ((Map<String, Object>) limiter.getStats().get("read")).get("limit");
+    }
+
+    // a READ connection opened on its own thread, so it holds its own permit
+    private static Connection open(DbLimiter limiter) throws Exception {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                DbLimiter.use(DbLimiter.Kind.READ);
+                try {
+                    return limiter.limit(() -> FAKE);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    DbLimiter.use(null);
+                }
+            }).get();
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause().getCause();
+        }
+    }
+
+    private static void fail(DbLimiter limiter) {
+        DbLimiter.use(DbLimiter.Kind.READ);
+        assertThrows(SQLException.class, () -> limiter.limit(() -> {
+            throw new SQLException("refused", "08001");
+        }));
+    }
+
+    @Test
+    void threadsWithoutAKindAreNotLimited() throws Exception {
+        DbLimiter limiter = limiter(1, 250);
+        assertSame(FAKE, limiter.limit(() -> FAKE));
+        assertSame(FAKE, limiter.limit(() -> FAKE));
+    }
+
+    @Test
+    void fullBulkheadRejects() throws Exception {
+        DbLimiter limiter = limiter(1, 250);
+        Connection held = open(limiter);
+        DbOverloadedException e = assertInstanceOf(DbOverloadedException.class,
+                assertThrows(SQLException.class, () -> open(limiter)));
+        assertEquals(DbLimiter.Kind.READ, e.getKind());
+        assertEquals(2, e.getRetryAfterSeconds());
+
+        held.close();
+        open(limiter).close();
+    }
+
+    @Test
+    void nestedConnectionsShareThePermit() throws Exception {
+        DbLimiter limiter = limiter(1, 250);
+        DbLimiter.use(DbLimiter.Kind.READ);
+        Connection outer = limiter.limit(() -> FAKE);
+        Connection inner = limiter.limit(() -> FAKE);
+        inner.close();
+        inner.close(); // a second close gives nothing back
+        assertThrows(DbOverloadedException.class, () -> open(limiter));
+        outer.close();
+        open(limiter).close();
+    }
+
+    @Test
+    void failuresLowerTheLimitOncePerWindow() {
+        DbLimiter limiter = limiter(10, 0);
+        fail(limiter);
+        assertEquals(9, limit(limiter));
+        fail(limiter); // same window (1 s without a latency target)
+        assertEquals(9, limit(limiter));
+    }
+
+    @Test
+    void slowCallsLowerTheLimit() throws Exception {
+        DbLimiter limiter = limiter(10, 1);
+        Connection c = open(limiter);
+        Thread.sleep(20);
+        c.close();
+        assertEquals(9, limit(limiter));
+    }
+
+    @Test
+    void fastCallsUnderLoadRaiseTheLimitBackToMax() throws Exception {
+        DbLimiter limiter = limiter(4, 0);
+        fail(limiter);
+        assertEquals(3, limit(limiter));
+
+        for (int i = 0; i < 3; i++) {
+            Connection a = open(limiter);
+            Connection b = open(limiter);
+            a.close(); // released with half the limit in use: + 1 / limit
+            b.close();
+        }
+        assertEquals(4, limit(limiter));
+    }
+}
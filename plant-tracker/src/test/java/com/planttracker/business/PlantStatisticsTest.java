@@ -0,0 +1,124 @@
+package com.planttracker.business;
+
+import com.planttracker.model.Care;
+import com.planttracker.model.InventoryStats;
+import com.planttracker.model.Plant;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlantStatisticsTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    // the "database": what a rebuild would load
+    private final Map<Integer, Plant> plants = new LinkedHashMap<>();
+    private final Map<Integer, Care> care = new LinkedHashMap<>();
+
+    private Plant savePlant(PlantStatistics stats, int id, String type, double height, String room) {
+        Plant p = new Plant(id, "P" + id, type, height, TODAY.minusMonths(id), room);
+        plants.put(id, p);
+        stats.onPlantSaved(p);
+        return p;
+    }
+
+    private void saveCare(PlantStatistics stats, int id, int daysAgo) {
+        Care c = new Care(id, null, TODAY.minusDays(daysAgo));
+        care.put(id, c);
+        stats.onCareSaved(c);
+    }
+
+    private void deletePlant(PlantStatistics stats, int id) {
+        plants.remove(id);
+        care.remove(id);
+        stats.onPlantDeleted(id);
+    }
+
+    private void renameRoom(PlantStatistics stats, String from, String to) {
+        for (Plant p : plants.values()) {
+            if (from.equals(p.getLocationName())) {
+                p.setLocationName(to);
+            }
+        }
+        stats.onLocationRenamed(from, to);
+    }
+
+    private InventoryStats fresh() {
+        PlantStatistics s = new PlantStatistics(7);
+        s.rebuild(s.beginRebuild(), new ArrayList<>(plants.values()), new ArrayList<>(care.values()));
+        return s.get();
+    }
+
+    private static void assertSameStats(InventoryStats expected, InventoryStats actual) {
+        assertEquals(expected.getTotalPlants(), actual.getTotalPlants());
+        assertEquals(expected.getByType(), actual.getByType());
+        assertEquals(expected.getByLocation(), actual.getByLocation());
+        assertEquals(expected.getHeightDistribution(), actual.getHeightDistribution());
+        assertEquals(expected.getAcquiredByMonth(), actual.getAcquiredByMonth());
+        assertEquals(expected.getOverdueForWater(), actual.getOverdueForWater());
+        assertEquals(expected.getNeverWatered(), actual.getNeverWatered());
+    }
+
+    @Test
+    void incrementalUpdatesMatchARebuild() {
+        PlantStatistics stats = new PlantStatistics(7);
+        stats.rebuild(stats.beginRebuild(), List.of(), List.of());
+
+        for (int id = 1; id <= 20; id++) {
+            savePlant(stats, id, id % 3 == 0 ? "Fern" : "Cactus", id * 9.0, id % 2 == 0 ? "Kitchen" : "Hall");
+            if (id % 4 != 0) {
+                saveCare(stats, id, id);
+            }
+        }
+        savePlant(stats, 5, "Palm", 160.0, "Attic");
+        saveCare(stats, 5, 0);
+        deletePlant(stats, 6);
+        renameRoom(stats, "Kitchen", "Galley");
+        Plant moved = plants.get(7);
+        moved.setLocationName(null);
+        stats.onLocationChanged(7, null);
+        care.remove(8);
+        stats.onCareDeleted(8);
+
+        assertSameStats(fresh(), stats.get());
+        assertEquals(19, stats.get().getTotalPlants());
+    }
+
+    @Test
+    void writesReportedDuringALoadAreReplayed() {
+        savePlant(new PlantStatistics(7), 1, "Fern", 10.0, "Hall");
+        PlantStatistics stats = new PlantStatistics(7);
+        assertFalse(stats.isLoaded());
+
+        int token = stats.beginRebuild();
+        List<Plant> loaded = new ArrayList<>(plants.values()); // the scan sees plant 1 only
+        List<Care> loadedCare = new ArrayList<>(care.values());
+        savePlant(stats, 2, "Palm", 60.0, "Kitchen");        // written after the scan read its rows
+        saveCare(stats, 1, 30);
+        renameRoom(stats, "Hall", "Porch");
+        stats.rebuild(token, loaded, loadedCare);
+
+        assertTrue(stats.isLoaded());
+        assertSameStats(fresh(), stats.get());
+        assertEquals(Map.of("Porch", 1L, "Kitchen", 1L), stats.get().getByLocation());
+        assertEquals(1, stats.get().getOverdueForWater());
+    }
+
+    @Test
+    void cancelledLoadStopsRecording() {
+        PlantStatistics stats = new PlantStatistics(7);
+        stats.cancelRebuild(stats.beginRebuild());
+        savePlant(stats, 1, "Fern", 10.0, "Hall"); // not loaded, not recording: ignored
+
+        stats.rebuild(stats.beginRebuild(), List.of(), List.of());
+        assertEquals(0, stats.get().getTotalPlants());
+    }
+}
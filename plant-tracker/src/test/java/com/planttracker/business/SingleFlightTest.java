@@ -0,0 +1,139 @@
+package com.planttracker.business;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final SingleFlight<String, List<String>> flights = new SingleFlight<>(version::get, ArrayList::new);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        pool.shutdownNow();
+    }
+
+    // a call that holds the flight open until release, returning the version it started at
+    private SingleFlight.Call<List<String>> blocking() {
+        return () -> {
+            long v = version.get();
+            calls.incrementAndGet();
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            }
+            return new ArrayList<>(List.of("v" + v));
+        };
+    }
+
+    private Future<List<String>> submit(SingleFlight.Call<List<String>> call) {
+        return pool.submit(() -> flights.execute("k", call));
+    }
+
+    // wait until the flight has a follower (or more) queued on it
+    private void awaitCollapsed(long n) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.getCollapsed() < n && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(n, flights.getCollapsed());
+    }
+
+    @Test
+    void followerAtTheSameVersionJoins() throws Exception {
+        Future<List<String>> leader = submit(blocking());
+        running.await();
+        Future<List<String>> follower = submit(blocking());
+        awaitCollapsed(1);
+        release.countDown();
+
+        assertEquals(List.of("v0"), leader.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("v0"), follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1, flights.getExecuted());
+    }
+
+    @Test
+    void callerAfterAWriteStartsItsOwnFlight() throws Exception {
+        Future<List<String>> before = submit(blocking());
+        running.await();
+        version.incrementAndGet();
+
+        // runs on its own while the old flight is still open
+        List<String> after = flights.execute("k", () -> List.of("v" + version.get()));
+        assertEquals(List.of("v1"), after);
+        assertEquals(0, flights.getCollapsed());
+
+        release.countDown();
+        assertEquals(List.of("v0"), before.get(5, TimeUnit.SECONDS));
+        assertEquals(2, flights.getExecuted());
+    }
+
+    @Test
+    void everyCallerGetsItsOwnCopy() throws Exception {
+        Future<List<String>> leader = submit(blocking());
+        running.await();
+        Future<List<String>> a = submit(blocking());
+        Future<List<String>> b = submit(blocking());
+        awaitCollapsed(2);
+        release.countDown();
+
+        List<String> l = leader.get(5, TimeUnit.SECONDS);
+        List<String> x = a.get(5, TimeUnit.SECONDS);
+        List<String> y = b.get(5, TimeUnit.SECONDS);
+        assertNotSame(l, x);
+        assertNotSame(x, y);
+        x.add("changed by a");
+        assertEquals(List.of("v0"), l);
+        assertEquals(List.of("v0"), y);
+    }
+
+    @Test
+    void leaderFailureReachesFollowers() throws Exception {
+        Future<List<String>> leader = submit(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            }
+            throw new SQLException("connection lost", "08006");
+        });
+        running.await();
+        Future<List<String>> follower = submit(blocking());
+        awaitCollapsed(1);
+        release.countDown();
+
+        for (Future<List<String>> f : List.of(leader, follower)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(SQLException.class, e.getCause());
+            assertEquals("08006", ((SQLException) e.getCause()).getSQLState());
+        }
+        assertEquals(0, flights.getInFlight());
+        assertEquals(List.of("v0"), flights.execute("k", () -> List.of("v0"))); // next call runs normally
+    }
+}
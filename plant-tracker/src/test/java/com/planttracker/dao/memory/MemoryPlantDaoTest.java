@@ -0,0 +1,106 @@
+package com.planttracker.dao.memory;
+
+import com.planttracker.dao.StaleVersionException;
+import com.planttracker.model.BulkLocationResult;
+import com.planttracker.model.Plant;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MemoryPlantDaoTest {
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final MemoryPlantDao plants = new MemoryPlantDao(store);
+    private final MemoryLocationDao locations = new MemoryLocationDao(store);
+
+    private static Plant plant(String name, String room) {
+        return new Plant(0, name, "Fern", 10.0, LocalDate.of(2024, 1, 1), room);
+    }
+
+    @Test
+    void updateChecksTheVersion() throws Exception {
+        int id = plants.insert(plant("A", "Kitchen"));
+        Plant p = plants.findById(id);
+        p.setHeight(12.0);
+        assertEquals(1, plants.update(p));
+        assertEquals(1, p.getVersion());
+
+        Plant stale = plants.findById(id);
+        stale.setVersion(0);
+        assertThrows(StaleVersionException.class, () -> plants.update(stale));
+        assertEquals(12.0, plants.findById(id).getHeight());
+    }
+
+    @Test
+    void failedUpdatesDontCreateRooms() throws Exception {
+        int id = plants.insert(plant("A", "Kitchen"));
+
+        Plant missing = plant("B", "Attic");
+        missing.setPlantId(id + 100);
+        assertEquals(0, plants.update(missing));
+
+        Plant stale = plants.findById(id);
+        stale.setLocationName("Cellar");
+        stale.setVersion(5);
+        assertThrows(StaleVersionException.class, () -> plants.update(stale));
+
+        assertEquals(0, store.locationId("Attic"));
+        assertEquals(0, store.locationId("Cellar"));
+    }
+
+    @Test
+    void concurrentInsertsShareOneRoom() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> ids = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String name = "P" + i;
+                ids.add(pool.submit(() -> plants.insert(plant(name, "Greenhouse"))));
+            }
+            for (Future<Integer> f : ids) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        int room = store.locationId("Greenhouse");
+        assertEquals(200, store.plantIdsByLocation.get(room).size());
+        assertEquals(1, store.locations.values().size());
+    }
+
+    @Test
+    void renameMovesTheNameIndex() throws Exception {
+        int id = plants.insert(plant("A", "Kitchen"));
+        int room = store.locationId("Kitchen");
+
+        assertEquals(1, locations.renameLocation("Kitchen", "Galley"));
+        assertEquals(0, store.locationId("Kitchen"));
+        assertEquals(room, store.locationId("Galley"));
+        assertEquals("Galley", plants.findById(id).getLocationName());
+    }
+
+    @Test
+    void mergeDropsTheOldRoom() throws Exception {
+        int a = plants.insert(plant("A", "Kitchen"));
+        plants.insert(plant("B", "Galley"));
+        int kitchen = store.locationId("Kitchen");
+
+        BulkLocationResult result = new BulkLocationResult();
+        locations.renameOrMerge("Kitchen", "Galley", result);
+
+        assertEquals(1, result.getLocationsDeleted());
+        assertEquals(0, store.locationId("Kitchen"));
+        assertNull(store.locations.get(kitchen));
+        assertNull(plants.findById(a).getLocationName()); // not moved first, so it lost its room
+        assertNull(store.plantIdsByLocation.get(kitchen));
+    }
+}
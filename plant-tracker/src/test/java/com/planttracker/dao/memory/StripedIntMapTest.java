@@ -0,0 +1,74 @@
+package com.planttracker.dao.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StripedIntMapTest {
+
+    @Test
+    void computeIsAtomicPerKey() throws Exception {
+        StripedIntMap<Integer> map = new StripedIntMap<>(8);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < 3_200; i++) {
+                        map.compute(i % 32, cur -> cur == null ? 1 : cur + 1);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        int[] total = { 0 };
+        map.forEach((k, v) -> total[0] += v);
+        assertEquals(8 * 3_200, total[0]);
+        assertEquals(8 * 100, map.get(5));
+    }
+
+    @Test
+    void computeReturningNullRemoves() throws Exception {
+        StripedIntMap<String> map = new StripedIntMap<>(4);
+        map.put(7, "a");
+        assertNull(map.compute(7, cur -> null));
+        assertNull(map.get(7));
+        assertNull(map.compute(8, cur -> null)); // absent stays absent
+        assertEquals(0, map.values().size());
+    }
+
+    @Test
+    void keysSpreadOverStripesAndAreAllVisited() {
+        StripedIntMap<Integer> map = new StripedIntMap<>(5); // rounded up to 8
+        for (int k = -50; k <= 1000; k += 7) {
+            map.put(k, k);
+        }
+        assertEquals(151, map.values().size());
+        assertEquals(1000, map.maxKey());
+    }
+
+    @Test
+    void lockAllLetsTheHolderUseSingleKeyMethods() throws Exception {
+        StripedIntMap<String> map = new StripedIntMap<>(4);
+        map.lockAll();
+        try {
+            map.put(1, "x");
+            assertEquals("xy", map.compute(1, cur -> cur + "y"));
+        } finally {
+            map.unlockAll();
+        }
+        assertEquals("xy", map.get(1));
+    }
+}
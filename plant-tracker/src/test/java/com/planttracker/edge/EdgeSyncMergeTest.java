@@ -0,0 +1,101 @@
+package com.planttracker.edge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EdgeSyncMergeTest {
+
+    @TempDir
+    Path dir;
+
+    private EdgeNode node;
+
+    @AfterEach
+    void close() throws Exception {
+        if (node != null) {
+            node.close();
+        }
+    }
+
+    private EdgeSync sync(EdgeSync.ConflictPolicy policy) throws Exception {
+        node = EdgeNode.open(dir);
+        return new EdgeSync(node, null, policy, 10, null); // merge never touches the central database
+    }
+
+    private static Map<String, Object> plant(String name, Double height, int version) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("plantId", 1);
+        m.put("name", name);
+        m.put("height", height);
+        m.put("version", version);
+        return m;
+    }
+
+    @Test
+    void changesOnDifferentFieldsAreCombined() throws Exception {
+        EdgeSync sync = sync(EdgeSync.ConflictPolicy.CENTRAL);
+        Map<String, Object> base = plant("Fern", 10.0, 3);
+        Map<String, Object> local = plant("Big fern", 10.0, 3);
+        Map<String, Object> remote = plant("Fern", 14.0, 4);
+
+        Map<String, Object> merged = sync.merge(EdgeNode.PLANT, 1, base, local, remote);
+
+        assertEquals("Big fern", merged.get("name"));
+        assertEquals(14.0, merged.get("height"));
+        assertEquals(4, merged.get("version")); // the central row's, for the compare-and-set
+        assertEquals(0L, sync.getStatus().get("conflicts"));
+    }
+
+    @Test
+    void sameFieldChangedOnBothSidesFollowsThePolicy() throws Exception {
+        Map<String, Object> base = plant("Fern", 10.0, 3);
+        Map<String, Object> local = plant("Edge", 10.0, 3);
+        Map<String, Object> remote = plant("Central", 10.0, 4);
+
+        EdgeSync central = sync(EdgeSync.ConflictPolicy.CENTRAL);
+        assertEquals("Central", central.merge(EdgeNode.PLANT, 1, base, local, remote).get("name"));
+        assertEquals(1L, central.getStatus().get("conflicts"));
+        assertEquals(1, ((List<?>) central.getStatus().get("recentConflicts")).size());
+
+        EdgeSync edge = new EdgeSync(node, null, EdgeSync.ConflictPolicy.LOCAL, 10, null);
+        assertEquals("Edge", edge.merge(EdgeNode.PLANT, 1, base, local, remote).get("name"));
+    }
+
+    @Test
+    void careDatesKeepTheLaterDate() throws Exception {
+        EdgeSync sync = sync(EdgeSync.ConflictPolicy.CENTRAL);
+        Map<String, Object> base = Map.of("plantId", 1, "lastWatering", "2024-05-01", "version", 1);
+        Map<String, Object> local = Map.of("plantId", 1, "lastWatering", "2024-05-09", "version", 1);
+        Map<String, Object> remote = Map.of("plantId", 1, "lastWatering", "2024-05-03", "version", 2);
+
+        assertEquals("2024-05-09", sync.merge(EdgeNode.CARE, 1, base, local, remote).get("lastWatering"));
+        assertEquals(0L, sync.getStatus().get("conflicts"));
+    }
+
+    @Test
+    void deletesAndNewRows() throws Exception {
+        EdgeSync sync = sync(EdgeSync.ConflictPolicy.CENTRAL);
+        Map<String, Object> base = plant("Fern", 10.0, 3);
+        Map<String, Object> local = plant("Fern", 10.0, 3);
+
+        // new on the edge: inserted as is
+        assertSame(local, sync.merge(EdgeNode.PLANT, 1, null, local, null));
+        // deleted on the edge, unchanged centrally: delete
+        assertNull(sync.merge(EdgeNode.PLANT, 1, base, null, plant("Fern", 10.0, 3)));
+        // deleted on the edge but changed centrally: a conflict, central wins
+        assertEquals("Palm", sync.merge(EdgeNode.PLANT, 1, base, null, plant("Palm", 10.0, 4)).get("name"));
+        // changed on the edge but deleted centrally: a conflict, central wins
+        assertNull(sync.merge(EdgeNode.PLANT, 1, base, plant("Palm", 10.0, 3), null));
+        assertEquals(2L, sync.getStatus().get("conflicts"));
+    }
+}
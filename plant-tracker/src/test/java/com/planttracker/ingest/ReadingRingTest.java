@@ -0,0 +1,97 @@
+package com.planttracker.ingest;
+
+import com.planttracker.model.MeasurementBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadingRingTest {
+
+    // n readings of plantId, micros numbered from first
+    private static MeasurementBatch batch(int plantId, int first, int n) {
+        MeasurementBatch b = new MeasurementBatch(n);
+        for (int i = 0; i < n; i++) {
+            b.add(plantId, (short) 0, first + i, first + i);
+        }
+        return b;
+    }
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new ReadingRing(5).capacity());
+        assertEquals(8, new ReadingRing(8).capacity());
+        assertEquals(4, new ReadingRing(0).capacity()); // the smallest ring
+    }
+
+    @Test
+    void offerIsAllOrNothingUnlessPartial() {
+        ReadingRing ring = new ReadingRing(8);
+        assertEquals(6, ring.offer(batch(1, 0, 6), false));
+        assertEquals(0, ring.offer(batch(1, 6, 3), false));
+        assertEquals(6, ring.size());
+        assertEquals(2, ring.offer(batch(1, 6, 3), true));
+        assertEquals(0, ring.offer(batch(1, 8, 1), true));
+        assertEquals(8, ring.size());
+    }
+
+    @Test
+    void drainKeepsOrderAcrossTheWrap() {
+        ReadingRing ring = new ReadingRing(4);
+        MeasurementBatch out = new MeasurementBatch(64);
+        int next = 0;
+        for (int round = 0; round < 10; round++) {
+            assertEquals(3, ring.offer(batch(1, next, 3), false));
+            next += 3;
+            assertEquals(2, ring.drainTo(out, 2));
+            assertEquals(1, ring.drainTo(out, 10));
+        }
+        assertEquals(30, out.size());
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i, out.micros(i));
+        }
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 5_000;
+        ReadingRing ring = new ReadingRing(256);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int plantId = p;
+            Thread t = new Thread(() -> {
+                int sent = 0;
+                while (sent < perProducer) {
+                    sent += ring.offer(batch(plantId, sent, Math.min(7, perProducer - sent)), true);
+                    Thread.onSpinWait();
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+
+        // each producer's readings arrive complete and in its own order
+        long[] expected = new long[producers];
+        MeasurementBatch out = new MeasurementBatch(64);
+        int total = 0;
+        while (total < producers * perProducer) {
+            out.clear();
+            int n = ring.drainTo(out, out.capacity());
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected[out.plantId(i)]++, out.micros(i));
+            }
+            total += n;
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (long e : expected) {
+            assertEquals(perProducer, e);
+        }
+        assertEquals(0, ring.size());
+    }
+}
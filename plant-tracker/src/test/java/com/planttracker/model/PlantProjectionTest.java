@@ -0,0 +1,64 @@
+package com.planttracker.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlantProjectionTest {
+
+    @Test
+    void nothingAskedForIsEveryPlantField() {
+        PlantProjection p = PlantProjection.parse(null, " ");
+        assertEquals(Set.copyOf(PlantProjection.PLANT_FIELDS), p.getPlantFields());
+        assertTrue(p.getIncludes().isEmpty());
+    }
+
+    @Test
+    void plainFieldsKeepModelOrderAndPlantId() {
+        PlantProjection p = PlantProjection.parse(" locationName , name,,", null);
+        assertEquals(List.of("plantId", "name", "locationName"), List.copyOf(p.getPlantFields()));
+    }
+
+    @Test
+    void dottedFieldsPickFromAnInclude() {
+        PlantProjection p = PlantProjection.parse("name,care.lastWatering", "location");
+        assertEquals(List.of("plantId", "name"), List.copyOf(p.getPlantFields()));
+        assertEquals(List.of("care", "location"), List.copyOf(p.getIncludes().keySet()));
+        assertEquals(Set.of("lastWatering"), p.getIncludes().get("care"));
+        assertEquals(PlantProjection.INCLUDE_FIELDS.get("location"), List.copyOf(p.getIncludes().get("location")));
+        assertFalse(p.includes("information"));
+    }
+
+    @Test
+    void unknownNamesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PlantProjection.parse("colour", null));
+        assertThrows(IllegalArgumentException.class, () -> PlantProjection.parse(null, "photos"));
+        assertThrows(IllegalArgumentException.class, () -> PlantProjection.parse("care.colour", null));
+        assertThrows(IllegalArgumentException.class, () -> PlantProjection.parse("pots.size", null));
+    }
+
+    @Test
+    void projectNestsIncludedRows() {
+        PlantProjection p = PlantProjection.parse("name,care.lastWatering", "location");
+        Plant plant = new Plant(7, "Fern", "Fern", 10.0, LocalDate.of(2024, 1, 1), "Kitchen");
+        Care care = new Care(7, null, LocalDate.of(2024, 5, 9));
+
+        Map<String, Object> out = p.project(plant, care, null, null);
+
+        assertEquals(7, out.get("plantId"));
+        assertEquals("Fern", out.get("name"));
+        assertFalse(out.containsKey("height"));
+        assertEquals(Map.of("lastWatering", LocalDate.of(2024, 5, 9)), out.get("care"));
+        assertTrue(out.containsKey("location"));
+        assertNull(out.get("location"));
+    }
+}
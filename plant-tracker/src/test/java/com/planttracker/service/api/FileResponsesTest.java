@@ -0,0 +1,90 @@
+package com.planttracker.service.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileResponsesTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void singleRanges() {
+        assertArrayEquals(new long[] { 0, 100 }, FileResponses.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[] { 500, 1000 }, FileResponses.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[] { 900, 1000 }, FileResponses.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[] { 0, 1000 }, FileResponses.parseRange("bytes=-5000", 1000));
+        assertArrayEquals(new long[] { 990, 1000 }, FileResponses.parseRange(" bytes=990-2000 ", 1000));
+    }
+
+    @Test
+    void unsatisfiableRanges() {
+        assertNull(FileResponses.parseRange("bytes=1000-", 1000));
+        assertNull(FileResponses.parseRange("bytes=-0", 1000));
+        assertNull(FileResponses.parseRange("bytes=-10", 0));
+    }
+
+    @Test
+    void rangesThatAreIgnored() {
+        assertEquals(0, FileResponses.parseRange("bytes=0-1,5-9", 1000).length);
+        assertEquals(0, FileResponses.parseRange("items=0-5", 1000).length);
+        assertEquals(0, FileResponses.parseRange("bytes=5-2", 1000).length);
+        assertEquals(0, FileResponses.parseRange("bytes=a-b", 1000).length);
+        assertEquals(0, FileResponses.parseRange("bytes=7", 1000).length);
+    }
+
+    @Test
+    void sendsPartialContent() throws Exception {
+        Path file = Files.writeString(dir.resolve("f"), "0123456789");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/photo");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileResponses.send(request, response, file, "image/jpeg", "abc");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals("2345", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void staleIfRangeSendsTheWholeFile() throws Exception {
+        Path file = Files.writeString(dir.resolve("f"), "0123456789");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/photo");
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"other\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileResponses.send(request, response, file, "image/jpeg", "abc");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void matchingETagGives304AndOutOfRangeGives416() throws Exception {
+        Path file = Files.writeString(dir.resolve("f"), "0123456789");
+        MockHttpServletRequest cached = new MockHttpServletRequest("GET", "/photo");
+        cached.addHeader("If-None-Match", "\"x\", W/\"abc\"");
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        FileResponses.send(cached, notModified, file, "image/jpeg", "abc");
+        assertEquals(304, notModified.getStatus());
+
+        MockHttpServletRequest past = new MockHttpServletRequest("GET", "/photo");
+        past.addHeader("Range", "bytes=10-");
+        MockHttpServletResponse unsatisfiable = new MockHttpServletResponse();
+        FileResponses.send(past, unsatisfiable, file, "image/jpeg", "abc");
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */10", unsatisfiable.getHeader("Content-Range"));
+    }
+}
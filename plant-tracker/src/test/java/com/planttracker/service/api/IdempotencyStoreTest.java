@@ -0,0 +1,145 @@
+package com.planttracker.service.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+    @Test
+    void duplicateGetsTheOriginalResponse() throws SQLException {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 5);
+        AtomicInteger runs = new AtomicInteger();
+        IdempotencyStore.Action<Integer> action = () -> ResponseEntity.status(HttpStatus.CREATED).body(runs.incrementAndGet());
+
+        ResponseEntity<Integer> first = store.execute("k", "body", action);
+        ResponseEntity<Integer> second = store.execute("k", "body", action);
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals(1, second.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void reusedKeyWithAnotherBodyIsRejected() throws SQLException {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 5);
+        store.execute("k", "body", () -> ResponseEntity.ok("a"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> store.execute("k", "other", () -> ResponseEntity.ok("b")));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void failedWriteReleasesTheKey() throws SQLException {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 5);
+        assertThrows(SQLException.class, () -> store.execute("k", "body", () -> {
+            throw new SQLException("down");
+        }));
+        assertEquals(0, store.size());
+
+        assertEquals("retried", store.execute("k", "body", () -> ResponseEntity.ok("retried")).getBody());
+    }
+
+    @Test
+    void duplicateOfARunningWriteGives409AfterTheWait() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leader = new Thread(() -> {
+            try {
+                store.execute("k", "body", () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new SQLException(e);
+                    }
+                    return ResponseEntity.ok("done");
+                });
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        leader.start();
+        started.await();
+        try {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> store.execute("k", "body", () -> ResponseEntity.ok("again")));
+            assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        } finally {
+            release.countDown();
+            leader.join();
+        }
+        assertEquals("done", store.execute("k", "body", () -> ResponseEntity.ok("again")).getBody());
+    }
+
+    @Test
+    void oldestCompletedEntriesAreEvictedWhenFull() throws SQLException {
+        IdempotencyStore store = new IdempotencyStore(60, 3, 5);
+        for (int i = 0; i < 10; i++) {
+            store.execute("k" + i, "body", () -> ResponseEntity.ok("x"));
+        }
+        assertTrue(store.size() <= 3, "size " + store.size());
+
+        AtomicInteger runs = new AtomicInteger();
+        store.execute("k0", "body", () -> ResponseEntity.ok(runs.incrementAndGet()));
+        assertEquals(1, runs.get()); // evicted, so it runs again
+    }
+
+    @Test
+    void expiredEntriesArePurgedOnTheNextWrite() throws SQLException {
+        IdempotencyStore store = new IdempotencyStore(0, 100, 5);
+        store.execute("a", "body", () -> ResponseEntity.ok("x"));
+        store.execute("b", "body", () -> ResponseEntity.ok("x"));
+        assertEquals(1, store.size()); // only b, a had expired
+    }
+
+    @Test
+    void runningWriteKeepsItsKeyWhenFull() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(60, 2, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slow = new Thread(() -> {
+            try {
+                store.execute("slow", "body", () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new SQLException(e);
+                    }
+                    return ResponseEntity.ok("slow");
+                });
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        slow.start();
+        started.await();
+        try {
+            for (int i = 0; i < 5; i++) {
+                store.execute("k" + i, "body", () -> ResponseEntity.ok("x"));
+            }
+            // still running, so a duplicate still finds it
+            assertThrows(ResponseStatusException.class,
+                    () -> store.execute("slow", "body", () -> ResponseEntity.ok("again")));
+        } finally {
+            release.countDown();
+            slow.join();
+        }
+        assertEquals("slow", store.execute("slow", "body", () -> ResponseEntity.ok("again")).getBody());
+    }
+}
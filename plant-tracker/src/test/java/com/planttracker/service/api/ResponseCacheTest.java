@@ -0,0 +1,163 @@
+package com.planttracker.service.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger builds = new AtomicInteger();
+    private final ResponseCache cache = new ResponseCache(new ObjectMapper(), version::get, 3600, 2);
+
+    private MockHttpServletResponse get(String key, String ifNoneMatch, boolean gzip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/plants");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        if (gzip) {
+            request.addHeader("Accept-Encoding", "gzip, deflate");
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.send(request, response, key, () -> {
+            builds.incrementAndGet();
+            return List.of(Map.of("name", "Fern " + version.get()), Map.of("name", "x".repeat(200)));
+        });
+        return response;
+    }
+
+    @Test
+    void hitsServeTheStoredBodyUntilTheVersionChanges() throws Exception {
+        MockHttpServletResponse first = get("all", null, false);
+        MockHttpServletResponse second = get("all", null, false);
+        assertEquals(1, builds.get());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+
+        version.incrementAndGet();
+        MockHttpServletResponse third = get("all", null, false);
+        assertEquals(2, builds.get());
+        assertNotEquals(first.getHeader("ETag"), third.getHeader("ETag"));
+    }
+
+    @Test
+    void etagIsTheContentHash() throws Exception {
+        String etag = get("all", null, false).getHeader("ETag");
+        // same bytes, another instance at another version: same tag
+        ResponseCache other = new ResponseCache(new ObjectMapper(), () -> 42, 3600, 2);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        other.send(new MockHttpServletRequest(), response, "all",
+                () -> List.of(Map.of("name", "Fern 0"), Map.of("name", "x".repeat(200))));
+        assertEquals(etag, response.getHeader("ETag"));
+        assertEquals(34, etag.length());
+    }
+
+    @Test
+    void matchingIfNoneMatchGives304() throws Exception {
+        String etag = get("all", null, false).getHeader("ETag");
+        MockHttpServletResponse response = get("all", "\"other\", " + etag, false);
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void gzipOnlyWhenAccepted() throws Exception {
+        MockHttpServletResponse plain = get("all", null, false);
+        MockHttpServletResponse gz = get("all", null, true);
+        assertNull(plain.getHeader("Content-Encoding"));
+        assertEquals("gzip", gz.getHeader("Content-Encoding"));
+        // one strong tag per coding; each revalidates only its own
+        String etag = plain.getHeader("ETag");
+        assertEquals(etag.substring(0, etag.length() - 1) + "-gzip\"", gz.getHeader("ETag"));
+        assertEquals(304, get("all", gz.getHeader("ETag"), true).getStatus());
+        assertEquals(200, get("all", gz.getHeader("ETag"), false).getStatus());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gz.getContentAsByteArray()))) {
+            assertEquals(plain.getContentAsString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void acceptEncodingQValues() {
+        assertTrue(ResponseCache.acceptsGzip("gzip"));
+        assertTrue(ResponseCache.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(ResponseCache.acceptsGzip("br, *"));
+        assertFalse(ResponseCache.acceptsGzip(null));
+        assertFalse(ResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseCache.acceptsGzip("identity;q=1, gzip;q=0"));
+        assertFalse(ResponseCache.acceptsGzip("*, gzip;q=0"));
+        assertFalse(ResponseCache.acceptsGzip("*;q=0"));
+        assertFalse(ResponseCache.acceptsGzip("br"));
+    }
+
+    @Test
+    void getAfterAWriteDoesntJoinABuildStartedBeforeIt() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ResponseCache.Body body = () -> {
+            long v = version.get(); // read before the data, as a query would
+            if (builds.incrementAndGet() == 1) {
+                building.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return Map.of("version", v);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> before = pool.submit(() -> send(body));
+            building.await();
+            version.incrementAndGet(); // a write completes while the first build runs
+            Future<String> after = pool.submit(() -> send(body));
+
+            assertEquals("{\"version\":1}", after.get(5, TimeUnit.SECONDS));
+            release.countDown();
+            assertEquals("{\"version\":0}", before.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private String send(ResponseCache.Body body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.send(new MockHttpServletRequest("GET", "/api/plants"), response, "all", body);
+        return response.getContentAsString();
+    }
+
+    @Test
+    void leastRecentlyUsedVariantIsDropped() throws Exception {
+        get("a", null, false);
+        get("b", null, false);
+        get("a", null, false);
+        get("c", null, false); // drops b
+        assertEquals(3, builds.get());
+        get("a", null, false);
+        assertEquals(3, builds.get());
+        get("b", null, false);
+        assertEquals(4, builds.get());
+        assertEquals(2, cache.getStats().get("entries"));
+    }
+}
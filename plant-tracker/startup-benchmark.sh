@@ -0,0 +1,51 @@
+#!/bin/sh
+# ======================================================
+# Startup-time benchmark
+# ======================================================
+#
+# Starts the service RUNS times with and without the AppCDS archive and prints
+# the JVM-start-to-ready time reported by StartupListener ("startup.ms=...").
+# Each run exits as soon as the app is ready (planttracker.startup.exit=true)
+# and skips the DB warm-up, so no database is needed.
+#
+# Usage: startup-benchmark.sh <app dir> [runs]
+#   <app dir> must contain app.jar (application classes), lib/ (dependency jars)
+#   and app.jsa, laid out as in the Docker run stage.
+#
+# Used by the Dockerfile during the image build; can also be run locally after
+# reproducing that layout and the training run (see Dockerfile).
+
+set -e
+
+APP_DIR=${1:-/app}
+RUNS=${2:-5}
+CP="$APP_DIR/app.jar:$APP_DIR/lib/*"
+MAIN=com.planttracker.service.Application
+OPTS="-Dplanttracker.startup.exit=true -Dplanttracker.db.warmup=false -Dserver.port=0 -Dplanttracker.grpc.port=0"
+
+run() {
+    # $1 = extra JVM flags
+    total=0
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        ms=$(java $1 $OPTS -cp "$CP" $MAIN 2>/dev/null | sed -n 's/^startup.ms=//p')
+        case "$ms" in
+            ''|*[!0-9]*)
+                # run() is called in $(...): report on stderr, the exit stops the script (set -e)
+                echo "startup-benchmark: no startup.ms=<n> line from run $((i + 1)) with '$1'" >&2
+                echo "  (did the app start? try: java $1 $OPTS -cp \"$CP\" $MAIN)" >&2
+                exit 1
+                ;;
+        esac
+        total=$((total + ms))
+        i=$((i + 1))
+    done
+    echo $((total / RUNS))
+}
+
+baseline=$(run "-Xshare:auto")
+cds=$(run "-XX:SharedArchiveFile=$APP_DIR/app.jsa")
+
+echo "startup benchmark ($RUNS runs each, JVM start -> ready):"
+echo "  without AppCDS: ${baseline} ms"
+echo "  with AppCDS   : ${cds} ms"